@@ -0,0 +1,75 @@
+#!/usr/bin/env perl
+# Training workload for the jperl AOT cache (see dev/tools/create-aot-cache.sh).
+#
+# The JVM records every class this run loads and links; later jperl runs map
+# them from the cache instead of loading them from the jar. Exercise what
+# short-lived scripts and test files commonly touch: the parser and both
+# backends, regexes, formats, common core modules, Test::More and Moose.
+use strict;
+use warnings;
+
+use Carp ();
+use Cwd ();
+use Data::Dumper ();
+use Encode ();
+use File::Basename ();
+use File::Path ();
+use File::Spec ();
+use File::Temp ();
+use Getopt::Long ();
+use List::Util qw(sum max first);
+use POSIX ();
+use Scalar::Util qw(blessed reftype);
+use Storable ();
+use Time::HiRes ();
+use Test::More;
+
+{
+    package AOT::Point;
+    use Moose;
+    has x => (is => 'rw', isa => 'Num', default => 0);
+    has y => (is => 'rw', isa => 'Num', default => 0);
+    sub norm { my $self = shift; sqrt($self->x ** 2 + $self->y ** 2) }
+    __PACKAGE__->meta->make_immutable;
+}
+
+my %words;
+for my $line (map { "line $_: alpha=$_, beta=" . ($_ * 2) } 1 .. 200) {
+    $words{$1} += $2 while $line =~ /(\w+)=(\d+)/g;
+    (my $copy = $line) =~ s/(\d+)/<$1>/g;
+    $copy =~ tr/a-z/A-Z/;
+}
+my @sorted = sort { $words{$b} <=> $words{$a} || $a cmp $b } keys %words;
+my $text = join ',', map { sprintf '%s=%05.1f', $_, $words{$_} } @sorted;
+my @parts = split /,/, $text;
+my $packed = pack 'NnA*', 1, 2, 'x' x 10;
+my @unpacked = unpack 'NnA*', $packed;
+my $json_like = Data::Dumper->new([\%words])->Indent(1)->Sortkeys(1)->Dump;
+my $bytes = Encode::encode('UTF-8', "caf\x{e9} \x{263a}");
+my $chars = Encode::decode('UTF-8', $bytes);
+my $frozen = Storable::dclone({ list => [1 .. 10], nested => { a => 1 } });
+my $dir = File::Temp::tempdir(CLEANUP => 1);
+my $file = File::Spec->catfile($dir, 'aot.txt');
+open my $fh, '>', $file or die "$file: $!";
+printf $fh "%d %s\n", $_, scalar localtime(0) for 1 .. 5;
+close $fh;
+open $fh, '<', $file or die "$file: $!";
+my @lines = <$fh>;
+close $fh;
+my $point = AOT::Point->new(x => 3, y => 4);
+my $counter = do { my $n = 0; sub { $n++ } };
+$counter->() for 1 .. 10;
+my $evaluated = eval 'my $v = 40; $v + 2';
+local $@;
+eval { die { code => 1 } };
+
+ok(@parts > 1, 'text processing');
+is(scalar @unpacked, 3, 'pack/unpack');
+is(length $chars, 6, 'Encode');
+is($point->norm, 5, 'Moose');
+is($evaluated, 42, 'eval STRING');
+is(scalar @lines, 5, 'file I/O');
+is(sum(1 .. 4), 10, 'List::Util');
+is(POSIX::floor(2.5), 2, 'POSIX');
+ok(blessed($point) && reftype($frozen) eq 'HASH' && $json_like, 'core modules');
+done_testing();
@@ -0,0 +1,38 @@
+#!/bin/bash
+# Create the jperl AOT cache (JEP 483) from a training run.
+#
+# Usage: dev/tools/create-aot-cache.sh [JPERL] [CACHE]
+#
+#   JPERL  launcher to train (default: ./jperl next to this repository)
+#   CACHE  cache file to write (default: the launcher's own default, i.e. the
+#          perlonjava jar with an .aot suffix)
+#
+# The launcher runs the training workload twice: once recording the classes it
+# loads (-XX:AOTMode=record) and once assembling them into the cache
+# (-XX:AOTMode=create). Going through the launcher keeps the classpath and JVM
+# options identical to later runs, which the JVM requires before it uses a
+# cache. A missing or unusable cache only costs startup time, so failures
+# here are reported but do not fail the build.
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+JPERL="${1:-$SCRIPT_DIR/../../jperl}"
+TRAINING="$SCRIPT_DIR/aot-training.pl"
+if [ -n "${2:-}" ]; then
+    export JPERL_AOT_CACHE="$2"
+fi
+
+CONFIG="$(mktemp "${TMPDIR:-/tmp}/jperl-aot.XXXXXX")"
+LOG="$CONFIG.log"
+trap 'rm -f "$CONFIG" "$LOG"' EXIT
+
+if ! JPERL_AOT_RECORD="$CONFIG" "$JPERL" "$TRAINING" >"$LOG" 2>&1; then
+    echo "create-aot-cache: training run failed; jperl will start without an AOT cache" >&2
+    cat "$LOG" >&2
+    exit 0
+fi
+if ! JPERL_AOT_CREATE="$CONFIG" "$JPERL" "$TRAINING" >"$LOG" 2>&1; then
+    echo "create-aot-cache: cache creation failed; jperl will start without an AOT cache" >&2
+    cat "$LOG" >&2
+    exit 0
+fi
+grep -h "AOTCache creation is complete" "$LOG" || tail -1 "$LOG"
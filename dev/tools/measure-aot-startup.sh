@@ -0,0 +1,46 @@
+#!/bin/bash
+# Compare jperl start times with and without the AOT cache (JEP 483).
+#
+# Usage: dev/tools/measure-aot-startup.sh [JPERL] [RUNS]
+#
+#   JPERL  launcher to time (default: ./jperl next to this repository)
+#   RUNS   timed runs per case, after two warm-up runs (default: 20)
+#
+# Each case runs with JPERL_AOT=0 (the baseline) and with the cache, and the
+# median wall-clock time of each is printed as a markdown table row for
+# dev/design/pr328-startup-performance.md. Create the cache first with
+# ./gradlew aotCache; without it both columns measure the same thing.
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+JPERL="${1:-$SCRIPT_DIR/../../jperl}"
+RUNS="${2:-20}"
+
+# Median of RUNS wall-clock times, in milliseconds, for "$@"
+median_ms() {
+    local times=() start end i
+    for i in 1 2; do "$@" >/dev/null 2>&1; done
+    for ((i = 0; i < RUNS; i++)); do
+        start=$(date +%s%N)
+        "$@" >/dev/null 2>&1
+        end=$(date +%s%N)
+        times+=($(((end - start) / 1000000)))
+    done
+    printf '%s\n' "${times[@]}" | sort -n | sed -n "$(((RUNS + 1) / 2))p"
+}
+
+measure() {
+    local name="$1"
+    shift
+    local without with
+    without=$(median_ms env JPERL_AOT=0 "$JPERL" "$@")
+    with=$(median_ms "$JPERL" "$@")
+    printf '| %s | %s ms | %s ms |\n' "$name" "$without" "$with"
+}
+
+echo "$("$JPERL" -e 'print "jperl $^V"') on $(java -version 2>&1 | head -1), median of $RUNS runs"
+echo
+echo "| Case | JPERL_AOT=0 | AOT cache |"
+echo "|------|-------------|-----------|"
+measure 'jperl -e 1' -e 1
+measure 'hello world' -e 'print "hello\n"'
+measure 'jperl -MMoose -e 1' -MMoose -e 1
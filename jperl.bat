@@ -71,5 +71,19 @@ if exist "%SCRIPT_DIR%target\perlonjava-5.44.0.jar" (
     )
 )
 
+rem AOT cache (JEP 483) created by dev/tools/create-aot-cache.sh next to the
+rem jar; see the jperl launcher for details. JPERL_AOT=0 disables it.
+set AOT_OPTS=
+if not defined JPERL_AOT_CACHE for %%f in ("%PERLONJAVA_CP%") do if /i "%%~xf"==".jar" set "JPERL_AOT_CACHE=%%~dpnf.aot"
+if defined JPERL_AOT_RECORD (
+    set "AOT_OPTS=-XX:AOTMode=record -XX:AOTConfiguration=%JPERL_AOT_RECORD%"
+) else if defined JPERL_AOT_CREATE (
+    set "AOT_OPTS=-XX:AOTMode=create -XX:AOTConfiguration=%JPERL_AOT_CREATE% -XX:AOTCache=%JPERL_AOT_CACHE%"
+) else if not "%JPERL_AOT%"=="0" if not defined CLASSPATH if exist "%JPERL_AOT_CACHE%" (
+    set "AOT_OPTS=-XX:AOTCache=%JPERL_AOT_CACHE% -Xlog:cds*=off"
+)
+set JPERL_AOT_RECORD=
+set JPERL_AOT_CREATE=
+
 rem Launch Java
-"%PERLONJAVA_JAVA_BIN%" %JVM_OPTS% %JPERL_OPTS% -cp "%CLASSPATH%;%PERLONJAVA_CP%" org.perlonjava.app.cli.Main %*
+"%PERLONJAVA_JAVA_BIN%" %JVM_OPTS% %AOT_OPTS% %JPERL_OPTS% -cp "%CLASSPATH%;%PERLONJAVA_CP%" org.perlonjava.app.cli.Main %*
@@ -26,6 +26,11 @@ import static org.perlonjava.core.Configuration.getPerlVersionBundle;
  * debug mode, specifying code to execute, or setting file processing modes.
  */
 public class ArgumentParser {
+    // perlrun: parsing of #! switches starts at a *word* "perl" or "indir".
+    // Substrings like "jperl" must NOT match (matches stock perl behavior).
+    private static final Pattern PERL_SHEBANG_WORD = Pattern.compile(
+            "\\b(?:perl(?:\\d+(?:\\.\\d+)*)?|indir)\\b",
+            Pattern.CASE_INSENSITIVE);
 
     /**
      * /**
@@ -365,11 +370,7 @@ public class ArgumentParser {
     }
 
     private static boolean processPerlShebangSwitches(String shebangLine, CompilerOptions parsedArgs) {
-        // perlrun: parsing of #! switches starts at a *word* "perl" or "indir".
-        // Substrings like "jperl" must NOT match (matches stock perl behavior).
-        Matcher perlWord = Pattern.compile(
-                "\\b(?:perl(?:\\d+(?:\\.\\d+)*)?|indir)\\b",
-                Pattern.CASE_INSENSITIVE).matcher(shebangLine);
+        Matcher perlWord = PERL_SHEBANG_WORD.matcher(shebangLine);
         if (perlWord.find()) {
             String relevantPart = shebangLine.substring(perlWord.end()).trim();
             // Strip emacs mode line marker (e.g. "-*- mode: cperl -*-") which real
@@ -395,6 +396,18 @@ public class ArgumentParser {
         return false;
     }
 
+    /**
+     * Whether a script whose #! line reads {@code shebangLine} (the text after
+     * "#!") is handed to an alternate interpreter instead of running here.
+     */
+    public static boolean delegatesToShebangInterpreter(String shebangLine) {
+        String line = shebangLine.trim();
+        if (line.isEmpty() || PERL_SHEBANG_WORD.matcher(line).find()) {
+            return false;
+        }
+        return !isPerlOnJavaExecutable(Paths.get(line.split("\\s+")[0]));
+    }
+
     /**
      * Build argv for an alternate #! interpreter.
      * When {@code PERLONJAVA_EXECUTABLE} points at our launcher, prefer {@code jperl /abs/script}
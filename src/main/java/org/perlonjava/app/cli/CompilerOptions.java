@@ -6,6 +6,7 @@ import org.perlonjava.runtime.runtimetypes.ScalarUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * CompilerOptions is a configuration class that holds various settings and flags
@@ -96,6 +97,7 @@ public class CompilerOptions implements Cloneable {
     public boolean warnFlag = false; // For -w (sets $^W = 1)
     public int warningOverride = 0; // For -W/-X: 1 forces warnings on, -1 forces warnings off
     public RuntimeScalar incHook = null; // For storing @INC hook reference
+    public Map<String, String> environment = null; // Initial %ENV; null means the JVM's environment
     List<ArgumentParser.ModuleUseStatement> moduleUseStatements = new ArrayList<>(); // For -m -M
 
     @Override
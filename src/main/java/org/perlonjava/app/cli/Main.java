@@ -5,6 +5,7 @@ import org.perlonjava.runtime.operators.WarnDie;
 import org.perlonjava.runtime.runtimetypes.ErrorMessageUtil;
 import org.perlonjava.runtime.runtimetypes.GlobalVariable;
 import org.perlonjava.runtime.runtimetypes.PerlExitException;
+import org.perlonjava.runtime.runtimetypes.PerlPseudoProcess;
 import org.perlonjava.runtime.runtimetypes.PerlRuntime;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
 
@@ -125,11 +126,12 @@ public class Main {
 
         try {
             PerlLanguageProvider.executePerlCode(parsedArgs, true);
+            PerlPseudoProcess.awaitAll();
 
             int requestedThreadExit = PerlRuntime.current().threadRegistry()
                     .requestedProcessExitOr(Integer.MIN_VALUE);
             if (requestedThreadExit != Integer.MIN_VALUE) {
-                System.exit(requestedThreadExit);
+                exit(requestedThreadExit);
             }
 
             if (parsedArgs.compileOnly) {
@@ -145,11 +147,11 @@ public class Main {
             RuntimeScalar childStatus = GlobalVariable.getGlobalVariable("main::?");
             int rawChildStatus = childStatus.getInt();
             if (rawChildStatus > 0 && rawChildStatus <= 255) {
-                System.exit(rawChildStatus);
+                exit(rawChildStatus);
             }
         } catch (PerlExitException e) {
             // Perl's exit() throws PerlExitException - convert to real System.exit() for CLI
-            System.exit(PerlRuntime.current().threadRegistry()
+            exit(PerlRuntime.current().threadRegistry()
                     .requestedProcessExitOr(e.getExitCode()));
         } catch (Throwable t) {
             if (parsedArgs.debugEnabled) {
@@ -161,24 +163,23 @@ public class Main {
             String errorMessage = ErrorMessageUtil.stringifyException(t);
             System.err.print(errorMessage);
 
-            // Match system perl behavior for unhandled die:
-            // Prefer $! (errno) if non-zero, else prefer ($? >> 8), else 255.
+            // Match system perl behavior for unhandled die
             int exitCode = 255;
             try {
-                int bang = GlobalVariable.getGlobalVariable("main::!").getInt();
-                int query = GlobalVariable.getGlobalVariable("main::?").getInt();
-                int queryExit = (query >> 8);
-                if (bang != 0) {
-                    exitCode = bang;
-                } else if (queryExit != 0) {
-                    exitCode = queryExit;
-                }
+                exitCode = PerlPseudoProcess.dieExitStatus(
+                        GlobalVariable.getGlobalVariable("main::!").getInt(),
+                        GlobalVariable.getGlobalVariable("main::?").getInt());
             } catch (Throwable ignored) {
                 // Last resort below
             }
 
-            System.exit(exitCode);
+            exit(exitCode);
         }
     }
 
+    /** Exit once pseudo-fork children are done, as a Win32 perl parent waits for them. */
+    private static void exit(int status) {
+        PerlPseudoProcess.awaitAll();
+        System.exit(status);
+    }
 }
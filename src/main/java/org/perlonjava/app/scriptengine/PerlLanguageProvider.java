@@ -315,6 +315,10 @@ public class PerlLanguageProvider {
         // its own reentrant hold until that compilation completes.
         compilationLock.close();
 
+        // Named subs defined by this unit (and the modules it used) may now
+        // be materialized off the request path when precompilation is on.
+        LazySubroutinePrecompiler.scheduleDrain(PerlRuntime.current());
+
         // Execute (unified path for both backends)
         return executeCode(runtimeCode, ast, ctx, isTopLevelScript, callerContext);
         } finally {
@@ -570,6 +574,9 @@ public class PerlLanguageProvider {
                     if (CompilerOptions.DEBUG_ENABLED) {
                         ctx.logDebug("Falling back to bytecode interpreter after runtime verify error: " + t);
                     }
+                    if (RuntimeMetrics.ENABLED) {
+                        RuntimeMetrics.count(RuntimeMetrics.Counter.INTERPRETER_FALLBACKS);
+                    }
                     // A deferred verifier failure can originate in a lazy named
                     // sub after the enclosing module body has already consumed
                     // its compile-time lexical handoff. The interpreter retry
@@ -677,7 +684,8 @@ public class PerlLanguageProvider {
      * @throws Exception if compilation fails
      */
     private static RuntimeCode compileToExecutable(Node ast, EmitterContext ctx) throws Exception {
-        if (ctx.compilerOptions.useInterpreter || RuntimeCode.FORCE_INTERPRETER) {
+        if (ctx.compilerOptions.useInterpreter || RuntimeCode.FORCE_INTERPRETER
+                || EmitterMethodCreator.requiresInterpreterFrame(ast)) {
             // Interpreter path - returns InterpretedCode (extends RuntimeCode)
             if (CompilerOptions.DEBUG_ENABLED) ctx.logDebug("Compiling to bytecode interpreter");
             BytecodeCompiler compiler = new BytecodeCompiler(
@@ -745,6 +753,9 @@ public class PerlLanguageProvider {
                     }
 
                     if (CompilerOptions.DEBUG_ENABLED) ctx.logDebug("Falling back to bytecode interpreter due to method size");
+                    if (RuntimeMetrics.ENABLED) {
+                        RuntimeMetrics.count(RuntimeMetrics.Counter.INTERPRETER_FALLBACKS);
+                    }
                     EmitterContext fallbackCtx = ctx;
                     // The interpreter replays CompilerFlagNodes, so it must not start from
                     // the parser's final strict state. Do that on a private snapshot: the
@@ -19,6 +19,7 @@ import org.perlonjava.runtime.runtimetypes.*;
 import java.math.BigInteger;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * BytecodeCompiler traverses the AST and generates interpreter bytecode.
@@ -44,6 +45,8 @@ public class BytecodeCompiler implements Visitor {
     // Goto label support: maps label names to their PC addresses for intra-function goto.
     // pendingGotos tracks forward references (goto before label) needing patch-up.
     final Map<String, Integer> gotoLabelPcs = new HashMap<>();
+    // Slots in InterpretedCode.transliterateTables, one per tr/// with constant lists
+    int transliterateTableCount;
     final List<Object[]> pendingGotos = new ArrayList<>();  // [patchPc(Integer), labelName(String)]
     // Error reporting
     final ErrorMessageUtil errorUtil;
@@ -1009,6 +1012,9 @@ public class BytecodeCompiler implements Visitor {
         if (!this.gotoLabelPcs.isEmpty()) {
             code.gotoLabelPcs = new HashMap<>(this.gotoLabelPcs);
         }
+        if (transliterateTableCount > 0) {
+            code.transliterateTables = new AtomicReferenceArray<>(transliterateTableCount);
+        }
         return code;
     }
 
@@ -620,6 +620,10 @@ public class BytecodeInterpreter {
                             case Opcodes.GOTO -> {
                                 // Unconditional jump: pc = offset
                                 int offset = readInt(bytecode, pc);
+                                if (offset < pc) {
+                                    // Loop back edge: a safe point, as in the JVM backend
+                                    PerlSignalQueue.checkPendingSignals();
+                                }
                                 pc = offset;  // Registers persist across jump (unlike stack-based!)
                             }
 
@@ -933,6 +937,7 @@ public class BytecodeInterpreter {
                                     }
                                     registers[rd] = element;
                                     GlobalVariable.aliasForeachGlobalVariable(name, element);
+                                    PerlSignalQueue.checkPendingSignals();
                                     pc = bodyTarget;  // ABSOLUTE jump back to body start
                                 } else {
                                     registers[rd] = new RuntimeScalar();
@@ -1328,6 +1333,7 @@ public class BytecodeInterpreter {
                                         elem = new ReadOnlyAlias(elem);
                                     }
                                     registers[rd] = elem;
+                                    PerlSignalQueue.checkPendingSignals();
                                     pc = bodyTarget;  // ABSOLUTE jump back to body start
                                 } else {
                                     registers[rd] = new RuntimeScalar();
@@ -2419,7 +2425,7 @@ public class BytecodeInterpreter {
                             }
 
                             // Group 6-8: System Calls and IPC (132-150)
-                            case Opcodes.CHOWN, Opcodes.WAITPID, Opcodes.FORK, Opcodes.GETPPID, Opcodes.GETPGRP,
+                            case Opcodes.CHOWN, Opcodes.WAITPID, Opcodes.GETPPID, Opcodes.GETPGRP,
                                  Opcodes.SETPGRP, Opcodes.GETPRIORITY, Opcodes.SETPRIORITY, Opcodes.GETSOCKOPT,
                                  Opcodes.SETSOCKOPT, Opcodes.SYSCALL, Opcodes.SEMGET, Opcodes.SEMOP, Opcodes.MSGGET,
                                  Opcodes.MSGSND, Opcodes.MSGRCV, Opcodes.SHMGET, Opcodes.SHMREAD, Opcodes.SHMWRITE,
@@ -2499,6 +2505,10 @@ public class BytecodeInterpreter {
                                 pc = SlowOpcodeHandler.executeTransliterate(bytecode, pc, registers);
                             }
 
+                            case Opcodes.TR_TRANSLITERATE_CONSTANT -> {
+                                pc = SlowOpcodeHandler.executeTransliterateConstant(bytecode, pc, registers, code);
+                            }
+
                             case Opcodes.STORE_SYMBOLIC_SCALAR -> {
                                 pc = InlineOpcodeHandler.executeStoreSymbolicScalar(bytecode, pc, registers);
                             }
@@ -2851,6 +2861,13 @@ public class BytecodeInterpreter {
                                 }
                             }
 
+                            case Opcodes.FORK -> {
+                                // The child clones this frame, so its pc must be past the operand
+                                int rd = bytecode[pc++];
+                                frame.pc = pc;
+                                registers[rd] = InterpreterFork.fork(frame, rd, currentPackageScalar.toString());
+                            }
+
                             case Opcodes.AWAIT -> {
                                 int rd = bytecode[pc++];
                                 int futureReg = bytecode[pc++];
@@ -3646,9 +3663,6 @@ public class BytecodeInterpreter {
             case Opcodes.WAITPID -> {
                 return MiscOpcodeHandler.execute(Opcodes.WAITPID, bytecode, pc, registers);
             }
-            case Opcodes.FORK -> {
-                return SlowOpcodeHandler.executeFork(bytecode, pc, registers);
-            }
             case Opcodes.GETPPID -> {
                 return SlowOpcodeHandler.executeGetppid(bytecode, pc, registers);
             }
@@ -1697,10 +1697,21 @@ public class CompileOperator {
         if (!(node.operand instanceof ListNode)) bc.throwCompilerException("tr operator requires list operand");
         ListNode list = (ListNode) node.operand;
         if (list.elements.size() < 3) bc.throwCompilerException("tr operator requires search, replace, and modifiers");
-        // Compile all elements in SCALAR context (matches JVM backend)
-        bc.compileNode(list.elements.get(0), -1, RuntimeContextType.SCALAR); int searchReg = bc.lastResultReg;
-        bc.compileNode(list.elements.get(1), -1, RuntimeContextType.SCALAR); int replaceReg = bc.lastResultReg;
-        bc.compileNode(list.elements.get(2), -1, RuntimeContextType.SCALAR); int modifiersReg = bc.lastResultReg;
+        // Constant lists share prebuilt tables instead of compiling them on every execution
+        int searchIdx = -1, replaceIdx = -1, modifiersIdx = -1;
+        int searchReg = -1, replaceReg = -1, modifiersReg = -1;
+        if (list.elements.get(0) instanceof StringNode search
+                && list.elements.get(1) instanceof StringNode replace
+                && list.elements.get(2) instanceof StringNode modifiers) {
+            searchIdx = bc.addToStringPool(search.value);
+            replaceIdx = bc.addToStringPool(replace.value);
+            modifiersIdx = bc.addToStringPool(modifiers.value);
+        } else {
+            // Compile all elements in SCALAR context (matches JVM backend)
+            bc.compileNode(list.elements.get(0), -1, RuntimeContextType.SCALAR); searchReg = bc.lastResultReg;
+            bc.compileNode(list.elements.get(1), -1, RuntimeContextType.SCALAR); replaceReg = bc.lastResultReg;
+            bc.compileNode(list.elements.get(2), -1, RuntimeContextType.SCALAR); modifiersReg = bc.lastResultReg;
+        }
         int targetReg;
         if (list.elements.size() > 3 && list.elements.get(3) != null) {
             // Target like ($y = $x) must be compiled in SCALAR context to get the scalar lvalue, not a list
@@ -1714,7 +1725,12 @@ public class CompileOperator {
             bc.emit(nameIdx);
         }
         int rd = bc.allocateOutputRegister();
-        bc.emit(Opcodes.TR_TRANSLITERATE); bc.emitReg(rd); bc.emitReg(searchReg); bc.emitReg(replaceReg); bc.emitReg(modifiersReg); bc.emitReg(targetReg); bc.emitInt(bc.currentCallContext);
+        if (searchIdx >= 0) {
+            bc.emit(Opcodes.TR_TRANSLITERATE_CONSTANT); bc.emitReg(rd); bc.emit(searchIdx); bc.emit(replaceIdx); bc.emit(modifiersIdx);
+            bc.emit(bc.transliterateTableCount++); bc.emitReg(targetReg); bc.emitInt(bc.currentCallContext);
+        } else {
+            bc.emit(Opcodes.TR_TRANSLITERATE); bc.emitReg(rd); bc.emitReg(searchReg); bc.emitReg(replaceReg); bc.emitReg(modifiersReg); bc.emitReg(targetReg); bc.emitInt(bc.currentCallContext);
+        }
         bc.lastResultReg = rd;
     }
 
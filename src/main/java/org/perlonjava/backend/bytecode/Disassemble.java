@@ -2441,6 +2441,21 @@ public class Disassemble {
                                 .append(", r").append(trTargetReg).append(", ctx=").append(trCtx).append(")\n");
                         break;
                     }
+                    case Opcodes.TR_TRANSLITERATE_CONSTANT: {
+                        // Format: TR_TRANSLITERATE_CONSTANT rd searchIdx replaceIdx modifiersIdx tableSlot targetReg context
+                        rd = interpretedCode.bytecode[pc++];
+                        int trSearchIdx = interpretedCode.bytecode[pc++];
+                        int trReplaceIdx = interpretedCode.bytecode[pc++];
+                        int trModifiersIdx = interpretedCode.bytecode[pc++];
+                        pc++;  // tableSlot
+                        int trConstTargetReg = interpretedCode.bytecode[pc++];
+                        int trConstCtx = interpretedCode.bytecode[pc++];
+                        sb.append("TR_TRANSLITERATE_CONSTANT r").append(rd).append(" = tr(\"").append(interpretedCode.stringPool[trSearchIdx])
+                                .append("\", \"").append(interpretedCode.stringPool[trReplaceIdx])
+                                .append("\", \"").append(interpretedCode.stringPool[trModifiersIdx]).append("\"")
+                                .append(", r").append(trConstTargetReg).append(", ctx=").append(trConstCtx).append(")\n");
+                        break;
+                    }
                     case Opcodes.STORE_SYMBOLIC_SCALAR: {
                         // Format: STORE_SYMBOLIC_SCALAR nameReg valueReg
                         int ssNameReg = interpretedCode.bytecode[pc++];
@@ -1,6 +1,7 @@
 package org.perlonjava.backend.bytecode;
 
 import org.perlonjava.runtime.WarningBitsRegistry;
+import org.perlonjava.runtime.operators.RuntimeTransliterate;
 import org.perlonjava.runtime.perlmodule.Strict;
 import org.perlonjava.runtime.runtimetypes.*;
 
@@ -8,6 +9,7 @@ import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Interpreted bytecode that extends RuntimeCode.
@@ -49,6 +51,10 @@ public class InterpretedCode extends RuntimeCode implements PerlSubroutine {
     // Maps label name → bytecode PC offset
     public Map<String, Integer> gotoLabelPcs;
 
+    // Compiled tables of tr/// with constant lists, built on first execution
+    // (set by compiler after construction; indexed by TR_TRANSLITERATE_CONSTANT)
+    public AtomicReferenceArray<RuntimeTransliterate> transliterateTables;
+
     // Pre-created InterpreterFrame to avoid allocation on every call
     // Created lazily on first use (after packageName/subName are set)
     public volatile InterpreterState.InterpreterFrame cachedFrame;
@@ -517,6 +523,7 @@ public class InterpretedCode extends RuntimeCode implements PerlSubroutine {
         }
         // Preserve compiler-set fields that are not passed through the constructor
         copy.gotoLabelPcs = this.gotoLabelPcs;
+        copy.transliterateTables = this.transliterateTables;
         copy.usesLocalization = this.usesLocalization;
         copy.futureAsyncAwaitSub = this.futureAsyncAwaitSub;
         copy.futureAsyncAwaitFutureClass = this.futureAsyncAwaitFutureClass;
@@ -0,0 +1,158 @@
+package org.perlonjava.backend.bytecode;
+
+import org.perlonjava.runtime.WarningBitsRegistry;
+import org.perlonjava.runtime.operators.SystemOperator;
+import org.perlonjava.runtime.runtimetypes.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@code fork} for interpreted code: a pseudo-fork that continues the current
+ * interpreter frame in a {@link PerlPseudoProcess}.
+ *
+ * <p>The frame's registers are cloned together with the runtime, so the child
+ * resumes right after the FORK opcode with 0 in the result register and its
+ * own copies of every lexical. When the resumed frame returns the child exits,
+ * so a fork in the main program behaves exactly like a process fork.</p>
+ *
+ * <p>A child could not return into the caller of a forking subroutine, whose
+ * Java frames are not copied, so {@code fork} inside a subroutine fails with
+ * undef as it does without pseudo-fork, and such code takes its no-fork
+ * path.</p>
+ */
+final class InterpreterFork {
+    private static final int SKIPPED = -3;
+    private static final int SHARED = -2;
+    private static final int SINGLE = -1;
+
+    private InterpreterFork() {
+    }
+
+    static RuntimeScalar fork(SuspendedInterpreterFrame frame, int rd, String currentPackage) {
+        if (!PerlPseudoProcess.isEnabled() || frame.subroutineName != null) {
+            return SystemOperator.fork(RuntimeContextType.SCALAR);
+        }
+        // Output buffered before fork must not be written twice
+        RuntimeIO.flushAllHandles();
+
+        // Each register becomes one root, a run of roots (lists), or is
+        // handled specially; layout[i] records which
+        RuntimeBase[] registers = frame.registers;
+        int[] layout = new int[registers.length];
+        List<RuntimeBase> roots = new ArrayList<>();
+        for (int i = 0; i < registers.length; i++) {
+            RuntimeBase register = registers[i];
+            if (register == null || i == rd) {
+                layout[i] = SKIPPED;
+            } else if (isIterator(register) || register instanceof PerlRange) {
+                layout[i] = SHARED;
+            } else if (register instanceof RuntimeList list) {
+                if (list.elements.stream().allMatch(InterpreterFork::isCloneable)) {
+                    layout[i] = list.elements.size();
+                    roots.addAll(list.elements);
+                } else {
+                    layout[i] = SKIPPED;
+                }
+            } else if (isCloneable(register)) {
+                layout[i] = SINGLE;
+                roots.add(register);
+            } else {
+                layout[i] = SKIPPED;
+            }
+        }
+
+        RegexState regexState = new RegexState();
+        String warningBits = WarningBitsRegistry.getRuntimeWarningBits();
+        PerlPseudoProcess child = PerlPseudoProcess.start(roots, cloned -> {
+            RuntimeBase[] childRegisters = new RuntimeBase[registers.length];
+            int next = 0;
+            for (int i = 0; i < registers.length; i++) {
+                switch (layout[i]) {
+                    case SKIPPED -> { }
+                    case SHARED -> childRegisters[i] = isIterator(registers[i])
+                            ? new RuntimeScalar(UNCONTINUABLE_LOOP) : registers[i];
+                    case SINGLE -> childRegisters[i] = cloned.get(next++);
+                    default -> {
+                        RuntimeList list = new RuntimeList();
+                        list.elements.addAll(cloned.subList(next, next + layout[i]));
+                        next += layout[i];
+                        childRegisters[i] = list;
+                    }
+                }
+            }
+            childRegisters[rd] = new RuntimeScalar(0);
+
+            SuspendedInterpreterFrame resumed = new SuspendedInterpreterFrame(
+                    (InterpretedCode) childRegisters[0], childRegisters,
+                    frame.callContext, frame.subroutineName);
+            resumed.pc = frame.pc;
+            resumed.evalCatchStack.addAll(frame.evalCatchStack);
+            resumed.evalLocalLevelStack.addAll(frame.evalLocalLevelStack);
+            resumed.evalBaseRegStack.addAll(frame.evalBaseRegStack);
+            for (int[] block : frame.labeledBlockStack) resumed.labeledBlockStack.add(block.clone());
+            for (ArrayList<Integer> batch : frame.scopeCleanupBatches) {
+                resumed.scopeCleanupBatches.add(new ArrayList<>(batch));
+            }
+            resumed.suspendedRegexState = regexState;
+            resumed.suspendedPackage = currentPackage;
+            resumed.suspendedRuntimeWarningBits = warningBits;
+
+            resumeWithCallState(resumed);
+        });
+        return new RuntimeScalar(child.pid());
+    }
+
+    private static RuntimeList resumeWithCallState(SuspendedInterpreterFrame frame) {
+        InterpretedCode code = frame.code;
+        RuntimeCode.pushArgs((RuntimeArray) frame.registers[1]);
+        RuntimeCode.pushCallContext(frame.callContext);
+        RuntimeCode.pushActiveCode(code);
+        if (code.warningBitsString != null) {
+            WarningBitsRegistry.pushCurrent(code.warningBitsString);
+        }
+        int cleanupMark = MyVarCleanupStack.pushMark();
+        try {
+            return BytecodeInterpreter.resume(frame);
+        } finally {
+            MyVarCleanupStack.popMark(cleanupMark);
+            if (code.warningBitsString != null) {
+                WarningBitsRegistry.popCurrent();
+            }
+            RuntimeCode.popActiveCode(code);
+            RuntimeCode.popArgs();
+        }
+    }
+
+    private static boolean isCloneable(RuntimeBase value) {
+        return value instanceof RuntimeScalar || value instanceof RuntimeArray
+                || value instanceof RuntimeHash || value instanceof RuntimeCode
+                || value instanceof RuntimeGlob;
+    }
+
+    private static boolean isIterator(RuntimeBase value) {
+        return value instanceof RuntimeScalar scalar && scalar.value instanceof Iterator<?>;
+    }
+
+    /**
+     * Stands in for a foreach iterator that was active at the fork: the
+     * parent keeps the original, and a Java iterator cannot be copied.
+     */
+    private static final Iterator<RuntimeScalar> UNCONTINUABLE_LOOP = new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+            throw unsupported();
+        }
+
+        @Override
+        public RuntimeScalar next() {
+            throw unsupported();
+        }
+
+        private PerlCompilerException unsupported() {
+            return new PerlCompilerException(
+                    "fork() child cannot continue a foreach loop started before the fork");
+        }
+    };
+}
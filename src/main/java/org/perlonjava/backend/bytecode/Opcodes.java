@@ -2494,6 +2494,13 @@ public class Opcodes {
     /** Restore lexical warning bits after leaving a nested block. Format: SET_CALL_SITE_WARNING_BITS bitsIdx. */
     public static final short SET_CALL_SITE_WARNING_BITS = 528;
 
+    /**
+     * tr/// with constant search, replacement and modifier lists, whose tables are
+     * compiled on first execution into {@code InterpretedCode.transliterateTables[tableSlot]}.
+     * Format: TR_TRANSLITERATE_CONSTANT rd searchIdx replaceIdx modifiersIdx tableSlot targetReg context
+     */
+    public static final short TR_TRANSLITERATE_CONSTANT = 529;
+
     /** Return the mutable {@code $#array} cell. Format: ARRAY_LAST_INDEX_LVALUE rd arrayReg. */
     public static final short ARRAY_LAST_INDEX_LVALUE = 518;
 
@@ -107,18 +107,6 @@ public class SlowOpcodeHandler {
         return pc;
     }
 
-    /**
-     * SLOW_FORK: rd = fork()
-     * Format: [SLOW_FORK] [rd]
-     * Effect: Forks process (not supported in Java)
-     */
-    public static int executeFork(int[] bytecode, int pc, RuntimeBase[] registers) {
-        int rd = bytecode[pc++];
-
-        registers[rd] = SystemOperator.fork(RuntimeContextType.SCALAR);
-        return pc;
-    }
-
     /**
      * SLOW_SEMGET: rd = semget(key, nsems, flags)
      * Format: [SLOW_SEMGET] [rd] [rs_key] [rs_nsems] [rs_flags]
@@ -1341,6 +1329,46 @@ public class SlowOpcodeHandler {
         return pc;
     }
 
+    /**
+     * TR_TRANSLITERATE_CONSTANT: rd = tr/// with constant lists applied to target
+     * Format: [TR_TRANSLITERATE_CONSTANT] [rd] [searchIdx] [replaceIdx] [modifiersIdx] [tableSlot] [targetReg] [context]
+     * Effect: Applies the tables kept in tableSlot, compiled on first execution, to target variable
+     * Returns: Count of transliterated characters
+     */
+    public static int executeTransliterateConstant(
+            int[] bytecode,
+            int pc,
+            RuntimeBase[] registers,
+            InterpretedCode code) {
+
+        int rd = bytecode[pc++];
+        int searchIdx = bytecode[pc++];
+        int replaceIdx = bytecode[pc++];
+        int modifiersIdx = bytecode[pc++];
+        int tableSlot = bytecode[pc++];
+        int targetReg = bytecode[pc++];
+
+        // Read context (1 int slot)
+        int context = bytecode[pc++];
+        if (context == RuntimeContextType.RUNTIME) context = ((RuntimeScalar) registers[2]).getInt();
+
+        RuntimeBase targetBase = registers[targetReg];
+        if (BytecodeInterpreter.isImmutableProxy(targetBase)) {
+            targetBase = BytecodeInterpreter.ensureMutableScalar(targetBase);
+            registers[targetReg] = targetBase;
+        }
+
+        RuntimeTransliterate tables = code.transliterateTables.get(tableSlot);
+        if (tables == null) {
+            tables = RuntimeTransliterate.compileConstant(
+                    code.stringPool[searchIdx], code.stringPool[replaceIdx], code.stringPool[modifiersIdx]);
+            code.transliterateTables.set(tableSlot, tables);
+        }
+        registers[rd] = tables.transliterate((RuntimeScalar) targetBase, context);
+
+        return pc;
+    }
+
     /**
      * FILETEST_LASTHANDLE: rd = FileTestOperator.fileTestLastHandle(operator)
      * Format: [FILETEST_LASTHANDLE] [rd] [operator_string_idx]
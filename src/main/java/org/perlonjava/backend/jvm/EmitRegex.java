@@ -1,9 +1,12 @@
 package org.perlonjava.backend.jvm;
 
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.perlonjava.frontend.analysis.EmitterVisitor;
 import org.perlonjava.frontend.analysis.RegexLiteralAnalyzer;
 import org.perlonjava.frontend.astnode.*;
+import org.perlonjava.runtime.operators.RuntimeTransliterate;
 import org.perlonjava.runtime.perlmodule.Strict;
 import org.perlonjava.runtime.regex.RuntimeRegex;
 import org.perlonjava.runtime.runtimetypes.PerlCompilerException;
@@ -279,15 +282,42 @@ public class EmitRegex {
             : ListNode.makeList(node.operand);
         EmitterVisitor scalarVisitor = emitterVisitor.with(RuntimeContextType.SCALAR);
 
-        // Process the three required components: source, target, and flags
-        operand.elements.get(0).accept(scalarVisitor);  // Source characters
-        operand.elements.get(1).accept(scalarVisitor);  // Target characters
-        operand.elements.get(2).accept(scalarVisitor);  // Flags/modifiers
+        if (operand.elements.get(0) instanceof StringNode search
+                && operand.elements.get(1) instanceof StringNode replace
+                && operand.elements.get(2) instanceof StringNode flags) {
+            // Constant lists are compiled on the first execution and kept in a
+            // static field of the generated class, so they go away with the class
+            MethodVisitor mv = emitterVisitor.ctx.mv;
+            String className = emitterVisitor.ctx.javaClassInfo.javaClassName;
+            String fieldName = "tr" + nextCallsiteId.getAndIncrement();
+            String descriptor = "Lorg/perlonjava/runtime/operators/RuntimeTransliterate;";
+            emitterVisitor.ctx.cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_VOLATILE,
+                    fieldName, descriptor, null, null).visitEnd();
+            Label compiled = new Label();
+            mv.visitFieldInsn(Opcodes.GETSTATIC, className, fieldName, descriptor);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitJumpInsn(Opcodes.IFNONNULL, compiled);
+            mv.visitInsn(Opcodes.POP);
+            mv.visitLdcInsn(search.value);
+            mv.visitLdcInsn(replace.value);
+            mv.visitLdcInsn(flags.value);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC,
+                    "org/perlonjava/runtime/operators/RuntimeTransliterate", "compileConstant",
+                    "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;)" + descriptor, false);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitFieldInsn(Opcodes.PUTSTATIC, className, fieldName, descriptor);
+            mv.visitLabel(compiled);
+        } else {
+            // Process the three required components: source, target, and flags
+            operand.elements.get(0).accept(scalarVisitor);  // Source characters
+            operand.elements.get(1).accept(scalarVisitor);  // Target characters
+            operand.elements.get(2).accept(scalarVisitor);  // Flags/modifiers
 
-        // Compile the transliteration operation
-        emitterVisitor.ctx.mv.visitMethodInsn(Opcodes.INVOKESTATIC,
-                "org/perlonjava/runtime/operators/RuntimeTransliterate", "compile",
-                "(Lorg/perlonjava/runtime/runtimetypes/RuntimeScalar;Lorg/perlonjava/runtime/runtimetypes/RuntimeScalar;Lorg/perlonjava/runtime/runtimetypes/RuntimeScalar;)Lorg/perlonjava/runtime/operators/RuntimeTransliterate;", false);
+            // Compile the transliteration operation
+            emitterVisitor.ctx.mv.visitMethodInsn(Opcodes.INVOKESTATIC,
+                    "org/perlonjava/runtime/operators/RuntimeTransliterate", "compile",
+                    "(Lorg/perlonjava/runtime/runtimetypes/RuntimeScalar;Lorg/perlonjava/runtime/runtimetypes/RuntimeScalar;Lorg/perlonjava/runtime/runtimetypes/RuntimeScalar;)Lorg/perlonjava/runtime/operators/RuntimeTransliterate;", false);
+        }
 
         // Use default variable $_ if none specified
         handleVariableBinding(operand, 3, scalarVisitor);
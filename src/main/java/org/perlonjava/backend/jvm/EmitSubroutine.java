@@ -262,6 +262,11 @@ public class EmitSubroutine {
                         (String) node.getAnnotation("futureAsyncAwaitFutureClass");
                 throw new InterpreterFallbackException(interpreted, newEnv);
             }
+            if (EmitterMethodCreator.requiresInterpreterFrame(node.block)) {
+                InterpretedCode interpreted = EmitterMethodCreator.compileToInterpreter(
+                        node.block, subCtx, node.useTryCatch);
+                throw new InterpreterFallbackException(interpreted, newEnv);
+            }
             Class<?> generatedClass =
                     EmitterMethodCreator.createClassWithMethod(
                             subCtx, node.block, node.useTryCatch
@@ -274,7 +279,7 @@ public class EmitSubroutine {
                 generatedClass.getDeclaredMethod(
                         "apply", RuntimeArray.class, int.class);
             } catch (VerifyError | ClassFormatError verificationFailure) {
-                InterpretedCode interpreted = EmitterMethodCreator.compileToInterpreter(
+                InterpretedCode interpreted = EmitterMethodCreator.fallbackToInterpreter(
                         node.block, subCtx, node.useTryCatch);
                 throw new InterpreterFallbackException(interpreted, newEnv);
             } catch (NoSuchMethodException reflectionFailure) {
@@ -14,6 +14,7 @@ import org.perlonjava.backend.bytecode.BytecodeCompiler;
 import org.perlonjava.backend.bytecode.Disassemble;
 import org.perlonjava.backend.bytecode.InterpretedCode;
 import org.perlonjava.frontend.analysis.EmitterVisitor;
+import org.perlonjava.frontend.analysis.ForkCallVisitor;
 import org.perlonjava.frontend.analysis.TempLocalCountVisitor;
 import org.perlonjava.frontend.astnode.BlockNode;
 import org.perlonjava.frontend.astnode.CompilerFlagNode;
@@ -369,8 +370,14 @@ public class EmitterMethodCreator implements Opcodes {
      * @return The generated class.
      */
     public static Class<?> createClassWithMethod(EmitterContext ctx, Node ast, boolean useTryCatch) {
+        long start = RuntimeMetrics.ENABLED ? System.nanoTime() : 0L;
         byte[] classData = getBytecode(ctx, ast, useTryCatch);
-        return loadBytecode(ctx, classData);
+        Class<?> generatedClass = loadBytecode(ctx, classData);
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.time(RuntimeMetrics.Counter.JVM_COMPILES,
+                    RuntimeMetrics.Counter.JVM_COMPILE_NANOS, start);
+        }
+        return generatedClass;
     }
 
     public static byte[] getBytecode(EmitterContext ctx, Node ast, boolean useTryCatch) {
@@ -425,7 +432,7 @@ public class EmitterMethodCreator implements Opcodes {
             }
             
             // Compile to interpreter as fallback
-            InterpretedCode interpretedCode = compileToInterpreter(ast, ctx, useTryCatch);
+            InterpretedCode interpretedCode = fallbackToInterpreter(ast, ctx, useTryCatch);
             String[] envNames = ctx.capturedEnv != null ? ctx.capturedEnv : ctx.symbolTable.getVariableNames();
             throw new InterpreterFallbackException(interpretedCode, envNames);
         }
@@ -1833,7 +1840,8 @@ public class EmitterMethodCreator implements Opcodes {
             }
             return code;
         }
-        if (ctx.compilerOptions.useInterpreter || RuntimeCode.FORCE_INTERPRETER) {
+        if (ctx.compilerOptions.useInterpreter || RuntimeCode.FORCE_INTERPRETER
+                || requiresInterpreterFrame(ast)) {
             return compileToInterpreter(ast, ctx, useTryCatch);
         }
         try {
@@ -1849,7 +1857,7 @@ public class EmitterMethodCreator implements Opcodes {
                 if (SHOW_FALLBACK) {
                     System.err.println("Note: Method too large, using interpreter backend.");
                 }
-                return compileToInterpreter(ast, ctx, useTryCatch);
+                return fallbackToInterpreter(ast, ctx, useTryCatch);
             }
             throw e;
         } catch (VerifyError | ClassFormatError e) {
@@ -1857,7 +1865,7 @@ public class EmitterMethodCreator implements Opcodes {
                 if (SHOW_FALLBACK) {
                     System.err.println("Note: JVM " + e.getClass().getSimpleName() + " (" + e.getMessage().split("\n")[0] + "), using interpreter backend.");
                 }
-                return compileToInterpreter(ast, ctx, useTryCatch);
+                return fallbackToInterpreter(ast, ctx, useTryCatch);
             }
             throw new RuntimeException(e);
         } catch (PerlCompilerException e) {
@@ -1865,7 +1873,7 @@ public class EmitterMethodCreator implements Opcodes {
                 if (SHOW_FALLBACK) {
                     System.err.println("Note: JVM compilation needs interpreter fallback (" + e.getMessage().split("\n")[0] + ").");
                 }
-                return compileToInterpreter(ast, ctx, useTryCatch);
+                return fallbackToInterpreter(ast, ctx, useTryCatch);
             }
             throw e;
         } catch (InterpreterFallbackException e) {
@@ -1879,7 +1887,7 @@ public class EmitterMethodCreator implements Opcodes {
                 if (SHOW_FALLBACK) {
                     System.err.println("Note: JVM compilation needs interpreter fallback (" + getRootMessage(e) + ").");
                 }
-                return compileToInterpreter(ast, ctx, useTryCatch);
+                return fallbackToInterpreter(ast, ctx, useTryCatch);
             }
             throw e;
         }
@@ -1984,6 +1992,14 @@ public class EmitterMethodCreator implements Opcodes {
         target.cvStartLine = cvLine;
     }
 
+    /**
+     * Whether {@code ast} has to run in the bytecode interpreter because it
+     * calls {@code fork}: a pseudo-fork child resumes the interpreter frame.
+     */
+    public static boolean requiresInterpreterFrame(Node ast) {
+        return PerlPseudoProcess.isEnabled() && ForkCallVisitor.containsFork(ast);
+    }
+
     /**
      * Compile AST to interpreter bytecode.
      * <p>
@@ -2022,6 +2038,7 @@ public class EmitterMethodCreator implements Opcodes {
 
     public static InterpretedCode compileToInterpreter(
             Node ast, EmitterContext ctx, boolean useTryCatch) {
+        long start = RuntimeMetrics.ENABLED ? System.nanoTime() : 0L;
 
         // Create bytecode compiler
         BytecodeCompiler compiler =
@@ -2057,9 +2074,25 @@ public class EmitterMethodCreator implements Opcodes {
         // Note: prototype will be set by caller if needed
         // code.prototype is set via RuntimeCode fields
 
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.time(RuntimeMetrics.Counter.INTERPRETER_COMPILES,
+                    RuntimeMetrics.Counter.INTERPRETER_COMPILE_NANOS, start);
+        }
         return code;
     }
 
+    /**
+     * Compiles to interpreter bytecode after the JVM backend rejected the code.
+     * Same as {@link #compileToInterpreter}, but counted as a fallback.
+     */
+    public static InterpretedCode fallbackToInterpreter(
+            Node ast, EmitterContext ctx, boolean useTryCatch) {
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.count(RuntimeMetrics.Counter.INTERPRETER_FALLBACKS);
+        }
+        return compileToInterpreter(ast, ctx, useTryCatch);
+    }
+
     public static void debugInspectClass(Class<?> generatedClass) {
         System.out.println("Class Information for: " + generatedClass.getName());
         System.out.println("===========================================");
@@ -0,0 +1,143 @@
+package org.perlonjava.frontend.analysis;
+
+import org.perlonjava.frontend.astnode.*;
+
+/**
+ * Finds a {@code fork} call in a compilation unit's own body.
+ *
+ * <p>A pseudo-fork child continues the forking frame, which only the bytecode
+ * interpreter keeps on the heap; units that call {@code fork} directly are
+ * therefore compiled to the interpreter. Nested subroutines are not entered:
+ * each is a unit of its own and gets its own check.</p>
+ */
+public class ForkCallVisitor implements Visitor {
+
+    private boolean found = false;
+
+    public static boolean containsFork(Node node) {
+        if (node == null) return false;
+        ForkCallVisitor visitor = new ForkCallVisitor();
+        node.accept(visitor);
+        return visitor.found;
+    }
+
+    @Override
+    public void visit(OperatorNode node) {
+        if (found) return;
+        if ("fork".equals(node.operator)) {
+            found = true;
+            return;
+        }
+        if (node.operand != null) node.operand.accept(this);
+    }
+
+    @Override
+    public void visit(BinaryOperatorNode node) {
+        if (found) return;
+        if (node.left != null) node.left.accept(this);
+        if (node.right != null) node.right.accept(this);
+    }
+
+    @Override
+    public void visit(SubroutineNode node) {
+    }
+
+    @Override
+    public void visit(BlockNode node) {
+        for (Node element : node.elements) {
+            if (found) return;
+            if (element != null) element.accept(this);
+        }
+    }
+
+    @Override
+    public void visit(ListNode node) {
+        for (Node element : node.elements) {
+            if (found) return;
+            if (element != null) element.accept(this);
+        }
+        if (!found && node.handle != null) node.handle.accept(this);
+    }
+
+    @Override
+    public void visit(HashLiteralNode node) {
+        for (Node element : node.elements) {
+            if (found) return;
+            if (element != null) element.accept(this);
+        }
+    }
+
+    @Override
+    public void visit(ArrayLiteralNode node) {
+        for (Node element : node.elements) {
+            if (found) return;
+            if (element != null) element.accept(this);
+        }
+    }
+
+    @Override
+    public void visit(IfNode node) {
+        if (node.condition != null) node.condition.accept(this);
+        if (node.thenBranch != null) node.thenBranch.accept(this);
+        if (node.elseBranch != null) node.elseBranch.accept(this);
+    }
+
+    @Override
+    public void visit(TernaryOperatorNode node) {
+        if (node.condition != null) node.condition.accept(this);
+        if (node.trueExpr != null) node.trueExpr.accept(this);
+        if (node.falseExpr != null) node.falseExpr.accept(this);
+    }
+
+    @Override
+    public void visit(For1Node node) {
+        if (node.list != null) node.list.accept(this);
+        if (node.body != null) node.body.accept(this);
+        if (node.continueBlock != null) node.continueBlock.accept(this);
+    }
+
+    @Override
+    public void visit(For3Node node) {
+        if (node.initialization != null) node.initialization.accept(this);
+        if (node.condition != null) node.condition.accept(this);
+        if (node.increment != null) node.increment.accept(this);
+        if (node.body != null) node.body.accept(this);
+        if (node.continueBlock != null) node.continueBlock.accept(this);
+    }
+
+    @Override
+    public void visit(TryNode node) {
+        if (node.tryBlock != null) node.tryBlock.accept(this);
+        if (node.catchBlock != null) node.catchBlock.accept(this);
+        if (node.finallyBlock != null) node.finallyBlock.accept(this);
+    }
+
+    @Override
+    public void visit(DeferNode node) {
+        if (node.block != null) node.block.accept(this);
+    }
+
+    @Override
+    public void visit(IdentifierNode node) {
+    }
+
+    @Override
+    public void visit(NumberNode node) {
+    }
+
+    @Override
+    public void visit(StringNode node) {
+    }
+
+    @Override
+    public void visit(LabelNode node) {
+    }
+
+    @Override
+    public void visit(CompilerFlagNode node) {
+    }
+
+    @Override
+    public void visit(FormatNode node) {
+    }
+}
@@ -13,12 +13,12 @@ import org.perlonjava.runtime.operators.WarnDie;
 import org.perlonjava.runtime.runtimetypes.GlobalContext;
 import org.perlonjava.runtime.runtimetypes.GlobalVariable;
 import org.perlonjava.runtime.runtimetypes.RuntimeHash;
+import org.perlonjava.runtime.runtimetypes.RuntimeMetrics;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalarCache;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalarType;
 
 import java.math.BigInteger;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -32,7 +32,6 @@ import static org.perlonjava.runtime.runtimetypes.RuntimeScalarCache.getScalarIn
  */
 public class NumberParser {
 
-    public static final int MAX_NUMIFICATION_CACHE_SIZE = 1000;
 
     /**
      * Counter used to mint unique global-variable names for
@@ -130,13 +129,6 @@ public class NumberParser {
                     && ref.type == RuntimeScalarType.CODE);
     }
 
-    public static final Map<String, RuntimeScalar> numificationCache = new LinkedHashMap<String, RuntimeScalar>(MAX_NUMIFICATION_CACHE_SIZE, 0.75f, true) {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<String, RuntimeScalar> eldest) {
-            return size() > MAX_NUMIFICATION_CACHE_SIZE;
-        }
-    };
-
     private static final Pattern WINDOWS_INF_PATTERN = Pattern.compile("1\\.?#INF.*");
     private static final Pattern WINDOWS_NAN_PATTERN = Pattern.compile("\\+?1\\.?#(QNAN|NANQ|NAN|IND|SNAN).*"
     );
@@ -596,14 +588,16 @@ public class NumberParser {
             str = "";
         }
 
-        RuntimeScalar result = numificationCache.get(str);
+        // Each string scalar caches its own numeric value until it is overwritten
+        RuntimeScalar result = runtimeScalar.getParsedNumber();
         if (result != null) {
-            if (result.type == RuntimeScalarType.STRING
-                    || result.type == RuntimeScalarType.BYTE_STRING) {
-                numificationCache.remove(str);
-            } else {
-                return result;
+            if (RuntimeMetrics.ENABLED) {
+                RuntimeMetrics.count(RuntimeMetrics.Counter.NUMIFICATION_CACHE_HITS);
             }
+            return result;
+        }
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.count(RuntimeMetrics.Counter.NUMIFICATION_CACHE_MISSES);
         }
 
         int length = str.length();
@@ -806,7 +800,7 @@ public class NumberParser {
 
         if (!shouldWarn && result.type != RuntimeScalarType.STRING
                 && result.type != RuntimeScalarType.BYTE_STRING) {
-            numificationCache.put(str, result);
+            runtimeScalar.cacheParsedNumber(str, result);
         }
         return result;
     }
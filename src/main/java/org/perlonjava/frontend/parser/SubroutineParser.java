@@ -1286,7 +1286,7 @@ public class SubroutineParser {
         // original CvGV — only install-site names are resolved.
         fullName = GlobalVariable.resolveAliasedFqn(fullName);
         RuntimeScalar codeRef = GlobalVariable.defineGlobalCodeRef(fullName);
-        InheritanceResolver.invalidateCache();
+        InheritanceResolver.invalidateCacheForSub(fullName);
         
         // Check if we're redefining an existing subroutine that already has code.
         // In that case, create a NEW RuntimeCode so that saved code references
@@ -1678,6 +1678,7 @@ public class SubroutineParser {
             if (placeholder.compilerSupplier == null) {
                 return null;
             }
+            LazySubroutinePrecompiler.recordFirstCall(placeholder);
             // Try unified API (returns RuntimeCode - either CompiledCode or InterpretedCode)
             if (placeholder.attributes != null && placeholder.attributes.contains("lvalue")) {
                 block.setAnnotation("subroutineIsLvalue", true);
@@ -1772,7 +1773,7 @@ public class SubroutineParser {
                 if (showFallback) {
                     System.err.println("Note: JVM VerifyError during subroutine instantiation, recompiling with interpreter.");
                 }
-                InterpretedCode interpretedCode = EmitterMethodCreator.compileToInterpreter(block, newCtx, false);
+                InterpretedCode interpretedCode = EmitterMethodCreator.fallbackToInterpreter(block, newCtx, false);
 
                 // Set captured variables if there are any
                 List<Object> materializedCaptures = closureCapturesForMaterialization(
@@ -1822,6 +1823,7 @@ public class SubroutineParser {
         // Store the supplier in the placeholder
         RuntimeCode placeholderForSupplier = (RuntimeCode) codeRef.value;
         placeholderForSupplier.compilerSupplier = subroutineCreationTaskSupplier;
+        LazySubroutinePrecompiler.enqueue(placeholderForSupplier);
 
         ListNode result = new ListNode(parser.tokenIndex);
         result.setAnnotation("compileTimeOnly", true);
@@ -5,6 +5,7 @@ import org.perlonjava.runtime.runtimetypes.RuntimeScalarCache;
 import org.perlonjava.runtime.runtimetypes.RuntimeIO;
 import org.perlonjava.runtime.nativ.ffm.FFMPosix;
 import org.perlonjava.runtime.nativ.ffm.FFMPosixInterface;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.io.FileDescriptor;
 import java.io.FileInputStream;
@@ -335,9 +336,7 @@ public class CustomFileChannel implements IOHandle {
                 // ignore
             }
 
-            byte[] result = new byte[bytesRead];
-            System.arraycopy(buffer, 0, result, 0, bytesRead);
-            return new RuntimeScalar(result);
+            return new RuntimeScalar(buffer, 0, bytesRead);
         } catch (IOException e) {
             return handleIOException(e, "Read operation failed");
         }
@@ -359,25 +358,8 @@ public class CustomFileChannel implements IOHandle {
             if (appendMode) {
                 fileChannel.position(fileChannel.size());
             }
-            // Check if string contains wide characters (codepoint > 255)
             // Perl 5 auto-upgrades to UTF-8 for wide chars on binary handles
-            boolean hasWideChars = false;
-            for (int i = 0; i < string.length(); i++) {
-                if (string.charAt(i) > 255) {
-                    hasWideChars = true;
-                    break;
-                }
-            }
-            byte[] data;
-            if (hasWideChars) {
-                // Encode as UTF-8, matching Perl 5 "Wide character in print" behavior
-                data = string.getBytes(StandardCharsets.UTF_8);
-            } else {
-                data = new byte[string.length()];
-                for (int i = 0; i < string.length(); i++) {
-                    data[i] = (byte) string.charAt(i);
-                }
-            }
+            byte[] data = ByteStrings.toOutputBytes(string);
             ByteBuffer byteBuffer = ByteBuffer.wrap(data);
             fileChannel.write(byteBuffer);
             return scalarTrue;
@@ -776,11 +758,7 @@ public class CustomFileChannel implements IOHandle {
                 return new RuntimeScalar("");
             }
 
-            buffer.flip();
-            byte[] result = new byte[bytesRead];
-            buffer.get(result);
-
-            return new RuntimeScalar(result);
+            return new RuntimeScalar(buffer.array(), 0, bytesRead);
         } catch (IOException e) {
             String msg = e.getMessage();
             if (msg != null && msg.toLowerCase().contains("is a directory")) {
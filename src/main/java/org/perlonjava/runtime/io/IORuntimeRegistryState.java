@@ -3,6 +3,7 @@ package org.perlonjava.runtime.io;
 import org.perlonjava.runtime.runtimetypes.RuntimeGlob;
 import org.perlonjava.runtime.runtimetypes.RuntimeIO;
 
+import java.io.IOException;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
 import java.util.Map;
@@ -25,6 +26,22 @@ public final class IORuntimeRegistryState {
     public final ConcurrentHashMap<Integer, IOHandle> fdToHandle = new ConcurrentHashMap<>();
     public final ConcurrentHashMap<Integer, Integer> handleToFd = new ConcurrentHashMap<>();
     public final Map<Integer, RuntimeIO> operatorFileDescriptors = new ConcurrentHashMap<>();
+    private ReadinessSelector readiness;
+
+    /** The selector shared by this runtime's select() and IO::Poll calls, opened on first use. */
+    public synchronized ReadinessSelector readiness() throws IOException {
+        if (readiness == null) {
+            readiness = ReadinessSelector.open();
+        }
+        return readiness;
+    }
+
+    public synchronized void closeReadiness() {
+        if (readiness != null) {
+            readiness.close();
+            readiness = null;
+        }
+    }
 
     public void clear() {
         childProcesses.clear();
@@ -38,6 +55,7 @@ public final class IORuntimeRegistryState {
         fdToHandle.clear();
         handleToFd.clear();
         operatorFileDescriptors.clear();
+        closeReadiness();
         while (globGCQueue.poll() != null) {
             // Drain references owned by this closed runtime.
         }
@@ -136,6 +136,7 @@ public class InternalPipeHandle implements IOHandle {
                 if (available > 0) {
                     byte[] buffer = new byte[Math.min(maxBytes, available)];
                     int bytesRead = inputStream.read(buffer, 0, buffer.length);
+                    ReadinessSelector.signal();
 
                     if (bytesRead == -1) {
                         isEOF = true;
@@ -190,7 +191,9 @@ public class InternalPipeHandle implements IOHandle {
         }
 
         try {
-            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            // RuntimeIO hands handles octet strings (encoding layers and wide
+            // characters are resolved before this point), as syswrite does.
+            byte[] bytes = string.getBytes(StandardCharsets.ISO_8859_1);
             if (!blocking && inputStream != null) {
                 int free = pipeSize - inputStream.available();
                 if (free <= 0) {
@@ -202,11 +205,13 @@ public class InternalPipeHandle implements IOHandle {
                 int writeLength = Math.min(bytes.length, free);
                 outputStream.write(bytes, 0, writeLength);
                 outputStream.flush();
+                ReadinessSelector.signal();
                 return scalarTrue;
             }
 
             outputStream.write(bytes);
             outputStream.flush();
+            ReadinessSelector.signal();
             return scalarTrue;
         } catch (IOException e) {
             if (isBrokenPipe(e)) {
@@ -236,6 +241,7 @@ public class InternalPipeHandle implements IOHandle {
             }
             isClosed = true;
             isEOF = true;
+            ReadinessSelector.signal();
             return scalarTrue;
         } catch (IOException e) {
             return handleIOException(e, "Close pipe failed");
@@ -322,11 +328,13 @@ public class InternalPipeHandle implements IOHandle {
                 int writeLength = Math.min(bytes.length, free);
                 outputStream.write(bytes, 0, writeLength);
                 outputStream.flush();
+                ReadinessSelector.signal();
                 return new RuntimeScalar(writeLength);
             }
 
             outputStream.write(bytes);
             outputStream.flush();
+            ReadinessSelector.signal();
             return new RuntimeScalar(bytes.length);
         } catch (IOException e) {
             if (isBrokenPipe(e)) {
@@ -362,6 +370,7 @@ public class InternalPipeHandle implements IOHandle {
                 if (available > 0) {
                     byte[] buffer = new byte[Math.min(length, available)];
                     int bytesRead = inputStream.read(buffer);
+                    ReadinessSelector.signal();
 
                     if (bytesRead == -1) {
                         isEOF = true;
@@ -119,7 +119,7 @@ public class PipeInputChannel implements IOHandle {
         processBuilder.environment().putAll(environmentOverrides);
 
         // Start the process
-        process = processBuilder.start();
+        process = SystemOperator.startProcess(processBuilder);
 
         // Keep raw input stream for octet reading
         inputStream = process.getInputStream();
@@ -7,6 +7,7 @@ import org.perlonjava.runtime.runtimetypes.RuntimeIO;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalarCache;
 import org.perlonjava.runtime.operators.SystemOperator;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.io.*;
 import java.nio.charset.Charset;
@@ -205,7 +206,7 @@ public class PipeOutputChannel implements IOHandle {
         processBuilder.environment().putAll(environmentOverrides);
 
         // Start the process
-        process = processBuilder.start();
+        process = SystemOperator.startProcess(processBuilder);
 
         // Create writer for stdin
         writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
@@ -284,24 +285,8 @@ public class PipeOutputChannel implements IOHandle {
         }
 
         try {
-            // Check for wide characters (codepoint > 255)
             // Perl 5 auto-upgrades to UTF-8 for wide chars
-            boolean hasWideChars = false;
-            for (int i = 0; i < string.length(); i++) {
-                if (string.charAt(i) > 255) {
-                    hasWideChars = true;
-                    break;
-                }
-            }
-            byte[] bytes;
-            if (hasWideChars) {
-                bytes = string.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-            } else {
-                bytes = new byte[string.length()];
-                for (int i = 0; i < string.length(); i++) {
-                    bytes[i] = (byte) string.charAt(i);
-                }
-            }
+            byte[] bytes = ByteStrings.toOutputBytes(string);
 
             // Write raw bytes to process
             process.getOutputStream().write(bytes);
@@ -0,0 +1,444 @@
+package org.perlonjava.runtime.io;
+
+import org.perlonjava.runtime.nativ.ffm.FFMPosix;
+import org.perlonjava.runtime.runtimetypes.RuntimeIO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Readiness engine behind 4-arg {@code select}, {@code IO::Poll} and
+ * {@code IO::Epoll}: a long-lived NIO {@link Selector} that waits on Perl
+ * file descriptors with {@code poll(2)} semantics.
+ *
+ * <p>Event loops call select thousands of times a second, so the selector is
+ * opened once per runtime ({@link IORuntimeRegistryState#readiness()}) rather
+ * than once per call. A channel the program has put in non-blocking mode stays
+ * registered between calls and only has its interest set updated; a blocking
+ * channel is switched to non-blocking for the wait and deregistered again
+ * afterwards, because the JDK refuses blocking I/O on a registered channel.</p>
+ *
+ * <p>Handles without a selectable channel do not make the caller sleep-poll
+ * when it can be avoided: internal pipes call {@link #signal()} when they
+ * change state, which wakes every waiting selector, and a wait on native
+ * descriptors alone (stdin) blocks in {@code poll(2)} through FFM. Only SSL
+ * sockets without a channel, unknown handle types, and stdin waited on together
+ * with sockets are still rechecked on a short interval.</p>
+ *
+ * <p>Selection operations run only on the thread that holds {@link #lock},
+ * normally the one inside {@link #poll}. Other threads cancel keys and wake
+ * that thread, which drops the cancelled keys in its next selection.</p>
+ */
+public final class ReadinessSelector implements Closeable {
+    public static final int POLLIN = 0x0001;
+    public static final int POLLPRI = 0x0002;
+    public static final int POLLOUT = 0x0004;
+    public static final int POLLERR = 0x0008;
+    public static final int POLLHUP = 0x0010;
+    public static final int POLLNVAL = 0x0020;
+
+    /** Recheck interval for handles that cannot wake a waiting selector. */
+    private static final int RECHECK_MILLIS = 10;
+    /** Longest single native poll(2), so signals and interrupts are noticed. */
+    private static final int NATIVE_SLICE_MILLIS = 50;
+
+    private static final Set<ReadinessSelector> OPEN = ConcurrentHashMap.newKeySet();
+    private static final Set<ReadinessSelector> WAITING = ConcurrentHashMap.newKeySet();
+
+    private final Selector selector;
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Keys that had a non-empty interest set after the previous wait. */
+    private final List<SelectionKey> armed = new ArrayList<>();
+    private long generation;
+
+    /** Key attachment: the descriptor's index in the current wait. */
+    private record Slot(int index, long generation) {
+    }
+
+    private ReadinessSelector(Selector selector) {
+        this.selector = selector;
+    }
+
+    public static ReadinessSelector open() throws IOException {
+        ReadinessSelector readiness = new ReadinessSelector(Selector.open());
+        OPEN.add(readiness);
+        return readiness;
+    }
+
+    /**
+     * Wakes every selector currently waiting, so it rechecks handles that have
+     * no channel of their own. Called by internal pipes after a write, a read
+     * that frees capacity, or a close.
+     */
+    public static void signal() {
+        if (WAITING.isEmpty()) return;
+        for (ReadinessSelector readiness : WAITING) {
+            readiness.selector.wakeup();
+        }
+    }
+
+    /**
+     * Deregisters {@code channel} from every selector so it can be switched back
+     * to blocking mode.
+     */
+    public static void release(SelectableChannel channel) {
+        for (ReadinessSelector readiness : OPEN) {
+            SelectionKey key = channel.keyFor(readiness.selector);
+            if (key == null) continue;
+            key.cancel();
+            readiness.dropCancelled(channel);
+        }
+    }
+
+    /**
+     * Cancelled keys are only dropped by the next selection operation. Run it
+     * here when no thread owns the selector; otherwise wake the owner and wait
+     * until its selection has let go of {@code channel}.
+     */
+    private void dropCancelled(SelectableChannel channel) {
+        try {
+            while (selector.isOpen() && channel.keyFor(selector) != null) {
+                selector.wakeup();
+                if (lock.tryLock(NATIVE_SLICE_MILLIS, TimeUnit.MILLISECONDS)) {
+                    try {
+                        if (selector.isOpen()) {
+                            selector.selectNow();
+                            selector.selectedKeys().clear();
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException ignored) {
+            // Selector closed meanwhile; it no longer holds the channel
+        }
+    }
+
+    /**
+     * Waits until at least one descriptor is ready or the timeout expires.
+     *
+     * @param fds           Perl file descriptors
+     * @param events        requested {@code POLL*} bits per descriptor
+     * @param revents       receives the returned {@code POLL*} bits
+     * @param timeoutMillis maximum wait; negative waits forever, 0 only checks
+     * @return the number of descriptors with non-zero {@code revents}
+     */
+    public int poll(int[] fds, int[] events, int[] revents, long timeoutMillis) throws IOException {
+        lock.lock();
+        try {
+            return pollLocked(fds, events, revents, timeoutMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int pollLocked(int[] fds, int[] events, int[] revents, long timeoutMillis) throws IOException {
+        int n = fds.length;
+        if (n == 0 && timeoutMillis < 0) {
+            return 0; // Nothing to wait for; never block forever
+        }
+        SocketIO[] sslSockets = new SocketIO[n];
+        IOHandle[] waiting = new IOHandle[n];
+        List<SelectionKey> current = new ArrayList<>(n);
+        List<SelectableChannel> temporary = null;
+        boolean recheck = false;
+        boolean pipes = false;
+        boolean console = false;
+        int ready = 0;
+        generation++;
+
+        selector.selectedKeys().clear();
+        try {
+            for (int i = 0; i < n; i++) {
+                int wanted = events[i];
+                boolean wantRead = (wanted & (POLLIN | POLLPRI)) != 0;
+                boolean wantWrite = (wanted & POLLOUT) != 0;
+                revents[i] = 0;
+
+                RuntimeIO rio = RuntimeIO.getByFileno(fds[i]);
+                if (rio == null) {
+                    revents[i] = POLLNVAL;
+                    ready++;
+                    continue;
+                }
+
+                SocketIO socketIO = rio.getSocketHandle();
+                if (socketIO != null) {
+                    SelectableChannel ch = socketIO.getSelectableChannel();
+                    if (ch == null) {
+                        // SSL sockets created without a SocketChannel: poll the
+                        // decrypted bytes, never report read readiness just
+                        // because the handle is SSL-wrapped.
+                        if (wantRead) {
+                            if (sslReadReady(socketIO)) {
+                                revents[i] |= POLLIN;
+                            } else {
+                                sslSockets[i] = socketIO;
+                                recheck = true;
+                            }
+                        }
+                        if (wantWrite) revents[i] |= POLLOUT;
+                        if (revents[i] != 0) ready++;
+                        continue;
+                    }
+
+                    int ops = 0;
+                    if (socketIO.hasPendingDatagramError()) {
+                        revents[i] |= POLLERR;
+                        if (wantRead) revents[i] |= POLLIN;
+                        ready++;
+                    } else if (wantRead) {
+                        ops |= ch instanceof ServerSocketChannel ? SelectionKey.OP_ACCEPT : SelectionKey.OP_READ;
+                    }
+                    if (wantWrite) {
+                        // Perl reports a finished non-blocking connect as writable;
+                        // NIO signals it as OP_CONNECT.
+                        if (ch instanceof SocketChannel sc && sc.isConnectionPending()) {
+                            ops |= SelectionKey.OP_CONNECT;
+                        } else if (ch instanceof SocketChannel || ch instanceof DatagramChannel) {
+                            ops |= SelectionKey.OP_WRITE;
+                        }
+                    }
+                    if (ops == 0) continue;
+
+                    SelectionKey key = ch.keyFor(selector);
+                    if (key == null || !key.isValid()) {
+                        if (ch.isBlocking()) {
+                            ch.configureBlocking(false);
+                            if (temporary == null) temporary = new ArrayList<>();
+                            temporary.add(ch);
+                        }
+                        try {
+                            key = ch.register(selector, ops, new Slot(i, generation));
+                        } catch (ClosedChannelException e) {
+                            revents[i] |= POLLNVAL;
+                            ready++;
+                            continue;
+                        }
+                    } else {
+                        key.interestOps(ops);
+                        key.attach(new Slot(i, generation));
+                    }
+                    current.add(key);
+                    continue;
+                }
+
+                IOHandle handle = unwrap(rio.ioHandle);
+                if (wantRead && FileDescriptorTable.isReadReady(handle)) revents[i] |= POLLIN;
+                if (wantWrite && FileDescriptorTable.isWriteReady(handle)) revents[i] |= POLLOUT;
+                if (revents[i] != 0) {
+                    ready++;
+                } else {
+                    waiting[i] = handle;
+                    if (handle instanceof InternalPipeHandle) {
+                        pipes = true;
+                    } else if (handle instanceof StandardIO) {
+                        console = true;
+                    } else {
+                        recheck = true;
+                    }
+                }
+            }
+
+            disarmStale();
+            armed.addAll(current);
+
+            if (ready > 0 || timeoutMillis == 0) {
+                // poll(2) reports everything ready now: still collect sockets, or
+                // an internal descriptor that is always ready starves them.
+                if (!current.isEmpty()) {
+                    selector.selectNow();
+                    ready += collect(revents);
+                }
+                return ready;
+            }
+
+            int[] nativeFds = current.isEmpty() && !pipes && !recheck ? nativeFds(waiting) : null;
+            // Nothing wakes the selector when stdin becomes readable
+            if (console && nativeFds == null) recheck = true;
+            long deadline = timeoutMillis < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMillis;
+            if (pipes) WAITING.add(this);
+            try {
+                while (true) {
+                    long remaining = timeoutMillis < 0 ? Long.MAX_VALUE : deadline - System.currentTimeMillis();
+                    if (nativeFds != null) {
+                        int slice = (int) Math.min(Math.max(remaining, 0), NATIVE_SLICE_MILLIS);
+                        FFMPosix.get().waitReadReady(nativeFds, slice);
+                        // Lets release() on another thread drop its cancelled key
+                        selector.selectNow();
+                    } else if (remaining > 0) {
+                        long wait = recheck ? Math.min(remaining, RECHECK_MILLIS) : remaining;
+                        selector.select(wait == Long.MAX_VALUE ? 0 : wait);
+                    } else {
+                        selector.selectNow();
+                    }
+                    ready = collect(revents) + recheckWaiting(fds, events, revents, waiting, sslSockets);
+                    if (ready > 0) return ready;
+                    if (System.currentTimeMillis() >= deadline) return 0;
+                    if (Thread.currentThread().isInterrupted()) return 0;
+                }
+            } finally {
+                if (pipes) WAITING.remove(this);
+            }
+        } finally {
+            if (temporary != null) restoreBlocking(temporary);
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            OPEN.remove(this);
+            WAITING.remove(this);
+            armed.clear();
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Clears the interest set of keys armed last time but not requested now. */
+    private void disarmStale() {
+        for (SelectionKey key : armed) {
+            if (key.isValid() && key.attachment() instanceof Slot slot && slot.generation() != generation) {
+                key.interestOps(0);
+                key.attach(null);
+            }
+        }
+        armed.clear();
+    }
+
+    private int collect(int[] revents) {
+        int ready = 0;
+        Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+        while (selected.hasNext()) {
+            SelectionKey key = selected.next();
+            selected.remove();
+            if (!key.isValid() || !(key.attachment() instanceof Slot slot) || slot.generation() != generation) {
+                continue;
+            }
+            int index = slot.index();
+            int readyOps = key.readyOps();
+            int before = revents[index];
+            if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+                revents[index] |= POLLIN;
+            }
+            // OP_CONNECT: report writable without finishConnect(), so the next
+            // connect() call can surface EISCONN or ECONNREFUSED as POSIX does.
+            if ((readyOps & (SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT)) != 0) {
+                revents[index] |= POLLOUT;
+            }
+            if (before == 0 && revents[index] != 0) ready++;
+        }
+        return ready;
+    }
+
+    private static int recheckWaiting(int[] fds, int[] events, int[] revents,
+                                      IOHandle[] waiting, SocketIO[] sslSockets) {
+        int ready = 0;
+        for (int i = 0; i < fds.length; i++) {
+            if (sslSockets[i] != null && sslReadReady(sslSockets[i])) {
+                if (revents[i] == 0) ready++;
+                revents[i] |= POLLIN;
+                sslSockets[i] = null;
+            }
+            IOHandle handle = waiting[i];
+            if (handle == null) continue;
+            if ((events[i] & (POLLIN | POLLPRI)) != 0 && FileDescriptorTable.isReadReady(handle)) {
+                revents[i] |= POLLIN;
+            }
+            if ((events[i] & POLLOUT) != 0 && FileDescriptorTable.isWriteReady(handle)) {
+                revents[i] |= POLLOUT;
+            }
+            if (revents[i] != 0) {
+                ready++;
+                waiting[i] = null;
+            }
+        }
+        return ready;
+    }
+
+    /** The native descriptors behind the waiting handles, or null if any has none. */
+    private static int[] nativeFds(IOHandle[] waiting) {
+        int count = 0;
+        int[] fds = new int[waiting.length];
+        for (IOHandle handle : waiting) {
+            if (handle == null) continue;
+            if (!(handle instanceof StandardIO standardIO)) return null;
+            int fd = standardIO.nativeReadFd();
+            if (fd < 0) return null;
+            fds[count++] = fd;
+        }
+        return count == 0 ? null : Arrays.copyOf(fds, count);
+    }
+
+    private static boolean sslReadReady(SocketIO socketIO) {
+        try {
+            return socketIO.available() > 0;
+        } catch (Exception e) {
+            return true; // Surface the error through the next read
+        }
+    }
+
+    private void restoreBlocking(List<SelectableChannel> channels) {
+        for (SelectableChannel ch : channels) {
+            SelectionKey key = ch.keyFor(selector);
+            if (key != null) {
+                key.cancel();
+                armed.remove(key);
+            }
+        }
+        try {
+            selector.selectNow();
+        } catch (IOException ignored) {
+            // The selector is broken; configureBlocking below reports any leftover key
+        }
+        selector.selectedKeys().clear();
+        for (SelectableChannel ch : channels) {
+            try {
+                ch.configureBlocking(true);
+            } catch (Exception ignored) {
+                // Closed meanwhile
+            }
+        }
+    }
+
+    private static IOHandle unwrap(IOHandle handle) {
+        while (true) {
+            if (handle instanceof BorrowedIOHandle borrowed) {
+                handle = borrowed.getDelegate();
+            } else if (handle instanceof DupIOHandle duplicate) {
+                handle = duplicate.getDelegate();
+            } else if (handle instanceof LayeredIOHandle layered) {
+                handle = layered.getDelegate();
+            } else if (handle instanceof SharedTransportIOHandle shared) {
+                handle = shared.getDelegate();
+            } else {
+                return handle;
+            }
+        }
+    }
+}
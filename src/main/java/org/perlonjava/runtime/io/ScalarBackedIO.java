@@ -1,21 +1,46 @@
 package org.perlonjava.runtime.io;
 
+import org.perlonjava.runtime.runtimetypes.PendingScalarContent;
 import org.perlonjava.runtime.runtimetypes.PerlCompilerException;
 import org.perlonjava.runtime.runtimetypes.RuntimeIO;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalarCache;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-
-public class ScalarBackedIO implements IOHandle {
+import java.util.Arrays;
+
+import static org.perlonjava.runtime.runtimetypes.RuntimeScalarType.BYTE_STRING;
+import static org.perlonjava.runtime.runtimetypes.RuntimeScalarType.STRING;
+import static org.perlonjava.runtime.runtimetypes.RuntimeScalarType.TIED_SCALAR;
+import static org.perlonjava.runtime.runtimetypes.RuntimeScalarType.UNDEF;
+
+/**
+ * In-memory filehandle over a scalar ({@code open $fh, '<', \$buf} and friends).
+ *
+ * <p>The handle works on a growable byte buffer with a cursor. Writes append
+ * to the buffer and leave a {@link PendingScalarContent} in the scalar, so the
+ * String is built once when the scalar is next read or assigned, or when the
+ * handle is closed, instead of on every print. Reads and seeks use the buffer
+ * directly. If the scalar is changed behind the handle's back, the buffer is
+ * reloaded from it before the next operation.</p>
+ */
+public class ScalarBackedIO implements IOHandle, PendingScalarContent.Source {
     private final RuntimeScalar backingScalar;
     private int position = 0;
     private boolean isEOF = false;
     private boolean isClosed = false;
-    private CharsetDecoderHelper decoderHelper;
     private boolean appendMode = false;
 
+    // Content bytes are buffer[0, length); buffer is null until first use
+    private byte[] buffer;
+    private int length;
+    // The String the scalar held when the buffer was last in sync with it
+    private String synced;
+    // Non-null while the scalar holds it in place of the buffered content
+    private PendingScalarContent pending;
+
     public ScalarBackedIO(RuntimeScalar backingScalar) {
         this.backingScalar = backingScalar;
     }
@@ -38,36 +63,95 @@ public class ScalarBackedIO implements IOHandle {
         return copy;
     }
 
+    /** Brings the buffer up to date with the scalar, reloading it if the scalar changed. */
+    private void load() {
+        if (pending != null) {
+            if (backingScalar.value == pending) return;
+            pending = null;
+        } else if (buffer != null && synced != null && backingScalar.value == synced) {
+            return;
+        }
+        String content = backingScalar.toString();
+        buffer = content.getBytes(StandardCharsets.ISO_8859_1);
+        length = buffer.length;
+        synced = content;
+    }
+
+    /** Publishes the buffer after a modification, deferring the String when the scalar allows it. */
+    private void store() {
+        if (pending != null) return;
+        int type = backingScalar.type;
+        if (backingScalar.getClass() == RuntimeScalar.class
+                && (type == BYTE_STRING || type == STRING || type == UNDEF)) {
+            pending = new PendingScalarContent(this);
+            synced = null;
+            backingScalar.type = TIED_SCALAR;
+            backingScalar.value = pending;
+        } else {
+            // Read-only, tied or special scalars keep the eager assignment
+            backingScalar.set(new RuntimeScalar(buffer, 0, length));
+            synced = backingScalar.value instanceof String s ? s : null;
+        }
+    }
+
+    @Override
+    public RuntimeScalar materialize() {
+        if (pending != null && backingScalar.value == pending) {
+            String content = snapshot();
+            backingScalar.type = BYTE_STRING;
+            backingScalar.value = content;
+            synced = content;
+        }
+        pending = null;
+        return backingScalar;
+    }
+
+    @Override
+    public String snapshot() {
+        return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Copies {@code bytes} into the buffer at the cursor, growing it as needed. */
+    private void writeBytes(byte[] bytes) {
+        load();
+        if (appendMode) {
+            position = length;
+        }
+        int end = position + bytes.length;
+        if (end > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(end, buffer.length + (buffer.length >> 1) + 16));
+        }
+        if (position > length) {
+            // Writing past the end after a truncate leaves a NUL-filled gap
+            Arrays.fill(buffer, length, position, (byte) 0);
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position = end;
+        length = Math.max(length, end);
+        store();
+    }
+
     @Override
     public RuntimeScalar doRead(int maxBytes, Charset charset) {
         if (isClosed) {
             return RuntimeScalarCache.scalarUndef;
         }
 
-        String content = backingScalar.toString();
-        byte[] contentBytes = content.getBytes(StandardCharsets.ISO_8859_1);
-
-        if (position >= contentBytes.length) {
+        load();
+        if (position >= length) {
             isEOF = true;
             return new RuntimeScalar("");
         }
 
-        if (decoderHelper == null) {
-            decoderHelper = new CharsetDecoderHelper();
-        }
-
-        int bytesToRead = Math.min(maxBytes, contentBytes.length - position);
-        byte[] buffer = new byte[bytesToRead];
-        System.arraycopy(contentBytes, position, buffer, 0, bytesToRead);
-
-        String decoded = decoderHelper.decode(buffer, bytesToRead, charset);
+        int bytesToRead = Math.min(maxBytes, length - position);
+        RuntimeScalar result = new RuntimeScalar(buffer, position, bytesToRead);
         position += bytesToRead;
 
-        if (position >= contentBytes.length) {
+        if (position >= length) {
             isEOF = true;
         }
 
-        return new RuntimeScalar(buffer);
+        return result;
     }
 
     @Override
@@ -76,40 +160,13 @@ public class ScalarBackedIO implements IOHandle {
             return RuntimeScalarCache.scalarFalse;
         }
 
-        String currentContent = backingScalar.toString();
-        byte[] currentBytes = currentContent.getBytes(StandardCharsets.ISO_8859_1);
-
-        if (appendMode) {
-            position = currentBytes.length;
-        }
-        byte[] newBytes = string.getBytes(StandardCharsets.ISO_8859_1);
-
-        // Create new content array
-        int newLength = Math.max(position + newBytes.length, currentBytes.length);
-        byte[] resultBytes = new byte[newLength];
-
-        // Copy existing content
-        System.arraycopy(currentBytes, 0, resultBytes, 0, Math.min(position, currentBytes.length));
-
-        // Write new content at position
-        System.arraycopy(newBytes, 0, resultBytes, position, newBytes.length);
-
-        // Copy any remaining content after write position
-        if (position + newBytes.length < currentBytes.length) {
-            System.arraycopy(currentBytes, position + newBytes.length,
-                    resultBytes, position + newBytes.length,
-                    currentBytes.length - position - newBytes.length);
-        }
-
-        // Update backing scalar (preserve BYTE_STRING type for binary data)
-        backingScalar.set(new RuntimeScalar(resultBytes));
-        position += newBytes.length;
-
+        writeBytes(string.getBytes(StandardCharsets.ISO_8859_1));
         return RuntimeScalarCache.scalarTrue;
     }
 
     @Override
     public RuntimeScalar close() {
+        materialize();
         isClosed = true;
         return RuntimeScalarCache.scalarTrue;
     }
@@ -121,7 +178,7 @@ public class ScalarBackedIO implements IOHandle {
 
     @Override
     public RuntimeScalar flush() {
-        // No buffering, so flush is a no-op
+        // The scalar always reflects the buffer, so flush is a no-op
         return RuntimeScalarCache.scalarTrue;
     }
 
@@ -139,8 +196,8 @@ public class ScalarBackedIO implements IOHandle {
      */
     @Override
     public RuntimeScalar seek(long pos, int whence) {
-        String content = backingScalar.toString();
-        int contentLength = content.getBytes(StandardCharsets.ISO_8859_1).length;
+        load();
+        int contentLength = length;
 
         long newPosition;
 
@@ -171,18 +228,14 @@ public class ScalarBackedIO implements IOHandle {
             return RuntimeScalarCache.scalarFalse;
         }
 
-        String content = backingScalar.toString();
-        byte[] contentBytes = content.getBytes(StandardCharsets.ISO_8859_1);
-
-        if (length >= contentBytes.length) {
+        load();
+        if (length >= this.length) {
             // No truncation needed
             return RuntimeScalarCache.scalarTrue;
         }
 
-        byte[] truncatedBytes = new byte[(int) length];
-        System.arraycopy(contentBytes, 0, truncatedBytes, 0, (int) length);
-
-        backingScalar.set(new String(truncatedBytes, StandardCharsets.ISO_8859_1));
+        this.length = (int) length;
+        store();
 
         if (position > length) {
             position = (int) length;
@@ -220,56 +273,22 @@ public class ScalarBackedIO implements IOHandle {
 
     @Override
     public RuntimeScalar sysread(int length) {
-        String content = backingScalar.toString();
-        byte[] bytes = content.getBytes(StandardCharsets.ISO_8859_1);
-
-        int available = bytes.length - position;
+        load();
+        int available = this.length - position;
         if (available <= 0) {
             return new RuntimeScalar("");
         }
 
         int toRead = Math.min(length, available);
-        byte[] result = new byte[toRead];
-        System.arraycopy(bytes, position, result, 0, toRead);
-
+        RuntimeScalar result = new RuntimeScalar(buffer, position, toRead);
         position += toRead;
-        return new RuntimeScalar(result);
+        return result;
     }
 
     @Override
     public RuntimeScalar syswrite(String data) {
-        // Get current content as bytes
-        String content = backingScalar.toString();
-        byte[] currentBytes = content.getBytes(StandardCharsets.ISO_8859_1);
-
-        if (appendMode) {
-            position = currentBytes.length;
-        }
-
-        // Convert data to bytes
-        byte[] dataBytes = new byte[data.length()];
-        for (int i = 0; i < data.length(); i++) {
-            dataBytes[i] = (byte) (data.charAt(i) & 0xFF);
-        }
-
-        // Calculate new size
-        int newSize = Math.max(currentBytes.length, position + dataBytes.length);
-        byte[] newBytes = new byte[newSize];
-
-        // Copy existing data
-        System.arraycopy(currentBytes, 0, newBytes, 0, currentBytes.length);
-
-        // Write new data at position
-        System.arraycopy(dataBytes, 0, newBytes, position, dataBytes.length);
-
-        // Convert back to string and update scalar
-        StringBuilder newContent = new StringBuilder(newSize);
-        for (byte b : newBytes) {
-            newContent.append((char) (b & 0xFF));
-        }
-        backingScalar.set(newContent.toString());
-
-        position += dataBytes.length;
+        byte[] dataBytes = ByteStrings.toBytes(data);
+        writeBytes(dataBytes);
         return new RuntimeScalar(dataBytes.length);
     }
 
@@ -282,8 +301,8 @@ public class ScalarBackedIO implements IOHandle {
     public void setAppendMode(boolean appendMode) {
         this.appendMode = appendMode;
         if (appendMode) {
-            String currentContent = backingScalar.toString();
-            position = currentContent.getBytes(StandardCharsets.ISO_8859_1).length;
+            load();
+            position = length;
         }
     }
 }
@@ -479,6 +479,11 @@ public class SocketIO implements IOHandle {
     public void setBlocking(boolean newBlocking) {
         this.blocking = newBlocking;
         try {
+            if (newBlocking && getSelectableChannel() instanceof SelectableChannel selectable
+                    && !selectable.isBlocking()) {
+                // select() keeps non-blocking channels registered between calls
+                ReadinessSelector.release(selectable);
+            }
             if (socketChannel != null) {
                 socketChannel.configureBlocking(newBlocking);
                 // When transitioning to blocking mode after a non-blocking connect,
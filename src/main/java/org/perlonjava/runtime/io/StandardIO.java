@@ -196,6 +196,14 @@ public class StandardIO implements IOHandle {
         }
     }
 
+    /**
+     * The native descriptor a reader can wait on with {@code poll(2)}, or -1
+     * for output handles.
+     */
+    public int nativeReadFd() {
+        return inputStream != null && !isEOF ? fileno : -1;
+    }
+
     @Override
     public RuntimeScalar fileno() {
         return new RuntimeScalar(fileno);
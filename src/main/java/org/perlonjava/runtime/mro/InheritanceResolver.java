@@ -1,9 +1,9 @@
 package org.perlonjava.runtime.mro;
 
+import org.perlonjava.runtime.perlmodule.Mro;
 import org.perlonjava.runtime.runtimetypes.*;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The InheritanceResolver class provides methods for resolving method inheritance
@@ -12,22 +12,12 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class InheritanceResolver {
     private static final boolean TRACE_METHOD_RESOLUTION = false;  // Set to true for debugging
-    // Temporary bridge while package symbol tables remain shared until Phase 8.
-    private static final AtomicLong SHARED_SYMBOL_MUTATION_EPOCH = new AtomicLong();
-    private static final AtomicLong SHARED_ISA_MUTATION_EPOCH = new AtomicLong();
+    private static final String NO_AUTOLOAD_SUFFIX = "\0noautoload";
+    // Linearizations are also cached under these class-name suffixes (see C3, DFS)
+    private static final String[] LINEARIZATION_KEY_SUFFIXES = {"::__C3__", "::C3", "::DFS"};
 
     static MroRuntimeState currentState() {
-        MroRuntimeState state = PerlRuntime.current().mroState();
-        if (state.observeSharedMutationEpochs(
-                SHARED_SYMBOL_MUTATION_EPOCH.get(), SHARED_ISA_MUTATION_EPOCH.get())) {
-            invalidateDependentRuntimeCaches();
-        }
-        return state;
-    }
-
-    /** Observe mutations to the temporarily shared Phase 8 symbol tables. */
-    public static void synchronizeCurrentRuntime() {
-        currentState();
+        return PerlRuntime.current().mroState();
     }
 
     private static void invalidateDependentRuntimeCaches() {
@@ -200,7 +190,6 @@ public class InheritanceResolver {
      * This should be called whenever the class hierarchy or method definitions change.
      */
     public static void invalidateCache() {
-        SHARED_SYMBOL_MUTATION_EPOCH.incrementAndGet();
         clearCurrentRuntimeCaches();
     }
 
@@ -212,6 +201,99 @@ public class InheritanceResolver {
         clearCurrentRuntimeCaches();
     }
 
+    /**
+     * Invalidates method resolution after the sub {@code subFqn} was defined,
+     * replaced or removed.
+     *
+     * <p>Only the sub's package and the classes inheriting from it can resolve a
+     * method through that stash slot, so only their entries are dropped: cached
+     * lookups of that method name (of every name for AUTOLOAD), their inline
+     * call-site entries and, for overload and DESTROY subs, the per-class
+     * overload and destructor caches. Everything else stays warm. Use
+     * {@link #invalidateCache()} for changes whose extent is unknown, such as
+     * stash deletion or glob aliasing.</p>
+     */
+    public static void invalidateCacheForSub(String subFqn) {
+        int sep = subFqn == null ? -1 : subFqn.lastIndexOf("::");
+        String packageName = sep > 0 ? subFqn.substring(0, sep) : null;
+        String leaf = sep > 0 ? subFqn.substring(sep + 2) : "";
+        if (leaf.isEmpty() || packageLookupAliases(packageName).contains("UNIVERSAL")) {
+            // Every class inherits from UNIVERSAL
+            invalidateCache();
+            return;
+        }
+        MroRuntimeState state = currentState();
+        Set<String> affected = inheritingClasses(packageName, state);
+        boolean anyMethod = "AUTOLOAD".equals(leaf);
+        state.methodCache().keySet().removeIf(key -> isAffectedMethodKey(key, leaf, anyMethod, affected));
+
+        boolean overload = leaf.startsWith("(");
+        if (overload) {
+            // Overload markers decide the sign of a class's bless id
+            NameNormalizer.invalidateBlessIds(affected);
+        }
+        Set<Integer> blessIds = NameNormalizer.blessIdsOf(affected);
+        if (blessIds.isEmpty()) {
+            return;
+        }
+        RuntimeCode.evictInlineMethodCache(blessIds);
+        if (overload) {
+            state.overloadContextCache().keySet().removeAll(blessIds);
+        }
+        if (anyMethod || "DESTROY".equals(leaf)) {
+            DestroyDispatch.invalidateCache(blessIds);
+        }
+    }
+
+    /**
+     * {@code packageName} under each of its spellings, plus every class that
+     * inherits from it according to the reverse @ISA index. Classes whose
+     * cached linearization passes through the package are added as well, so a
+     * stale index can only cost extra evictions, never a stale dispatch.
+     */
+    private static Set<String> inheritingClasses(String packageName, MroRuntimeState state) {
+        Set<String> roots = new HashSet<>(packageLookupAliases(packageName));
+        Set<String> affected = new HashSet<>(roots);
+        for (String root : roots) {
+            affected.addAll(Mro.collectInheritors(root));
+        }
+        for (Map.Entry<String, List<String>> entry : state.linearizedClassesCache().entrySet()) {
+            if (!Collections.disjoint(entry.getValue(), roots)) {
+                String key = entry.getKey();
+                for (String suffix : LINEARIZATION_KEY_SUFFIXES) {
+                    if (key.endsWith(suffix)) {
+                        key = key.substring(0, key.length() - suffix.length());
+                        break;
+                    }
+                }
+                affected.add(key);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Whether a method-cache key ({@code Class::method}, {@code Class::SUPER::method},
+     * optionally with the no-AUTOLOAD suffix) starts its lookup in an affected class
+     * and names {@code leaf}.
+     */
+    private static boolean isAffectedMethodKey(String key, String leaf, boolean anyMethod, Set<String> affected) {
+        int end = key.endsWith(NO_AUTOLOAD_SUFFIX) ? key.length() - NO_AUTOLOAD_SUFFIX.length() : key.length();
+        int sep = key.lastIndexOf("::", end - 1);
+        if (sep < 0) {
+            return true;
+        }
+        if (!anyMethod && (end - sep - 2 != leaf.length() || !key.startsWith(leaf, sep + 2))) {
+            return false;
+        }
+        for (int i = key.indexOf("::"); i >= 0 && i <= sep; i = key.indexOf("::", i + 2)) {
+            if (affected.contains(key.substring(0, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Records a mutation to any package's {@code @ISA}.
      *
@@ -220,8 +302,7 @@ public class InheritanceResolver {
      * calls this hook for every structural mutation.
      */
     public static void noteIsaMutation() {
-        SHARED_ISA_MUTATION_EPOCH.incrementAndGet();
-        SHARED_SYMBOL_MUTATION_EPOCH.incrementAndGet();
+        currentState().noteIsaMutation();
         clearCurrentRuntimeCaches();
     }
 
@@ -230,34 +311,14 @@ public class InheritanceResolver {
     }
 
     /**
-     * Drop method-resolution cache entries that depend on a given package sub's
-     * <em>leaf</em> name (stash key {@code My::Pkg::foo} &rarr; {@code foo}), including
-     * {@code \0noautoload} variants. Also clears {@link DestroyDispatch} bookkeeping
-     * when the leaf is {@code DESTROY}.
+     * Drop method-resolution cache entries that depend on a given package sub
+     * (stash key {@code My::Pkg::foo}); see {@link #invalidateCacheForSub(String)}.
      */
     public static void invalidateMethodLookupCachesForStashSubKey(String stashFqn) {
         if (stashFqn == null || stashFqn.isEmpty()) {
             return;
         }
-        int chop = stashFqn.lastIndexOf("::");
-        String leaf = chop < 0 ? stashFqn : stashFqn.substring(chop + 2);
-        if (leaf.isEmpty()) {
-            return;
-        }
-        String suffix = "::" + leaf;
-        String suffixNoAutoload = suffix + "\0noautoload";
-        SHARED_SYMBOL_MUTATION_EPOCH.incrementAndGet();
-        MroRuntimeState state = currentState();
-        state.methodCache().entrySet().removeIf(e -> {
-            String k = e.getKey();
-            return k.endsWith(suffixNoAutoload)
-                    || k.endsWith(suffix)
-                    || k.equals(leaf)
-                    || k.equals(leaf + "\0noautoload");
-        });
-        if ("DESTROY".equals(leaf)) {
-            DestroyDispatch.invalidateCache();
-        }
+        invalidateCacheForSub(stashFqn.contains("::") ? stashFqn : "main::" + stashFqn);
     }
 
     /**
@@ -466,12 +527,18 @@ public class InheritanceResolver {
 
         // Check the method cache - handles both found and not-found cases
         if (methodCache.containsKey(cacheKey)) {
+            if (RuntimeMetrics.ENABLED) {
+                RuntimeMetrics.count(RuntimeMetrics.Counter.MRO_METHOD_CACHE_HITS);
+            }
             if (TRACE_METHOD_RESOLUTION) {
                 System.err.println("  Found in cache: " + (methodCache.get(cacheKey) != null ? "YES" : "NULL"));
                 System.err.flush();
             }
             return methodCache.get(cacheKey);
         }
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.count(RuntimeMetrics.Counter.MRO_METHOD_CACHE_MISSES);
+        }
 
         // Get the linearized inheritance hierarchy using the appropriate MRO
         List<String> linearizedClasses = linearizeHierarchy(perlClassName);
@@ -12,10 +12,8 @@ import java.util.Set;
 /**
  * Mutable inheritance and method-resolution state owned by one Perl runtime.
  *
- * <p>The Perl symbol tables remain process-global until Phase 8. The resolver
- * therefore uses a temporary process-wide mutation epoch to make a runtime
- * discard derived entries after another runtime changes those shared tables.
- * The maps and Perl-visible MRO controls themselves are runtime-local.</p>
+ * <p>Each runtime owns its symbol tables, so a definition or {@code @ISA}
+ * change only ever invalidates the caches of the runtime that made it.</p>
  */
 public final class MroRuntimeState {
     private final Map<String, List<String>> linearizedClassesCache = new HashMap<>();
@@ -33,8 +31,6 @@ public final class MroRuntimeState {
     private long isaGeneration;
     private long subGeneration = 1;
     private long isaRevGeneration = -1;
-    private long observedSymbolMutationEpoch;
-    private long observedIsaMutationEpoch;
 
     public Map<String, List<String>> linearizedClassesCache() {
         return linearizedClassesCache;
@@ -118,24 +114,10 @@ public final class MroRuntimeState {
         isaRevGeneration = -1;
     }
 
-    /**
-     * Observe mutations to the temporarily shared symbol tables.
-     *
-     * @return true when derived method/MRO caches were discarded
-     */
-    public boolean observeSharedMutationEpochs(long symbolEpoch, long isaEpoch) {
-        boolean changed = observedSymbolMutationEpoch != symbolEpoch;
-        if (changed) {
-            observedSymbolMutationEpoch = symbolEpoch;
-            clearDerivedCaches();
-        }
-        if (observedIsaMutationEpoch != isaEpoch) {
-            observedIsaMutationEpoch = isaEpoch;
-            isaGeneration++;
-            clearReverseIsaCache();
-            changed = true;
-        }
-        return changed;
+    /** Start a new {@code @ISA} generation; the reverse index is rebuilt on demand. */
+    public void noteIsaMutation() {
+        isaGeneration++;
+        clearReverseIsaCache();
     }
 
     /** Used by deterministic tests and runtime reset without exposing map internals. */
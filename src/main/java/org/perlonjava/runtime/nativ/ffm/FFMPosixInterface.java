@@ -161,6 +161,33 @@ public interface FFMPosixInterface {
     default boolean pollReadReady(int fd) {
         return false;
     }
+
+    /**
+     * Wait up to {@code timeoutMillis} for any of the native descriptors to
+     * become readable, reach EOF, or report an error, like {@code poll(2)}
+     * with {@code POLLIN}. Platforms without {@code poll} check every
+     * {@code fd} with {@link #pollReadReady(int)} after a short sleep.
+     *
+     * @param fds           native file descriptors
+     * @param timeoutMillis maximum wait; 0 checks without waiting
+     * @return true when a read on one of them would not block
+     */
+    default boolean waitReadReady(int[] fds, int timeoutMillis) {
+        for (int fd : fds) {
+            if (pollReadReady(fd)) return true;
+        }
+        if (timeoutMillis <= 0) return false;
+        try {
+            Thread.sleep(Math.min(timeoutMillis, 10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        for (int fd : fds) {
+            if (pollReadReady(fd)) return true;
+        }
+        return false;
+    }
     
     // ==================== PTY/Terminal Functions ====================
     
@@ -889,6 +889,34 @@ public class FFMPosixLinux implements FFMPosixInterface {
         }
     }
     
+    @Override
+    public boolean waitReadReady(int[] fds, int timeoutMillis) {
+        ensureInitialized();
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment pollfds = arena.allocate(8L * fds.length, 4);
+            for (int i = 0; i < fds.length; i++) {
+                pollfds.set(ValueLayout.JAVA_INT, 8L * i, fds[i]);
+                pollfds.set(ValueLayout.JAVA_SHORT, 8L * i + 4, (short) 0x0001); // POLLIN
+                pollfds.set(ValueLayout.JAVA_SHORT, 8L * i + 6, (short) 0);
+            }
+            int result = IS_MACOS
+                    ? (int) pollHandle.invokeExact(pollfds, fds.length, timeoutMillis)
+                    : (int) pollHandle.invokeExact(pollfds, (long) fds.length, timeoutMillis);
+            if (result <= 0) {
+                return false;
+            }
+            for (int i = 0; i < fds.length; i++) {
+                short revents = pollfds.get(ValueLayout.JAVA_SHORT, 8L * i + 6);
+                if ((revents & (0x0001 | 0x0008 | 0x0010 | 0x0020)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+    
     // ==================== Low-level FD Functions ====================
     
     @Override
@@ -10,6 +10,7 @@ import org.perlonjava.runtime.nativ.ffm.FFMPosix;
 import org.perlonjava.runtime.perlmodule.Socket;
 import org.perlonjava.runtime.perlmodule.Warnings;
 import org.perlonjava.runtime.runtimetypes.*;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.io.File;
 import java.io.IOException;
@@ -17,9 +18,6 @@ import java.net.*;
 import java.net.StandardProtocolFamily;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.FileChannel;
-import java.nio.channels.SelectableChannel;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
@@ -76,7 +74,7 @@ public class IOOperator {
                 return new RuntimeScalar(0);
             }
 
-            // Implement 4-arg select() using NIO Selector
+            // Implement 4-arg select() on the runtime's persistent selector
             try {
                 return selectWithNIO(rbits, wbits, ebits, timeout);
             } catch (Exception e) {
@@ -105,8 +103,8 @@ public class IOOperator {
     }
 
     /**
-     * Implements 4-arg select() using Java NIO Selector.
-     * Monitors file descriptors in the bit vectors for readiness.
+     * Implements 4-arg select() on the runtime's persistent
+     * {@link ReadinessSelector}.
      * Modifies the bit vectors in place to reflect which descriptors are ready.
      *
      * @param rbits   read bit vector (modified in place)
@@ -120,302 +118,65 @@ public class IOOperator {
         byte[] rdata = rbits.getDefinedBoolean() ? getVecBytes(rbits) : new byte[0];
         byte[] wdata = wbits.getDefinedBoolean() ? getVecBytes(wbits) : new byte[0];
         byte[] edata = ebits.getDefinedBoolean() ? getVecBytes(ebits) : new byte[0];
-        int maxFd = Math.max(rdata.length, Math.max(wdata.length, edata.length)) * 8;
+        int maxFd = Math.max(rdata.length, wdata.length) * 8;
 
-        Selector selector = Selector.open();
-        List<SelectableChannel> madeNonBlocking = new ArrayList<>();
-
-        try {
-            Map<SelectableChannel, Integer> channelToFd = new HashMap<>();
-            List<Integer> pollableFds = new ArrayList<>();
-            List<Integer> pollableSslFds = new ArrayList<>();
-            Set<Integer> immediateReadReadyFds = new HashSet<>();
-            Set<Integer> immediateWriteReadyFds = new HashSet<>();
-            int nonSocketReady = 0;
-
-            for (int fd = 0; fd < maxFd; fd++) {
-                boolean wantRead = isBitSet(rdata, fd);
-                boolean wantWrite = isBitSet(wdata, fd);
-                if (!wantRead && !wantWrite) continue;
-
-                RuntimeIO rio = RuntimeIO.getByFileno(fd);
-                if (rio == null) continue;
-
-                IOHandle pollHandle = selectableHandle(rio.ioHandle);
-                if (pollHandle instanceof SocketIO socketIO) {
-                    SelectableChannel ch = socketIO.getSelectableChannel();
-                    if (ch == null) {
-                        // SSL sockets created without an underlying SocketChannel
-                        // cannot be registered with a Selector. Poll decrypted
-                        // bytes via pending()/available(); never report read
-                        // readiness solely because the handle is SSL-wrapped.
-                        boolean readReady = false;
-                        boolean writeReady = false;
-                        if (wantRead) {
-                            try {
-                                readReady = socketIO.available() > 0;
-                            } catch (Exception e) {
-                                readReady = true; // Err on the side of surfacing the read error
-                            }
-                        }
-                        if (wantWrite) {
-                            writeReady = true; // Blocking SSL sockets are writable for select() purposes
-                        }
-                        if (readReady) {
-                            immediateReadReadyFds.add(fd);
-                        } else if (wantRead) {
-                            pollableSslFds.add(fd);
-                        }
-                        if (writeReady) {
-                            immediateWriteReadyFds.add(fd);
-                        }
-                        if (readReady || writeReady) {
-                            nonSocketReady++;
-                        }
-                        continue;
-                    }
-
-                    if (ch.isBlocking()) {
-                        ch.configureBlocking(false);
-                        madeNonBlocking.add(ch);
-                    }
-
-                    boolean readReadyNow = wantRead && socketIO.hasPendingDatagramError();
-                    if (readReadyNow) {
-                        immediateReadReadyFds.add(fd);
-                        nonSocketReady++;
-                    }
-
-                    int ops = 0;
-                    if (wantRead && !readReadyNow) {
-                        ops |= (ch instanceof ServerSocketChannel)
-                                ? SelectionKey.OP_ACCEPT
-                                : SelectionKey.OP_READ;
-                    }
-                    if (wantWrite) {
-                        if (ch instanceof SocketChannel sc) {
-                            // For non-blocking connects in progress, use OP_CONNECT.
-                            // Perl's select() treats write-readiness as "connect complete",
-                            // but Java NIO requires OP_CONNECT for pending connections.
-                            if (sc.isConnectionPending()) {
-                                ops |= SelectionKey.OP_CONNECT;
-                            } else {
-                                ops |= SelectionKey.OP_WRITE;
-                            }
-                        } else if (ch instanceof java.nio.channels.DatagramChannel) {
-                            ops |= SelectionKey.OP_WRITE;
-                        }
-                    }
-
-                    if (ops != 0) {
-                        ch.register(selector, ops);
-                        channelToFd.put(ch, fd);
-                    }
-                } else {
-                    // Non-socket handles (files, pipes): check actual readiness
-                    // using FileDescriptorTable.isReadReady/isWriteReady instead of
-                    // assuming always-ready (which causes POE's event loop to busy-loop).
-                    boolean ready = false;
-                    if (wantRead && FileDescriptorTable.isReadReady(pollHandle)) {
-                        ready = true;
-                    }
-                    if (wantWrite && FileDescriptorTable.isWriteReady(pollHandle)) {
-                        ready = true;
-                    }
-                    if (ready) {
-                        nonSocketReady++;
-                    } else {
-                        // Track pollable fds that aren't ready yet
-                        pollableFds.add(fd);
-                    }
-                }
-            }
-
-            // Perform the select with polling for non-NIO handles
-            double timeoutSec = timeout.getDefinedBoolean() ? timeout.getDouble() : -1;
-
-            if (nonSocketReady > 0 && channelToFd.isEmpty()) {
-                // Some non-socket handles already ready, no NIO channels — return immediately
-            } else if (!channelToFd.isEmpty() || !pollableFds.isEmpty() || !pollableSslFds.isEmpty()) {
-                // Poll loop: check both NIO selector and pollable fds
-                long deadlineMs = (timeoutSec < 0) ? Long.MAX_VALUE
-                        : System.currentTimeMillis() + (long) (timeoutSec * 1000);
-                long pollIntervalMs = 10; // 10ms poll interval for pipes
-
-                while (true) {
-                    // Check NIO selector
-                    if (!channelToFd.isEmpty()) {
-                        long remainMs = Math.min(pollIntervalMs,
-                                Math.max(0, deadlineMs - System.currentTimeMillis()));
-                        if (timeoutSec < 0 && pollableFds.isEmpty()) {
-                            selector.select(pollIntervalMs); // block with poll interval
-                        } else {
-                            selector.select(Math.max(1, remainMs));
-                        }
-                        if (!selector.selectedKeys().isEmpty()) break;
-                    }
-
-                    // Check pollable (non-NIO) fds
-                    for (int fd : pollableFds) {
-                        RuntimeIO rio = RuntimeIO.getByFileno(fd);
-                        if (rio == null) continue;
-                        boolean wantRead = isBitSet(rdata, fd);
-                        boolean wantWrite = isBitSet(wdata, fd);
-                        IOHandle pollHandle = selectableHandle(rio.ioHandle);
-                        if (wantRead && FileDescriptorTable.isReadReady(pollHandle)) {
-                            nonSocketReady++;
-                        }
-                        if (wantWrite && FileDescriptorTable.isWriteReady(pollHandle)) {
-                            nonSocketReady++;
-                        }
-                    }
-                    for (int fd : pollableSslFds) {
-                        RuntimeIO rio = RuntimeIO.getByFileno(fd);
-                        if (rio == null || !(selectableHandle(rio.ioHandle) instanceof SocketIO socketIO)) continue;
-                        try {
-                            if (socketIO.available() > 0) {
-                                immediateReadReadyFds.add(fd);
-                                nonSocketReady++;
-                            }
-                        } catch (Exception e) {
-                            immediateReadReadyFds.add(fd);
-                            nonSocketReady++;
-                        }
-                    }
-                    if (nonSocketReady > 0) break;
-
-                    // Check timeout
-                    if (timeoutSec >= 0 && System.currentTimeMillis() >= deadlineMs) break;
-
-                    // Sleep before next poll if no NIO channels to select on
-                    if (channelToFd.isEmpty()) {
-                        try {
-                            long sleepMs = Math.min(pollIntervalMs,
-                                    Math.max(1, deadlineMs - System.currentTimeMillis()));
-                            Thread.sleep(sleepMs);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
-                    }
-                }
-            } else if (timeoutSec > 0) {
-                // Nothing to monitor — just sleep for timeout
-                try {
-                    Thread.sleep((long) (timeoutSec * 1000));
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-
-            // Build result bit vectors (same size as input)
-            byte[] rresult = new byte[rdata.length];
-            byte[] wresult = new byte[wdata.length];
-            byte[] eresult = new byte[edata.length];
-            int totalReady = 0;
-
-            // Non-socket handles and SSL sockets (no NIO channel): set result bits
-            for (int fd = 0; fd < maxFd; fd++) {
-                RuntimeIO rio = RuntimeIO.getByFileno(fd);
-                if (rio == null) continue;
-
-                IOHandle pollHandle = selectableHandle(rio.ioHandle);
-                if (pollHandle instanceof SocketIO socketIO) {
-                    // Only handle SocketIO with null channel (SSL sockets)
-                    if (socketIO.getSelectableChannel() != null) continue;
-
-                    // SSL socket without a selectable channel: set only the
-                    // readiness bits discovered above.
-                    if (isBitSet(rdata, fd) && immediateReadReadyFds.contains(fd)) {
-                        setBit(rresult, fd); totalReady++;
-                    }
-                    if (isBitSet(wdata, fd) && immediateWriteReadyFds.contains(fd)) {
-                        setBit(wresult, fd); totalReady++;
-                    }
-                    continue;
-                }
-
-                // Non-socket handles
-                if (isBitSet(rdata, fd) && FileDescriptorTable.isReadReady(pollHandle)) {
-                    setBit(rresult, fd); totalReady++;
-                }
-                if (isBitSet(wdata, fd) && FileDescriptorTable.isWriteReady(pollHandle)) {
-                    setBit(wresult, fd); totalReady++;
-                }
-            }
-
-            // Synthetic socket readiness that Java NIO does not expose, such as
-            // connected UDP socketpair peer-closed errors.
-            for (int fd : immediateReadReadyFds) {
-                if (isBitSet(rdata, fd)) {
-                    setBit(rresult, fd);
-                    totalReady++;
-                }
-            }
-
-            // Process selected keys
-            for (SelectionKey key : selector.selectedKeys()) {
-                Integer fd = channelToFd.get(key.channel());
-                if (fd == null) continue;
-                int readyOps = key.readyOps();
+        int count = 0;
+        int[] fds = new int[maxFd];
+        int[] events = new int[maxFd];
+        for (int fd = 0; fd < maxFd; fd++) {
+            int wanted = (isBitSet(rdata, fd) ? ReadinessSelector.POLLIN : 0)
+                    | (isBitSet(wdata, fd) ? ReadinessSelector.POLLOUT : 0);
+            if (wanted == 0) continue;
+            fds[count] = fd;
+            events[count++] = wanted;
+        }
+        fds = Arrays.copyOf(fds, count);
+        events = Arrays.copyOf(events, count);
+        int[] revents = new int[count];
 
-                if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0
-                        && isBitSet(rdata, fd)) {
-                    setBit(rresult, fd);
-                    totalReady++;
-                }
-                // OP_CONNECT means the non-blocking connect completed — treat as write-ready.
-                // Do NOT call finishConnect() here — leave the connection pending so that
-                // a subsequent connect() call (as IO::Socket does) can detect the result
-                // via finishConnect() and set $! appropriately (EISCONN or ECONNREFUSED).
-                // This matches POSIX behavior where select() just reports readiness.
-                if ((readyOps & (SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT)) != 0 && isBitSet(wdata, fd)) {
-                    setBit(wresult, fd);
-                    totalReady++;
-                }
-            }
+        double timeoutSec = timeout.getDefinedBoolean() ? timeout.getDouble() : -1;
+        long timeoutMillis = timeoutSec < 0 ? -1 : (long) Math.ceil(timeoutSec * 1000);
+        PerlRuntime.current().ioRegistryState.readiness().poll(fds, events, revents, timeoutMillis);
 
-            // Modify the original scalars in place.
-            // Only set back if the input had actual content (length > 0).
-            // Empty string '' means "don't monitor" — no modification needed,
-            // and attempting to set a read-only string literal would throw.
-            if (rdata.length > 0) {
-                rbits.set(new String(rresult, StandardCharsets.ISO_8859_1));
-            }
-            if (wdata.length > 0) {
-                wbits.set(new String(wresult, StandardCharsets.ISO_8859_1));
+        // Build result bit vectors (same size as input). Descriptors select()
+        // cannot watch (POLLNVAL) are left clear, as before.
+        byte[] rresult = new byte[rdata.length];
+        byte[] wresult = new byte[wdata.length];
+        byte[] eresult = new byte[edata.length];
+        int totalReady = 0;
+        for (int i = 0; i < count; i++) {
+            if ((revents[i] & ReadinessSelector.POLLIN) != 0) {
+                setBit(rresult, fds[i]);
+                totalReady++;
             }
-            if (edata.length > 0) {
-                ebits.set(new String(eresult, StandardCharsets.ISO_8859_1));
+            if ((revents[i] & ReadinessSelector.POLLOUT) != 0) {
+                setBit(wresult, fds[i]);
+                totalReady++;
             }
+        }
 
-            return new RuntimeScalar(totalReady);
-
-        } finally {
-            // Close the selector first — this deregisters all keys,
-            // allowing us to restore blocking mode
-            selector.close();
-
-            // Restore blocking mode for channels we modified
-            for (SelectableChannel ch : madeNonBlocking) {
-                try {
-                    ch.configureBlocking(true);
-                } catch (Exception ignored) {
-                }
-            }
+        // Modify the original scalars in place.
+        // Only set back if the input had actual content (length > 0).
+        // Empty string '' means "don't monitor" — no modification needed,
+        // and attempting to set a read-only string literal would throw.
+        if (rdata.length > 0) {
+            rbits.set(new String(rresult, StandardCharsets.ISO_8859_1));
+        }
+        if (wdata.length > 0) {
+            wbits.set(new String(wresult, StandardCharsets.ISO_8859_1));
+        }
+        if (edata.length > 0) {
+            ebits.set(new String(eresult, StandardCharsets.ISO_8859_1));
         }
+
+        return new RuntimeScalar(totalReady);
     }
 
     /**
      * Extracts the raw bytes from a bit-vector scalar (as used by vec/select).
      */
     private static byte[] getVecBytes(RuntimeScalar scalar) {
-        String s = scalar.toString();
-        byte[] data = new byte[s.length()];
-        for (int i = 0; i < s.length(); i++) {
-            data[i] = (byte) s.charAt(i);
-        }
-        return data;
+        return ByteStrings.toBytes(scalar);
     }
 
     private static IOHandle selectableHandle(IOHandle handle) {
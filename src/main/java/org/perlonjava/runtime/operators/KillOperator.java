@@ -4,7 +4,11 @@ import org.perlonjava.runtime.nativ.NativeUtils;
 import org.perlonjava.runtime.nativ.ffm.FFMPosix;
 import org.perlonjava.runtime.nativ.ffm.FFMPosixInterface;
 import org.perlonjava.runtime.runtimetypes.GlobalContext;
+import org.perlonjava.runtime.runtimetypes.JperlChildProcess;
 import org.perlonjava.runtime.runtimetypes.PerlCompilerException;
+import org.perlonjava.runtime.runtimetypes.PerlExitException;
+import org.perlonjava.runtime.runtimetypes.PerlPseudoProcess;
+import org.perlonjava.runtime.runtimetypes.PerlRuntime;
 import org.perlonjava.runtime.runtimetypes.PerlSignalQueue;
 import org.perlonjava.runtime.runtimetypes.RuntimeBase;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
@@ -62,9 +66,18 @@ public class KillOperator {
             for (RuntimeScalar scalar : args[i]) {
                 RuntimeScalar.checkTaint(scalar, "kill");
                 int pid = scalar.getInt();
+                JperlChildProcess jperlChild = JperlChildProcess.find(pid);
 
-                // Special case: negative PID means process group
-                if (pid < 0 && !NativeUtils.IS_WINDOWS) {
+                if (PerlPseudoProcess.isPseudoPid(pid)) {
+                    if (sendSignalToPseudoProcess(pid, signal)) {
+                        successCount++;
+                    }
+                } else if (jperlChild != null) {
+                    if (sendSignalToJperlChild(jperlChild, signal)) {
+                        successCount++;
+                    }
+                } else if (pid < 0 && !NativeUtils.IS_WINDOWS) {
+                    // Special case: negative PID means process group
                     if (sendSignalToProcessGroup(-pid, signal)) {
                         successCount++;
                     }
@@ -102,6 +115,44 @@ public class KillOperator {
         };
     }
 
+    /**
+     * Signal a pseudo-fork child. Signal 0 only checks that the child is
+     * still running; other signals are delivered at its next safe point.
+     */
+    private static boolean sendSignalToPseudoProcess(int pid, int signal) {
+        PerlPseudoProcess child = PerlPseudoProcess.find(pid);
+        if (child == null || child.isFinished()) {
+            setErrno(3); // ESRCH
+            return false;
+        }
+        if (signal == 0) {
+            return true;
+        }
+        String sigName = getSignalName(signal);
+        if (sigName == null) {
+            setErrno(22); // EINVAL
+            return false;
+        }
+        return child.signal(sigName);
+    }
+
+    /** Signal an in-process jperl child, as {@link #sendSignalToPseudoProcess} does. */
+    private static boolean sendSignalToJperlChild(JperlChildProcess child, int signal) {
+        if (signal == 0) {
+            if (child.isAlive()) return true;
+            setErrno(3); // ESRCH
+            return false;
+        }
+        String sigName = getSignalName(signal);
+        if (sigName == null) {
+            setErrno(22); // EINVAL
+            return false;
+        }
+        if (child.signal(sigName)) return true;
+        setErrno(3); // ESRCH
+        return false;
+    }
+
     private static boolean sendSignalToPid(int pid, int signal) {
         long myPid = ProcessHandle.current().pid();
         if (pid == myPid && signal != 0) {
@@ -124,6 +175,11 @@ public class KillOperator {
                 
                 // DEFAULT behavior or no handler: terminate for fatal signals
                 if (isDefaultFatalSignal(signal)) {
+                    if (PerlRuntime.current().isChildInSharedJvm()) {
+                        // A child sharing the JVM ends only itself
+                        PerlPseudoProcess.terminateOnSignal(sigName);
+                        throw new PerlExitException(128 + signal);
+                    }
                     // Exit with signal status (like Perl does)
                     // The exit code is 128 + signal on POSIX systems
                     System.exit(128 + signal);
@@ -108,6 +108,7 @@ public class Operator {
         String inputStr = string.toString();
         RuntimeList result = new RuntimeList();
         List<RuntimeBase> splitElements = result.elements;
+        int fieldCount = -1;  // Set when fields were counted without being materialized
 
         // Special case: splitting an empty string always returns an empty list
         if (inputStr.isEmpty()) {
@@ -142,7 +143,10 @@ public class Operator {
                 regex = (RuntimeRegex) quotedRegex.value;
             }
 
-            if (regex.sourcePattern().isEmpty()) {
+            String separator = regex.sourcePattern().isEmpty() ? null : regex.literalText();
+            if (separator != null) {
+                fieldCount = splitOnLiteral(inputStr, separator, limit, ctx != SCALAR, splitElements);
+            } else if (regex.sourcePattern().isEmpty()) {
                 // Special case: if the pattern matches the empty string, split between characters
                 if (limit > 0) {
                     for (int i = 0; i < inputStr.length() && splitElements.size() < limit - 1; i++) {
@@ -164,6 +168,7 @@ public class Operator {
                 RegexMatcher matcher = regex.matcher(string, inputStr);
                 int lastEnd = 0;
                 int splitCount = 0;
+                boolean[] codeBlockCapture = codeBlockCaptures(matcher);
 
                 try {
                     while (matcher.find() && (limit <= 0 || splitCount < limit - 1)) {
@@ -186,21 +191,9 @@ public class Operator {
                         }
 
                         // Add captured groups if any (but skip code block captures)
-                        Map<String, Integer> namedGroups = matcher.namedGroups();
                         for (int i = 1; i <= matcher.groupCount(); i++) {
-                            // Check if this is a code block capture (starts with "cb")
-                            boolean isCodeBlockCapture = false;
-                            if (namedGroups != null) {
-                                for (Map.Entry<String, Integer> entry : namedGroups.entrySet()) {
-                                    if (entry.getValue() == i && entry.getKey().startsWith("cb")) {
-                                        isCodeBlockCapture = true;
-                                        break;
-                                    }
-                                }
-                            }
-
                             // Only add non-code-block captures to split results
-                            if (!isCodeBlockCapture) {
+                            if (i >= codeBlockCapture.length || !codeBlockCapture[i]) {
                                 String group = matcher.group(i);
                                 splitElements.add(group != null ? new RuntimeScalar(group) : scalarUndef);
                             }
@@ -307,12 +300,71 @@ public class Operator {
         }
 
         if (ctx == SCALAR) {
-            int size = result.elements.size();
+            int size = fieldCount >= 0 ? fieldCount : result.elements.size();
             return getScalarInt(size).propagateTaint(string).getList();
         }
         return result;
     }
 
+    /**
+     * Splits on a plain-text separator. Field offsets are found with
+     * {@link String#indexOf}, which avoids encoding the input for the regex
+     * engine. Substrings are taken only for fields that are returned, so
+     * dropped trailing empty fields and scalar-context counts copy nothing.
+     *
+     * @return the number of fields
+     */
+    private static int splitOnLiteral(String input, String separator, int limit,
+                                      boolean materialize, List<RuntimeBase> out) {
+        int[] bounds = new int[16];
+        int fields = 0;
+        int lastEnd = 0;
+        int at;
+        while ((limit <= 0 || fields < limit - 1) && (at = input.indexOf(separator, lastEnd)) >= 0) {
+            if (2 * fields + 2 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[2 * fields] = lastEnd;
+            bounds[2 * fields + 1] = at;
+            fields++;
+            lastEnd = at + separator.length();
+        }
+        if (2 * fields + 2 > bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length + 2);
+        }
+        bounds[2 * fields] = lastEnd;
+        bounds[2 * fields + 1] = input.length();
+        fields++;
+
+        if (limit == 0) {
+            // Trailing empty fields are dropped before any substring is taken
+            while (fields > 0 && bounds[2 * fields - 2] == bounds[2 * fields - 1]) {
+                fields--;
+            }
+        }
+        if (materialize) {
+            for (int i = 0; i < fields; i++) {
+                out.add(new RuntimeScalar(input.substring(bounds[2 * i], bounds[2 * i + 1])));
+            }
+        }
+        return fields;
+    }
+
+    /** Marks the capture numbers that belong to code blocks; split skips those. */
+    private static boolean[] codeBlockCaptures(RegexMatcher matcher) {
+        Map<String, Integer> namedGroups = matcher.namedGroups();
+        boolean[] codeBlock = new boolean[matcher.groupCount() + 1];
+        if (namedGroups != null) {
+            for (Map.Entry<String, Integer> entry : namedGroups.entrySet()) {
+                int group = entry.getValue();
+                if (entry.getKey().startsWith("cb") && group > 0 && group < codeBlock.length) {
+                    codeBlock[group] = true;
+                }
+            }
+        }
+        return codeBlock;
+    }
+
     /**
      * After a zero-width match at {@code pos}, return the end offset of the
      * shortest non-zero-width match of {@code pattern} starting exactly at
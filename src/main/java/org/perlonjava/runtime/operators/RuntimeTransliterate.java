@@ -16,6 +16,10 @@ import java.util.*;
  */
 public class RuntimeTransliterate {
 
+    // Markers in latin1Map for characters outside the search list and deleted ones
+    private static final int KEEP = -1;
+    private static final int DELETE = -2;
+
     // Mapping from source characters to target characters
     private Map<Integer, Integer> translationMap;
 
@@ -34,6 +38,18 @@ public class RuntimeTransliterate {
     // For complement mode, we need to know the replacement pattern
     private List<Integer> replacementChars;
 
+    // Non-complement mapping for U+0000..U+00FF: target character, KEEP or DELETE
+    private int[] latin1Map;
+
+    // Characters U+0000..U+00FF that are counted, with complement applied
+    private boolean[] latin1Matched;
+
+    // tr/a-z// and tr/a-z//c only count: nothing is replaced, deleted or squashed
+    private boolean countOnly;
+
+    // Some replacement character needs a surrogate pair
+    private boolean supplementaryTargets;
+
     /**
      * Compiles a RuntimeTransliterate object from a pattern string with optional modifiers.
      */
@@ -43,11 +59,28 @@ public class RuntimeTransliterate {
         return transliterate;
     }
 
+    /**
+     * Compiles the tables for tr/// operands known at compile time. A callsite
+     * calls this on its first execution and keeps the result, which is never
+     * modified, so compile errors such as invalid ranges still happen at run time.
+     */
+    public static RuntimeTransliterate compileConstant(String search, String replace, String modifiers) {
+        RuntimeTransliterate transliterate = new RuntimeTransliterate();
+        transliterate.compileTransliteration(search, replace, modifiers);
+        return transliterate;
+    }
+
     /**
      * Applies the transliteration pattern to the given string.
      */
     public RuntimeScalar transliterate(RuntimeScalar originalString, int ctx) {
         String input = originalString.toString();
+        if (countOnly) {
+            return finish(originalString, input, input, countMatches(input), ctx);
+        }
+        if (!complement) {
+            return transliterateMapped(originalString, input, ctx);
+        }
         StringBuilder result = new StringBuilder();
         int count = 0;
         Integer lastChar = null;
@@ -66,94 +99,64 @@ public class RuntimeTransliterate {
                 i++; // Skip the low surrogate of a valid surrogate pair
             }
 
-            boolean matched = false;
-
-            if (complement) {
-                // In complement mode, we process characters NOT in the original search set
-                matched = !searchSet.contains(codePoint);
-            } else {
-                // Normal mode: process characters IN the search set
-                matched = searchSet.contains(codePoint);
-            }
-
-            if (matched) {
+            // Complement mode processes the characters NOT in the search set
+            if (!searchSet.contains(codePoint)) {
                 count++;
 
-                if (complement) {
-                    // Special handling for complement mode
-                    if (deleteUnmatched && replacementChars.isEmpty()) {
-                        // Delete mode with empty replacement
-                        lastChar = null;
-                        lastCharWasTransliterated = false;
-                    } else if (replacementChars.isEmpty()) {
-                        // Empty replacement, non-delete mode - keep character as is
-                        if (!squashDuplicates || lastChar == null || !lastCharWasTransliterated || lastChar != codePoint) {
-                            appendCodePoint(result, codePoint);
-                            lastCharWasTransliterated = true;
+                // Special handling for complement mode
+                if (deleteUnmatched && replacementChars.isEmpty()) {
+                    // Delete mode with empty replacement
+                    lastChar = null;
+                    lastCharWasTransliterated = false;
+                } else if (replacementChars.isEmpty()) {
+                    // Empty replacement, non-delete mode - keep character as is
+                    if (!squashDuplicates || lastChar == null || !lastCharWasTransliterated || lastChar != codePoint) {
+                        appendCodePoint(result, codePoint);
+                        lastCharWasTransliterated = true;
+                    }
+                    lastChar = codePoint;
+                } else {
+                    Integer mappedChar = null;
+
+                    // Check if this is the common case of search range 0x00-0xFF
+                    if (isRange0x00_0xFF(searchSet)) {
+                        // Calculate position relative to first char after range
+                        int position = codePoint - 0x100;
+                        if (position >= 0) {
+                            // Use position as index with wraparound
+                            int index = position % replacementChars.size();
+                            mappedChar = replacementChars.get(index);
+                        } else {
+                            // This shouldn't happen for chars matching complement
+                            mappedChar = replacementChars.get(0);
                         }
-                        lastChar = codePoint;
                     } else {
-                        Integer mappedChar = null;
-
-                        // Check if this is the common case of search range 0x00-0xFF
-                        if (isRange0x00_0xFF(searchSet)) {
-                            // Calculate position relative to first char after range
-                            int position = codePoint - 0x100;
-                            if (position >= 0) {
-                                // Use position as index with wraparound
-                                int index = position % replacementChars.size();
-                                mappedChar = replacementChars.get(index);
-                            } else {
-                                // This shouldn't happen for chars matching complement
-                                mappedChar = replacementChars.get(0);
-                            }
+                        // For other search ranges, use sequential assignment
+                        // Check if we've already assigned a mapping for this character
+                        if (complementMap.containsKey(codePoint)) {
+                            mappedChar = complementMap.get(codePoint);
                         } else {
-                            // For other search ranges, use sequential assignment
-                            // Check if we've already assigned a mapping for this character
-                            if (complementMap.containsKey(codePoint)) {
-                                mappedChar = complementMap.get(codePoint);
+                            // Assign new mapping
+                            if (replacementIndex < replacementChars.size()) {
+                                mappedChar = replacementChars.get(replacementIndex++);
+                                complementMap.put(codePoint, mappedChar);
+                            } else if (deleteUnmatched) {
+                                // With /d modifier, delete characters that have no replacement
+                                lastChar = null;
+                                lastCharWasTransliterated = false;
+                                continue;  // Skip this character (delete it)
                             } else {
-                                // Assign new mapping
-                                if (replacementIndex < replacementChars.size()) {
-                                    mappedChar = replacementChars.get(replacementIndex++);
-                                    complementMap.put(codePoint, mappedChar);
-                                } else if (deleteUnmatched) {
-                                    // With /d modifier, delete characters that have no replacement
-                                    lastChar = null;
-                                    lastCharWasTransliterated = false;
-                                    continue;  // Skip this character (delete it)
-                                } else {
-                                    // Use last replacement character
-                                    mappedChar = replacementChars.get(replacementChars.size() - 1);
-                                    complementMap.put(codePoint, mappedChar);
-                                }
+                                // Use last replacement character
+                                mappedChar = replacementChars.get(replacementChars.size() - 1);
+                                complementMap.put(codePoint, mappedChar);
                             }
                         }
-
-                        if (!squashDuplicates || lastChar == null || !lastCharWasTransliterated || !lastChar.equals(mappedChar)) {
-                            appendCodePoint(result, mappedChar);
-                            lastChar = mappedChar;
-                            lastCharWasTransliterated = true;
-                        }
                     }
-                } else {
-                    // Normal mode handling
-                    if (deleteSet.contains(codePoint)) {
-                        // Character should be deleted - DON'T change lastChar!
-                        // We need to preserve it for squashing logic
-                    } else if (translationMap.containsKey(codePoint)) {
-                        int mappedChar = translationMap.get(codePoint);
-                        // Handle squash duplicates - only squash if the last char was also transliterated
-                        if (!squashDuplicates || lastChar == null || !lastCharWasTransliterated || !lastChar.equals(mappedChar)) {
-                            appendCodePoint(result, mappedChar);
-                            lastChar = mappedChar;
-                            lastCharWasTransliterated = true;
-                        }
-                    } else {
-                        // No mapping found (shouldn't happen if compilation is correct)
-                        appendCodePoint(result, codePoint);
-                        lastChar = codePoint;
-                        lastCharWasTransliterated = false;
+
+                    if (!squashDuplicates || lastChar == null || !lastCharWasTransliterated || !lastChar.equals(mappedChar)) {
+                        appendCodePoint(result, mappedChar);
+                        lastChar = mappedChar;
+                        lastCharWasTransliterated = true;
                     }
                 }
             } else {
@@ -164,8 +167,95 @@ public class RuntimeTransliterate {
             }
         }
 
-        String resultString = result.toString();
+        return finish(originalString, input, result.toString(), count, ctx);
+    }
+
+    /**
+     * Counts the characters the search list selects. Latin-1 characters are
+     * looked up in a table; the loop does not build a result string.
+     */
+    private int countMatches(String input) {
+        boolean[] matched = latin1Matched;
+        int count = 0;
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            char ch = input.charAt(i);
+            if (ch < 256) {
+                if (matched[ch]) count++;
+            } else {
+                int codePoint = input.codePointAt(i);
+                if (Character.isSupplementaryCodePoint(codePoint)) i++;
+                if (searchSet.contains(codePoint) != complement) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Non-complement transliteration. Latin-1 characters use the precomputed
+     * table, the rest go through the translation map.
+     */
+    private RuntimeScalar transliterateMapped(RuntimeScalar originalString, String input, int ctx) {
+        int[] map = latin1Map;
+        int length = input.length();
+        // Each character becomes at most one, or two when a target is outside the BMP
+        char[] result = new char[supplementaryTargets ? 2 * length : length];
+        int size = 0;
+        int count = 0;
+        int lastChar = -1;
+        boolean lastCharWasTransliterated = false;
+
+        for (int i = 0; i < length; i++) {
+            char ch = input.charAt(i);
+            int codePoint;
+            int mapped;
+            if (ch < 256) {
+                codePoint = ch;
+                mapped = map[ch];
+            } else {
+                codePoint = input.codePointAt(i);
+                if (Character.isSupplementaryCodePoint(codePoint)) i++;
+                if (!searchSet.contains(codePoint)) {
+                    mapped = KEEP;
+                } else if (deleteSet.contains(codePoint)) {
+                    mapped = DELETE;
+                } else {
+                    mapped = translationMap.get(codePoint);
+                }
+            }
+
+            if (mapped == KEEP) {
+                if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    result[size++] = (char) codePoint;
+                } else {
+                    size += Character.toChars(codePoint, result, size);
+                }
+                lastChar = codePoint;
+                lastCharWasTransliterated = false;
+                continue;
+            }
+            count++;
+            // A deleted character leaves lastChar alone, so squashing spans it
+            if (mapped == DELETE) continue;
+            if (!squashDuplicates || !lastCharWasTransliterated || lastChar != mapped) {
+                if (mapped < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    result[size++] = (char) mapped;
+                } else {
+                    size += Character.toChars(mapped, result, size);
+                }
+                lastChar = mapped;
+                lastCharWasTransliterated = true;
+            }
+        }
+
+        return finish(originalString, input, new String(result, 0, size), count, ctx);
+    }
 
+    /**
+     * Stores or returns the result of a transliteration and returns the count.
+     */
+    private RuntimeScalar finish(RuntimeScalar originalString, String input, String resultString,
+                                 int count, int ctx) {
         // Handle the /r modifier - return the transliterated string without modifying original
         if (returnOriginal) {
             if (ctx == RuntimeContextType.VOID) {
@@ -234,6 +324,21 @@ public class RuntimeTransliterate {
             setupNormalMapping(searchChars, replaceChars);
         }
         // For complement mode, we handle mapping dynamically during transliteration
+
+        countOnly = replaceChars.isEmpty() && !deleteUnmatched && !squashDuplicates;
+        supplementaryTargets = replaceChars.stream().anyMatch(Character::isSupplementaryCodePoint);
+        latin1Matched = new boolean[256];
+        latin1Map = new int[256];
+        for (int c = 0; c < 256; c++) {
+            latin1Matched[c] = searchSet.contains(c) != complement;
+            if (complement || !searchSet.contains(c)) {
+                latin1Map[c] = KEEP;
+            } else if (deleteSet.contains(c)) {
+                latin1Map[c] = DELETE;
+            } else {
+                latin1Map[c] = translationMap.get(c);
+            }
+        }
     }
 
     /**
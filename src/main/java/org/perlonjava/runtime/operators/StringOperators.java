@@ -546,15 +546,14 @@ public class StringOperators {
         RuntimeScalar bResolved = resolveTiedStringOperand(b);
         // Most callers select the warning-aware concat at compile time. Eval
         // STRING can change ${^WARNING_BITS} from a BEGIN block, after the
-        // enclosing call site was compiled, so retain a cheap undef-only
-        // runtime guard here as well. WarnDie performs the lexical category
-        // check and dispatches a localized __WARN__ handler when applicable.
-        String callSiteWarningBits = WarningBitsRegistry.getCallSiteBits();
-        boolean callSiteWarnsUninitialized = callSiteWarningBits == null
-                || WarningFlags.areWarningsForcedOn()
-                || WarningFlags.isEnabledInBits(callSiteWarningBits, "uninitialized");
-        if (warnUninitialized && callSiteWarnsUninitialized
-                && (!aResolved.getDefinedBoolean() || !bResolved.getDefinedBoolean())) {
+        // enclosing call site was compiled, so retain an undef-only runtime
+        // guard here as well. The call-site bits are only consulted once an
+        // operand is actually undefined; defined operands never pay for the
+        // lookup. WarnDie performs the lexical category check and dispatches
+        // a localized __WARN__ handler when applicable.
+        if (warnUninitialized
+                && (!aResolved.getDefinedBoolean() || !bResolved.getDefinedBoolean())
+                && callSiteWarnsUninitialized()) {
             WarnDie.warnWithCategory(
                     new RuntimeScalar("Use of uninitialized value in concatenation (.)"),
                     RuntimeScalarCache.scalarEmptyString, "uninitialized");
@@ -603,6 +602,13 @@ public class StringOperators {
         return propagateTaint(new RuntimeScalar(aStr + bStr), aResolved, bResolved);
     }
 
+    private static boolean callSiteWarnsUninitialized() {
+        String callSiteWarningBits = WarningBitsRegistry.getCallSiteBits();
+        return callSiteWarningBits == null
+                || WarningFlags.areWarningsForcedOn()
+                || WarningFlags.isEnabledInBits(callSiteWarningBits, "uninitialized");
+    }
+
     private static RuntimeScalar resolveTiedStringOperand(RuntimeScalar scalar) {
         return scalar.type == RuntimeScalarType.TIED_SCALAR ? scalar.tiedFetch() : scalar;
     }
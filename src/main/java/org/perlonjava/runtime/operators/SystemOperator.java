@@ -525,7 +525,11 @@ public class SystemOperator {
         if ("jperl".equals(new File(interpreter).getName())) {
             return true;
         }
+        return isRunningJperl(interpreter);
+    }
 
+    /** Whether {@code interpreter} is the launcher of this very jperl ({@code $^X}). */
+    private static boolean isRunningJperl(String interpreter) {
         String current = getCurrentJperlPath();
         if (current == null || current.isEmpty()) {
             return false;
@@ -540,6 +544,37 @@ public class SystemOperator {
         }
     }
 
+    /**
+     * Starts a child whose command has been resolved and whose environment and
+     * directory are set. A command that runs this jperl, directly or through
+     * an expanded jperl #! line, runs on a pooled runtime in this JVM when
+     * JPERL_INPROCESS=1 and the child needs nothing a real process would give it.
+     */
+    public static Process startProcess(ProcessBuilder processBuilder) throws IOException {
+        if (JperlChildProcess.isEnabled()) {
+            List<String> jperlArguments = jperlInterpreterArguments(processBuilder.command());
+            if (jperlArguments != null) {
+                Process child = JperlChildProcess.start(jperlArguments, processBuilder);
+                if (child != null) {
+                    return child;
+                }
+            }
+        }
+        return processBuilder.start();
+    }
+
+    /** The arguments after the interpreter when {@code command} runs this jperl, else null. */
+    private static List<String> jperlInterpreterArguments(List<String> command) {
+        if (command.size() >= 2 && "/bin/bash".equals(command.get(0)) && isRunningJperl(command.get(1))) {
+            // expandJperlShebangForProcessBuilder's form: /bin/bash jperl [switches] script args
+            return command.subList(2, command.size());
+        }
+        if (!command.isEmpty() && isRunningJperl(command.getFirst())) {
+            return command.subList(1, command.size());
+        }
+        return null;
+    }
+
     private static String getCurrentJperlPath() {
         try {
             RuntimeScalar value = GlobalVariable.getGlobalVariable("main::^X");
@@ -742,7 +777,7 @@ public class SystemOperator {
             // Copy %ENV to the subprocess environment
             copyPerlEnvToProcessBuilder(processBuilder);
 
-            process = processBuilder.start();
+            process = startProcess(processBuilder);
             closeChildStdin(process);
 
             // Route stdout and stderr through Perl handles so that
@@ -797,7 +832,7 @@ public class SystemOperator {
 
             // Route stderr through Perl STDERR handle (not INHERIT which bypasses Perl redirections)
 
-            process = processBuilder.start();
+            process = startProcess(processBuilder);
             closeChildStdin(process);
 
             final Process finalProcess = process;
@@ -1085,9 +1120,15 @@ public class SystemOperator {
                 exitCode = execCommandDirect(flattenedArgs);
             }
 
+            if (PerlRuntime.current().isChildInSharedJvm()) {
+                // A pseudo-fork or in-process child ends with the command; the JVM is shared
+                throw new PerlExitException(exitCode);
+            }
             // exec() should never return in Perl, so we terminate the JVM
             System.exit(exitCode);
 
+        } catch (PerlExitException e) {
+            throw e;
         } catch (Exception e) {
             // If we get here, the command failed to start
             setGlobalVariable("main::!", e.getMessage());
@@ -1263,14 +1304,14 @@ public class SystemOperator {
     }
 
     /**
-     * Attempts to implement Perl's fork() function.
-     * <p>
-     * WARNING: True fork() cannot be implemented in Java due to JVM architecture constraints.
-     * This method always returns undef and sets an error message.
+     * Perl's fork() where no pseudo-fork is available.
      * <p>
-     * In real Perl, fork() creates a new process that is an exact copy of the current process.
-     * Java's JVM architecture makes this impossible - the JVM is a single process with
-     * multiple threads, and there's no way to "split" the JVM into two identical copies.
+     * Interpreted code forks through {@code InterpreterFork}, which runs the
+     * child as a {@link PerlPseudoProcess}; code that calls {@code fork} is
+     * compiled to the interpreter for that reason. This fallback remains for
+     * {@code JPERL_PSEUDO_FORK=0} and for a fork inside a subroutine, whose
+     * caller a pseudo-process cannot continue. The JVM cannot split into two processes, so
+     * it always returns undef and sets an error message.
      * <p>
      * When called in a test context (Test::More loaded), this method outputs a TAP skip
      * directive and exits cleanly so that Test::Harness reports the test as skipped rather
@@ -2,6 +2,7 @@ package org.perlonjava.runtime.operators;
 
 import org.perlonjava.runtime.nativ.NativeUtils;
 import org.perlonjava.runtime.nativ.ffm.FFMPosix;
+import org.perlonjava.runtime.runtimetypes.PerlPseudoProcess;
 import org.perlonjava.runtime.runtimetypes.RuntimeArray;
 import org.perlonjava.runtime.runtimetypes.RuntimeBase;
 import org.perlonjava.runtime.runtimetypes.RuntimeIO;
@@ -9,6 +10,7 @@ import org.perlonjava.runtime.runtimetypes.PerlRuntime;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -39,6 +41,19 @@ public class WaitpidOperator {
         int pid = list.get(0).getInt();
         int flags = list.get(1).getInt();
 
+        if (PerlPseudoProcess.isPseudoPid(pid)) {
+            return waitpidPseudoProcess(pid, flags);
+        }
+        if (pid == -1) {
+            RuntimeScalar pseudoChildResult = waitForAnyPseudoProcess(flags);
+            if (pseudoChildResult != null) {
+                return pseudoChildResult;
+            }
+        }
+        return waitpidPlatform(pid, flags);
+    }
+
+    private static RuntimeScalar waitpidPlatform(int pid, int flags) {
         if (IS_WINDOWS) {
             return waitpidWindows(pid, flags);
         } else {
@@ -46,6 +61,60 @@ public class WaitpidOperator {
         }
     }
 
+    private static RuntimeScalar waitpidPseudoProcess(int pid, int flags) {
+        PerlPseudoProcess child = PerlPseudoProcess.find(pid);
+        if (child == null) return new RuntimeScalar(-1);
+        if (!child.isFinished()) {
+            if ((flags & WNOHANG) != 0) return new RuntimeScalar(0);
+            try {
+                child.await(-1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new RuntimeScalar(-1);
+            }
+        }
+        return reapPseudoProcess(child);
+    }
+
+    /**
+     * wait() and waitpid(-1, ...) while pseudo-fork children exist. Real
+     * children exiting in the meantime are still reported; with both kinds
+     * outstanding, the real ones are polled between short waits on the
+     * pseudo-children. Returns null when there are no pseudo-children.
+     */
+    private static RuntimeScalar waitForAnyPseudoProcess(int flags) {
+        List<PerlPseudoProcess> children = PerlPseudoProcess.children();
+        if (children.isEmpty()) return null;
+
+        boolean realChildren = true;
+        while (true) {
+            for (PerlPseudoProcess child : children) {
+                if (child.isFinished()) return reapPseudoProcess(child);
+            }
+            if (realChildren) {
+                RuntimeScalar other = waitpidPlatform(-1, flags | WNOHANG);
+                if (other.getInt() > 0) return other;
+                realChildren = other.getInt() == 0;
+            }
+            if ((flags & WNOHANG) != 0) return new RuntimeScalar(0);
+            try {
+                children.getFirst().await(realChildren ? 10 : 50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new RuntimeScalar(-1);
+            }
+        }
+    }
+
+    private static RuntimeScalar reapPseudoProcess(PerlPseudoProcess child) {
+        child.reap();
+        if (isChldIgnored()) {
+            return new RuntimeScalar(-1);
+        }
+        setExitStatus(child.waitStatus());
+        return new RuntimeScalar(child.pid());
+    }
+
     /**
      * Returns true if $SIG{CHLD} is currently set to 'IGNORE'. Under
      * that disposition POSIX mandates the kernel auto-reap children, so
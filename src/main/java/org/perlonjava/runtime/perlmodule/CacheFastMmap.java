@@ -2,37 +2,159 @@ package org.perlonjava.runtime.perlmodule;
 
 import org.perlonjava.runtime.runtimetypes.*;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Cache::FastMmap's XS primitive API implemented with a JVM shared map.
+ * Cache::FastMmap's XS primitive API implemented over a memory-mapped share file.
  *
  * <p>The Perl layer retains expiry, serialization, callbacks, and atomic-operation
- * semantics. This backend replaces only the native mmap page store, which is not
- * loadable on the JVM.</p>
+ * semantics. This backend replaces the native mmap page store with the same design:
+ * the share file holds {@code num_pages} pages of {@code page_size} bytes, each with
+ * a header, an open-addressing slot table and a data area of items. Every jperl
+ * process that opens the file maps it and sees the same entries.</p>
+ *
+ * <p>A page is locked with a POSIX record lock on its byte range, so processes
+ * exclude each other per page as the C version does. NIO locks belong to the whole
+ * JVM, so handles and threads inside one process also take a per-page
+ * {@link ReentrantLock} first. Without {@code share_file} the pages live in a
+ * private heap buffer.</p>
  */
 public class CacheFastMmap extends PerlModuleBase {
-    private static final Map<String, ConcurrentHashMap<String, Entry>> SHARED = new ConcurrentHashMap<>();
+    private static final Map<String, ShareFile> SHARED = new HashMap<>();
     private static volatile long timeOverride;
 
-    private static final class Entry {
-        RuntimeScalar value;
-        long expireOn;
-        int flags;
-        Long modseq;
-        long lastAccess;
+    private static final int MAGIC = 0x92f7e3b1;
+
+    // Page header: magic, slot count, empty slots, deleted slots, free data offset,
+    // free bytes, reads, read hits
+    private static final int P_MAGIC = 0;
+    private static final int P_NUM_SLOTS = 4;
+    private static final int P_FREE_SLOTS = 8;
+    private static final int P_OLD_SLOTS = 12;
+    private static final int P_FREE_DATA = 16;
+    private static final int P_FREE_BYTES = 20;
+    private static final int P_READS = 24;
+    private static final int P_HITS = 32;
+    private static final int P_HEADER = 40;
+
+    // Item header, followed by the key and value bytes
+    private static final int I_LAST_ACCESS = 0;
+    private static final int I_EXPIRE_ON = 8;
+    private static final int I_MODSEQ = 16;
+    private static final int I_HASH = 24;
+    private static final int I_FLAGS = 28;
+    private static final int I_KIND = 32;
+    private static final int I_KEY_LEN = 36;
+    private static final int I_VAL_LEN = 40;
+    private static final int I_HEADER = 44;
+
+    // Slot entries other than these are item offsets within the page
+    private static final int SLOT_EMPTY = 0;
+    private static final int SLOT_DELETED = 1;
+
+    // I_KIND: how the value was stored, plus whether it carries a modseq
+    private static final int VALUE_UNDEF = 0;
+    private static final int VALUE_BYTES = 1;
+    private static final int VALUE_UTF8 = 2;
+    private static final int VALUE_MASK = 3;
+    private static final int HAS_MODSEQ = 4;
+
+    private record Item(byte[] key, byte[] value, int kind, int hash, int flags,
+                        long lastAccess, long expireOn, long modseq) {
+        int size() {
+            return align(I_HEADER + key.length + value.length);
+        }
+
+        boolean hasModseq() {
+            return (kind & HAS_MODSEQ) != 0;
+        }
+    }
+
+    /**
+     * One mapped cache file, shared by every handle in this JVM that opened it.
+     * All of them must use the same geometry while it is mapped.
+     */
+    private static final class ShareFile {
+        final String path;
+        final int numPages;
+        final int pageSize;
+        final FileChannel channel;
+        final ByteBuffer map;
+        final ReentrantLock[] pageLocks;
+        // Record lock and hold count per page, guarded by the page's ReentrantLock
+        final FileLock[] fileLocks;
+        final int[] holds;
+        int handles = 1;
+
+        ShareFile(String path, int numPages, int pageSize, FileChannel channel, ByteBuffer map) {
+            this.path = path;
+            this.numPages = numPages;
+            this.pageSize = pageSize;
+            this.channel = channel;
+            this.map = map;
+            this.pageLocks = new ReentrantLock[numPages];
+            for (int i = 0; i < numPages; i++) pageLocks[i] = new ReentrantLock();
+            this.fileLocks = new FileLock[numPages];
+            this.holds = new int[numPages];
+        }
+
+        ByteBuffer page(int page) {
+            return map.slice(page * pageSize, pageSize);
+        }
+
+        /**
+         * Locks a page against other threads and processes. Record locks are held
+         * per process, so like fcntl a thread may take a page it already holds.
+         */
+        void lock(int page) {
+            pageLocks[page].lock();
+            if (channel == null || holds[page]++ > 0) return;
+            try {
+                fileLocks[page] = channel.lock((long) page * pageSize, pageSize, false);
+            } catch (IOException | RuntimeException e) {
+                holds[page] = 0;
+                pageLocks[page].unlock();
+                throw new IllegalStateException("Unable to lock cache page " + page + " of " + path, e);
+            }
+        }
+
+        void unlock(int page) {
+            try {
+                if (channel != null && --holds[page] == 0) {
+                    FileLock lock = fileLocks[page];
+                    fileLocks[page] = null;
+                    if (lock.isValid()) lock.release();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to unlock cache page " + page + " of " + path, e);
+            } finally {
+                pageLocks[page].unlock();
+            }
+        }
     }
 
     private static final class State {
         final Map<String, RuntimeScalar> params = new ConcurrentHashMap<>();
-        ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
-        boolean locked;
-        long reads;
-        long hits;
+        ShareFile file;
+        // Page held by fc_lock, -1 when none
+        int page = -1;
     }
 
     public CacheFastMmap() { super("Cache::FastMmap", false); }
@@ -63,170 +185,245 @@ public class CacheFastMmap extends PerlModuleBase {
 
     public static RuntimeList fc_init(RuntimeArray args, int ctx) {
         State state = state(args.get(0));
+        int numPages = intParam(state, "num_pages", 89);
+        int pageSize = intParam(state, "page_size", 65536);
+        int startSlots = intParam(state, "start_slots", 89);
+        if (numPages < 1 || startSlots < 1 || pageSize < P_HEADER + startSlots * 4 + I_HEADER) {
+            throw new IllegalStateException("Invalid Cache::FastMmap geometry: num_pages=" + numPages
+                    + " page_size=" + pageSize + " start_slots=" + startSlots);
+        }
+        if ((long) numPages * pageSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cache::FastMmap share file larger than 2GB is not supported");
+        }
+        boolean init = state.params.getOrDefault("init_file", new RuntimeScalar(0)).getBoolean();
         RuntimeScalar share = state.params.get("share_file");
         if (share != null && share.defined().getBoolean()) {
-            String file = share.toString();
-            boolean init = state.params.getOrDefault("init_file", new RuntimeScalar(0)).getBoolean();
-            state.entries = SHARED.computeIfAbsent(file, ignored -> new ConcurrentHashMap<>());
-            if (init) state.entries.clear();
-            try {
-                Path path = Path.of(file);
-                if (path.getParent() != null) Files.createDirectories(path.getParent());
-                Files.write(path, new byte[0], StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-            } catch (Exception e) {
-                throw new IllegalStateException("Unable to initialize cache share file " + file, e);
-            }
+            state.file = openShareFile(share.toString(), numPages, pageSize, startSlots, init,
+                    state.params.get("permissions"));
+        } else {
+            ShareFile file = new ShareFile(null, numPages, pageSize, null,
+                    ByteBuffer.allocate(numPages * pageSize));
+            for (int page = 0; page < numPages; page++) initPage(file.page(page), startSlots);
+            state.file = file;
         }
         return new RuntimeScalar(1).getList();
     }
 
     public static RuntimeList fc_hash(RuntimeArray args, int ctx) {
-        String key = args.get(1).toString();
-        int hash = key.hashCode() & 0x7fffffff;
-        int pages = state(args.get(0)).params.getOrDefault("num_pages", new RuntimeScalar(89)).getInt();
+        State state = state(args.get(0));
+        int pages = state.file != null ? state.file.numPages : intParam(state, "num_pages", 89);
+        long hash = hash(key(args.get(1)));
         RuntimeList out = new RuntimeList();
-        out.add(new RuntimeScalar(hash % Math.max(1, pages)));
-        out.add(new RuntimeScalar(hash));
+        out.add(new RuntimeScalar(hash % pages));
+        out.add(new RuntimeScalar(hash / pages));
         return out;
     }
 
     public static RuntimeList fc_lock(RuntimeArray args, int ctx) {
-        state(args.get(0)).locked = true;
+        State state = state(args.get(0));
+        ShareFile file = file(state);
+        int page = args.get(1).getInt();
+        if (page < 0 || page >= file.numPages) {
+            throw new IllegalArgumentException("Cache::FastMmap page " + page + " out of range");
+        }
+        if (state.page >= 0) {
+            throw new IllegalStateException("Cache::FastMmap page " + state.page + " is already locked");
+        }
+        file.lock(page);
+        state.page = page;
+        ByteBuffer buffer = file.page(page);
+        if (!validPage(buffer)) initPage(buffer, intParam(state, "start_slots", 89));
         return new RuntimeScalar(1).getList();
     }
 
     public static RuntimeList fc_unlock(RuntimeArray args, int ctx) {
-        state(args.get(0)).locked = false;
+        unlock(state(args.get(0)));
         return new RuntimeScalar(1).getList();
     }
 
     public static RuntimeList fc_is_locked(RuntimeArray args, int ctx) {
-        return new RuntimeScalar(state(args.get(0)).locked).getList();
+        return new RuntimeScalar(state(args.get(0)).page >= 0).getList();
     }
 
     public static RuntimeList fc_read(RuntimeArray args, int ctx) {
         State state = state(args.get(0));
-        state.reads++;
-        Entry entry = state.entries.get(args.get(2).toString());
-        if (entry != null && expired(entry)) {
-            state.entries.remove(args.get(2).toString(), entry);
-            entry = null;
-        }
+        byte[] key = key(args.get(2));
+        Item item = onPage(state, key, page -> {
+            page.putLong(P_READS, page.getLong(P_READS) + 1);
+            int slot = findSlot(page, slotHash(state, key), key);
+            if (slot < 0) return null;
+            int offset = page.getInt(slotOffset(slot));
+            if (expired(page.getLong(offset + I_EXPIRE_ON))) {
+                deleteSlot(page, slot);
+                return null;
+            }
+            page.putLong(P_HITS, page.getLong(P_HITS) + 1);
+            page.putLong(offset + I_LAST_ACCESS, now());
+            return readItem(page, offset);
+        });
         RuntimeList out = new RuntimeList();
-        if (entry == null) {
+        if (item == null) {
             out.add(new RuntimeScalar());
             out.add(new RuntimeScalar(0));
             out.add(new RuntimeScalar(0));
             out.add(new RuntimeScalar());
             out.add(new RuntimeScalar());
         } else {
-            state.hits++;
-            entry.lastAccess = now();
-            out.add(new RuntimeScalar(entry.value));
-            out.add(new RuntimeScalar(entry.flags));
+            out.add(value(item));
+            out.add(new RuntimeScalar(item.flags()));
             out.add(new RuntimeScalar(1));
-            out.add(entry.expireOn < 0 ? new RuntimeScalar() : new RuntimeScalar(entry.expireOn));
-            out.add(entry.modseq == null ? new RuntimeScalar() : new RuntimeScalar(entry.modseq));
+            out.add(item.expireOn() < 0 ? new RuntimeScalar() : new RuntimeScalar(item.expireOn()));
+            out.add(item.hasModseq() ? new RuntimeScalar(item.modseq()) : new RuntimeScalar());
         }
         return out;
     }
 
     public static RuntimeList fc_write(RuntimeArray args, int ctx) {
         State state = state(args.get(0));
-        String key = args.get(2).toString();
+        byte[] key = key(args.get(2));
+        RuntimeScalar value = args.get(3);
         long expireOn = args.get(4).getLong();
         int flags = args.get(5).getInt();
-        Long modseq = args.size() > 6 && args.get(6).defined().getBoolean()
-                ? args.get(6).getLong() : null;
-        Entry old = state.entries.get(key);
-        if (old != null && old.modseq != null && (modseq == null || modseq < old.modseq)) {
-            return new RuntimeScalar(-1).getList();
-        }
-        Entry entry = new Entry();
-        entry.value = new RuntimeScalar(args.get(3));
-        entry.expireOn = expireOn;
-        entry.flags = flags;
-        entry.modseq = modseq;
-        entry.lastAccess = now();
-        state.entries.put(key, entry);
-        return new RuntimeScalar(1).getList();
+        boolean hasModseq = args.size() > 6 && args.get(6).defined().getBoolean();
+        long modseq = hasModseq ? args.get(6).getLong() : 0;
+        int kind = valueKind(value) | (hasModseq ? HAS_MODSEQ : 0);
+        byte[] bytes = valueBytes(value, kind);
+        int result = onPage(state, key, page -> {
+            int hash = slotHash(state, key);
+            int slot = findSlot(page, hash, key);
+            if (slot >= 0) {
+                int offset = page.getInt(slotOffset(slot));
+                if ((page.getInt(offset + I_KIND) & HAS_MODSEQ) != 0
+                        && (!hasModseq || modseq < page.getLong(offset + I_MODSEQ))) {
+                    return -1;
+                }
+            }
+            return store(page, new Item(key, bytes, kind, hash, flags, now(), expireOn, modseq)) ? 1 : 0;
+        });
+        return new RuntimeScalar(result).getList();
     }
 
     public static RuntimeList fc_delete(RuntimeArray args, int ctx) {
-        Entry removed = state(args.get(0)).entries.remove(args.get(2).toString());
+        State state = state(args.get(0));
+        byte[] key = key(args.get(2));
+        Integer flags = onPage(state, key, page -> {
+            int slot = findSlot(page, slotHash(state, key), key);
+            if (slot < 0) return null;
+            int itemFlags = page.getInt(page.getInt(slotOffset(slot)) + I_FLAGS);
+            deleteSlot(page, slot);
+            return itemFlags;
+        });
         RuntimeList out = new RuntimeList();
-        out.add(new RuntimeScalar(removed != null));
-        out.add(new RuntimeScalar(removed == null ? 0 : removed.flags));
+        out.add(new RuntimeScalar(flags != null));
+        out.add(new RuntimeScalar(flags == null ? 0 : flags));
         return out;
     }
 
     public static RuntimeList fc_tombstone(RuntimeArray args, int ctx) {
         State state = state(args.get(0));
-        String key = args.get(2).toString();
+        byte[] key = key(args.get(2));
+        long expireOn = args.get(3).getLong();
         long modseq = args.get(4).getLong();
-        Entry old = state.entries.get(key);
-        if (old != null && old.modseq != null && old.modseq > modseq) return new RuntimeScalar(0).getList();
-        Entry tombstone = new Entry();
-        tombstone.value = new RuntimeScalar();
-        tombstone.expireOn = args.get(3).getLong();
-        tombstone.modseq = modseq;
-        tombstone.lastAccess = now();
-        state.entries.put(key, tombstone);
-        return new RuntimeScalar(1).getList();
+        int result = onPage(state, key, page -> {
+            int hash = slotHash(state, key);
+            int slot = findSlot(page, hash, key);
+            if (slot >= 0) {
+                int offset = page.getInt(slotOffset(slot));
+                if ((page.getInt(offset + I_KIND) & HAS_MODSEQ) != 0
+                        && page.getLong(offset + I_MODSEQ) > modseq) {
+                    return 0;
+                }
+            }
+            Item tombstone = new Item(key, new byte[0], VALUE_UNDEF | HAS_MODSEQ, hash, 0,
+                    now(), expireOn, modseq);
+            return store(page, tombstone) ? 1 : 0;
+        });
+        return new RuntimeScalar(result).getList();
     }
 
     public static RuntimeList fc_get_keys(RuntimeArray args, int ctx) {
         State state = state(args.get(0));
         int mode = args.size() > 1 ? args.get(1).getInt() : 0;
         RuntimeList out = new RuntimeList();
-        state.entries.forEach((key, entry) -> {
-            if (expired(entry)) return;
-            if (mode == 0) {
-                out.add(new RuntimeScalar(key));
-            } else {
-                RuntimeHash detail = new RuntimeHash();
-                detail.put("key", new RuntimeScalar(key));
-                detail.put("last_access", new RuntimeScalar(entry.lastAccess));
-                detail.put("expire_on", entry.expireOn < 0 ? new RuntimeScalar() : new RuntimeScalar(entry.expireOn));
-                detail.put("flags", new RuntimeScalar(entry.flags));
-                if (mode >= 2) detail.put("value", new RuntimeScalar(entry.value));
-                out.add(detail.createAnonymousReference());
+        for (int p = 0; p < file(state).numPages; p++) {
+            List<Item> items = withPage(state, p, CacheFastMmap::liveItems);
+            for (Item item : items) {
+                if (expired(item.expireOn())) continue;
+                RuntimeScalar key = new RuntimeScalar(new String(item.key(), StandardCharsets.UTF_8));
+                if (mode == 0) {
+                    out.add(key);
+                } else {
+                    RuntimeHash detail = new RuntimeHash();
+                    detail.put("key", key);
+                    detail.put("last_access", new RuntimeScalar(item.lastAccess()));
+                    detail.put("expire_on", item.expireOn() < 0 ? new RuntimeScalar() : new RuntimeScalar(item.expireOn()));
+                    detail.put("flags", new RuntimeScalar(item.flags()));
+                    if (mode >= 2) detail.put("value", value(item));
+                    out.add(detail.createAnonymousReference());
+                }
             }
-        });
+        }
         return out;
     }
 
     public static RuntimeList fc_get_page_details(RuntimeArray args, int ctx) {
         State state = state(args.get(0));
+        long reads = 0;
+        long hits = 0;
+        // The locked page, or the whole cache when no page is locked
+        int from = state.page >= 0 ? state.page : 0;
+        int to = state.page >= 0 ? state.page + 1 : file(state).numPages;
+        for (int p = from; p < to; p++) {
+            long[] details = withPage(state, p, page -> new long[]{page.getLong(P_READS), page.getLong(P_HITS)});
+            reads += details[0];
+            hits += details[1];
+        }
         RuntimeList out = new RuntimeList();
-        out.add(new RuntimeScalar(state.reads));
-        out.add(new RuntimeScalar(state.hits));
+        out.add(new RuntimeScalar(reads));
+        out.add(new RuntimeScalar(hits));
         return out;
     }
 
     public static RuntimeList fc_reset_page_details(RuntimeArray args, int ctx) {
         State state = state(args.get(0));
-        state.reads = state.hits = 0;
+        int from = state.page >= 0 ? state.page : 0;
+        int to = state.page >= 0 ? state.page + 1 : file(state).numPages;
+        for (int p = from; p < to; p++) {
+            withPage(state, p, page -> {
+                page.putLong(P_READS, 0);
+                page.putLong(P_HITS, 0);
+                return null;
+            });
+        }
         return new RuntimeList();
     }
 
+    /**
+     * Expunges the locked page, or every page when none is locked. Mode 0 removes
+     * expired items, mode 1 everything, and mode 2 expired and then least recently
+     * used items until an item of {@code len} bytes fits with room to spare.
+     */
     public static RuntimeList fc_expunge(RuntimeArray args, int ctx) {
         State state = state(args.get(0));
         int mode = args.get(1).getInt();
+        boolean writeBack = args.size() > 2 && args.get(2).getBoolean();
+        int len = args.size() > 3 ? args.get(3).getInt() : -1;
+        int from = state.page >= 0 ? state.page : 0;
+        int to = state.page >= 0 ? state.page + 1 : file(state).numPages;
         RuntimeList removed = new RuntimeList();
-        state.entries.entrySet().removeIf(item -> {
-            Entry entry = item.getValue();
-            boolean remove = mode == 1 || expired(entry);
-            if (remove && args.get(2).getBoolean()) {
+        for (int p = from; p < to; p++) {
+            List<Item> items = withPage(state, p, page -> expunge(page, mode, len));
+            if (!writeBack) continue;
+            for (Item item : items) {
                 RuntimeHash detail = new RuntimeHash();
-                detail.put("key", new RuntimeScalar(item.getKey()));
-                detail.put("value", new RuntimeScalar(entry.value));
-                detail.put("expire_on", new RuntimeScalar(entry.expireOn));
-                detail.put("flags", new RuntimeScalar(entry.flags));
+                detail.put("key", new RuntimeScalar(new String(item.key(), StandardCharsets.UTF_8)));
+                detail.put("value", value(item));
+                detail.put("last_access", new RuntimeScalar(item.lastAccess()));
+                detail.put("expire_on", new RuntimeScalar(item.expireOn()));
+                detail.put("flags", new RuntimeScalar(item.flags()));
                 removed.add(detail.createAnonymousReference());
             }
-            return remove;
-        });
+        }
         return removed;
     }
 
@@ -235,13 +432,358 @@ public class CacheFastMmap extends PerlModuleBase {
         return new RuntimeList();
     }
 
-    public static RuntimeList fc_close(RuntimeArray args, int ctx) { return new RuntimeList(); }
+    public static RuntimeList fc_close(RuntimeArray args, int ctx) {
+        State state = state(args.get(0));
+        unlock(state);
+        ShareFile file = state.file;
+        state.file = null;
+        if (file != null && file.channel != null) {
+            synchronized (SHARED) {
+                if (--file.handles == 0) {
+                    SHARED.remove(file.path, file);
+                    try {
+                        file.channel.close();
+                    } catch (IOException ignored) {
+                        // The mapping stays valid until it is collected
+                    }
+                }
+            }
+        }
+        return new RuntimeList();
+    }
+
+    // ------------------------------------------------------------------
+    // Share file
+
+    private static ShareFile openShareFile(String name, int numPages, int pageSize, int startSlots,
+                                           boolean init, RuntimeScalar permissions) {
+        Path path = Path.of(name).toAbsolutePath().normalize();
+        String key = path.toString();
+        synchronized (SHARED) {
+            ShareFile file = SHARED.get(key);
+            if (file != null) {
+                // Remapping would truncate the file under the open handles
+                if (file.numPages != numPages || file.pageSize != pageSize) {
+                    throw new IllegalStateException("Cache::FastMmap share file " + name
+                            + " is already open with num_pages=" + file.numPages + " page_size=" + file.pageSize
+                            + ", cannot open it with num_pages=" + numPages + " page_size=" + pageSize);
+                }
+                file.handles++;
+                if (init) {
+                    for (int page = 0; page < numPages; page++) {
+                        file.lock(page);
+                        try {
+                            initPage(file.page(page), startSlots);
+                        } finally {
+                            file.unlock(page);
+                        }
+                    }
+                }
+                return file;
+            }
+            try {
+                if (path.getParent() != null) Files.createDirectories(path.getParent());
+                boolean created = !Files.exists(path);
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                if (created && permissions != null && permissions.defined().getBoolean()) {
+                    setPermissions(path, permissions.getInt());
+                }
+                long size = (long) numPages * pageSize;
+                // Other processes may be setting the file up too; hold the whole file meanwhile
+                try (FileLock ignored = channel.lock(0, size, false)) {
+                    if (channel.size() != size) {
+                        channel.truncate(0);
+                        channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+                        init = true;
+                    }
+                    ByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                    file = new ShareFile(key, numPages, pageSize, channel, map);
+                    for (int page = 0; page < numPages; page++) {
+                        ByteBuffer buffer = file.page(page);
+                        if (init || !validPage(buffer)) initPage(buffer, startSlots);
+                    }
+                }
+                SHARED.put(key, file);
+                return file;
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to initialize cache share file " + name, e);
+            }
+        }
+    }
+
+    private static void setPermissions(Path path, int mode) {
+        Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+        PosixFilePermission[] bits = PosixFilePermission.values();
+        // values() runs OWNER_READ .. OTHERS_EXECUTE, i.e. from bit 8 down to bit 0
+        for (int i = 0; i < bits.length; i++) {
+            if ((mode & (1 << (8 - i))) != 0) permissions.add(bits[i]);
+        }
+        try {
+            Files.setPosixFilePermissions(path, permissions);
+        } catch (IOException | UnsupportedOperationException ignored) {
+            // Keep the default permissions on filesystems without POSIX modes
+        }
+    }
+
+    private interface PageAction<T> {
+        T apply(ByteBuffer page);
+    }
+
+    /** Runs {@code action} on page {@code p}, locking it unless this handle already holds it. */
+    private static <T> T withPage(State state, int p, PageAction<T> action) {
+        ShareFile file = file(state);
+        if (state.page == p) return action.apply(file.page(p));
+        if (state.page >= 0) {
+            throw new IllegalStateException("Cache::FastMmap page " + state.page + " is locked");
+        }
+        file.lock(p);
+        try {
+            ByteBuffer page = file.page(p);
+            if (!validPage(page)) initPage(page, intParam(state, "start_slots", 89));
+            return action.apply(page);
+        } finally {
+            file.unlock(p);
+        }
+    }
+
+    /** Runs {@code action} on the locked page, or locks the page {@code key} hashes to. */
+    private static <T> T onPage(State state, byte[] key, PageAction<T> action) {
+        ShareFile file = file(state);
+        return withPage(state, state.page >= 0 ? state.page : (int) (hash(key) % file.numPages), action);
+    }
+
+    private static void unlock(State state) {
+        if (state.page < 0) return;
+        int page = state.page;
+        state.page = -1;
+        state.file.unlock(page);
+    }
+
+    // ------------------------------------------------------------------
+    // Pages
+
+    private static void initPage(ByteBuffer page, int numSlots) {
+        for (int offset = P_HEADER; offset < P_HEADER + numSlots * 4; offset += 4) page.putInt(offset, SLOT_EMPTY);
+        int freeData = P_HEADER + numSlots * 4;
+        page.putInt(P_MAGIC, MAGIC);
+        page.putInt(P_NUM_SLOTS, numSlots);
+        page.putInt(P_FREE_SLOTS, numSlots);
+        page.putInt(P_OLD_SLOTS, 0);
+        page.putInt(P_FREE_DATA, freeData);
+        page.putInt(P_FREE_BYTES, page.capacity() - freeData);
+        page.putLong(P_READS, 0);
+        page.putLong(P_HITS, 0);
+    }
+
+    private static boolean validPage(ByteBuffer page) {
+        int numSlots = page.getInt(P_NUM_SLOTS);
+        int freeData = page.getInt(P_FREE_DATA);
+        return page.getInt(P_MAGIC) == MAGIC
+                && numSlots > 0 && numSlots <= (page.capacity() - P_HEADER) / 4
+                && freeData >= P_HEADER + numSlots * 4 && freeData <= page.capacity()
+                && page.getInt(P_FREE_BYTES) == page.capacity() - freeData;
+    }
+
+    private static int slotOffset(int slot) {
+        return P_HEADER + slot * 4;
+    }
+
+    /** The slot holding {@code key}, or -1. */
+    private static int findSlot(ByteBuffer page, int hash, byte[] key) {
+        int numSlots = page.getInt(P_NUM_SLOTS);
+        int slot = Integer.remainderUnsigned(hash, numSlots);
+        for (int probes = 0; probes < numSlots; probes++) {
+            int offset = page.getInt(slotOffset(slot));
+            if (offset == SLOT_EMPTY) return -1;
+            if (offset != SLOT_DELETED && page.getInt(offset + I_HASH) == hash && keyEquals(page, offset, key)) {
+                return slot;
+            }
+            if (++slot == numSlots) slot = 0;
+        }
+        return -1;
+    }
+
+    private static boolean keyEquals(ByteBuffer page, int offset, byte[] key) {
+        if (page.getInt(offset + I_KEY_LEN) != key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (page.get(offset + I_HEADER + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private static void deleteSlot(ByteBuffer page, int slot) {
+        page.putInt(slotOffset(slot), SLOT_DELETED);
+        page.putInt(P_OLD_SLOTS, page.getInt(P_OLD_SLOTS) + 1);
+    }
+
+    /**
+     * Appends {@code item} to the data area and points its slot at it. The space of
+     * a replaced item is only reclaimed by the next expunge. Returns false when the
+     * page has no room; callers make room with an expunge first.
+     */
+    private static boolean store(ByteBuffer page, Item item) {
+        int size = item.size();
+        int freeData = page.getInt(P_FREE_DATA);
+        if (size > page.getInt(P_FREE_BYTES)) return false;
+        int slot = findSlot(page, item.hash(), item.key());
+        if (slot < 0) {
+            int numSlots = page.getInt(P_NUM_SLOTS);
+            slot = Integer.remainderUnsigned(item.hash(), numSlots);
+            while (page.getInt(slotOffset(slot)) > SLOT_DELETED) {
+                if (++slot == numSlots) slot = 0;
+            }
+            if (page.getInt(slotOffset(slot)) == SLOT_DELETED) {
+                page.putInt(P_OLD_SLOTS, page.getInt(P_OLD_SLOTS) - 1);
+            } else {
+                // Keep one empty slot so that probing for a missing key ends
+                if (page.getInt(P_FREE_SLOTS) <= 1) return false;
+                page.putInt(P_FREE_SLOTS, page.getInt(P_FREE_SLOTS) - 1);
+            }
+        }
+        writeItem(page, freeData, item);
+        page.putInt(slotOffset(slot), freeData);
+        page.putInt(P_FREE_DATA, freeData + size);
+        page.putInt(P_FREE_BYTES, page.getInt(P_FREE_BYTES) - size);
+        return true;
+    }
+
+    private static void writeItem(ByteBuffer page, int offset, Item item) {
+        page.putLong(offset + I_LAST_ACCESS, item.lastAccess());
+        page.putLong(offset + I_EXPIRE_ON, item.expireOn());
+        page.putLong(offset + I_MODSEQ, item.modseq());
+        page.putInt(offset + I_HASH, item.hash());
+        page.putInt(offset + I_FLAGS, item.flags());
+        page.putInt(offset + I_KIND, item.kind());
+        page.putInt(offset + I_KEY_LEN, item.key().length);
+        page.putInt(offset + I_VAL_LEN, item.value().length);
+        page.put(offset + I_HEADER, item.key());
+        page.put(offset + I_HEADER + item.key().length, item.value());
+    }
+
+    private static Item readItem(ByteBuffer page, int offset) {
+        byte[] key = new byte[page.getInt(offset + I_KEY_LEN)];
+        byte[] value = new byte[page.getInt(offset + I_VAL_LEN)];
+        page.get(offset + I_HEADER, key);
+        page.get(offset + I_HEADER + key.length, value);
+        return new Item(key, value, page.getInt(offset + I_KIND), page.getInt(offset + I_HASH),
+                page.getInt(offset + I_FLAGS), page.getLong(offset + I_LAST_ACCESS),
+                page.getLong(offset + I_EXPIRE_ON), page.getLong(offset + I_MODSEQ));
+    }
+
+    private static List<Item> liveItems(ByteBuffer page) {
+        List<Item> items = new ArrayList<>();
+        int numSlots = page.getInt(P_NUM_SLOTS);
+        for (int slot = 0; slot < numSlots; slot++) {
+            int offset = page.getInt(slotOffset(slot));
+            if (offset > SLOT_DELETED) items.add(readItem(page, offset));
+        }
+        return items;
+    }
+
+    /** Rebuilds the page without the expunged items and returns them. */
+    private static List<Item> expunge(ByteBuffer page, int mode, int len) {
+        int numSlots = page.getInt(P_NUM_SLOTS);
+        int need = len >= 0 ? align(I_HEADER + len) : 0;
+        if (mode == 2 && need <= page.getInt(P_FREE_BYTES) && page.getInt(P_FREE_SLOTS) > numSlots / 3) {
+            return List.of();
+        }
+        List<Item> kept = new ArrayList<>();
+        List<Item> removed = new ArrayList<>();
+        for (Item item : liveItems(page)) {
+            (mode == 1 || expired(item.expireOn()) ? removed : kept).add(item);
+        }
+        if (mode == 2) {
+            // Grow the slot table when it is getting full, up to half the page
+            int newSlots = numSlots;
+            if ((kept.size() + 1) * 3 > numSlots * 2
+                    && P_HEADER + (numSlots * 2 + 1) * 4 <= page.capacity() / 2) {
+                newSlots = numSlots * 2 + 1;
+            }
+            // Keep the most recently used items in 60% of the data area
+            int capacity = page.capacity() - P_HEADER - newSlots * 4;
+            int budget = Math.min(capacity * 6 / 10, capacity - need);
+            kept.sort(Comparator.comparingLong(Item::lastAccess).reversed());
+            int used = 0;
+            int count = 0;
+            for (int i = 0; i < kept.size(); i++) {
+                Item item = kept.get(i);
+                if (used + item.size() <= budget && (count + 2) * 3 <= newSlots * 2) {
+                    used += item.size();
+                    count++;
+                } else {
+                    removed.add(kept.remove(i--));
+                }
+            }
+            numSlots = newSlots;
+        }
+        long reads = page.getLong(P_READS);
+        long hits = page.getLong(P_HITS);
+        initPage(page, numSlots);
+        page.putLong(P_READS, reads);
+        page.putLong(P_HITS, hits);
+        for (Item item : kept) store(page, item);
+        return removed;
+    }
+
+    // ------------------------------------------------------------------
+    // Keys and values
+
+    private static byte[] key(RuntimeScalar key) {
+        return key.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Cache::FastMmap's key hash: the page is hash % num_pages, the slot hash / num_pages. */
+    private static long hash(byte[] key) {
+        int h = MAGIC;
+        for (byte b : key) h = ((h << 4) | (h >>> 28)) + (b & 0xff);
+        return h & 0xffffffffL;
+    }
+
+    private static int slotHash(State state, byte[] key) {
+        return (int) (hash(key) / state.file.numPages);
+    }
+
+    private static int valueKind(RuntimeScalar value) {
+        if (!value.defined().getBoolean()) return VALUE_UNDEF;
+        return value.type == RuntimeScalarType.BYTE_STRING ? VALUE_BYTES : VALUE_UTF8;
+    }
+
+    private static byte[] valueBytes(RuntimeScalar value, int kind) {
+        return switch (kind & VALUE_MASK) {
+            case VALUE_BYTES -> value.toString().getBytes(StandardCharsets.ISO_8859_1);
+            case VALUE_UTF8 -> value.toString().getBytes(StandardCharsets.UTF_8);
+            default -> new byte[0];
+        };
+    }
+
+    private static RuntimeScalar value(Item item) {
+        return switch (item.kind() & VALUE_MASK) {
+            case VALUE_BYTES -> new RuntimeScalar(item.value());
+            case VALUE_UTF8 -> new RuntimeScalar(new String(item.value(), StandardCharsets.UTF_8));
+            default -> new RuntimeScalar();
+        };
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
 
     private static State state(RuntimeScalar scalar) {
         if (scalar.type == RuntimeScalarType.JAVAOBJECT && scalar.value instanceof State state) return state;
         throw new IllegalArgumentException("Invalid Cache::FastMmap native cache handle");
     }
 
+    private static ShareFile file(State state) {
+        if (state.file == null) throw new IllegalStateException("Cache::FastMmap cache is not initialized");
+        return state.file;
+    }
+
+    private static int intParam(State state, String name, int fallback) {
+        RuntimeScalar value = state.params.get(name);
+        return value != null && value.defined().getBoolean() ? value.getInt() : fallback;
+    }
+
     private static long now() { return timeOverride != 0 ? timeOverride : System.currentTimeMillis() / 1000L; }
-    private static boolean expired(Entry entry) { return entry.expireOn > 0 && entry.expireOn <= now(); }
+    private static boolean expired(long expireOn) { return expireOn > 0 && expireOn <= now(); }
 }
@@ -0,0 +1,77 @@
+package org.perlonjava.runtime.perlmodule;
+
+import org.perlonjava.runtime.runtimetypes.*;
+
+/**
+ * Java backend for Class::XSAccessor.
+ * <p>
+ * Provides {@code _fast_accessor}, which builds the code refs installed by
+ * Class/XSAccessor.pm and by Class::MOP::PurePerl for plain hash-slot
+ * attributes. See {@link FastAccessor} for the call semantics.
+ */
+public class ClassXSAccessor extends PerlModuleBase {
+
+    public ClassXSAccessor() {
+        super("Class::XSAccessor", false);  // false because loaded via XSLoader
+    }
+
+    public static void initialize() {
+        ClassXSAccessor module = new ClassXSAccessor();
+        try {
+            module.registerMethod("_fast_accessor", null);
+        } catch (NoSuchMethodException e) {
+            System.err.println("Warning: Missing Class::XSAccessor method: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds a Java-implemented accessor.
+     * <p>
+     * Perl signature: {@code _fast_accessor($kind, $name, $key, $flag, $fallback)}
+     * where {@code $kind} is one of getter, setter, accessor, defined_predicate,
+     * exists_predicate, constructor or boolean; {@code $flag} is the chained
+     * option for setters and the returned truth for boolean; {@code $fallback}
+     * is an optional code ref that handles every call the fast path declines.
+     *
+     * @param args The arguments described above
+     * @param ctx  The context
+     * @return A CODE reference
+     */
+    public static RuntimeList _fast_accessor(RuntimeArray args, int ctx) {
+        if (args.size() < 2) {
+            throw new PerlCompilerException(
+                    "Usage: Class::XSAccessor::_fast_accessor(kind, name, key, flag, fallback)");
+        }
+        FastAccessor.Kind kind = switch (args.get(0).toString()) {
+            case "getter" -> FastAccessor.Kind.GETTER;
+            case "setter" -> FastAccessor.Kind.SETTER;
+            case "accessor" -> FastAccessor.Kind.ACCESSOR;
+            case "defined_predicate" -> FastAccessor.Kind.DEFINED_PREDICATE;
+            case "exists_predicate" -> FastAccessor.Kind.EXISTS_PREDICATE;
+            case "constructor" -> FastAccessor.Kind.CONSTRUCTOR;
+            case "boolean" -> FastAccessor.Kind.BOOLEAN;
+            default -> throw new PerlCompilerException(
+                    "Class::XSAccessor: unknown accessor kind '" + args.get(0) + "'");
+        };
+        String name = args.get(1).toString();
+        RuntimeScalar key = args.size() > 2 && args.get(2).getDefinedBoolean()
+                ? new RuntimeScalar(args.get(2)) : null;
+        boolean flag = args.size() > 3 && args.get(3).getBoolean();
+        RuntimeCode fallback = null;
+        if (args.size() > 4 && args.get(4).type == RuntimeScalarType.CODE) {
+            fallback = (RuntimeCode) args.get(4).value;
+        }
+        if (key == null && kind != FastAccessor.Kind.CONSTRUCTOR && kind != FastAccessor.Kind.BOOLEAN) {
+            throw new PerlCompilerException("Cannot use undef as a hash key for generating an XS "
+                    + args.get(0) + " accessor. (Sub: " + name + ")");
+        }
+
+        RuntimeCode code = new RuntimeCode(new FastAccessor(kind, name, key, flag, fallback), null);
+        int split = name.lastIndexOf("::");
+        if (split > 0) {
+            code.packageName = name.substring(0, split);
+            code.subName = name.substring(split + 2);
+        }
+        return new RuntimeScalar(code).getList();
+    }
+}
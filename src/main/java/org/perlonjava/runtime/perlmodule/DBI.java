@@ -3,11 +3,15 @@ package org.perlonjava.runtime.perlmodule;
 import org.perlonjava.runtime.operators.ReferenceOperators;
 import org.perlonjava.runtime.operators.WarnDie;
 import org.perlonjava.runtime.runtimetypes.*;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 
 import static org.perlonjava.runtime.runtimetypes.GlobalVariable.getGlobalVariable;
 import static org.perlonjava.runtime.runtimetypes.RuntimeScalarCache.*;
@@ -82,6 +86,10 @@ public class DBI extends PerlModuleBase {
             dbi.registerMethod("_jdbc_rollback", "rollback", null);
             dbi.registerMethod("_jdbc_fetchrow_arrayref", "fetchrow_arrayref", null);
             dbi.registerMethod("_jdbc_fetchrow_hashref", "fetchrow_hashref", null);
+            dbi.registerMethod("_jdbc_execute_batch", "execute_batch", null);
+            dbi.registerMethod("_jdbc_fetchall_arrayref", "fetchall_arrayref", null);
+            dbi.registerMethod("_jdbc_fetchcol_arrayref", "fetchcol_arrayref", null);
+            dbi.registerMethod("_jdbc_release_statement", "release_statement", null);
         } catch (NoSuchMethodException e) {
             System.err.println("Warning: Missing DBI method: " + e.getMessage());
         }
@@ -172,14 +180,21 @@ public class DBI extends PerlModuleBase {
                 dbh.setFromList(new RuntimeList(dbh, attrHash));
             }
 
-            // Establish database connection with properties
-            Connection conn = DriverManager.getConnection(jdbcUrl, props);
+            // Establish database connection with properties; connect_cached
+            // asks for a pooled one
+            DBIConnection session;
+            if (dbh.get("jdbc_pooled").getBoolean() && DBIConnectionPool.isPoolable(jdbcUrl)) {
+                session = DBIConnectionPool.forKey(poolKey(jdbcUrl, username, password, attr)).checkout(props);
+            } else {
+                session = DBIConnection.unpooled(DriverManager.getConnection(jdbcUrl, props));
+            }
 
             // Remove password from dbh hash
             dbh.delete(new RuntimeScalar("Password"));
 
             // Create database handle (dbh) hash and store connection
-            dbh.put("connection", resourceScalar(conn));
+            dbh.put("connection", resourceScalar(session));
+            updateConnectionStats(dbh, session);
             dbh.put("Active", new RuntimeScalar(true));
             dbh.put("Type", new RuntimeScalar("db"));
             dbh.put("Name", new RuntimeScalar(jdbcUrl));
@@ -197,6 +212,38 @@ public class DBI extends PerlModuleBase {
         }, dbh, "connect('" + jdbcUrl + "','" + dbh.get("Username") + "',...) failed");
     }
 
+    /**
+     * Builds the pool key for a pooled connect. Attributes that change the
+     * physical connection are part of the key; references (callbacks,
+     * HandleError subs) only affect the Perl-side handle and are left out.
+     */
+    private static DBIConnectionPool.Key poolKey(String url, String user, String password, RuntimeScalar attr) {
+        TreeMap<String, String> attributes = new TreeMap<>();
+        if (attr.type == RuntimeScalarType.HASHREFERENCE) {
+            for (Map.Entry<String, RuntimeScalar> entry : attr.hashDeref().elements.entrySet()) {
+                RuntimeScalar value = entry.getValue();
+                if (!RuntimeScalarType.isReference(value)) {
+                    attributes.put(entry.getKey(), value.toString());
+                }
+            }
+        }
+        return new DBIConnectionPool.Key(url, user, password, attributes.toString());
+    }
+
+    /**
+     * Copies pool and statement cache counters into the dbh. They are
+     * snapshots taken on connect, prepare and disconnect, not live values.
+     */
+    private static void updateConnectionStats(RuntimeHash dbh, DBIConnection session) {
+        DBIConnectionPool pool = session.pool();
+        if (pool != null) {
+            dbh.put("jdbc_pool_active", new RuntimeScalar(pool.active()));
+            dbh.put("jdbc_pool_idle", new RuntimeScalar(pool.idle()));
+            dbh.put("jdbc_pool_waits", new RuntimeScalar(pool.waits()));
+        }
+        dbh.put("jdbc_statement_cache_hits", new RuntimeScalar(session.statementCacheHits()));
+    }
+
     /**
      * Prepares an SQL statement for execution.
      *
@@ -233,7 +280,8 @@ public class DBI extends PerlModuleBase {
             sth.put("Active", new RuntimeScalar(false));
 
             // Get connection from database handle
-            Connection conn = connection(dbh, "prepare");
+            DBIConnection session = session(dbh, "prepare");
+            Connection conn = session.connection();
 
             // Set AutoCommit attribute in case it was changed
             conn.setAutoCommit(dbh.get("AutoCommit").getBoolean());
@@ -247,8 +295,10 @@ public class DBI extends PerlModuleBase {
                 // Some drivers (e.g., SQLite JDBC) can't change ReadOnly after connection
             }
 
-            // Prepare statement
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            // Prepare statement, reusing an idle one for the same SQL if cached
+            PreparedStatement stmt = session.prepare(sql);
+            applyRowCacheSize(stmt, sth);
+            updateConnectionStats(dbh, session);
 
             // Create statement handle (sth) hash
             sth.put("statement", resourceScalar(stmt));
@@ -290,6 +340,24 @@ public class DBI extends PerlModuleBase {
         }, dbh, "prepare");
     }
 
+    /**
+     * Passes DBI's {@code RowCacheSize} hint (inherited from the dbh or given
+     * in the prepare attributes) to the driver as the JDBC fetch size. DBI
+     * defines 0 as "automatic" and negative values as a memory budget; both
+     * leave the driver default in place.
+     */
+    private static void applyRowCacheSize(Statement stmt, RuntimeHash sth) {
+        RuntimeScalar rowCacheSize = sth.get("RowCacheSize");
+        if (rowCacheSize == null || !rowCacheSize.getDefinedBoolean()) return;
+        int rows = rowCacheSize.getInt();
+        if (rows <= 0) return;
+        try {
+            stmt.setFetchSize(rows);
+        } catch (SQLException ignored) {
+            // A hint only; drivers without cursor support may reject it
+        }
+    }
+
     public static RuntimeList last_insert_id(RuntimeArray args, int ctx) {
         // argument can be either a dbh or a sth
         RuntimeHash dbh = args.get(0).hashDeref();
@@ -485,7 +553,8 @@ public class DBI extends PerlModuleBase {
                     if (!retried && e.getMessage() != null
                             && e.getMessage().contains("not executing")) {
                         retried = true;
-                        stmt = conn.prepareStatement(sql);
+                        stmt = session(dbh, "execute").reprepare(stmt, sth.get("sql").toString());
+                        applyRowCacheSize(stmt, sth);
                         sth.put("statement", resourceScalar(stmt));
                         continue; // Retry with fresh statement
                     }
@@ -551,6 +620,149 @@ public class DBI extends PerlModuleBase {
         }, dbh, sth, "execute");
     }
 
+    /**
+     * Executes one chunk of {@code execute_for_fetch} tuples as a single JDBC
+     * batch. DBI.pm pulls the tuples from the caller's fetch sub and hands them
+     * over in chunks, so a Perl die in that sub unwinds normally.
+     * <p>
+     * The chunk is all-or-nothing: it runs inside its own transaction (or a
+     * savepoint when the caller already has one open). If any tuple fails, the
+     * chunk is undone and replayed one statement at a time, so every entry of
+     * the tuple status gets the same row count or {@code [err, errstr, state]}
+     * triple it would have had from individual {@code execute} calls.
+     *
+     * @param args RuntimeArray containing:
+     *             [0] - Statement handle (sth)
+     *             [1] - Reference to an array of bind-value array references
+     *             [2] - Reference to the tuple status array (appended to)
+     * @param ctx  Context parameter
+     * @return RuntimeList of (error count, rows affected or -1 if unknown)
+     */
+    public static RuntimeList execute_batch(RuntimeArray args, int ctx) {
+        RuntimeHash sth = args.get(0).hashDeref();
+        RuntimeHash dbh = sth.get("Database").hashDeref();
+
+        setError(sth, null);
+
+        return executeWithErrorHandling(() -> {
+            if (args.size() < 3) {
+                throw new IllegalStateException("Bad number of arguments for DBI->execute_for_fetch");
+            }
+            RuntimeArray tuples = args.get(1).arrayDeref();
+            RuntimeArray tupleStatus = args.get(2).arrayDeref();
+            PreparedStatement stmt = resource(sth, sth.get("statement"),
+                    "execute_for_fetch", PreparedStatement.class);
+            Connection conn = connection(dbh, "execute_for_fetch");
+
+            int[] counts = null;
+            boolean autoCommit = conn.getAutoCommit();
+            Savepoint savepoint = null;
+            if (autoCommit) {
+                conn.setAutoCommit(false);
+            } else {
+                try {
+                    savepoint = conn.setSavepoint();
+                } catch (SQLException unsupported) {
+                    // Without a savepoint a failed batch cannot be undone; run the tuples singly
+                }
+            }
+            if (autoCommit || savepoint != null) {
+                try {
+                    for (RuntimeScalar tuple : tuples.elements) {
+                        bindTuple(stmt, tuple.arrayDeref());
+                        stmt.addBatch();
+                    }
+                    counts = stmt.executeBatch();
+                    if (autoCommit) {
+                        conn.commit();
+                    } else {
+                        releaseSavepoint(conn, savepoint);
+                    }
+                } catch (SQLException e) {
+                    counts = null;
+                    stmt.clearBatch();
+                    if (autoCommit) {
+                        conn.rollback();
+                    } else {
+                        conn.rollback(savepoint);
+                        releaseSavepoint(conn, savepoint);
+                    }
+                } finally {
+                    if (autoCommit) conn.setAutoCommit(true);
+                }
+            }
+
+            BatchOutcome outcome = new BatchOutcome(sth, tupleStatus);
+            if (counts != null) {
+                for (int count : counts) {
+                    outcome.executed(count);
+                }
+            } else {
+                for (RuntimeScalar tuple : tuples.elements) {
+                    try {
+                        bindTuple(stmt, tuple.arrayDeref());
+                        outcome.executed(stmt.executeUpdate());
+                    } catch (SQLException e) {
+                        outcome.failed(e);
+                    }
+                }
+            }
+
+            sth.put("Executed", scalarTrue);
+            dbh.put("Executed", scalarTrue);
+            RuntimeList result = new RuntimeList();
+            result.add(new RuntimeScalar(outcome.errors));
+            result.add(new RuntimeScalar(outcome.rowsAffected));
+            return result;
+        }, dbh, sth, "execute_for_fetch");
+    }
+
+    private static void bindTuple(PreparedStatement stmt, RuntimeArray tuple) throws SQLException {
+        for (int i = 0; i < tuple.size(); i++) {
+            stmt.setObject(i + 1, toJdbcValue(tuple.get(i)));
+        }
+    }
+
+    private static void releaseSavepoint(Connection conn, Savepoint savepoint) {
+        try {
+            conn.releaseSavepoint(savepoint);
+        } catch (SQLException ignored) {
+            // Optional in JDBC; the savepoint ends with the transaction anyway
+        }
+    }
+
+    /** Tuple status bookkeeping shared by the batched and one-by-one paths of {@link #execute_batch}. */
+    private static final class BatchOutcome {
+        private final RuntimeHash sth;
+        private final RuntimeArray tupleStatus;
+        int errors;
+        long rowsAffected;
+
+        BatchOutcome(RuntimeHash sth, RuntimeArray tupleStatus) {
+            this.sth = sth;
+            this.tupleStatus = tupleStatus;
+        }
+
+        void executed(int count) {
+            if (count >= 0) {
+                // Same value execute() returns for the tuple
+                RuntimeArray.push(tupleStatus, count == 0 ? new RuntimeScalar("0E0") : new RuntimeScalar(count));
+                if (rowsAffected >= 0) rowsAffected += count;
+            } else {
+                // Statement.SUCCESS_NO_INFO: the driver ran it but does not know the row count
+                RuntimeArray.push(tupleStatus, new RuntimeScalar(-1));
+                rowsAffected = -1;
+            }
+        }
+
+        void failed(SQLException e) {
+            errors++;
+            setError(sth, e);
+            RuntimeArray.push(tupleStatus, new RuntimeArray(new RuntimeScalar(sth.get("err")),
+                    new RuntimeScalar(sth.get("errstr")), new RuntimeScalar(sth.get("state"))).createReference());
+        }
+    }
+
     /**
      * Fetches the next row from a result set as an array.
      *
@@ -564,58 +776,25 @@ public class DBI extends PerlModuleBase {
         RuntimeHash dbh = sth.get("Database").hashDeref();
 
         return executeWithErrorHandling(() -> {
-            RuntimeHash executeResult = sth.get("execute_result").hashDeref();
-            ResultSet rs = resource(sth, executeResult.get("resultset"),
-                    "fetchrow_arrayref", ResultSet.class);
+            ResultSet rs = currentResultSet(sth, "fetchrow_arrayref");
 
             // Fetch next row if available
             if (rs.next()) {
-                RuntimeArray row = new RuntimeArray();
-                ResultSetMetaData metaData = rs.getMetaData();
-                int colCount = metaData.getColumnCount();
-                // Convert each column value to string and add to row array.
-                // Perl 5's DBD::SQLite (without sqlite_unicode) returns byte strings
-                // (no UTF-8 flag). JDBC returns Java Strings which are decoded Unicode.
-                // To match Perl 5 behavior, we must UTF-8 encode the JDBC string and
-                // return it as BYTE_STRING. This is equivalent to sqlite_unicode=0.
-                //
-                // Why: In Perl 5, DBD::SQLite works at the byte level — strings go in
-                // as raw bytes (UTF-8 encoded for STRING, raw for BYTE_STRING) and come
-                // back as raw bytes without the UTF-8 flag. JDBC works at the character
-                // level — it always decodes UTF-8 on fetch. Re-encoding to UTF-8 bytes
-                // here restores the byte-level behavior that Perl code expects.
-                for (int i = 1; i <= colCount; i++) {
-                    Object obj = rs.getObject(i);
-                    RuntimeScalar val;
-                    if (obj instanceof byte[] bytes) {
-                        // BLOB column — preserve bytes 1:1 by stuffing them into
-                        // a Java String via ISO-8859-1 and tagging as BYTE_STRING.
-                        val = new RuntimeScalar(new String(bytes, StandardCharsets.ISO_8859_1));
-                        val.type = RuntimeScalarType.BYTE_STRING;
-                    } else {
-                        val = RuntimeScalar.newScalarOrString(obj);
-                        if (val.type == RuntimeScalarType.STRING && val.value instanceof String s) {
-                            byte[] utf8Bytes = s.getBytes(StandardCharsets.UTF_8);
-                            val.value = new String(utf8Bytes, StandardCharsets.ISO_8859_1);
-                            val.type = RuntimeScalarType.BYTE_STRING;
-                        }
-                    }
-                    RuntimeArray.push(row, val);
+                int colCount = rs.getMetaData().getColumnCount();
+
+                // With bind_col/bind_columns in effect the values go straight into
+                // the bound scalars, and the returned row is the statement's own
+                // buffer, overwritten by the next fetch as in native DBI.
+                BoundColumns bound = boundColumns(sth, colCount);
+                if (bound != null) {
+                    bound.load(rs);
+                    return bound.rowRef.getList();
                 }
 
-                // Update bound columns if any (for bind_columns + fetch pattern)
-                RuntimeScalar boundRef = sth.get("bound_columns");
-                if (boundRef != null && boundRef.type != RuntimeScalarType.UNDEF) {
-                    RuntimeHash boundColumns = boundRef.hashDeref();
-                    for (int i = 1; i <= colCount; i++) {
-                        RuntimeScalar ref = boundColumns.get(String.valueOf(i));
-                        if (ref != null && ref.type != RuntimeScalarType.UNDEF) {
-                            // Dereference the scalar ref and set its value
-                            ref.scalarDeref().set(row.get(i - 1));
-                        }
-                    }
+                RuntimeArray row = new RuntimeArray();
+                for (int i = 1; i <= colCount; i++) {
+                    RuntimeArray.push(row, columnValue(rs, i));
                 }
-
                 return row.createReference().getList();
             }
 
@@ -671,9 +850,7 @@ public class DBI extends PerlModuleBase {
                 return scalarUndef.getList();
             }
 
-            RuntimeHash executeResult = sth.get("execute_result").hashDeref();
-            ResultSet rs = resource(sth, executeResult.get("resultset"),
-                    "fetchrow_hashref", ResultSet.class);
+            ResultSet rs = currentResultSet(sth, "fetchrow_hashref");
 
             // Fetch next row if available
             if (rs.next()) {
@@ -711,23 +888,8 @@ public class DBI extends PerlModuleBase {
                 }
 
                 // For each column, add column name -> value pair to hash.
-                // See fetchrow_arrayref for rationale on UTF-8 encode to BYTE_STRING.
                 for (int i = 1; i <= colCount; i++) {
-                    String columnName = columnNames.get(i - 1).toString();
-                    Object value = rs.getObject(i);
-                    RuntimeScalar val;
-                    if (value instanceof byte[] bytes) {
-                        val = new RuntimeScalar(new String(bytes, StandardCharsets.ISO_8859_1));
-                        val.type = RuntimeScalarType.BYTE_STRING;
-                    } else {
-                        val = RuntimeScalar.newScalarOrString(value);
-                        if (val.type == RuntimeScalarType.STRING && val.value instanceof String s) {
-                            byte[] utf8Bytes = s.getBytes(StandardCharsets.UTF_8);
-                            val.value = new String(utf8Bytes, StandardCharsets.ISO_8859_1);
-                            val.type = RuntimeScalarType.BYTE_STRING;
-                        }
-                    }
-                    row.put(columnName, val);
+                    row.put(columnNames.get(i - 1).toString(), columnValue(rs, i));
                 }
 
                 // Create reference for hash
@@ -743,6 +905,291 @@ public class DBI extends PerlModuleBase {
         }, dbh, "fetchrow_hashref");
     }
 
+    /**
+     * Fetches the remaining rows of a result set in one call.
+     * <p>
+     * The loop runs in Java instead of calling {@code fetchrow_arrayref} once
+     * per row from DBI.pm. Slices follow DBI: undef or {@code []} for whole rows,
+     * {@code [@indexes]} (negative indexes count from the end) for column
+     * subsets, {@code {}} or {@code {name => 1, ...}} for hash rows keyed by
+     * {@code FetchHashKeyName}, and {@code \{index => name}} for renamed hash rows.
+     *
+     * @param args RuntimeArray containing:
+     *             [0] - Statement handle (sth)
+     *             [1] - $slice (optional)
+     *             [2] - $max_rows (optional)
+     * @param ctx  Context parameter
+     * @return RuntimeList containing a reference to the array of rows
+     */
+    public static RuntimeList fetchall_arrayref(RuntimeArray args, int ctx) {
+        RuntimeHash sth = args.get(0).hashDeref();
+        RuntimeHash dbh = sth.get("Database").hashDeref();
+
+        return executeWithErrorHandling(() -> {
+            RuntimeScalar slice = args.size() > 1 ? args.get(1) : scalarUndef;
+            RuntimeScalar maxRowsArg = args.size() > 2 ? args.get(2) : scalarUndef;
+            long maxRows = maxRowsArg.getDefinedBoolean() ? maxRowsArg.getLong() : Long.MAX_VALUE;
+
+            ResultSet rs = currentResultSet(sth, "fetchall_arrayref");
+            int colCount = rs.getMetaData().getColumnCount();
+            RowShape shape = RowShape.of(sth, slice, colCount);
+            BoundColumns bound = boundColumns(sth, colCount);
+
+            RuntimeArray rows = new RuntimeArray();
+            for (long fetched = 0; fetched < maxRows; fetched++) {
+                if (!rs.next()) {
+                    sth.put("Active", new RuntimeScalar(false));
+                    break;
+                }
+                if (bound != null) bound.load(rs);
+                RuntimeArray.push(rows, shape.read(rs, bound));
+            }
+            return rows.createReference().getList();
+        }, dbh, "fetchall_arrayref");
+    }
+
+    /**
+     * Collects the given columns of every remaining row into one flat array,
+     * for {@code selectcol_arrayref}.
+     *
+     * @param args RuntimeArray containing:
+     *             [0] - Statement handle (sth)
+     *             [1] - Reference to an array of 1-based column numbers
+     * @param ctx  Context parameter
+     * @return RuntimeList containing a reference to the array of values
+     */
+    public static RuntimeList fetchcol_arrayref(RuntimeArray args, int ctx) {
+        RuntimeHash sth = args.get(0).hashDeref();
+        RuntimeHash dbh = sth.get("Database").hashDeref();
+
+        return executeWithErrorHandling(() -> {
+            RuntimeArray wanted = args.get(1).arrayDeref();
+            int[] columns = new int[wanted.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = wanted.get(i).getInt();
+            }
+
+            ResultSet rs = currentResultSet(sth, "selectcol_arrayref");
+            BoundColumns bound = boundColumns(sth, rs.getMetaData().getColumnCount());
+
+            RuntimeArray values = new RuntimeArray();
+            while (rs.next()) {
+                if (bound != null) bound.load(rs);
+                for (int column : columns) {
+                    RuntimeArray.push(values, columnValue(rs, bound, column));
+                }
+            }
+            sth.put("Active", new RuntimeScalar(false));
+            return values.createReference().getList();
+        }, dbh, "selectcol_arrayref");
+    }
+
+    private static ResultSet currentResultSet(RuntimeHash sth, String operation) {
+        RuntimeHash executeResult = sth.get("execute_result").hashDeref();
+        return resource(sth, executeResult.get("resultset"), operation, ResultSet.class);
+    }
+
+    /**
+     * Converts column {@code index} (1-based) of the current row to a Perl value.
+     * <p>
+     * Perl 5's DBD::SQLite (without sqlite_unicode) returns byte strings (no
+     * UTF-8 flag). JDBC returns Java Strings which are decoded Unicode. To match
+     * Perl 5 behavior, we UTF-8 encode the JDBC string and return it as
+     * BYTE_STRING. This is equivalent to sqlite_unicode=0.
+     * <p>
+     * Why: In Perl 5, DBD::SQLite works at the byte level — strings go in as
+     * raw bytes (UTF-8 encoded for STRING, raw for BYTE_STRING) and come back as
+     * raw bytes without the UTF-8 flag. JDBC works at the character level — it
+     * always decodes UTF-8 on fetch. Re-encoding to UTF-8 bytes here restores
+     * the byte-level behavior that Perl code expects.
+     */
+    private static RuntimeScalar columnValue(ResultSet rs, int index) throws SQLException {
+        return loadColumn(new RuntimeScalar(), rs.getObject(index));
+    }
+
+    /** Column value from the bound-column buffer when one was just loaded, else from the result set. */
+    private static RuntimeScalar columnValue(ResultSet rs, BoundColumns bound, int index) throws SQLException {
+        return bound != null ? new RuntimeScalar(bound.row.elements.get(index - 1)) : columnValue(rs, index);
+    }
+
+    /** Stores a JDBC column value in {@code target}; see {@link #columnValue(ResultSet, int)}. */
+    private static RuntimeScalar loadColumn(RuntimeScalar target, Object value) {
+        switch (value) {
+            case null -> target.set((String) null);
+            // BLOB column — preserve bytes 1:1
+            case byte[] bytes -> setOctets(target, new String(bytes, StandardCharsets.ISO_8859_1));
+            case String s -> setOctets(target, ByteStrings.utf8Octets(s));
+            case Integer i -> target.set(i.intValue());
+            case Long l -> target.set(l.longValue());
+            default -> {
+                RuntimeScalar converted = RuntimeScalar.newScalarOrString(value);
+                if (converted.type == RuntimeScalarType.STRING) {
+                    setOctets(target, ByteStrings.utf8Octets((String) converted.value));
+                } else {
+                    target.set(converted);
+                }
+            }
+        }
+        return target;
+    }
+
+    private static void setOctets(RuntimeScalar target, String octets) {
+        target.set(octets);
+        // A tied target keeps its TIED_SCALAR type; only plain scalars are retyped
+        if (target.type == RuntimeScalarType.STRING) {
+            target.type = RuntimeScalarType.BYTE_STRING;
+        }
+    }
+
+    /**
+     * Returns the bound-column buffer for a statement with bind_col/bind_columns
+     * in effect, or null. The buffer is cached on the handle and rebuilt when
+     * the bindings change.
+     */
+    private static BoundColumns boundColumns(RuntimeHash sth, int colCount) {
+        RuntimeScalar bindingsRef = sth.get("bound_columns");
+        if (bindingsRef == null || !RuntimeScalarType.isReference(bindingsRef)) {
+            return null;
+        }
+        RuntimeHash bindings = bindingsRef.hashDeref();
+        RuntimeScalar cached = sth.get("_bound_row");
+        if (cached != null && cached.value instanceof BoundColumns buffer
+                && buffer.bindings == bindings
+                && buffer.targets.length == colCount
+                && buffer.row.elements.size() == colCount) {
+            return buffer;
+        }
+        RuntimeScalar[] targets = new RuntimeScalar[colCount];
+        boolean any = false;
+        for (int i = 0; i < colCount; i++) {
+            RuntimeScalar ref = bindings.get(String.valueOf(i + 1));
+            if (ref != null && RuntimeScalarType.isReference(ref)) {
+                targets[i] = ref.scalarDeref();
+                any = true;
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        BoundColumns buffer = new BoundColumns(bindings, targets);
+        sth.put("_bound_row", new RuntimeScalar(buffer));
+        return buffer;
+    }
+
+    /**
+     * Per-statement output buffer for bound columns: the bound scalars resolved
+     * once, and the row array every fetch returns (DBI's "fbav"). A fetch
+     * overwrites both in place instead of allocating a row.
+     */
+    private static final class BoundColumns {
+        final RuntimeHash bindings;
+        final RuntimeScalar[] targets;
+        final RuntimeArray row = new RuntimeArray();
+        final RuntimeScalar rowRef;
+
+        BoundColumns(RuntimeHash bindings, RuntimeScalar[] targets) {
+            this.bindings = bindings;
+            this.targets = targets;
+            for (int i = 0; i < targets.length; i++) {
+                RuntimeArray.push(row, new RuntimeScalar());
+            }
+            this.rowRef = row.createReference();
+        }
+
+        void load(ResultSet rs) throws SQLException {
+            for (int i = 0; i < targets.length; i++) {
+                RuntimeScalar value = loadColumn(row.elements.get(i), rs.getObject(i + 1));
+                if (targets[i] != null) {
+                    targets[i].set(value);
+                }
+            }
+        }
+    }
+
+    /** Column selection and row layout for {@link #fetchall_arrayref}. */
+    private record RowShape(int[] columns, String[] keys) {
+
+        static RowShape of(RuntimeHash sth, RuntimeScalar slice, int colCount) {
+            if (slice.type == RuntimeScalarType.ARRAYREFERENCE) {
+                RuntimeArray indexes = slice.arrayDeref();
+                if (indexes.isEmpty()) {
+                    return wholeRow(colCount);
+                }
+                int[] columns = new int[indexes.size()];
+                for (int i = 0; i < columns.length; i++) {
+                    int index = indexes.get(i).getInt();
+                    columns[i] = (index < 0 ? colCount + index : index) + 1;
+                    if (columns[i] < 1 || columns[i] > colCount) {
+                        throw new IllegalStateException("fetchall_arrayref: column index " + index + " out of range");
+                    }
+                }
+                return new RowShape(columns, null);
+            }
+            if (slice.type == RuntimeScalarType.HASHREFERENCE) {
+                RuntimeScalar keyName = sth.get("FetchHashKeyName");
+                String nameStyle = keyName != null && keyName.getDefinedBoolean()
+                        && !keyName.toString().isEmpty() ? keyName.toString() : "NAME";
+                RuntimeArray names = columnNamesAttribute(sth, nameStyle);
+                if (names == null || names.size() < colCount) {
+                    throw new IllegalStateException(
+                            "fetchall_arrayref: missing column NAME list for key \"" + nameStyle + "\"");
+                }
+                Map<String, RuntimeScalar> wanted = slice.hashDeref().elements;
+                int[] columns = new int[colCount];
+                String[] keys = new String[colCount];
+                int n = 0;
+                for (int i = 0; i < colCount; i++) {
+                    String name = names.get(i).toString();
+                    if (wanted.isEmpty() || wanted.containsKey(name)) {
+                        columns[n] = i + 1;
+                        keys[n++] = name;
+                    }
+                }
+                return new RowShape(Arrays.copyOf(columns, n), Arrays.copyOf(keys, n));
+            }
+            if (slice.type == RuntimeScalarType.REFERENCE
+                    && slice.scalarDeref().type == RuntimeScalarType.HASHREFERENCE) {
+                Map<String, RuntimeScalar> renames = slice.scalarDeref().hashDeref().elements;
+                int[] columns = new int[renames.size()];
+                String[] keys = new String[renames.size()];
+                int n = 0;
+                for (Map.Entry<String, RuntimeScalar> entry : renames.entrySet()) {
+                    int index = Integer.parseInt(entry.getKey().trim());
+                    columns[n] = (index < 0 ? colCount + index : index) + 1;
+                    keys[n++] = entry.getValue().toString();
+                }
+                return new RowShape(columns, keys);
+            }
+            if (slice.getDefinedBoolean()) {
+                throw new IllegalStateException("fetchall_arrayref($slice) invalid: " + slice);
+            }
+            return wholeRow(colCount);
+        }
+
+        private static RowShape wholeRow(int colCount) {
+            int[] columns = new int[colCount];
+            for (int i = 0; i < colCount; i++) {
+                columns[i] = i + 1;
+            }
+            return new RowShape(columns, null);
+        }
+
+        RuntimeScalar read(ResultSet rs, BoundColumns bound) throws SQLException {
+            if (keys == null) {
+                RuntimeArray row = new RuntimeArray(columns.length);
+                for (int column : columns) {
+                    RuntimeArray.push(row, columnValue(rs, bound, column));
+                }
+                return row.createReference();
+            }
+            RuntimeHash row = new RuntimeHash();
+            for (int i = 0; i < columns.length; i++) {
+                row.put(keys[i], columnValue(rs, bound, columns[i]));
+            }
+            return row.createReference();
+        }
+    }
+
     /**
      * Returns the number of rows affected by the last statement execution.
      *
@@ -801,10 +1248,11 @@ public class DBI extends PerlModuleBase {
         RuntimeHash dbh = args.get(0).hashDeref();
 
         return executeWithErrorHandling(() -> {
-            Connection conn = connection(dbh, "disconnect");
+            DBIConnection session = session(dbh, "disconnect");
 
-            conn.close();
+            session.close();
             dbh.put("Active", new RuntimeScalar(false));
+            updateConnectionStats(dbh, session);
 
             return new RuntimeHash().createReference().getList();
         }, dbh, "disconnect");
@@ -854,6 +1302,41 @@ public class DBI extends PerlModuleBase {
         }, sth, "finish");
     }
 
+    /**
+     * Hands a destroyed statement handle's {@link PreparedStatement} back to
+     * its connection's statement cache, so the next prepare of the same SQL
+     * skips the driver's parse. Called from {@code DBI::st::DESTROY}.
+     *
+     * @param args RuntimeArray containing:
+     *             [0] - Statement handle (sth)
+     * @param ctx  Context parameter
+     * @return RuntimeList containing true (1)
+     */
+    public static RuntimeList release_statement(RuntimeArray args, int ctx) {
+        RuntimeHash sth = args.get(0).hashDeref();
+        RuntimeScalar statementSlot = sth.get("statement");
+        RuntimeScalar dbhRef = sth.get("Database");
+        if (!(statementSlot.value instanceof DBIHandleResource<?>)
+                || !RuntimeScalarType.isReference(dbhRef)) {
+            return scalarFalse.getList();
+        }
+
+        return executeWithErrorHandling(() -> {
+            PreparedStatement stmt = resource(sth, statementSlot, "DESTROY", PreparedStatement.class);
+            RuntimeScalar resultRef = sth.get("execute_result");
+            if (RuntimeScalarType.isReference(resultRef)) {
+                RuntimeScalar rsScalar = resultRef.hashDeref().get("resultset");
+                if (rsScalar.value instanceof DBIHandleResource<?>) {
+                    resource(sth, rsScalar, "DESTROY", ResultSet.class).close();
+                }
+            }
+            sth.put("statement", new RuntimeScalar());
+            RuntimeHash dbh = dbhRef.hashDeref();
+            session(dbh, "DESTROY").release(sth.get("sql").toString(), stmt);
+            return new RuntimeScalar(1).getList();
+        }, sth, "DESTROY");
+    }
+
     /**
      * Internal method to set error information on a handle.
      *
@@ -971,8 +1454,12 @@ public class DBI extends PerlModuleBase {
         return new RuntimeScalar(DBIHandleResource.owned(resource));
     }
 
-    private static Connection connection(RuntimeHash handle, String operation) {
-        return resource(handle, handle.get("connection"), operation, Connection.class);
+    private static Connection connection(RuntimeHash handle, String operation) throws SQLException {
+        return session(handle, operation).connection();
+    }
+
+    private static DBIConnection session(RuntimeHash handle, String operation) {
+        return resource(handle, handle.get("connection"), operation, DBIConnection.class);
     }
 
     private static <T> T resource(
@@ -1131,6 +1618,7 @@ public class DBI extends PerlModuleBase {
                     sth.get("bound_columns").hashDeref() : new RuntimeHash();
             boundColumns.put(String.valueOf(colIndex), valueRef);
             sth.put("bound_columns", boundColumns.createReference());
+            sth.delete("_bound_row");
 
             return scalarTrue.getList();
         }, dbh, "bind_col");
@@ -0,0 +1,108 @@
+package org.perlonjava.runtime.perlmodule;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * The JDBC connection behind one DBI database handle: either opened for that
+ * handle alone or checked out of a {@link DBIConnectionPool}.
+ *
+ * <p>Statements are prepared through the connection's {@link DBIStatementCache}.
+ * Statements still held by statement handles when the database handle
+ * disconnects are closed, as they would be by {@link Connection#close()}, so a
+ * pooled connection goes back without open cursors and an old statement handle
+ * can never run on a connection that has since been checked out again.</p>
+ */
+final class DBIConnection {
+    private final Connection connection;
+    private final DBIStatementCache statements;
+    private final DBIConnectionPool pool;
+    private final Set<PreparedStatement> leased = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean closed;
+
+    DBIConnection(Connection connection, DBIStatementCache statements, DBIConnectionPool pool) {
+        this.connection = connection;
+        this.statements = statements;
+        this.pool = pool;
+    }
+
+    /** A connection opened for a single database handle. */
+    static DBIConnection unpooled(Connection connection) {
+        return new DBIConnection(connection, new DBIStatementCache(DBIStatementCache.configuredSize()), null);
+    }
+
+    /**
+     * The JDBC connection. After {@link #close()} an unpooled handle keeps
+     * reporting the driver's own errors from the closed connection; a pooled
+     * one no longer has a connection at all.
+     */
+    Connection connection() throws SQLException {
+        if (closed && pool != null) {
+            throw new SQLException("Database handle is disconnected", "08003");
+        }
+        return connection;
+    }
+
+    DBIConnectionPool pool() {
+        return pool;
+    }
+
+    long statementCacheHits() {
+        return statements.hits();
+    }
+
+    /** Returns a cached statement for {@code sql} or prepares a new one. */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.take(sql);
+        if (statement == null) {
+            statement = connection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        }
+        leased.add(statement);
+        return statement;
+    }
+
+    /** Replaces a statement the driver has invalidated with a freshly prepared one. */
+    PreparedStatement reprepare(PreparedStatement stale, String sql) throws SQLException {
+        leased.remove(stale);
+        DBIStatementCache.close(stale);
+        PreparedStatement statement = connection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        leased.add(statement);
+        return statement;
+    }
+
+    /**
+     * Takes back a statement from a destroyed statement handle. With the cache
+     * disabled the statement stays open until disconnect, as it always has,
+     * since {@code last_insert_id} may still read its generated keys.
+     */
+    void release(String sql, PreparedStatement statement) {
+        if (closed || !leased.contains(statement)) {
+            DBIStatementCache.close(statement);
+            return;
+        }
+        if (!statements.isEnabled()) return;
+        leased.remove(statement);
+        statements.offer(sql, statement);
+    }
+
+    /** Disconnects: returns a pooled connection to its pool, otherwise closes it. */
+    void close() throws SQLException {
+        if (closed) return;
+        closed = true;
+        for (PreparedStatement statement : leased) {
+            DBIStatementCache.close(statement);
+        }
+        leased.clear();
+        if (pool != null) {
+            pool.checkin(connection, statements);
+        } else {
+            statements.closeAll();
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.perlonjava.runtime.perlmodule;
+
+import org.perlonjava.runtime.runtimetypes.PerlRuntimePool;
+import org.perlonjava.runtime.util.Settings;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide pool of JDBC connections for {@code DBI->connect_cached}, one
+ * pool per DSN, user, password and attribute set.
+ *
+ * <p>{@code connect_cached} used to keep one dbh per runtime, so every
+ * interpreter in a {@link PerlRuntimePool} opened its own connection and a
+ * fresh one after each disconnect. Pooled handles check a connection out on
+ * connect and back in on disconnect; the connection keeps its
+ * {@link DBIStatementCache} while idle. A checked-out connection belongs to the
+ * runtime that opened the dbh, like any other DBI handle resource, so it is
+ * never used by two interpreters at once.</p>
+ *
+ * <p>{@code JPERL_DBI_POOL_SIZE} (or {@code -Djperl.dbi.pool.size}) caps the
+ * connections checked out of each pool at once; connects beyond it wait for a
+ * checkin and fail with SQLSTATE HYT00 after {@value #WAIT_SECONDS}s. The
+ * default, 0, leaves the pool unbounded and keeps up to
+ * {@value #UNBOUNDED_IDLE} idle connections.</p>
+ */
+final class DBIConnectionPool {
+    static final String SIZE_PROPERTY = "jperl.dbi.pool.size";
+    static final String SIZE_ENVIRONMENT = "JPERL_DBI_POOL_SIZE";
+    private static final int UNBOUNDED_IDLE = 8;
+    private static final long WAIT_SECONDS = 30;
+    private static final int VALIDATION_SECONDS = 5;
+
+    private static final ConcurrentHashMap<Key, DBIConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    record Key(String url, String user, String password, String attributes) {
+    }
+
+    private record Idle(Connection connection, DBIStatementCache statements) {
+    }
+
+    private final Key key;
+    private final int maxSize;
+    private final ArrayDeque<Idle> idle = new ArrayDeque<>();
+    private int active;
+    private long waits;
+
+    private DBIConnectionPool(Key key, int maxSize) {
+        this.key = key;
+        this.maxSize = maxSize;
+    }
+
+    static int configuredSize() {
+        return resolveSize(System.getProperty(SIZE_PROPERTY), System.getenv(SIZE_ENVIRONMENT));
+    }
+
+    /** The property wins over the environment; unset or blank disables pooling. */
+    static int resolveSize(String propertyValue, String environmentValue) {
+        return Settings.parseNonNegative(propertyValue, environmentValue, "DBI connection pool size", 0);
+    }
+
+    /** The pool for {@code key}, created on first use. */
+    static DBIConnectionPool forKey(Key key) {
+        return POOLS.computeIfAbsent(key, k -> new DBIConnectionPool(k, configuredSize()));
+    }
+
+    /**
+     * Whether connections to {@code url} can be shared at all. Each in-memory
+     * SQLite connection is its own database, so handing one to another dbh
+     * would leak one caller's tables into the next.
+     */
+    static boolean isPoolable(String url) {
+        if (!url.startsWith("jdbc:sqlite:")) return true;
+        String path = url.substring("jdbc:sqlite:".length());
+        return !path.isEmpty() && !path.startsWith(":memory:") && !path.contains("mode=memory");
+    }
+
+    /** Checks out an idle connection or opens a new one. */
+    DBIConnection checkout(Properties props) throws SQLException {
+        while (true) {
+            Idle candidate;
+            synchronized (this) {
+                awaitSlot();
+                candidate = idle.pollFirst();
+                active++;
+            }
+            if (candidate == null) {
+                try {
+                    Connection connection = DriverManager.getConnection(key.url(), props);
+                    return new DBIConnection(connection,
+                            new DBIStatementCache(DBIStatementCache.configuredSize()), this);
+                } catch (SQLException | RuntimeException e) {
+                    release();
+                    throw e;
+                }
+            }
+            if (isUsable(candidate.connection())) {
+                return new DBIConnection(candidate.connection(), candidate.statements(), this);
+            }
+            discard(candidate);
+            release();
+        }
+    }
+
+    /** Takes back a connection from a disconnected dbh. */
+    void checkin(Connection connection, DBIStatementCache statements) {
+        Idle returned = new Idle(connection, statements);
+        if (!reset(connection)) {
+            discard(returned);
+            release();
+            return;
+        }
+        Idle evicted = null;
+        synchronized (this) {
+            active--;
+            idle.addFirst(returned);
+            if (idle.size() > (maxSize > 0 ? maxSize : UNBOUNDED_IDLE)) {
+                evicted = idle.pollLast();
+            }
+            notifyAll();
+        }
+        if (evicted != null) discard(evicted);
+    }
+
+    synchronized int active() {
+        return active;
+    }
+
+    synchronized int idle() {
+        return idle.size();
+    }
+
+    synchronized long waits() {
+        return waits;
+    }
+
+    private void awaitSlot() throws SQLException {
+        if (maxSize == 0 || active < maxSize) return;
+        waits++;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+        while (active >= maxSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new SQLException("Timed out waiting for a pooled connection to "
+                        + key.url() + " (" + SIZE_ENVIRONMENT + "=" + maxSize + ")", "HYT00");
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a pooled connection", "HYT00", e);
+            }
+        }
+    }
+
+    private synchronized void release() {
+        active--;
+        notifyAll();
+    }
+
+    private static boolean isUsable(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /** Puts a connection back in the state a fresh {@code connect} returns. */
+    private static boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) return false;
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void discard(Idle entry) {
+        entry.statements().closeAll();
+        try {
+            entry.connection().close();
+        } catch (SQLException ignored) {
+            // Already broken; dropping it is all that is left
+        }
+    }
+}
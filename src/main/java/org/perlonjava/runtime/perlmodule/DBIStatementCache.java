@@ -0,0 +1,107 @@
+package org.perlonjava.runtime.perlmodule;
+
+import org.perlonjava.runtime.util.Settings;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Per-connection LRU of idle JDBC prepared statements, keyed by SQL text.
+ *
+ * <p>A statement handle takes its {@link PreparedStatement} out of the cache in
+ * {@code prepare} and puts it back when the handle is destroyed, so two live
+ * handles never share one JDBC statement. The cache stays with the physical
+ * connection, so a pooled connection keeps its prepared statements from one
+ * checkout to the next. Only the connection's current owner touches it, so it
+ * is not synchronized.</p>
+ */
+final class DBIStatementCache {
+    static final String SIZE_PROPERTY = "jperl.dbi.statement.cache";
+    static final String SIZE_ENVIRONMENT = "JPERL_DBI_STATEMENT_CACHE";
+    private static final int DEFAULT_SIZE = 32;
+
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+
+    DBIStatementCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /** Statements kept per connection; zero disables the cache. */
+    static int configuredSize() {
+        return resolveSize(System.getProperty(SIZE_PROPERTY), System.getenv(SIZE_ENVIRONMENT));
+    }
+
+    /** The property wins over the environment; unset or blank keeps the default. */
+    static int resolveSize(String propertyValue, String environmentValue) {
+        return Settings.parseNonNegative(propertyValue, environmentValue, "DBI statement cache size", DEFAULT_SIZE);
+    }
+
+    /** Removes and returns an idle statement for {@code sql}, or null. */
+    PreparedStatement take(String sql) {
+        PreparedStatement statement = idle.remove(sql);
+        if (statement == null) return null;
+        try {
+            if (statement.isClosed()) return null;
+        } catch (SQLException e) {
+            return null;
+        }
+        hits++;
+        return statement;
+    }
+
+    /** Caches a statement its handle no longer uses, evicting the least recently used one. */
+    void offer(String sql, PreparedStatement statement) {
+        if (!isEnabled() || !reset(statement)) {
+            close(statement);
+            return;
+        }
+        PreparedStatement previous = idle.put(sql, statement);
+        if (previous != null && previous != statement) {
+            close(previous);
+        }
+        if (idle.size() > capacity) {
+            Iterator<PreparedStatement> eldest = idle.values().iterator();
+            close(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    void closeAll() {
+        for (PreparedStatement statement : idle.values()) {
+            close(statement);
+        }
+        idle.clear();
+    }
+
+    private static boolean reset(PreparedStatement statement) {
+        try {
+            if (statement.isClosed()) return false;
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.setFetchSize(0);
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    static void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // Already unusable; nothing else to release
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.perlonjava.runtime.perlmodule;
 import org.perlonjava.runtime.operators.ReferenceOperators;
 import org.perlonjava.runtime.operators.WarnDie;
 import org.perlonjava.runtime.runtimetypes.*;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -790,6 +791,10 @@ public class Encode extends PerlModuleBase {
 
         String string = args.get(0).toString();
         byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == string.length()) {
+            // Pure ASCII: the octets are the input chars, so reuse the String
+            return ByteStrings.byteString(string).getList();
+        }
 
         // Return the encoded bytes as a byte string
         return new RuntimeScalar(bytes).getList();
@@ -999,17 +1004,15 @@ public class Encode extends PerlModuleBase {
 
             // Check for wide characters (code points > 255) in input.
             // These cannot be valid octets and indicate invalid input.
-            if ((check & 0x01) != 0) { // DIE_ON_ERR
-                for (int i = 0; i < octets.length(); i++) {
-                    if (octets.charAt(i) > 255) {
-                        throw new PerlCompilerException(
-                                "Cannot decode string with wide characters at " +
-                                        "Encode.pm line 0.");
-                    }
+            byte[] bytes = ByteStrings.latin1OrNull(octets);
+            if (bytes == null) {
+                if ((check & 0x01) != 0) { // DIE_ON_ERR
+                    throw new PerlCompilerException(
+                            "Cannot decode string with wide characters at " +
+                                    "Encode.pm line 0.");
                 }
+                bytes = octets.getBytes(StandardCharsets.ISO_8859_1);
             }
-
-            byte[] bytes = octets.getBytes(StandardCharsets.ISO_8859_1);
             bytes = trimOrphanBytes(bytes, charset);
 
             if (check == FB_DEFAULT_VAL) {
@@ -1,16 +1,23 @@
 package org.perlonjava.runtime.perlmodule;
 
 import org.perlonjava.runtime.runtimetypes.RuntimeArray;
+import org.perlonjava.runtime.runtimetypes.RuntimeCode;
+import org.perlonjava.runtime.runtimetypes.RuntimeContextType;
 import org.perlonjava.runtime.runtimetypes.RuntimeHash;
 import org.perlonjava.runtime.runtimetypes.RuntimeList;
 import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
+import org.perlonjava.runtime.runtimetypes.RuntimeScalarType;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.net.ProxySelector;
@@ -24,8 +31,31 @@ import java.security.cert.X509Certificate;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Java {@link HttpClient} backend for HTTP::Tiny's {@code request} and
+ * {@code mirror}, plus the {@code request_parallel} extension.
+ *
+ * <p>Clients are shared by every HTTP::Tiny object with the same connection
+ * settings (timeout, TLS verification, proxies, local address, HTTP/2), so
+ * keep-alive connections and TLS sessions are reused across requests and
+ * objects. {@code keep_alive => 0} gets a private client that is closed after
+ * the request. Response bodies are returned as octets; with a
+ * {@code data_callback} they are streamed to the callback in chunks instead
+ * of being buffered.</p>
+ */
 public class HttpTiny extends PerlModuleBase {
+    /** Distinct connection settings kept alive at once; further ones get a per-request client. */
+    private static final int MAX_CACHED_CLIENTS = 32;
+    private static final int CALLBACK_CHUNK_SIZE = 64 * 1024;
+    /** Headers the JDK client manages itself and rejects when set explicitly. */
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("connection", "content-length", "expect", "host", "upgrade");
+    private static final Map<ClientSettings, HttpClient> CLIENTS = new ConcurrentHashMap<>();
 
     public HttpTiny() {
         super("HTTP::Tiny", false);
@@ -43,71 +73,265 @@ public class HttpTiny extends PerlModuleBase {
         // already exists" before it could install its own constructor.
         try {
             httpTiny.registerMethod("request", null);
+            httpTiny.registerMethod("request_parallel", null);
             httpTiny.registerMethod("mirror", null);
         } catch (NoSuchMethodException e) {
             System.err.println("Warning: Missing HttpTiny method: " + e.getMessage());
         }
     }
 
+    /** Connection-level attributes of an HTTP::Tiny object; equal settings share a client. */
+    record ClientSettings(long timeoutMillis, boolean verifySsl, boolean http2, String httpProxy,
+                          String httpsProxy, String noProxy, String localAddress) {
+        static ClientSettings of(RuntimeHash instance) {
+            RuntimeScalar timeout = instance.get("timeout");
+            return new ClientSettings(
+                    timeout.getDefinedBoolean() ? (long) (timeout.getDouble() * 1000) : 60_000L,
+                    !instance.exists("verify_SSL").getBoolean() || instance.get("verify_SSL").getBoolean(),
+                    instance.get("http2").getBoolean(),
+                    proxySetting(instance, "http_proxy"),
+                    proxySetting(instance, "https_proxy"),
+                    noProxySetting(instance.get("no_proxy")),
+                    optionalString(instance, "local_address"));
+        }
+    }
+
+    private static String optionalString(RuntimeHash hash, String key) {
+        if (!hash.exists(key).getBoolean()) return null;
+        RuntimeScalar value = hash.get(key);
+        return value.getDefinedBoolean() ? value.toString() : null;
+    }
+
+    private static String proxySetting(RuntimeHash instance, String key) {
+        // new() copies the environment and the generic proxy into these keys
+        String proxy = optionalString(instance, key);
+        return proxy != null ? proxy : optionalString(instance, "proxy");
+    }
+
+    private static String noProxySetting(RuntimeScalar noProxy) {
+        if (noProxy.type == RuntimeScalarType.ARRAYREFERENCE) {
+            StringJoiner joined = new StringJoiner(",");
+            for (RuntimeScalar domain : noProxy.arrayDeref().elements) {
+                joined.add(domain.toString());
+            }
+            return joined.toString();
+        }
+        return noProxy.getDefinedBoolean() ? noProxy.toString() : null;
+    }
+
+    /** Returns the shared client for {@code settings}, or null when a private one should be used. */
+    private static HttpClient sharedClient(RuntimeHash instance, ClientSettings settings) {
+        if (instance.exists("keep_alive").getBoolean() && !instance.get("keep_alive").getBoolean()) {
+            return null;
+        }
+        HttpClient client = CLIENTS.get(settings);
+        if (client != null || CLIENTS.size() >= MAX_CACHED_CLIENTS) {
+            return client;
+        }
+        return CLIENTS.computeIfAbsent(settings, HttpTiny::createHttpClient);
+    }
+
     public static RuntimeList request(RuntimeArray args, int ctx) throws Exception {
         if (args.size() < 3) {
             throw new IllegalStateException("Bad number of arguments for HTTP::Tiny->request");
         }
 
-        RuntimeScalar self = args.get(0);
+        RuntimeHash instanceHash = args.get(0).hashDeref();
         String method = args.get(1).toString();
         String url = args.get(2).toString();
         RuntimeHash options = args.size() > 3 ? args.get(3).hashDeref() : new RuntimeHash();
 
-        RuntimeHash instanceHash = self.hashDeref();
+        ClientSettings settings = ClientSettings.of(instanceHash);
+        HttpClient shared = sharedClient(instanceHash, settings);
+        HttpClient client = shared != null ? shared : createHttpClient(settings);
+        try {
+            HttpRequest request = buildRequest(instanceHash, method, url, options, settings);
+            RuntimeScalar dataCallback = options.get("data_callback");
+            if (dataCallback.type == RuntimeScalarType.CODE) {
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                return streamToCallback(response, dataCallback).getList();
+            }
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            RuntimeHash responseMap = responseHash(response);
+            responseMap.put("content", new RuntimeScalar(response.body()));
+            return responseMap.createReference().getList();
+        } catch (IOException | IllegalArgumentException e) {
+            return transportFailure(url, e).getList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return transportFailure(url, e).getList();
+        } finally {
+            if (client != shared) {
+                client.close();
+            }
+        }
+    }
 
-        // Handle options
-        RuntimeHash headers = options.exists("headers").getBoolean()
-                ? options.get("headers").hashDeref() : new RuntimeHash();
-        String content = options.get("content") != null ? options.get("content").toString() : "";
+    /**
+     * {@code $http->request_parallel(\@requests, \%options)} sends every
+     * {@code [METHOD, URL, \%options]} entry concurrently and returns an array
+     * reference of responses in the same order. {@code max_in_flight} in the
+     * options limits how many requests are outstanding at once. Bodies are
+     * buffered; a {@code data_callback} receives the whole body once the
+     * response is complete.
+     */
+    public static RuntimeList request_parallel(RuntimeArray args, int ctx) throws Exception {
+        if (args.size() < 2 || args.get(1).type != RuntimeScalarType.ARRAYREFERENCE) {
+            throw new IllegalStateException("Usage: $http->request_parallel(\\@requests, [HASHREF])");
+        }
 
-        // Create request builder
+        RuntimeHash instanceHash = args.get(0).hashDeref();
+        List<RuntimeScalar> entries = args.get(1).arrayDeref().elements;
+        RuntimeHash parallelOptions = args.size() > 2 ? args.get(2).hashDeref() : new RuntimeHash();
+        int maxInFlight = parallelOptions.get("max_in_flight").getInt();
+        Semaphore permits = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+
+        ClientSettings settings = ClientSettings.of(instanceHash);
+        HttpClient shared = sharedClient(instanceHash, settings);
+        HttpClient client = shared != null ? shared : createHttpClient(settings);
+        int count = entries.size();
+        String[] urls = new String[count];
+        RuntimeHash[] requestOptions = new RuntimeHash[count];
+        List<CompletableFuture<HttpResponse<byte[]>>> futures = new ArrayList<>(count);
+        try {
+            // Requests are built on this thread: content callbacks are Perl code
+            for (int i = 0; i < count; i++) {
+                List<RuntimeScalar> entry = entries.get(i).arrayDeref().elements;
+                urls[i] = entry.get(1).toString();
+                requestOptions[i] = entry.size() > 2 ? entry.get(2).hashDeref() : new RuntimeHash();
+                CompletableFuture<HttpResponse<byte[]>> future;
+                try {
+                    HttpRequest request = buildRequest(instanceHash, entry.get(0).toString(), urls[i],
+                            requestOptions[i], settings);
+                    if (permits != null) permits.acquire();
+                    future = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+                    if (permits != null) future = future.whenComplete((response, error) -> permits.release());
+                } catch (IllegalArgumentException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                futures.add(future);
+            }
+
+            RuntimeArray responses = new RuntimeArray();
+            for (int i = 0; i < count; i++) {
+                RuntimeScalar result;
+                try {
+                    HttpResponse<byte[]> response = futures.get(i).get();
+                    RuntimeHash responseMap = responseHash(response);
+                    RuntimeScalar dataCallback = requestOptions[i].get("data_callback");
+                    RuntimeScalar body = new RuntimeScalar(response.body());
+                    if (dataCallback.type == RuntimeScalarType.CODE) {
+                        RuntimeScalar responseRef = responseMap.createReference();
+                        if (response.body().length > 0) {
+                            RuntimeCode.apply(dataCallback, new RuntimeArray(body, responseRef), RuntimeContextType.VOID);
+                        }
+                        result = responseRef;
+                    } else {
+                        responseMap.put("content", body);
+                        result = responseMap.createReference();
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    result = transportFailure(urls[i], cause instanceof Exception ex ? ex : e);
+                }
+                RuntimeArray.push(responses, result);
+            }
+            return responses.createReference().getList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        } finally {
+            if (client != shared) {
+                client.close();
+            }
+        }
+    }
+
+    private static HttpRequest buildRequest(RuntimeHash instanceHash, String method, String url,
+                                            RuntimeHash options, ClientSettings settings) {
+        byte[] body = requestBody(options.get("content"));
         HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .method(method, HttpRequest.BodyPublishers.ofString(content));
-
-        // Set headers
+                .method(method, body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (settings.timeoutMillis() > 0) {
+            requestBuilder.timeout(Duration.ofMillis(settings.timeoutMillis()));
+        }
         requestBuilder.header("User-Agent", instanceHash.get("agent").toString());
-        // requestBuilder.header("Connection", "keep-alive");
-
-        // Add default and custom headers
-        headers.elements.forEach((key, value) ->
-                requestBuilder.header(key, value.toString())
-        );
-
-        // Build and send request
-        HttpRequest request = requestBuilder.build();
-        try {
-            HttpClient client = createHttpClient(instanceHash);
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
 
-            // Prepare response map
-            RuntimeHash responseMap = new RuntimeHash();
-            responseMap.put("success", new RuntimeScalar(response.statusCode() >= 200 && response.statusCode() < 300));
-            responseMap.put("status", new RuntimeScalar(response.statusCode()));
-            responseMap.put("reason", new RuntimeScalar(getStatusReason(response.statusCode())));
-            responseMap.put("content", new RuntimeScalar(response.body()));
-            responseMap.put("url", new RuntimeScalar(response.uri().toString()));
+        // Request headers override default_headers, compared case-insensitively
+        Map<String, Map.Entry<String, RuntimeScalar>> headers = new LinkedHashMap<>();
+        for (String source : new String[]{"default_headers", "headers"}) {
+            RuntimeHash from = source.equals("headers") ? options : instanceHash;
+            RuntimeScalar set = from.get(source);
+            if (set.type != RuntimeScalarType.HASHREFERENCE) continue;
+            set.hashDeref().elements.forEach((name, value) ->
+                    headers.put(name.toLowerCase(Locale.ROOT), Map.entry(name, value)));
+        }
+        headers.forEach((lower, header) -> {
+            if (RESTRICTED_HEADERS.contains(lower) || lower.equals("user-agent")) return;
+            RuntimeScalar value = header.getValue();
+            if (value.type == RuntimeScalarType.ARRAYREFERENCE) {
+                for (RuntimeScalar each : value.arrayDeref().elements) {
+                    requestBuilder.header(header.getKey(), each.toString());
+                }
+            } else {
+                requestBuilder.header(header.getKey(), value.toString());
+            }
+        });
+        return requestBuilder.build();
+    }
 
-            // Collect headers
-            RuntimeHash responseHeaders = new RuntimeHash();
-            response.headers().map().forEach((key, value) ->
-                    responseHeaders.put(key.toLowerCase(), new RuntimeScalar(String.join(", ", value)))
-            );
-            responseMap.put("headers", responseHeaders.createReference());
+    /** Returns the request body: the content string, or everything a content callback yields. */
+    private static byte[] requestBody(RuntimeScalar content) {
+        if (content.type == RuntimeScalarType.CODE) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            while (true) {
+                RuntimeScalar chunk = RuntimeCode.apply(content, new RuntimeArray(), RuntimeContextType.SCALAR).getFirst();
+                if (!chunk.getDefinedBoolean()) break;
+                byte[] bytes = ByteStrings.toOutputBytes(chunk.toString());
+                if (bytes.length == 0) break;
+                body.writeBytes(bytes);
+            }
+            return body.toByteArray();
+        }
+        return content.getDefinedBoolean() ? ByteStrings.toOutputBytes(content.toString()) : new byte[0];
+    }
 
-            return responseMap.createReference().getList();
-        } catch (IOException e) {
-            return transportFailure(url, e).getList();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return transportFailure(url, e).getList();
+    /** Feeds the body to {@code callback} as it arrives; the response carries no content. */
+    private static RuntimeScalar streamToCallback(HttpResponse<InputStream> response, RuntimeScalar callback)
+            throws IOException {
+        RuntimeScalar responseRef = responseHash(response).createReference();
+        byte[] chunk = new byte[CALLBACK_CHUNK_SIZE];
+        try (InputStream body = response.body()) {
+            int n;
+            while ((n = body.read(chunk)) != -1) {
+                if (n == 0) continue;
+                RuntimeCode.apply(callback, new RuntimeArray(new RuntimeScalar(chunk, 0, n), responseRef),
+                        RuntimeContextType.VOID);
+            }
         }
+        return responseRef;
+    }
+
+    private static RuntimeHash responseHash(HttpResponse<?> response) {
+        int status = response.statusCode();
+        RuntimeHash responseMap = new RuntimeHash();
+        responseMap.put("success", new RuntimeScalar(status >= 200 && status < 300));
+        responseMap.put("status", new RuntimeScalar(status));
+        responseMap.put("reason", new RuntimeScalar(getStatusReason(status)));
+        responseMap.put("url", new RuntimeScalar(response.uri().toString()));
+        responseMap.put("protocol", new RuntimeScalar(
+                response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1"));
+
+        RuntimeHash responseHeaders = new RuntimeHash();
+        response.headers().map().forEach((key, value) ->
+                responseHeaders.put(key.toLowerCase(), new RuntimeScalar(String.join(", ", value)))
+        );
+        responseMap.put("headers", responseHeaders.createReference());
+        return responseMap;
     }
 
     private static RuntimeScalar transportFailure(String url, Exception error) {
@@ -171,14 +395,16 @@ public class HttpTiny extends PerlModuleBase {
         };
     }
 
-    private static HttpClient createHttpClient(RuntimeHash options) {
+    private static HttpClient createHttpClient(ClientSettings settings) {
         HttpClient.Builder builder = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofMillis(options.get("timeout").getLong() * 1000L))
-                .version(HttpClient.Version.HTTP_1_1)
+                .version(settings.http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
                 .followRedirects(HttpClient.Redirect.NORMAL);
+        if (settings.timeoutMillis() > 0) {
+            builder.connectTimeout(Duration.ofMillis(settings.timeoutMillis()));
+        }
 
         // Configure SSL context if SSL verification is disabled
-        if (!options.get("verify_SSL").getBoolean()) {
+        if (!settings.verifySsl()) {
             try {
                 builder.sslContext(createInsecureSSLContext());
             } catch (Exception e) {
@@ -186,15 +412,19 @@ public class HttpTiny extends PerlModuleBase {
             }
         }
 
+        if (settings.localAddress() != null) {
+            try {
+                builder.localAddress(InetAddress.getByName(settings.localAddress()));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid local_address: " + settings.localAddress(), e);
+            }
+        }
+
         // Configure proxy settings
-        String httpProxy = options.exists("http_proxy").getBoolean() ? options.get("http_proxy").toString() : System.getenv("http_proxy");
-        String httpsProxy = options.exists("https_proxy").getBoolean() ? options.get("https_proxy").toString() : System.getenv("https_proxy");
-        String genericProxy = options.exists("proxy").getBoolean() ? options.get("proxy").toString() : System.getenv("all_proxy");
-        String noProxy = options.exists("no_proxy").getBoolean() ? options.get("no_proxy").toString() : System.getenv("no_proxy");
-
-        if (genericProxy != null) {
-            builder.proxy(ProxySelector.of(new InetSocketAddress(URI.create(genericProxy).getHost(), URI.create(genericProxy).getPort())));
-        } else if (httpProxy != null || httpsProxy != null) {
+        String httpProxy = settings.httpProxy();
+        String httpsProxy = settings.httpsProxy();
+        String noProxy = settings.noProxy();
+        if (httpProxy != null || httpsProxy != null) {
             builder.proxy(new ProxySelector() {
                 @Override
                 public List<Proxy> select(URI uri) {
@@ -285,8 +515,10 @@ public class HttpTiny extends PerlModuleBase {
                 requestBuilder.header(key, value.toString())
         );
 
+        ClientSettings settings = ClientSettings.of(instanceHash);
+        HttpClient shared = sharedClient(instanceHash, settings);
+        HttpClient client = shared != null ? shared : createHttpClient(settings);
         try {
-            HttpClient client = createHttpClient(instanceHash);
             // Use byte[] body handler to preserve binary content
             HttpResponse<byte[]> response = client.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofByteArray());
 
@@ -343,6 +575,10 @@ public class HttpTiny extends PerlModuleBase {
             responseHeaders.put("content-length", new RuntimeScalar(errMsg.length()));
             responseMap.put("headers", responseHeaders.createReference());
             return responseMap.createReference().getList();
+        } finally {
+            if (client != shared) {
+                client.close();
+            }
         }
     }
 }
@@ -0,0 +1,221 @@
+package org.perlonjava.runtime.perlmodule;
+
+import org.perlonjava.runtime.io.IOHandle;
+import org.perlonjava.runtime.io.ReadinessSelector;
+import org.perlonjava.runtime.runtimetypes.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.perlonjava.runtime.runtimetypes.GlobalVariable.getGlobalVariable;
+import static org.perlonjava.runtime.runtimetypes.RuntimeScalarCache.*;
+
+/**
+ * Java XS backend for IO::Epoll: an incremental interest set on top of
+ * {@link ReadinessSelector}.
+ *
+ * <p>{@code epoll_create} returns a Perl file descriptor owning its own
+ * persistent selector; {@code epoll_ctl} adds, changes or removes descriptors
+ * once, and {@code epoll_wait} waits on the whole set without the caller
+ * rebuilding bit vectors or poll lists on every iteration. Closing the
+ * descriptor with {@code POSIX::close} releases the selector.</p>
+ *
+ * <p>Readiness is level-triggered: {@code EPOLLET} is accepted and ignored.
+ * {@code EPOLLONESHOT} disables a descriptor after it is reported until it is
+ * re-armed with {@code EPOLL_CTL_MOD}. Descriptors that are closed while in the
+ * set drop out of it, as they do from a kernel epoll set.</p>
+ */
+public class IOEpoll extends PerlModuleBase {
+
+    // Values match <sys/epoll.h> and IO/Epoll.pm
+    private static final int EPOLL_CTL_ADD = 1;
+    private static final int EPOLL_CTL_DEL = 2;
+    private static final int EPOLL_CTL_MOD = 3;
+    private static final int EPOLLONESHOT = 1 << 30;
+    private static final int POLL_EVENTS = ReadinessSelector.POLLIN | ReadinessSelector.POLLPRI
+            | ReadinessSelector.POLLOUT;
+    private static final int ALWAYS_REPORTED = ReadinessSelector.POLLERR | ReadinessSelector.POLLHUP;
+
+    public IOEpoll() {
+        super("IO::Epoll", false);
+    }
+
+    public static void initialize() {
+        IOEpoll module = new IOEpoll();
+        try {
+            module.registerMethod("epoll_create", null);
+            module.registerMethod("epoll_ctl", null);
+            module.registerMethod("epoll_wait", null);
+        } catch (NoSuchMethodException e) {
+            System.err.println("Warning: Missing IO::Epoll method: " + e.getMessage());
+        }
+    }
+
+    /**
+     * epoll_create($size) - returns a new epoll descriptor, or -1 with $! set.
+     * The size hint is ignored, as it is by Linux.
+     */
+    public static RuntimeList epoll_create(RuntimeArray args, int ctx) {
+        try {
+            RuntimeIO rio = new RuntimeIO();
+            rio.ioHandle = new EpollSet(ReadinessSelector.open());
+            return new RuntimeScalar(rio.assignFileno()).getList();
+        } catch (IOException e) {
+            getGlobalVariable("main::!").set(e.getMessage());
+            return new RuntimeScalar(-1).getList();
+        }
+    }
+
+    /**
+     * epoll_ctl($epfd, $op, $fd, $events) - returns 0 on success, -1 with $! set.
+     */
+    public static RuntimeList epoll_ctl(RuntimeArray args, int ctx) {
+        EpollSet set = epollSet(args.get(0));
+        if (set == null) {
+            return failure("Bad file descriptor");
+        }
+        int op = args.get(1).getInt();
+        int fd = args.get(2).getInt();
+        int events = args.size() > 3 ? args.get(3).getInt() : 0;
+
+        if (op != EPOLL_CTL_DEL && RuntimeIO.getByFileno(fd) == null) {
+            return failure("Bad file descriptor");
+        }
+        switch (op) {
+            case EPOLL_CTL_ADD -> {
+                if (set.interest.putIfAbsent(fd, events) != null) {
+                    return failure("File exists");
+                }
+            }
+            case EPOLL_CTL_MOD -> {
+                if (set.interest.replace(fd, events) == null) {
+                    return failure("No such file or directory");
+                }
+            }
+            case EPOLL_CTL_DEL -> {
+                if (set.interest.remove(fd) == null) {
+                    return failure("No such file or directory");
+                }
+            }
+            default -> {
+                return failure("Invalid argument");
+            }
+        }
+        return new RuntimeScalar(0).getList();
+    }
+
+    /**
+     * epoll_wait($epfd, $maxevents, $timeout_ms) - returns an arrayref of
+     * [$fd, $events] pairs, empty on timeout, or undef with $! set.
+     */
+    public static RuntimeList epoll_wait(RuntimeArray args, int ctx) {
+        EpollSet set = epollSet(args.get(0));
+        int maxEvents = args.get(1).getInt();
+        if (set == null) {
+            return failure("Bad file descriptor", scalarUndef);
+        }
+        if (maxEvents <= 0) {
+            return failure("Invalid argument", scalarUndef);
+        }
+        long timeoutMs = args.get(2).getDefinedBoolean() ? args.get(2).getLong() : -1;
+
+        try {
+            RuntimeArray result = new RuntimeArray();
+            for (Map.Entry<Integer, Integer> reported : set.await(timeoutMs, maxEvents)) {
+                RuntimeArray pair = new RuntimeArray();
+                pair.push(new RuntimeScalar(reported.getKey()));
+                pair.push(new RuntimeScalar(reported.getValue()));
+                result.push(pair.createReference());
+            }
+            return result.createReference().getList();
+        } catch (IOException e) {
+            return failure(e.getMessage(), scalarUndef);
+        }
+    }
+
+    private static EpollSet epollSet(RuntimeScalar epfd) {
+        RuntimeIO rio = RuntimeIO.getByFileno(epfd.getInt());
+        return rio != null && rio.ioHandle instanceof EpollSet set ? set : null;
+    }
+
+    private static RuntimeList failure(String message) {
+        return failure(message, new RuntimeScalar(-1));
+    }
+
+    private static RuntimeList failure(String message, RuntimeScalar result) {
+        getGlobalVariable("main::!").set(message);
+        return result.getList();
+    }
+
+    /** The handle behind an epoll descriptor. */
+    private static final class EpollSet implements IOHandle {
+        private final ReadinessSelector readiness;
+        /** Registered descriptors and their EPOLL* masks, in registration order. */
+        private final LinkedHashMap<Integer, Integer> interest = new LinkedHashMap<>();
+
+        EpollSet(ReadinessSelector readiness) {
+            this.readiness = readiness;
+        }
+
+        List<Map.Entry<Integer, Integer>> await(long timeoutMs, int maxEvents) throws IOException {
+            long deadline = timeoutMs < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMs;
+            List<Map.Entry<Integer, Integer>> reported = new ArrayList<>();
+            while (true) {
+                int n = 0;
+                int[] fds = new int[interest.size()];
+                int[] events = new int[fds.length];
+                for (Map.Entry<Integer, Integer> entry : interest.entrySet()) {
+                    int wanted = entry.getValue() & POLL_EVENTS;
+                    if (wanted == 0) continue; // Disabled by EPOLLONESHOT
+                    fds[n] = entry.getKey();
+                    events[n++] = wanted;
+                }
+                fds = Arrays.copyOf(fds, n);
+                events = Arrays.copyOf(events, n);
+                int[] revents = new int[n];
+                long remaining = timeoutMs >= 0 ? Math.max(0, deadline - System.currentTimeMillis())
+                        : n == 0 ? Integer.MAX_VALUE : -1; // An empty set still blocks, as in the kernel
+                readiness.poll(fds, events, revents, remaining);
+
+                for (int i = 0; i < n; i++) {
+                    if (revents[i] == 0) continue;
+                    if ((revents[i] & ReadinessSelector.POLLNVAL) != 0) {
+                        interest.remove(fds[i]); // Closed descriptors leave the set
+                        continue;
+                    }
+                    if (reported.size() == maxEvents) continue;
+                    int mask = interest.get(fds[i]);
+                    reported.add(Map.entry(fds[i], revents[i] & (mask | ALWAYS_REPORTED)));
+                    if ((mask & EPOLLONESHOT) != 0) {
+                        interest.put(fds[i], mask & ~POLL_EVENTS);
+                    }
+                }
+                if (!reported.isEmpty() || timeoutMs == 0 || System.currentTimeMillis() >= deadline
+                        || Thread.currentThread().isInterrupted()) {
+                    return reported;
+                }
+            }
+        }
+
+        @Override
+        public RuntimeScalar write(String string) {
+            return RuntimeIO.handleIOError("Cannot write to an epoll descriptor");
+        }
+
+        @Override
+        public RuntimeScalar close() {
+            interest.clear();
+            readiness.close();
+            return scalarTrue;
+        }
+
+        @Override
+        public RuntimeScalar flush() {
+            return scalarTrue;
+        }
+    }
+}
@@ -1,32 +1,20 @@
 package org.perlonjava.runtime.perlmodule;
 
-import org.perlonjava.runtime.*;
-import org.perlonjava.runtime.io.FileDescriptorTable;
-import org.perlonjava.runtime.io.SocketIO;
+import org.perlonjava.runtime.io.ReadinessSelector;
 import org.perlonjava.runtime.runtimetypes.*;
 
 import java.io.IOException;
-import java.nio.channels.*;
-import java.util.*;
 
 /**
  * Java XS backend for IO::Poll.
  * Implements the _poll() function that replaces the XS code in IO.xs (lines 254-286).
  * Constants are defined in IO/Poll.pm using 'use constant'.
  *
- * <p>The _poll() function wraps Java NIO Selector for sockets and
- * FileDescriptorTable readiness checks for non-socket handles.
+ * <p>The _poll() function waits on the runtime's persistent
+ * {@link ReadinessSelector}, the same one 4-arg select() uses.
  */
 public class IOPoll extends PerlModuleBase {
 
-    // Poll constants (matching POSIX poll.h values, same as IO/Poll.pm)
-    private static final int POLLIN   = 0x0001;
-    private static final int POLLPRI  = 0x0002;
-    private static final int POLLOUT  = 0x0004;
-    private static final int POLLERR  = 0x0008;
-    private static final int POLLHUP  = 0x0010;
-    private static final int POLLNVAL = 0x0020;
-
     public IOPoll() {
         super("IO::Poll", false);
     }
@@ -59,17 +47,6 @@ public class IOPoll extends PerlModuleBase {
         int timeoutMs = args.get(0).getInt();
         int nfd = (args.size() - 1) / 2;
 
-        if (nfd == 0) {
-            // No fds to poll — just sleep if timeout > 0
-            if (timeoutMs > 0) {
-                try { Thread.sleep(timeoutMs); } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-            return new RuntimeScalar(0).getList();
-        }
-
-        // revents array: stores returned events for each fd pair
         int[] revents = new int[nfd];
         int[] fds = new int[nfd];
         int[] requestedEvents = new int[nfd];
@@ -81,201 +58,14 @@ public class IOPoll extends PerlModuleBase {
             requestedEvents[i] = args.get(argIdx + 1).getInt();
         }
 
-        Selector selector = null;
-        List<SelectableChannel> madeNonBlocking = new ArrayList<>();
-
         try {
-            selector = Selector.open();
-            Map<SelectableChannel, Integer> channelToIndex = new HashMap<>();
-            List<Integer> nonSocketIndices = new ArrayList<>();
-            int readyCount = 0;
-
-            // Classify each fd
-            for (int i = 0; i < nfd; i++) {
-                int fd = fds[i];
-                int events = requestedEvents[i];
-
-                RuntimeIO rio = RuntimeIO.getByFileno(fd);
-                if (rio == null) {
-                    // Invalid fd — POLLNVAL
-                    revents[i] = POLLNVAL;
-                    readyCount++;
-                    continue;
-                }
-
-                // Preserve socket readiness semantics through fdopen aliases,
-                // duplicated descriptors, and I/O layers.
-                SocketIO socketIO = rio.getSocketHandle();
-
-                if (socketIO != null) {
-                    SelectableChannel ch = socketIO.getSelectableChannel();
-                    if (ch == null) {
-                        // Socket without selectable channel — treat as ready
-                        if ((events & (POLLIN | POLLPRI)) != 0) revents[i] |= POLLIN;
-                        if ((events & POLLOUT) != 0) revents[i] |= POLLOUT;
-                        if (revents[i] != 0) readyCount++;
-                        continue;
-                    }
-
-                    // Configure non-blocking for NIO selection
-                    if (ch.isBlocking()) {
-                        ch.configureBlocking(false);
-                        madeNonBlocking.add(ch);
-                    }
-
-                    boolean pendingDatagramError = socketIO.hasPendingDatagramError();
-                    if (pendingDatagramError) {
-                        revents[i] |= POLLERR;
-                        if ((events & (POLLIN | POLLPRI)) != 0) {
-                            revents[i] |= POLLIN;
-                        }
-                        readyCount++;
-                        continue;
-                    }
-
-                    int ops = 0;
-                    if ((events & (POLLIN | POLLPRI)) != 0) {
-                        ops |= (ch instanceof ServerSocketChannel)
-                                ? SelectionKey.OP_ACCEPT
-                                : SelectionKey.OP_READ;
-                    }
-                    if ((events & POLLOUT) != 0) {
-                        if (ch instanceof SocketChannel sc && sc.isConnectionPending()) {
-                            ops |= SelectionKey.OP_CONNECT;
-                        } else {
-                            ops |= SelectionKey.OP_WRITE;
-                        }
-                    }
-
-                    if (ops != 0) {
-                        ch.register(selector, ops);
-                        channelToIndex.put(ch, i);
-                    }
-                } else {
-                    // Non-socket handle — check immediate readiness
-                    if ((events & (POLLIN | POLLPRI)) != 0
-                            && FileDescriptorTable.isReadReady(rio.ioHandle)) {
-                        revents[i] |= POLLIN;
-                    }
-                    if ((events & POLLOUT) != 0
-                            && FileDescriptorTable.isWriteReady(rio.ioHandle)) {
-                        revents[i] |= POLLOUT;
-                    }
-                    if (revents[i] != 0) {
-                        readyCount++;
-                    } else {
-                        nonSocketIndices.add(i);
-                    }
-                }
-            }
-
-            // poll(2) reports every descriptor that is currently ready.  If a
-            // non-socket descriptor was ready during classification, do not
-            // skip the socket selector: IO::Async commonly has an internal
-            // descriptor ready at the same time as a stream socket.  Skipping
-            // the selector in that case starves the socket callback forever.
-            if (readyCount > 0) {
-                if (!channelToIndex.isEmpty()) {
-                    selector.selectNow();
-                    readyCount += collectSelectedEvents(
-                            selector, channelToIndex, revents);
-                }
-                writeResults(args, nfd, fds, revents);
-                return new RuntimeScalar(readyCount).getList();
-            }
-
-            // Poll loop: check NIO selector and pollable fds
-            long deadlineMs = (timeoutMs < 0) ? Long.MAX_VALUE
-                    : System.currentTimeMillis() + timeoutMs;
-            long pollIntervalMs = 10;
-
-            while (readyCount == 0) {
-                // NIO selector
-                if (!channelToIndex.isEmpty()) {
-                    long remainMs = Math.min(pollIntervalMs,
-                            Math.max(0, deadlineMs - System.currentTimeMillis()));
-                    if (timeoutMs < 0 && nonSocketIndices.isEmpty()) {
-                        selector.select(pollIntervalMs);
-                    } else {
-                        selector.select(Math.max(1, remainMs));
-                    }
-
-                    readyCount += collectSelectedEvents(
-                            selector, channelToIndex, revents);
-                    if (readyCount > 0) break;
-                }
-
-                // Pollable non-socket fds
-                for (int idx : nonSocketIndices) {
-                    int fd = fds[idx];
-                    int events = requestedEvents[idx];
-                    RuntimeIO rio = RuntimeIO.getByFileno(fd);
-                    if (rio == null) continue;
-
-                    if ((events & (POLLIN | POLLPRI)) != 0
-                            && FileDescriptorTable.isReadReady(rio.ioHandle)) {
-                        revents[idx] |= POLLIN;
-                    }
-                    if ((events & POLLOUT) != 0
-                            && FileDescriptorTable.isWriteReady(rio.ioHandle)) {
-                        revents[idx] |= POLLOUT;
-                    }
-                    if (revents[idx] != 0) readyCount++;
-                }
-                if (readyCount > 0) break;
-
-                // Check timeout
-                if (timeoutMs >= 0 && System.currentTimeMillis() >= deadlineMs) break;
-
-                // Sleep before next poll if no NIO channels
-                if (channelToIndex.isEmpty()) {
-                    try {
-                        long sleepMs = Math.min(pollIntervalMs,
-                                Math.max(1, deadlineMs - System.currentTimeMillis()));
-                        Thread.sleep(sleepMs);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
-
-            // Write results back to args (in-place modification)
+            int readyCount = PerlRuntime.current().ioRegistryState.readiness()
+                    .poll(fds, requestedEvents, revents, timeoutMs);
             writeResults(args, nfd, fds, revents);
             return new RuntimeScalar(readyCount).getList();
-
         } catch (IOException e) {
             return new RuntimeScalar(-1).getList();
-        } finally {
-            if (selector != null) {
-                try { selector.close(); } catch (IOException ignored) {}
-            }
-            for (SelectableChannel ch : madeNonBlocking) {
-                try { ch.configureBlocking(true); } catch (Exception ignored) {}
-            }
-        }
-    }
-
-    private static int collectSelectedEvents(
-            Selector selector,
-            Map<SelectableChannel, Integer> channelToIndex,
-            int[] revents) {
-        int readyCount = 0;
-        for (SelectionKey key : selector.selectedKeys()) {
-            Integer idx = channelToIndex.get(key.channel());
-            if (idx == null) continue;
-            int readyOps = key.readyOps();
-            int before = revents[idx];
-            if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
-                revents[idx] |= POLLIN;
-            }
-            if ((readyOps & (SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT)) != 0) {
-                revents[idx] |= POLLOUT;
-            }
-            if (before == 0 && revents[idx] != 0) readyCount++;
         }
-        selector.selectedKeys().clear();
-        return readyCount;
     }
 
     /**
@@ -78,6 +78,15 @@ public class Internals extends PerlModuleBase {
             internals.registerMethod("jperl_set_closed_over", "jperlSetClosedOver", null);
             internals.registerMethod("jperl_closed_over", "jperlClosedOver", null);
             internals.registerMethod("jperl_peek_sub", "jperlPeekSub", null);
+            // Literal-normalized eval STRING templates read their constants
+            // through this handoff; the stats report exact and template cache
+            // hits and misses for the current runtime.
+            internals.registerMethod("jperl_eval_constants", "jperlEvalConstants", "");
+            internals.registerMethod("jperl_eval_cache_stats", "jperlEvalCacheStats", "");
+            // Cache and compiler counters; see RuntimeMetrics (JPERL_METRICS=1).
+            internals.registerMethod("stats", "stats", "");
+            // Config's d_pseudofork; see PerlPseudoProcess (JPERL_PSEUDO_FORK).
+            internals.registerMethod("jperl_pseudo_fork", "jperlPseudoFork", "");
             internals.registerMethod("jperl_peek_my", "jperlPeekMy", null);
             internals.registerMethod("jperl_peek_our", "jperlPeekOur", null);
             internals.registerMethod("jperl_var_name", "jperlVarName", null);
@@ -87,6 +96,36 @@ public class Internals extends PerlModuleBase {
         }
     }
 
+    public static RuntimeList jperlEvalConstants(RuntimeArray args, int ctx) {
+        return EvalLiteralNormalizer.takePendingConstants();
+    }
+
+    public static RuntimeList jperlEvalCacheStats(RuntimeArray args, int ctx) {
+        RuntimeList result = new RuntimeList();
+        for (Map.Entry<String, Long> entry : EvalLiteralNormalizer.statistics().entrySet()) {
+            result.add(new RuntimeScalar(entry.getKey()));
+            result.add(new RuntimeScalar(entry.getValue()));
+        }
+        return result;
+    }
+
+    /** Whether fork runs a pseudo-process, as JPERL_PSEUDO_FORK and jperl.pseudo.fork select. */
+    public static RuntimeList jperlPseudoFork(RuntimeArray args, int ctx) {
+        return RuntimeScalarCache.getScalarBoolean(PerlPseudoProcess.isEnabled()).getList();
+    }
+
+    /**
+     * Return a hash ref of the current runtime's metrics. Cache sizes are
+     * always filled in; counters stay zero unless JPERL_METRICS is set.
+     */
+    public static RuntimeList stats(RuntimeArray args, int ctx) {
+        RuntimeHash result = new RuntimeHash();
+        for (Map.Entry<String, Long> entry : RuntimeMetrics.snapshot(PerlRuntime.current()).entrySet()) {
+            result.put(entry.getKey(), new RuntimeScalar(entry.getValue()));
+        }
+        return result.createReference().getList();
+    }
+
     /**
      * Return a reference to the live END block queue for B::end_av().
      */
@@ -273,7 +273,19 @@ public class Mro extends PerlModuleBase {
             throw new IllegalStateException("Bad number of arguments for mro::get_isarev()");
         }
 
-        String className = args.get(0).toString();
+        RuntimeArray result = new RuntimeArray();
+        for (String inheritor : collectInheritors(args.get(0).toString())) {
+            result.push(new RuntimeScalar(inheritor));
+        }
+
+        return result.createReference().getList();
+    }
+
+    /**
+     * All classes that inherit from {@code className}, directly or indirectly,
+     * from the reverse ISA cache of the current @ISA generation.
+     */
+    public static Set<String> collectInheritors(String className) {
         var state = PerlRuntime.current().mroState();
 
         long currentGeneration = InheritanceResolver.getIsaGeneration();
@@ -282,17 +294,9 @@ public class Mro extends PerlModuleBase {
             state.setIsaRevGeneration(currentGeneration);
         }
 
-        RuntimeArray result = new RuntimeArray();
-
-        // Add all classes that inherit from this one, including indirectly
         Set<String> allInheritors = new HashSet<>();
         collectAllInheritors(className, allInheritors, new HashSet<>(), state.isaRevCache());
-
-        for (String inheritor : allInheritors) {
-            result.push(new RuntimeScalar(inheritor));
-        }
-
-        return result.createReference().getList();
+        return allInheritors;
     }
 
     /**
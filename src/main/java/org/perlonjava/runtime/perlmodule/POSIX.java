@@ -468,15 +468,23 @@ public class POSIX extends PerlModuleBase {
     }
 
     public static RuntimeList getpid(RuntimeArray args, int ctx) {
+        PerlPseudoProcess self = PerlRuntime.current().pseudoProcess();
+        if (self != null) {
+            return new RuntimeScalar(self.pid()).getList();
+        }
         return new RuntimeScalar(ProcessHandle.current().pid()).getList();
     }
 
     /**
      * POSIX::_do_exit - immediate process termination without cleanup.
      * Implements POSIX _exit(2) via System.exit() (closest JVM equivalent).
+     * A pseudo-fork or in-process jperl child ends only itself, still without END blocks.
      */
     public static RuntimeList do_exit(RuntimeArray args, int ctx) {
         int exitCode = args.isEmpty() ? 0 : args.get(0).getInt();
+        if (PerlRuntime.current().isChildInSharedJvm()) {
+            throw new PerlExitException(exitCode);
+        }
         Runtime.getRuntime().halt(exitCode);
         // unreachable
         return new RuntimeList();
@@ -2,13 +2,16 @@ package org.perlonjava.runtime.perlmodule;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.*;
-import io.netty.util.CharsetUtil;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.ReferenceCountUtil;
+import org.perlonjava.runtime.io.IOHandle;
 import org.perlonjava.runtime.io.ScalarBackedIO;
 import org.perlonjava.runtime.operators.ReferenceOperators;
 import org.perlonjava.runtime.runtimetypes.*;
@@ -51,19 +54,6 @@ import java.util.WeakHashMap;
  */
 public class PlackHandlerNetty extends PerlModuleBase {
 
-    /**
-     * PSGI response bodies are byte strings. PerlOnJava represents their octets
-     * as ISO-8859-1 code points, so writing the Java String as UTF-8 would encode
-     * already-encoded content a second time and disagree with Content-Length.
-     */
-    private static ByteBuf psgiBodyBuffer(RuntimeArray bodyArray) {
-        ByteBuf content = Unpooled.buffer();
-        for (int i = 0; i < bodyArray.size(); i++) {
-            content.writeCharSequence(bodyArray.get(i).toString(), StandardCharsets.ISO_8859_1);
-        }
-        return content;
-    }
-
     /**
      * Creates a new PSGI server module instance for XSLoader.
      */
@@ -79,6 +69,9 @@ public class PlackHandlerNetty extends PerlModuleBase {
         try {
             module.registerMethod("new", "new_handler", null);
             module.registerMethod("run", "run_handler", null);
+            module.registerMethodInPackage(PsgiExchange.WRITER_CLASS, "write", "writer_write");
+            module.registerMethodInPackage(PsgiExchange.WRITER_CLASS, "close", "writer_close");
+            module.registerMethodInPackage(PsgiExchange.WRITER_CLASS, "poll_cb", "writer_poll_cb");
         } catch (NoSuchMethodException e) {
             System.err.println("Warning: Missing PlackHandlerNetty method: " + e.getMessage());
         }
@@ -157,6 +150,38 @@ public class PlackHandlerNetty extends PerlModuleBase {
         }
         handler.put("max_request_size", new RuntimeScalar(maxRequestSize));
 
+        // Input buffer size - bodies up to this size are read fully before the
+        // app runs; larger ones are streamed when a runtime pool is configured
+        RuntimeScalar inputBufferScalar = config.get("input_buffer_size");
+        int inputBufferSize;
+        if (inputBufferScalar != null && inputBufferScalar.type != RuntimeScalarType.UNDEF && inputBufferScalar.getInt() > 0) {
+            inputBufferSize = inputBufferScalar.getInt();
+        } else {
+            inputBufferSize = PSGIRequestHandler.DEFAULT_INPUT_BUFFER_SIZE;
+        }
+        handler.put("input_buffer_size", new RuntimeScalar(inputBufferSize));
+
+        // Input timeout - seconds a streamed psgi.input read waits for more of the body
+        RuntimeScalar inputTimeoutScalar = config.get("input_timeout");
+        int inputTimeout;
+        if (inputTimeoutScalar != null && inputTimeoutScalar.type != RuntimeScalarType.UNDEF && inputTimeoutScalar.getInt() > 0) {
+            inputTimeout = inputTimeoutScalar.getInt();
+        } else {
+            inputTimeout = 60;
+        }
+        handler.put("input_timeout", new RuntimeScalar(inputTimeout));
+
+        // Request threads - threads running apps with streamed bodies; 0 means
+        // one per pooled runtime, since a request cannot run without one
+        RuntimeScalar requestThreadsScalar = config.get("request_threads");
+        int requestThreads;
+        if (requestThreadsScalar != null && requestThreadsScalar.type != RuntimeScalarType.UNDEF && requestThreadsScalar.getInt() > 0) {
+            requestThreads = requestThreadsScalar.getInt();
+        } else {
+            requestThreads = 0;
+        }
+        handler.put("request_threads", new RuntimeScalar(requestThreads));
+
         // SSL/TLS - default to disabled
         RuntimeScalar sslScalar = config.get("ssl");
         boolean sslEnabled = false;
@@ -229,6 +254,9 @@ public class PlackHandlerNetty extends PerlModuleBase {
         int backlog = handler.get("backlog").getInt();
         int keepalive = handler.get("keepalive").getInt();
         int maxRequestSize = handler.get("max_request_size").getInt();
+        int inputBufferSize = handler.get("input_buffer_size").getInt();
+        int inputTimeout = handler.get("input_timeout").getInt();
+        int requestThreads = handler.get("request_threads").getInt();
 
         // SSL configuration
         boolean sslEnabled = handler.get("ssl").getBoolean();
@@ -263,7 +291,8 @@ public class PlackHandlerNetty extends PerlModuleBase {
         }
 
         try {
-            startNettyServer(port, host, psgiApp, backlog, maxRequestSize, keepalive > 0,
+            startNettyServer(port, host, psgiApp, backlog, maxRequestSize, inputBufferSize,
+                           inputTimeout, requestThreads, keepalive > 0,
                            sslEnabled, sslCert, sslKey, sslCa, sslProtocols, sslCiphers);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -335,6 +364,7 @@ public class PlackHandlerNetty extends PerlModuleBase {
      * @param psgiApp PSGI application coderef
      * @param backlog TCP connection backlog queue size
      * @param maxRequestSize Maximum HTTP request body size in bytes
+     * @param inputBufferSize Largest request body read fully before the app runs
      * @param keepAlive Enable HTTP keep-alive connections
      * @param sslEnabled Enable SSL/TLS
      * @param sslCert Path to SSL certificate (PEM format)
@@ -345,14 +375,23 @@ public class PlackHandlerNetty extends PerlModuleBase {
      * @throws InterruptedException if the server is interrupted during startup or operation
      */
     private static void startNettyServer(int port, String host, RuntimeScalar psgiApp,
-                                        int backlog, int maxRequestSize, boolean keepAlive,
+                                        int backlog, int maxRequestSize, int inputBufferSize,
+                                        int inputTimeout, int requestThreads,
+                                        boolean keepAlive,
                                         boolean sslEnabled, String sslCert, String sslKey,
                                         String sslCa, String[] sslProtocols, String sslCiphers)
                                         throws InterruptedException {
         PerlRuntime runtime = PerlRuntime.current();
         int poolSize = PerlRuntimePool.configuredSize();
         PsgiRuntimePool runtimePool = poolSize == 0
-                ? null : new PsgiRuntimePool(runtime, psgiApp, poolSize);
+                ? null : new PsgiRuntimePool(runtime, psgiApp, poolSize,
+                        PerlRuntimePool.configuredCopyOnRead(),
+                        PerlRuntimePool.configuredMaxRequests(),
+                        PerlRuntimePool.configuredMaxHeapPercent());
+        // Runs applications whose request bodies are streamed, so a blocking
+        // read of psgi.input never stalls an event loop
+        java.util.concurrent.ExecutorService requestExecutor = runtimePool == null
+                ? null : newRequestExecutor(requestThreads > 0 ? requestThreads : poolSize);
 
         // Build SSL context if enabled
         io.netty.handler.ssl.SslContext sslContext = null;
@@ -403,13 +442,16 @@ public class PlackHandlerNetty extends PerlModuleBase {
                          pipeline.addLast("ssl", finalSslContext.newHandler(ch.alloc()));
                      }
 
-                     // HTTP codec and aggregator
+                     // HTTP codec; request bodies are collected or streamed by
+                     // the PSGI handler, file bodies go through the chunked writer
                      pipeline.addLast(new HttpServerCodec());
-                     pipeline.addLast(new HttpObjectAggregator(maxRequestSize));
+                     pipeline.addLast(new ChunkedWriteHandler());
 
                      // PSGI request handler
                      pipeline.addLast(new PSGIRequestHandler(
-                             psgiApp, host, port, keepAlive, runtime, runtimePool));
+                             psgiApp, host, port, keepAlive, runtime, runtimePool,
+                             maxRequestSize, inputBufferSize, requestExecutor,
+                             inputTimeout * 1000L));
                  }
              })
              .option(ChannelOption.SO_BACKLOG, backlog)
@@ -427,6 +469,7 @@ public class PlackHandlerNetty extends PerlModuleBase {
             e.printStackTrace(System.err);
             throw e;
         } finally {
+            if (requestExecutor != null) requestExecutor.shutdown();
             if (runtimePool != null) runtimePool.close();
             // Shutdown event loops if not already shutdown
             if (!bossGroup.isShutdown()) {
@@ -438,52 +481,110 @@ public class PlackHandlerNetty extends PerlModuleBase {
         }
     }
 
-    /** Prepared request snapshots plus their app root, bounded by the configured pool size. */
+    /**
+     * A fixed number of daemon threads for streamed requests. Idle threads
+     * exit after a minute; requests beyond {@code threads} queue until one
+     * frees up, and each connection has at most one request in flight.
+     */
+    static java.util.concurrent.ExecutorService newRequestExecutor(int threads) {
+        java.util.concurrent.ThreadPoolExecutor executor = new java.util.concurrent.ThreadPoolExecutor(
+                threads, threads, 60, java.util.concurrent.TimeUnit.SECONDS,
+                new java.util.concurrent.LinkedBlockingQueue<>(),
+                Thread.ofPlatform().daemon(true).name("psgi-request-", 0).factory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Prepared request snapshots plus their app root, bounded by the configured pool size.
+     *
+     * <p>A snapshot serves up to {@code maxRequests} requests, like a Starman
+     * worker, and is retired early once heap occupancy reaches
+     * {@code maxHeapPercent}. Retired slots are re-cloned from the template on
+     * the pool's refill thread, so a request never pays for a clone.</p>
+     */
     static final class PsgiRuntimePool implements AutoCloseable {
         private final PerlRuntime template;
         private final RuntimeScalar templateApp;
-        private final Map<PerlRuntime, RuntimeScalar> apps =
+        private final Map<PerlRuntime, Worker> workers =
                 Collections.synchronizedMap(new WeakHashMap<>());
+        private final boolean copyOnRead;
+        private final int maxRequests;
+        private final int maxHeapPercent;
         private final PerlRuntimePool pool;
 
         PsgiRuntimePool(PerlRuntime template, RuntimeScalar templateApp, int size) {
+            this(template, templateApp, size, false, 1, 0);
+        }
+
+        /**
+         * With {@code copyOnRead} each slot shares the template's package data
+         * and clones a variable or sub only when a request first touches it.
+         * The template itself never serves requests once the pool exists.
+         */
+        PsgiRuntimePool(PerlRuntime template, RuntimeScalar templateApp, int size,
+                        boolean copyOnRead, int maxRequests, int maxHeapPercent) {
             this.template = template;
             this.templateApp = templateApp;
-            this.pool = new PerlRuntimePool(size, this::createSnapshot, this::replaceSnapshot);
+            this.copyOnRead = copyOnRead;
+            this.maxRequests = maxRequests;
+            this.maxHeapPercent = maxHeapPercent;
+            this.pool = new PerlRuntimePool(size, this::createSnapshot, this::retain, true);
         }
 
         private PerlRuntime createSnapshot() {
-            PerlRuntime.RootSnapshot snapshot = template.snapshotCloneWithRoots(
-                    java.util.List.of(templateApp));
+            java.util.List<RuntimeScalar> roots = java.util.List.of(templateApp);
+            PerlRuntime.RootSnapshot snapshot = copyOnRead
+                    ? template.copyOnReadSnapshotWithRoots(roots)
+                    : template.snapshotCloneWithRoots(roots);
             RuntimeScalar app = (RuntimeScalar) snapshot.roots().getFirst();
-            apps.put(snapshot.runtime(), app);
+            workers.put(snapshot.runtime(), new Worker(app));
             return snapshot.runtime();
         }
 
-        private PerlRuntime replaceSnapshot(PerlRuntime used) {
-            apps.remove(used);
-            used.close();
-            return createSnapshot();
+        /** Keeps a worker for its next request, or forgets it so the pool retires it. */
+        private boolean retain(PerlRuntime used) {
+            Worker worker = workers.get(used);
+            boolean keep = worker != null
+                    && ++worker.served < maxRequests
+                    && (maxHeapPercent == 0 || PerlRuntimePool.heapUsedPercent() < maxHeapPercent);
+            if (!keep) workers.remove(used);
+            return keep;
         }
 
         RequestLease checkout() throws InterruptedException {
             PerlRuntimePool.Lease lease = pool.checkout(Duration.ofSeconds(30));
-            RuntimeScalar app = apps.get(lease.runtime());
-            if (app == null) {
+            Worker worker = workers.get(lease.runtime());
+            if (worker == null) {
                 lease.close();
                 throw new IllegalStateException("PSGI runtime has no cloned application root");
             }
-            return new RequestLease(lease, app);
+            return new RequestLease(lease, worker.app);
         }
 
         int size() {
             return pool.capacity();
         }
 
+        /** Clone time, reuse and checkout-wait counters; see {@link PerlRuntimePool#stats()}. */
+        Map<String, Long> stats() {
+            return pool.stats();
+        }
+
         @Override
         public void close() {
             pool.close();
-            apps.clear();
+            workers.clear();
+        }
+
+        /** Cloned app root of one snapshot and the requests it has served. */
+        private static final class Worker {
+            final RuntimeScalar app;
+            int served;
+
+            Worker(RuntimeScalar app) {
+                this.app = app;
+            }
         }
 
         record RequestLease(PerlRuntimePool.Lease lease, RuntimeScalar app)
@@ -501,8 +602,20 @@ public class PlackHandlerNetty extends PerlModuleBase {
      * 2. Calls PSGI app: $response = $app->($env)
      * 3. Converts PSGI response [status, headers, body] to Netty HttpResponse
      * 4. Writes response and optionally closes connection
+     *
+     * Bodies up to {@code inputBufferSize} bytes are collected and the app runs
+     * on the event loop with a seekable psgi.input, as before. With a runtime
+     * pool, larger or chunked bodies are not collected: the app starts on a
+     * request thread as soon as the headers arrive and reads a
+     * {@link PsgiStreamingInput} that back-pressures the socket. Objects for
+     * the next request on the connection are held back until the current
+     * exchange finishes, so responses never interleave.
      */
-    static class PSGIRequestHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+    static class PSGIRequestHandler extends SimpleChannelInboundHandler<HttpObject> {
+        /** Bodies above this size are streamed when a runtime pool is configured. */
+        static final int DEFAULT_INPUT_BUFFER_SIZE = 1024 * 1024;
+        private static final int DEFAULT_MAX_REQUEST_SIZE = 10485760;
+        private static final long DEFAULT_INPUT_TIMEOUT_MILLIS = 60_000;
 
         private final RuntimeScalar psgiApp;
         private final String serverName;
@@ -510,6 +623,18 @@ public class PlackHandlerNetty extends PerlModuleBase {
         private final boolean keepAlive;
         private final PerlRuntime runtime;
         private final PsgiRuntimePool runtimePool;
+        private final long maxRequestSize;
+        private final int inputBufferSize;
+        private final java.util.concurrent.Executor requestExecutor;
+        private final long inputTimeoutMillis;
+
+        private PsgiExchange active;
+        private final java.util.ArrayDeque<HttpObject> deferred = new java.util.ArrayDeque<>();
+        private HttpRequest pendingRequest;
+        private CompositeByteBuf pendingBody;
+        private PsgiStreamingInput streamingInput;
+        private long received;
+        private boolean discarding;
 
         public PSGIRequestHandler(RuntimeScalar psgiApp, String serverName,
                                   int serverPort, boolean keepAlive, PerlRuntime runtime) {
@@ -519,28 +644,186 @@ public class PlackHandlerNetty extends PerlModuleBase {
         PSGIRequestHandler(RuntimeScalar psgiApp, String serverName,
                            int serverPort, boolean keepAlive, PerlRuntime runtime,
                            PsgiRuntimePool runtimePool) {
+            this(psgiApp, serverName, serverPort, keepAlive, runtime, runtimePool,
+                    DEFAULT_MAX_REQUEST_SIZE, DEFAULT_INPUT_BUFFER_SIZE);
+        }
+
+        PSGIRequestHandler(RuntimeScalar psgiApp, String serverName,
+                           int serverPort, boolean keepAlive, PerlRuntime runtime,
+                           PsgiRuntimePool runtimePool, long maxRequestSize, int inputBufferSize) {
+            this(psgiApp, serverName, serverPort, keepAlive, runtime, runtimePool,
+                    maxRequestSize, inputBufferSize,
+                    runtimePool == null ? null : newRequestExecutor(runtimePool.size()),
+                    DEFAULT_INPUT_TIMEOUT_MILLIS);
+        }
+
+        PSGIRequestHandler(RuntimeScalar psgiApp, String serverName,
+                           int serverPort, boolean keepAlive, PerlRuntime runtime,
+                           PsgiRuntimePool runtimePool, long maxRequestSize, int inputBufferSize,
+                           java.util.concurrent.Executor requestExecutor, long inputTimeoutMillis) {
             this.psgiApp = psgiApp;
             this.serverName = serverName;
             this.serverPort = serverPort;
             this.keepAlive = keepAlive;
             this.runtime = runtime;
             this.runtimePool = runtimePool;
+            this.maxRequestSize = maxRequestSize;
+            this.inputBufferSize = inputBufferSize;
+            this.requestExecutor = requestExecutor;
+            this.inputTimeoutMillis = inputTimeoutMillis;
         }
 
         @Override
-        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest req) {
-            PsgiRuntimePool.RequestLease requestLease = null;
+        protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg) {
+            // A request (or its body) that arrives while the previous exchange
+            // is still responding waits its turn.
+            if (!deferred.isEmpty() || (active != null && streamingInput == null)) {
+                ReferenceCountUtil.retain(msg);
+                deferred.addLast(msg);
+                ctx.channel().config().setAutoRead(false);
+                return;
+            }
+
+            if (msg instanceof FullHttpRequest full) {
+                if (full.content().readableBytes() > maxRequestSize) {
+                    rejectTooLarge(ctx, full);
+                    return;
+                }
+                runBuffered(ctx, full, full.content());
+                return;
+            }
+            if (msg instanceof HttpRequest req) {
+                startRequest(ctx, req);
+            }
+            if (msg instanceof HttpContent content) {
+                readContent(ctx, content);
+            }
+        }
+
+        private void startRequest(ChannelHandlerContext ctx, HttpRequest req) {
+            received = 0;
+            discarding = false;
+            if (HttpUtil.is100ContinueExpected(req)) {
+                ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+                        HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER));
+            }
+            long length = HttpUtil.getContentLength(req, -1L);
+            if (length > maxRequestSize) {
+                discarding = true;
+                rejectTooLarge(ctx, req);
+                return;
+            }
+            boolean stream = runtimePool != null && requestExecutor != null
+                    && (length < 0 ? HttpUtil.isTransferEncodingChunked(req) : length > inputBufferSize);
+            if (!stream) {
+                pendingRequest = req;
+                pendingBody = ctx.alloc().compositeBuffer(Integer.MAX_VALUE);
+                return;
+            }
+
+            PsgiStreamingInput input = new PsgiStreamingInput(ctx.channel(),
+                    Math.max(inputBufferSize, 64 * 1024), inputTimeoutMillis);
+            streamingInput = input;
+            PsgiExchange exchange = newExchange(ctx, req);
+            requestExecutor.execute(() -> runApp(ctx, exchange, input, false));
+        }
+
+        private void readContent(ChannelHandlerContext ctx, HttpContent content) {
+            boolean last = content instanceof LastHttpContent;
+            if (discarding) {
+                if (last) discarding = false;
+                return;
+            }
+            received += content.content().readableBytes();
+            if (received > maxRequestSize) {
+                if (streamingInput != null) {
+                    streamingInput.fail("Request body exceeds " + maxRequestSize + " bytes");
+                    streamingInput = null;
+                    ctx.close();
+                } else if (pendingRequest != null) {
+                    HttpRequest req = pendingRequest;
+                    dropPendingBody();
+                    rejectTooLarge(ctx, req);
+                }
+                discarding = !last;
+                return;
+            }
+            if (streamingInput != null) {
+                streamingInput.offer(content.content().retain());
+                if (last) {
+                    streamingInput.finish();
+                    streamingInput = null;
+                }
+            } else if (pendingBody != null) {
+                if (content.content().isReadable()) {
+                    pendingBody.addComponent(true, content.content().retain());
+                }
+                if (last) {
+                    HttpRequest req = pendingRequest;
+                    CompositeByteBuf body = pendingBody;
+                    pendingRequest = null;
+                    pendingBody = null;
+                    try {
+                        runBuffered(ctx, req, body);
+                    } finally {
+                        body.release();
+                    }
+                }
+            }
+        }
+
+        private void dropPendingBody() {
+            if (pendingBody != null) pendingBody.release();
+            pendingBody = null;
+            pendingRequest = null;
+        }
+
+        /** Runs the app on the event loop with the whole body in a seekable handle. */
+        private void runBuffered(ChannelHandlerContext ctx, HttpRequest req, ByteBuf content) {
+            String body = content.toString(StandardCharsets.ISO_8859_1);
+            PsgiExchange exchange = newExchange(ctx, req);
+            runApp(ctx, exchange, new ScalarBackedIO(new RuntimeScalar(body)), true);
+        }
+
+        private PsgiExchange newExchange(ChannelHandlerContext ctx, HttpRequest req) {
+            PsgiExchange exchange = new PsgiExchange(ctx, req, keepAlive, () -> exchangeComplete(ctx));
+            active = exchange;
+            return exchange;
+        }
+
+        /** Event loop: the exchange is over; replay whatever was held back. */
+        private void exchangeComplete(ChannelHandlerContext ctx) {
+            active = null;
+            while (active == null && !deferred.isEmpty()) {
+                HttpObject next = deferred.pollFirst();
+                try {
+                    channelRead0(ctx, next);
+                } finally {
+                    ReferenceCountUtil.release(next);
+                }
+            }
+            if (deferred.isEmpty() && ctx.channel().isActive() && !ctx.channel().config().isAutoRead()
+                    && (streamingInput == null)) {
+                ctx.channel().config().setAutoRead(true);
+                ctx.read();
+            }
+        }
+
+        private void runApp(ChannelHandlerContext ctx, PsgiExchange exchange, IOHandle input, boolean buffered) {
+            HttpRequest req = exchange.request();
             try {
-                if (runtimePool != null) requestLease = runtimePool.checkout();
+                PsgiRuntimePool.RequestLease requestLease =
+                        runtimePool == null ? null : runtimePool.checkout();
                 PerlRuntime requestRuntime = requestLease == null ? runtime : requestLease.runtime();
                 RuntimeScalar requestApp = requestLease == null ? psgiApp : requestLease.app();
+                exchange.attach(requestRuntime, requestLease);
                 try (PerlRuntime.Binding ignored = requestRuntime.bind()) {
                 try {
                     // Detect if connection is SSL/TLS by checking for SslHandler in pipeline
                     boolean isHttps = ctx.pipeline().get(io.netty.handler.ssl.SslHandler.class) != null;
 
                     // Build PSGI environment hash
-                    RuntimeHash env = buildPSGIEnvironment(req, isHttps);
+                    RuntimeHash env = buildPSGIEnvironment(req, isHttps, input, buffered);
 
                     // Call PSGI app: $response = $app->($env)
                     RuntimeArray args = new RuntimeArray();
@@ -552,13 +835,12 @@ public class PlackHandlerNetty extends PerlModuleBase {
                     // Handle streaming responses (coderef) and synchronous responses (arrayref)
                     if (result.type == RuntimeScalarType.CODE) {
                         // Streaming response - create responder callback
-                        handleStreamingResponse(ctx, req, result, keepAlive, requestRuntime);
+                        handleStreamingResponse(exchange, result);
                     } else if (result.type == RuntimeScalarType.ARRAYREFERENCE) {
                         // Synchronous array response
-                        handleArrayResponse(ctx, req, result, keepAlive);
+                        handleArrayResponse(exchange, result);
                     } else {
-                        sendErrorResponse(ctx, req,
-                            HttpResponseStatus.INTERNAL_SERVER_ERROR,
+                        exchange.fail(HttpResponseStatus.INTERNAL_SERVER_ERROR,
                             "PSGI app must return arrayref [status, headers, body] or coderef for streaming");
                     }
 
@@ -576,38 +858,35 @@ public class PlackHandlerNetty extends PerlModuleBase {
                         errorMessage += ": " + e.getMessage();
                     }
 
-                    sendErrorResponse(ctx, req,
-                        HttpResponseStatus.INTERNAL_SERVER_ERROR,
-                        errorMessage);
+                    exchange.fail(HttpResponseStatus.INTERNAL_SERVER_ERROR, errorMessage);
                 }
                 }
             } catch (InterruptedException interrupted) {
                 Thread.currentThread().interrupt();
-                sendErrorResponse(ctx, req, HttpResponseStatus.SERVICE_UNAVAILABLE,
+                exchange.fail(HttpResponseStatus.SERVICE_UNAVAILABLE,
                         "Interrupted while waiting for a Perl runtime");
             } catch (Exception failure) {
-                sendErrorResponse(ctx, req, HttpResponseStatus.SERVICE_UNAVAILABLE,
+                exchange.fail(HttpResponseStatus.SERVICE_UNAVAILABLE,
                         "Perl runtime checkout failed: " + failure.getMessage());
             } finally {
-                if (requestLease != null) requestLease.close();
+                if (!buffered) input.close();
+                exchange.handlerDone();
             }
         }
 
         /**
          * Handles streaming PSGI responses (coderef).
-         * The app returns a coderef that calls $responder with [status, headers, body].
+         * The app returns a coderef that calls $responder with [status, headers, body]
+         * or with [status, headers], in which case $responder returns a writer.
          *
          * Strategy: Delegate to Perl helper function _handle_streaming_response()
          * which creates a native Perl responder callback. This is vastly simpler
          * than trying to create Perl-callable callbacks from Java.
          */
-        private void handleStreamingResponse(ChannelHandlerContext ctx, FullHttpRequest req,
-                                            RuntimeScalar streamingCoderef, boolean keepAlive,
-                                            PerlRuntime requestRuntime) {
+        private void handleStreamingResponse(PsgiExchange exchange, RuntimeScalar streamingCoderef) {
             try {
                 // Create a Java-side callback that Perl can invoke to send HTTP response
-                CallableHttpResponse responseCallback = new CallableHttpResponse(
-                        ctx, req, keepAlive, requestRuntime);
+                CallableHttpResponse responseCallback = new CallableHttpResponse(exchange);
 
                 // Call Perl helper: Plack::Handler::Netty::_handle_streaming_response($coderef, $callback)
                 RuntimeArray args = new RuntimeArray();
@@ -620,45 +899,24 @@ public class PlackHandlerNetty extends PerlModuleBase {
                 if (helper.type == RuntimeScalarType.CODE) {
                     RuntimeCode.apply(helper, args, RuntimeContextType.VOID);
                 } else {
-                    sendErrorResponse(ctx, req,
-                        HttpResponseStatus.INTERNAL_SERVER_ERROR,
+                    exchange.fail(HttpResponseStatus.INTERNAL_SERVER_ERROR,
                         "Perl streaming helper not loaded");
                 }
 
             } catch (Exception e) {
-                sendErrorResponse(ctx, req,
-                    HttpResponseStatus.INTERNAL_SERVER_ERROR,
+                exchange.fail(HttpResponseStatus.INTERNAL_SERVER_ERROR,
                     "Streaming response error: " + e.getMessage());
             }
         }
 
-        /**
-         * Sends an array response (both sync and streaming array responses).
-         */
-        private void sendArrayResponse(ChannelHandlerContext ctx, FullHttpRequest req,
-                                      int status, RuntimeArray headersArray,
-                                      RuntimeArray bodyArray, boolean keepAlive) {
-            FullHttpResponse response = buildHttpResponse(status, headersArray, bodyArray);
-
-            if (keepAlive && HttpUtil.isKeepAlive(req)) {
-                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
-                ctx.writeAndFlush(response);
-            } else {
-                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
-            }
-        }
-
         /**
          * Handles synchronous PSGI responses (arrayref).
          */
-        private void handleArrayResponse(ChannelHandlerContext ctx, FullHttpRequest req,
-                                        RuntimeScalar result, boolean keepAlive) {
+        private void handleArrayResponse(PsgiExchange exchange, RuntimeScalar result) {
             // Parse PSGI response: [status, headers, body]
             RuntimeArray responseArray = result.arrayDeref();
             if (responseArray.size() != 3) {
-                sendErrorResponse(ctx, req,
-                    HttpResponseStatus.INTERNAL_SERVER_ERROR,
+                exchange.fail(HttpResponseStatus.INTERNAL_SERVER_ERROR,
                     "PSGI response must have 3 elements [status, headers, body]");
                 return;
             }
@@ -669,25 +927,29 @@ public class PlackHandlerNetty extends PerlModuleBase {
             // Extract headers (arrayref of pairs: ['Content-Type', 'text/html', ...])
             RuntimeScalar headersScalar = responseArray.get(1);
             if (headersScalar.type != RuntimeScalarType.ARRAYREFERENCE) {
-                sendErrorResponse(ctx, req,
-                    HttpResponseStatus.INTERNAL_SERVER_ERROR,
+                exchange.fail(HttpResponseStatus.INTERNAL_SERVER_ERROR,
                     "PSGI headers must be arrayref");
                 return;
             }
-            RuntimeArray headersArray = headersScalar.arrayDeref();
 
-            // Extract body (arrayref of strings)
+            // Body: arrayref of strings, a filehandle, or an object with getline/close
             RuntimeScalar bodyScalar = responseArray.get(2);
-            if (bodyScalar.type != RuntimeScalarType.ARRAYREFERENCE) {
-                sendErrorResponse(ctx, req,
-                    HttpResponseStatus.INTERNAL_SERVER_ERROR,
-                    "PSGI body must be arrayref");
+            if (!RuntimeScalarType.isReference(bodyScalar) && bodyScalar.type != RuntimeScalarType.GLOB) {
+                exchange.fail(HttpResponseStatus.INTERNAL_SERVER_ERROR,
+                    "PSGI body must be arrayref or filehandle");
                 return;
             }
-            RuntimeArray bodyArray = bodyScalar.arrayDeref();
 
             // Send the response
-            sendArrayResponse(ctx, req, status, headersArray, bodyArray, keepAlive);
+            exchange.respond(status, headersScalar.arrayDeref(), bodyScalar);
+        }
+
+        /** Answers 413 without running the app and drops the connection. */
+        private void rejectTooLarge(ChannelHandlerContext ctx, HttpRequest req) {
+            PsgiExchange exchange = new PsgiExchange(ctx, req, false, () -> { });
+            exchange.fail(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE,
+                    "Request body exceeds " + maxRequestSize + " bytes");
+            exchange.handlerDone();
         }
 
         /**
@@ -698,10 +960,13 @@ public class PlackHandlerNetty extends PerlModuleBase {
          * - HTTP_* headers
          * - psgi.* special keys
          *
-         * @param req Netty FullHttpRequest
+         * @param req Netty HttpRequest
+         * @param input   the request body handle
+         * @param buffered whether {@code input} holds the whole body and is seekable
          * @return PSGI environment hash
          */
-        private RuntimeHash buildPSGIEnvironment(FullHttpRequest req, boolean isHttps) {
+        private RuntimeHash buildPSGIEnvironment(HttpRequest req, boolean isHttps,
+                                                 IOHandle input, boolean buffered) {
             RuntimeHash env = new RuntimeHash();
 
             // Parse URI into path and query string
@@ -763,15 +1028,10 @@ public class PlackHandlerNetty extends PerlModuleBase {
             env.put("psgi.url_scheme", new RuntimeScalar(urlScheme));
 
             // psgi.input - request body as IO::Handle
-            ByteBuf content = req.content();
-            byte[] bodyBytes = new byte[content.readableBytes()];
-            content.getBytes(content.readerIndex(), bodyBytes);
-            String bodyString = new String(bodyBytes, StandardCharsets.ISO_8859_1);
-            RuntimeScalar bodyScalar = new RuntimeScalar(bodyString);
-            ScalarBackedIO inputIO = new ScalarBackedIO(bodyScalar);
-            RuntimeIO psgiInput = new RuntimeIO(inputIO);
+            RuntimeIO psgiInput = new RuntimeIO(input);
             // Wrap in a new RuntimeScalar to ensure it's stored correctly
             env.put("psgi.input", new RuntimeScalar(psgiInput));
+            env.put("psgix.input.buffered", new RuntimeScalar(buffered ? 1 : 0));
 
             // psgi.errors - stderr for error logging
             // Wrap in a new RuntimeScalar to ensure it's stored correctly
@@ -803,7 +1063,7 @@ public class PlackHandlerNetty extends PerlModuleBase {
          * @param req HTTP request
          * @return Server name (hostname without port)
          */
-        private String getServerName(FullHttpRequest req) {
+        private String getServerName(HttpRequest req) {
             String host = req.headers().get(HttpHeaderNames.HOST);
             if (host != null && !host.isEmpty()) {
                 // Remove port if present
@@ -816,80 +1076,24 @@ public class PlackHandlerNetty extends PerlModuleBase {
             return serverName;
         }
 
-        /**
-         * Builds Netty HttpResponse from PSGI response array.
-         *
-         * @param status       HTTP status code
-         * @param headersArray PSGI headers arrayref (flat list of name-value pairs)
-         * @param bodyArray    PSGI body arrayref (array of strings)
-         * @return Netty FullHttpResponse
-         */
-        private FullHttpResponse buildHttpResponse(int status, RuntimeArray headersArray,
-                                                   RuntimeArray bodyArray) {
-            // Create Netty response
-            HttpResponseStatus httpStatus = HttpResponseStatus.valueOf(status);
-            FullHttpResponse response = new DefaultFullHttpResponse(
-                HttpVersion.HTTP_1_1,
-                httpStatus,
-                psgiBodyBuffer(bodyArray)
-            );
-
-            // Add PSGI headers (flat array: name1, value1, name2, value2, ...)
-            for (int i = 0; i < headersArray.size() - 1; i += 2) {
-                String headerName = headersArray.get(i).toString();
-                String headerValue = headersArray.get(i + 1).toString();
-                response.headers().set(headerName, headerValue);
-            }
-
-            // Set Content-Length if not already set
-            if (!response.headers().contains(HttpHeaderNames.CONTENT_LENGTH)) {
-                response.headers().set(HttpHeaderNames.CONTENT_LENGTH,
-                    response.content().readableBytes());
-            }
-
-            return response;
-        }
-
-        /**
-         * Sends an error response with given status and message.
-         *
-         * @param ctx     Channel context
-         * @param req     Original request
-         * @param status  HTTP status
-         * @param message Error message
-         */
-        private void sendErrorResponse(ChannelHandlerContext ctx, FullHttpRequest req,
-                                      HttpResponseStatus status, String message) {
-            String body = "<html><body><h1>" + status + "</h1><p>" +
-                         escapeHtml(message) + "</p></body></html>";
-
-            FullHttpResponse response = new DefaultFullHttpResponse(
-                HttpVersion.HTTP_1_1,
-                status,
-                Unpooled.copiedBuffer(body, CharsetUtil.UTF_8)
-            );
-
-            response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html; charset=utf-8");
-            response.headers().set(HttpHeaderNames.CONTENT_LENGTH,
-                response.content().readableBytes());
-            response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-
-            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+            if (active != null) active.writabilityChanged();
+            super.channelWritabilityChanged(ctx);
         }
 
-        /**
-         * Simple HTML escaping for error messages.
-         *
-         * @param text Text to escape
-         * @return HTML-escaped text
-         */
-        private String escapeHtml(String text) {
-            if (text == null) return "";
-            return text.replace("&", "&amp;")
-                      .replace("<", "&lt;")
-                      .replace(">", "&gt;")
-                      .replace("\"", "&quot;")
-                      .replace("'", "&#39;");
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            if (streamingInput != null) {
+                streamingInput.fail("Client closed the connection before the request body was complete");
+                streamingInput = null;
+            }
+            dropPendingBody();
+            HttpObject held;
+            while ((held = deferred.pollFirst()) != null) {
+                ReferenceCountUtil.release(held);
+            }
+            super.channelInactive(ctx);
         }
 
         @Override
@@ -911,41 +1115,32 @@ public class PlackHandlerNetty extends PerlModuleBase {
      * CallableHttpResponse - A RuntimeCode that can be invoked from Perl
      * to send HTTP responses during streaming.
      *
-     * Perl calls this with: $callback->([status, headers, body])
-     * and it sends the Netty HTTP response.
+     * Perl calls this with: $callback->([status, headers, body]) to send a
+     * whole response, or $callback->([status, headers]) to get a writer.
      */
     static class CallableHttpResponse extends RuntimeCode implements PerlSubroutine {
-        private final ChannelHandlerContext ctx;
-        private final FullHttpRequest req;
-        private final boolean keepAlive;
-        private final PerlRuntime runtime;
+        private final PsgiExchange exchange;
 
         /**
-         * Create a responder callback for the given HTTP context.
+         * Create a responder callback for the given exchange.
          *
-         * @param ctx      Netty channel context for sending response
-         * @param req      Original HTTP request (for keep-alive detection)
-         * @param keepAlive Whether to keep connection alive
+         * @param exchange the request being answered
          */
-        public CallableHttpResponse(ChannelHandlerContext ctx, FullHttpRequest req,
-                                    boolean keepAlive, PerlRuntime runtime) {
+        CallableHttpResponse(PsgiExchange exchange) {
             // Pass 'this' as the PerlSubroutine implementation
             super((PerlSubroutine) null, null);
             // Set the subroutine after construction
             this.subroutine = this;
-            this.ctx = ctx;
-            this.req = req;
-            this.keepAlive = keepAlive;
-            this.runtime = runtime;
+            this.exchange = exchange;
         }
 
         /**
-         * Invoke the responder with [status, headers, body].
+         * Invoke the responder with [status, headers, body] or [status, headers].
          * Called by Perl code: $responder->([200, ['Content-Type', 'text/plain'], ['Hello']])
          */
         @Override
         public RuntimeList apply(RuntimeArray args, int context) {
-            try (PerlRuntime.Binding ignored = runtime.bind()) {
+            try (PerlRuntime.Binding ignored = exchange.runtime().bind()) {
                 if (args.size() < 1) {
                     throw new IllegalArgumentException("Responder requires at least 1 argument");
                 }
@@ -958,83 +1153,50 @@ public class PlackHandlerNetty extends PerlModuleBase {
                 }
 
                 RuntimeArray responseArray = arg.arrayDeref();
-                if (responseArray.size() != 3) {
+                if (responseArray.size() != 2 && responseArray.size() != 3) {
                     throw new IllegalArgumentException(
-                        "Responder requires [status, headers, body] (3 elements), got " +
-                        responseArray.size());
+                        "Responder requires [status, headers] or [status, headers, body], got " +
+                        responseArray.size() + " elements");
                 }
 
                 // Extract components
                 int status = responseArray.get(0).getInt();
                 RuntimeScalar headersScalar = responseArray.get(1);
-                RuntimeScalar bodyScalar = responseArray.get(2);
-
                 if (headersScalar.type != RuntimeScalarType.ARRAYREFERENCE) {
                     throw new IllegalArgumentException(
                         "Headers must be arrayref, got " + headersScalar.type);
                 }
-                if (bodyScalar.type != RuntimeScalarType.ARRAYREFERENCE) {
-                    throw new IllegalArgumentException(
-                        "Body must be arrayref, got " + bodyScalar.type);
-                }
-
                 RuntimeArray headersArray = headersScalar.arrayDeref();
-                RuntimeArray bodyArray = bodyScalar.arrayDeref();
 
-                // Send the HTTP response
-                sendArrayResponse(ctx, req, status, headersArray, bodyArray, keepAlive);
+                if (responseArray.size() == 2) {
+                    return exchange.startWriter(status, headersArray).getList();
+                }
+                exchange.respond(status, headersArray, responseArray.get(2));
                 return new RuntimeList();
 
             } catch (Exception e) {
                 throw new RuntimeException("HTTP response error: " + e.getMessage(), e);
             }
         }
+    }
 
-        /**
-         * Builds and sends the HTTP response. Extracted from PSGIRequestHandler
-         * so both sync and streaming paths can use it.
-         */
-        private void sendArrayResponse(ChannelHandlerContext ctx, FullHttpRequest req,
-                                      int status, RuntimeArray headersArray,
-                                      RuntimeArray bodyArray, boolean keepAlive) {
-            FullHttpResponse response = buildHttpResponse(status, headersArray, bodyArray);
-
-            if (keepAlive && HttpUtil.isKeepAlive(req)) {
-                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
-                ctx.writeAndFlush(response);
-            } else {
-                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
-            }
-        }
-
-        /**
-         * Builds Netty HttpResponse from PSGI response array.
-         */
-        private FullHttpResponse buildHttpResponse(int status, RuntimeArray headersArray,
-                                                   RuntimeArray bodyArray) {
-            FullHttpResponse response = new DefaultFullHttpResponse(
-                HttpVersion.HTTP_1_1,
-                HttpResponseStatus.valueOf(status),
-                psgiBodyBuffer(bodyArray)
-            );
-
-            // Process PSGI headers (flat array of pairs: key1, val1, key2, val2, ...)
-            for (int i = 0; i < headersArray.size(); i += 2) {
-                if (i + 1 < headersArray.size()) {
-                    String headerName = headersArray.get(i).toString();
-                    String headerValue = headersArray.get(i + 1).toString();
-                    response.headers().set(headerName, headerValue);
-                }
-            }
+    /** Perl: $writer->write($chunk) */
+    public static RuntimeList writer_write(RuntimeArray args, int ctx) {
+        PsgiExchange exchange = PsgiExchange.fromWriter(args.get(0));
+        if (args.size() > 1) exchange.write(args.get(1).toString());
+        return new RuntimeList();
+    }
 
-            // Set Content-Length if not already set
-            if (!response.headers().contains(HttpHeaderNames.CONTENT_LENGTH)) {
-                response.headers().set(HttpHeaderNames.CONTENT_LENGTH,
-                    response.content().readableBytes());
-            }
+    /** Perl: $writer->close */
+    public static RuntimeList writer_close(RuntimeArray args, int ctx) {
+        PsgiExchange.fromWriter(args.get(0)).close();
+        return new RuntimeList();
+    }
 
-            return response;
-        }
+    /** Perl: $writer->poll_cb(sub { my $writer = shift; ... }) */
+    public static RuntimeList writer_poll_cb(RuntimeArray args, int ctx) {
+        PsgiExchange exchange = PsgiExchange.fromWriter(args.get(0));
+        exchange.pollCb(args.size() > 1 ? args.get(1) : new RuntimeScalar());
+        return new RuntimeList();
     }
 }
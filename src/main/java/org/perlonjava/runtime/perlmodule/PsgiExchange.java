@@ -0,0 +1,407 @@
+package org.perlonjava.runtime.perlmodule;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedFile;
+import io.netty.util.CharsetUtil;
+import org.perlonjava.runtime.io.CustomFileChannel;
+import org.perlonjava.runtime.operators.ReferenceOperators;
+import org.perlonjava.runtime.runtimetypes.*;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One PSGI request/response cycle on a Netty channel.
+ *
+ * <p>Sends whole responses (array and filehandle bodies) and backs the writer
+ * object returned by a delayed responder. The request's runtime, and its pool
+ * lease if any, stay owned by the exchange until the application has returned
+ * <em>and</em> the response is finished, so a writer kept by the app - for
+ * example one driven by {@code poll_cb} - never writes from a runtime that has
+ * already been handed to another request.</p>
+ *
+ * <p>Response bytes are copied straight from Perl byte strings into pooled
+ * buffers. A filehandle body backed by a file is sent with a
+ * {@link DefaultFileRegion} (or {@link ChunkedFile} under TLS) and never enters
+ * the heap. Writes from a thread other than the event loop wait while the
+ * channel is unwritable, which bounds the outbound queue for apps that stream
+ * from a request-processing thread.</p>
+ */
+final class PsgiExchange {
+    static final String WRITER_CLASS = "Plack::Handler::Netty::Writer";
+    private static final String EXCHANGE_KEY = "_exchange";
+    private static final int HANDLE_CHUNK = 64 * 1024;
+
+    private final ChannelHandlerContext ctx;
+    private final HttpRequest req;
+    private final boolean keepAlive;
+    private final Runnable onComplete;
+    /** One hold for the application call and one for the response. */
+    private final AtomicInteger holders = new AtomicInteger(2);
+    private PerlRuntime runtime;
+    private AutoCloseable lease;
+
+    private volatile boolean appReturned;
+    private volatile boolean started;
+    private volatile boolean finished;
+    private boolean keepConnection;
+    private RuntimeScalar pollCallback;
+    private boolean pumpScheduled;
+
+    /**
+     * @param onComplete run on the event loop once the response is finished and
+     *                   the application has returned
+     */
+    PsgiExchange(ChannelHandlerContext ctx, HttpRequest req, boolean keepAlive, Runnable onComplete) {
+        this.ctx = ctx;
+        this.req = req;
+        this.keepAlive = keepAlive;
+        this.onComplete = onComplete;
+        ctx.channel().closeFuture().addListener(future -> channelClosed());
+    }
+
+    HttpRequest request() {
+        return req;
+    }
+
+    PerlRuntime runtime() {
+        return runtime;
+    }
+
+    /** Records the runtime serving this request and the lease to return when the exchange ends. */
+    void attach(PerlRuntime runtime, AutoCloseable lease) {
+        this.runtime = runtime;
+        this.lease = lease;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    // ---- whole responses ----
+
+    /** Sends {@code [status, headers, body]} where body is an array ref, a filehandle or an IO-like object. */
+    void respond(int status, RuntimeArray headers, RuntimeScalar body) {
+        if (body.type == RuntimeScalarType.ARRAYREFERENCE) {
+            RuntimeArray parts = body.arrayDeref();
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+                    HttpResponseStatus.valueOf(status), bodyBuffer(ctx.alloc(), parts));
+            copyHeaders(headers, response);
+            if (!response.headers().contains(HttpHeaderNames.CONTENT_LENGTH)) {
+                response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+            }
+            started = true;
+            keepConnection = keepAlive && HttpUtil.isKeepAlive(req);
+            response.headers().set(HttpHeaderNames.CONNECTION,
+                    keepConnection ? HttpHeaderValues.KEEP_ALIVE : HttpHeaderValues.CLOSE);
+            finish(ctx.writeAndFlush(response));
+            return;
+        }
+
+        RuntimeIO io = body.type == RuntimeScalarType.GLOB || body.type == RuntimeScalarType.GLOBREFERENCE
+                ? RuntimeIO.getRuntimeIO(body) : null;
+        if (io != null && io.ioHandle instanceof CustomFileChannel file && file.getFilePath() != null
+                && sendFile(status, headers, io, file)) {
+            return;
+        }
+
+        startStreaming(status, headers);
+        try {
+            if (io != null) {
+                while (!finished) {
+                    RuntimeScalar data = io.ioHandle.read(HANDLE_CHUNK);
+                    if (!data.getDefinedBoolean() || data.toString().isEmpty()) break;
+                    write(data.toString());
+                }
+                io.close();
+            } else {
+                RuntimeScalar getline = new RuntimeScalar("getline");
+                while (!finished) {
+                    RuntimeScalar line = RuntimeCode.call(body, getline, null,
+                            new RuntimeArray(), RuntimeContextType.SCALAR).getFirst();
+                    if (!line.getDefinedBoolean()) break;
+                    write(line.toString());
+                }
+                RuntimeCode.call(body, new RuntimeScalar("close"), null,
+                        new RuntimeArray(), RuntimeContextType.VOID);
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /** Sends the rest of an open file without copying it through the heap. */
+    private boolean sendFile(int status, RuntimeArray headers, RuntimeIO io, CustomFileChannel file) {
+        long position;
+        long count;
+        try {
+            position = io.tell().getLong();
+            count = file.size() - position;
+        } catch (Exception unsupported) {
+            return false;
+        }
+        if (position < 0 || count < 0) return false;
+
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.valueOf(status));
+        copyHeaders(headers, response);
+        if (!response.headers().contains(HttpHeaderNames.CONTENT_LENGTH)) {
+            response.headers().set(HttpHeaderNames.CONTENT_LENGTH, count);
+        }
+        started = true;
+        keepConnection = keepAlive && HttpUtil.isKeepAlive(req);
+        response.headers().set(HttpHeaderNames.CONNECTION,
+                keepConnection ? HttpHeaderValues.KEEP_ALIVE : HttpHeaderValues.CLOSE);
+        ctx.write(response);
+        if (ctx.pipeline().get(SslHandler.class) == null) {
+            ctx.write(new DefaultFileRegion(file.getFilePath().toFile(), position, count));
+        } else {
+            try {
+                RandomAccessFile raf = new RandomAccessFile(file.getFilePath().toFile(), "r");
+                ctx.write(new ChunkedFile(raf, position, count, HANDLE_CHUNK));
+            } catch (Exception e) {
+                ctx.close();
+                markFinished();
+                return true;
+            }
+        }
+        io.close();
+        finish(ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT));
+        return true;
+    }
+
+    // ---- delayed responses ----
+
+    /** Sends the status line and headers and returns the writer object for the body. */
+    RuntimeScalar startWriter(int status, RuntimeArray headers) {
+        startStreaming(status, headers);
+        return writerFor(this);
+    }
+
+    private void startStreaming(int status, RuntimeArray headers) {
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.valueOf(status));
+        copyHeaders(headers, response);
+        startStreaming(response);
+    }
+
+    private void startStreaming(HttpResponse response) {
+        boolean hasLength = response.headers().contains(HttpHeaderNames.CONTENT_LENGTH);
+        boolean chunked = !hasLength && req.protocolVersion().equals(HttpVersion.HTTP_1_1);
+        if (chunked) HttpUtil.setTransferEncodingChunked(response, true);
+        keepConnection = keepAlive && HttpUtil.isKeepAlive(req) && (hasLength || chunked);
+        response.headers().set(HttpHeaderNames.CONNECTION,
+                keepConnection ? HttpHeaderValues.KEEP_ALIVE : HttpHeaderValues.CLOSE);
+        started = true;
+        awaitWritable();
+        ctx.writeAndFlush(response);
+    }
+
+    /** Writes one body chunk. */
+    void write(String chunk) {
+        if (finished || chunk.isEmpty()) return;
+        awaitWritable();
+        ByteBuf buffer = ctx.alloc().buffer(chunk.length());
+        buffer.writeCharSequence(chunk, StandardCharsets.ISO_8859_1);
+        ctx.writeAndFlush(new DefaultHttpContent(buffer));
+    }
+
+    /** Ends the body. */
+    void close() {
+        if (finished) return;
+        finish(ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT));
+    }
+
+    /**
+     * Registers a callback invoked with the writer whenever the connection can
+     * take more data. It first runs after the application has returned, on the
+     * event loop, with the request's runtime bound.
+     */
+    void pollCb(RuntimeScalar callback) {
+        synchronized (this) {
+            pollCallback = callback.getDefinedBoolean() ? new RuntimeScalar(callback) : null;
+        }
+        if (appReturned) schedulePump();
+    }
+
+    private void schedulePump() {
+        synchronized (this) {
+            if (!appReturned || pumpScheduled || pollCallback == null || finished) return;
+            pumpScheduled = true;
+        }
+        ctx.executor().execute(this::pump);
+    }
+
+    private void pump() {
+        RuntimeScalar callback;
+        synchronized (this) {
+            pumpScheduled = false;
+            callback = pollCallback;
+        }
+        if (callback == null || finished) return;
+        if (!ctx.channel().isWritable()) return;   // writabilityChanged() resumes
+
+        try (PerlRuntime.Binding ignored = runtime.bind()) {
+            RuntimeArray args = new RuntimeArray();
+            RuntimeArray.push(args, writerFor(this));
+            RuntimeCode.apply(callback, args, RuntimeContextType.VOID);
+        } catch (Exception e) {
+            System.err.println("PSGI poll_cb error: " + e.getMessage());
+            abort();
+            return;
+        }
+        if (ctx.channel().isWritable()) schedulePump();
+    }
+
+    private static RuntimeScalar writerFor(PsgiExchange exchange) {
+        RuntimeHash writer = new RuntimeHash();
+        writer.put(EXCHANGE_KEY, new RuntimeScalar(exchange));
+        return ReferenceOperators.bless(writer.createReference(), new RuntimeScalar(WRITER_CLASS));
+    }
+
+    /** Returns the exchange behind a writer object, or throws if the object is not one. */
+    static PsgiExchange fromWriter(RuntimeScalar self) {
+        RuntimeScalar slot = self.type == RuntimeScalarType.HASHREFERENCE
+                ? self.hashDeref().get(EXCHANGE_KEY) : null;
+        if (slot == null || slot.type != RuntimeScalarType.JAVAOBJECT
+                || !(slot.value instanceof PsgiExchange exchange)) {
+            throw new PerlCompilerException("Not a " + WRITER_CLASS + " object");
+        }
+        return exchange;
+    }
+
+    // ---- lifecycle ----
+
+    /**
+     * Fails the request: sends {@code message} with {@code status} when no
+     * response has started yet, otherwise drops the connection.
+     */
+    void fail(HttpResponseStatus status, String message) {
+        if (finished) return;
+        if (started) {
+            abort();
+            return;
+        }
+        String body = "<html><body><h1>" + status + "</h1><p>" + escapeHtml(message) + "</p></body></html>";
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
+                ctx.alloc().buffer(body.length()).writeBytes(body.getBytes(CharsetUtil.UTF_8)));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html; charset=utf-8");
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        started = true;
+        keepConnection = false;
+        finish(ctx.writeAndFlush(response));
+    }
+
+    private void abort() {
+        ctx.close();
+        markFinished();
+    }
+
+    private void finish(ChannelFuture lastWrite) {
+        if (!keepConnection) lastWrite.addListener(ChannelFutureListener.CLOSE);
+        markFinished();
+    }
+
+    /** Called once the application code for this request has returned. */
+    void handlerDone() {
+        appReturned = true;
+        schedulePump();
+        release();
+    }
+
+    private void markFinished() {
+        synchronized (this) {
+            if (finished) return;
+            finished = true;
+            pollCallback = null;
+            notifyAll();
+        }
+        release();
+    }
+
+    private void release() {
+        if (holders.decrementAndGet() != 0) return;
+        AutoCloseable owned = lease;
+        lease = null;
+        if (owned != null) {
+            try {
+                owned.close();
+            } catch (Exception e) {
+                System.err.println("Failed to return PSGI runtime: " + e.getMessage());
+            }
+        }
+        if (ctx.executor().inEventLoop()) {
+            onComplete.run();
+        } else {
+            ctx.executor().execute(onComplete);
+        }
+    }
+
+    void writabilityChanged() {
+        synchronized (this) {
+            notifyAll();
+        }
+        if (ctx.channel().isWritable()) schedulePump();
+    }
+
+    private void channelClosed() {
+        markFinished();
+    }
+
+    /** Off the event loop, waits until the channel drains below its high-water mark. */
+    private void awaitWritable() {
+        if (ctx.executor().inEventLoop()) return;
+        synchronized (this) {
+            try {
+                while (!finished && ctx.channel().isActive() && !ctx.channel().isWritable()) {
+                    wait(1000);
+                }
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ---- helpers ----
+
+    private static void copyHeaders(RuntimeArray headers, HttpResponse response) {
+        for (int i = 0; i + 1 < headers.size(); i += 2) {
+            response.headers().add(headers.get(i).toString(), headers.get(i + 1).toString());
+        }
+    }
+
+    /**
+     * PSGI response bodies are byte strings. PerlOnJava represents their octets
+     * as ISO-8859-1 code points, so writing the Java String as UTF-8 would encode
+     * already-encoded content a second time and disagree with Content-Length.
+     */
+    static ByteBuf bodyBuffer(ByteBufAllocator alloc, RuntimeArray parts) {
+        String[] strings = new String[parts.size()];
+        int length = 0;
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = parts.get(i).toString();
+            length += strings[i].length();
+        }
+        ByteBuf content = alloc.buffer(length);
+        for (String part : strings) {
+            content.writeCharSequence(part, StandardCharsets.ISO_8859_1);
+        }
+        return content;
+    }
+
+    private static String escapeHtml(String text) {
+        if (text == null) return "";
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#39;");
+    }
+}
@@ -0,0 +1,207 @@
+package org.perlonjava.runtime.perlmodule;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import org.perlonjava.runtime.io.IOHandle;
+import org.perlonjava.runtime.runtimetypes.RuntimeIO;
+import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
+import org.perlonjava.runtime.runtimetypes.RuntimeScalarCache;
+
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+
+/**
+ * {@code psgi.input} for a request body that is still arriving.
+ *
+ * <p>The event loop appends the decoder's {@link ByteBuf}s as they arrive and
+ * the application thread drains them through the usual read/readline/sysread
+ * paths. Once more than {@code highWater} bytes are queued the channel stops
+ * reading from the socket; it resumes when the reader has drained the queue to
+ * half of that, so an upload never occupies more than about one window of
+ * heap. The stream is not seekable, which the handler reports with
+ * {@code psgix.input.buffered} false.</p>
+ *
+ * <p>A reader waits at most {@code timeoutMillis} for the next chunk. If none
+ * arrives in time, or the connection has gone away, the body ends with an
+ * I/O error instead of blocking the request thread forever.</p>
+ */
+final class PsgiStreamingInput implements IOHandle {
+    private final Channel channel;
+    private final int highWater;
+    private final long timeoutMillis;
+    private final ArrayDeque<ByteBuf> chunks = new ArrayDeque<>();
+    private long queued;
+    private long position;
+    private boolean finished;
+    private boolean closed;
+    private boolean paused;
+    private String failure;
+
+    PsgiStreamingInput(Channel channel, int highWater, long timeoutMillis) {
+        this.channel = channel;
+        this.highWater = highWater;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /** Queues a body chunk, taking ownership of {@code content}. Event loop only. */
+    void offer(ByteBuf content) {
+        synchronized (this) {
+            if (closed || finished) {
+                content.release();
+                return;
+            }
+            if (content.isReadable()) {
+                chunks.addLast(content);
+                queued += content.readableBytes();
+            } else {
+                content.release();
+            }
+            if (queued >= highWater && !paused) {
+                paused = true;
+                channel.config().setAutoRead(false);
+            }
+            notifyAll();
+        }
+    }
+
+    /** Marks the end of the body. */
+    synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    /** Ends the body early; a reader that is still waiting sees {@code message} as an I/O error. */
+    synchronized void fail(String message) {
+        if (!finished) {
+            failure = message;
+            finished = true;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Waits until a chunk is queued, the body ends or the handle is closed.
+     * A timeout or a dead connection ends the body with an error. Holds the monitor.
+     */
+    private void awaitChunk() throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (chunks.isEmpty() && !finished && !closed) {
+            if (!channel.isActive()) {
+                fail("Client closed the connection before the request body was complete");
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                fail("Timed out after " + timeoutMillis + "ms waiting for the request body");
+                return;
+            }
+            // Wake up now and then to notice a channel that closed without telling us
+            wait(Math.max(1, Math.min(remaining / 1_000_000L, 1000)));
+        }
+    }
+
+    @Override
+    public RuntimeScalar doRead(int maxBytes, Charset charset) {
+        byte[] bytes;
+        boolean resume = false;
+        synchronized (this) {
+            if (closed) return RuntimeScalarCache.scalarUndef;
+            try {
+                awaitChunk();
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return RuntimeIO.handleIOError("Interrupted while reading psgi.input");
+            }
+            if (closed) return RuntimeIO.handleIOError("psgi.input was closed while reading");
+            if (chunks.isEmpty()) {
+                return failure != null
+                        ? RuntimeIO.handleIOError(failure)
+                        : new RuntimeScalar("");
+            }
+            int length = (int) Math.min(maxBytes, queued);
+            bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                ByteBuf head = chunks.peekFirst();
+                int n = Math.min(length - offset, head.readableBytes());
+                head.readBytes(bytes, offset, n);
+                offset += n;
+                if (!head.isReadable()) {
+                    chunks.removeFirst().release();
+                }
+            }
+            queued -= length;
+            position += length;
+            if (paused && queued <= highWater / 2) {
+                paused = false;
+                resume = true;
+            }
+        }
+        if (resume) resumeReading();
+        return new RuntimeScalar(bytes);
+    }
+
+    @Override
+    public RuntimeScalar sysread(int length) {
+        return doRead(length, null);
+    }
+
+    private void resumeReading() {
+        channel.eventLoop().execute(() -> {
+            channel.config().setAutoRead(true);
+            channel.read();
+        });
+    }
+
+    @Override
+    public synchronized RuntimeScalar eof() {
+        try {
+            awaitChunk();
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return new RuntimeScalar(closed || (chunks.isEmpty() && finished));
+    }
+
+    @Override
+    public synchronized RuntimeScalar tell() {
+        return new RuntimeScalar(position);
+    }
+
+    @Override
+    public boolean isReadReady() {
+        synchronized (this) {
+            return !chunks.isEmpty() || finished;
+        }
+    }
+
+    @Override
+    public RuntimeScalar write(String string) {
+        return RuntimeIO.handleIOError("psgi.input is read-only");
+    }
+
+    @Override
+    public RuntimeScalar flush() {
+        return RuntimeScalarCache.scalarTrue;
+    }
+
+    /** Discards the unread body; the rest of the request is still drained from the socket. */
+    @Override
+    public RuntimeScalar close() {
+        boolean resume;
+        synchronized (this) {
+            if (closed) return RuntimeScalarCache.scalarTrue;
+            closed = true;
+            ByteBuf chunk;
+            while ((chunk = chunks.pollFirst()) != null) {
+                chunk.release();
+            }
+            queued = 0;
+            resume = paused;
+            paused = false;
+            notifyAll();
+        }
+        if (resume) resumeReading();
+        return RuntimeScalarCache.scalarTrue;
+    }
+}
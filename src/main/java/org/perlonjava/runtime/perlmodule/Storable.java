@@ -5,6 +5,7 @@ import org.perlonjava.runtime.operators.ReferenceOperators;
 import org.perlonjava.runtime.operators.WarnDie;
 import org.perlonjava.runtime.runtimetypes.*;
 import org.perlonjava.runtime.mro.InheritanceResolver;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.io.File;
 import java.nio.file.Files;
@@ -116,12 +117,10 @@ public class Storable extends PerlModuleBase {
 
         try {
             RuntimeScalar frozen = args.get(0);
-            String frozenStr = frozen.toString();
-            if (frozenStr.isEmpty()) {
+            byte[] bytes = ByteStrings.toBytes(frozen);
+            if (bytes.length == 0) {
                 throw new IllegalArgumentException("Empty input");
             }
-            byte[] bytes = new byte[frozenStr.length()];
-            for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) frozenStr.charAt(i);
             org.perlonjava.runtime.perlmodule.storable.StorableContext sCtx =
                     new org.perlonjava.runtime.perlmodule.storable.StorableContext(bytes);
             org.perlonjava.runtime.perlmodule.storable.Header.parseInMemory(sCtx);
@@ -175,8 +174,7 @@ public class Storable extends PerlModuleBase {
             String encoded = w.writeTopLevelToFile(data, netorder);
             // The encoded string holds bytes 0..255 as chars; convert back
             // to the raw byte sequence for file I/O.
-            byte[] bytes = new byte[encoded.length()];
-            for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) encoded.charAt(i);
+            byte[] bytes = ByteStrings.toBytes(encoded);
             Files.write(new File(filename).toPath(), bytes);
 
             return scalarTrue.getList();
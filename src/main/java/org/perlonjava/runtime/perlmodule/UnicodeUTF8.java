@@ -331,10 +331,7 @@ public class UnicodeUTF8 extends PerlModuleBase {
                 && s.utf8UncheckedOctets
                 && str.length() == str.codePoints().count()
                 && str.chars().allMatch(ch -> ch >= 0 && ch < 0x100)) {
-            byte[] raw = new byte[str.length()];
-            for (int i = 0; i < str.length(); i++) {
-                raw[i] = (byte) str.charAt(i);
-            }
+            byte[] raw = str.getBytes(StandardCharsets.ISO_8859_1);
             if (!utf8BufferValid(raw, 0, raw.length)) {
                 WarnDie.die(
                         new RuntimeScalar("Can't decode ill-formed UTF-X octet sequence"),
@@ -3,6 +3,7 @@ package org.perlonjava.runtime.perlmodule;
 import org.perlonjava.runtime.mro.InheritanceResolver;
 import org.perlonjava.runtime.operators.VersionHelper;
 import org.perlonjava.runtime.runtimetypes.*;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -35,15 +36,9 @@ public class Universal extends PerlModuleBase {
             return null;
         }
         // Only attempt decoding when the string looks like a byte string (0..255).
-        for (int i = 0; i < maybeOctets.length(); i++) {
-            if (maybeOctets.charAt(i) > 0xFF) {
-                return null;
-            }
-        }
-
-        byte[] bytes = new byte[maybeOctets.length()];
-        for (int i = 0; i < maybeOctets.length(); i++) {
-            bytes[i] = (byte) maybeOctets.charAt(i);
+        byte[] bytes = ByteStrings.latin1OrNull(maybeOctets);
+        if (bytes == null) {
+            return null;
         }
 
         CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
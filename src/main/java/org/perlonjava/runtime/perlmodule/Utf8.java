@@ -4,6 +4,7 @@ import com.ibm.icu.text.CharsetDetector;
 import com.ibm.icu.text.CharsetMatch;
 import org.perlonjava.frontend.semantic.ScopedSymbolTable;
 import org.perlonjava.runtime.runtimetypes.*;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -257,18 +258,12 @@ public class Utf8 extends PerlModuleBase {
         // utf8::decode expects octet data (0-255). If the string contains
         // characters > 0xFF, it cannot be valid octet data — return false
         // without modifying the string.
-        for (int i = 0; i < string.length(); i++) {
-            if (string.charAt(i) > 0xFF) {
-                return new RuntimeScalar(false).getList();
-            }
+        byte[] bytes = ByteStrings.latin1OrNull(string);
+        if (bytes == null) {
+            return new RuntimeScalar(false).getList();
         }
 
         try {
-            // Safe: all chars are <= 0xFF, so no data loss with manual byte extraction
-            byte[] bytes = new byte[string.length()];
-            for (int i = 0; i < string.length(); i++) {
-                bytes[i] = (byte) string.charAt(i);
-            }
             // Use a strict UTF-8 decoder that throws on invalid sequences
             // instead of silently replacing with U+FFFD.  This matches Perl 5
             // behavior where utf8::decode returns FALSE for invalid UTF-8.
@@ -11,6 +11,7 @@ import org.perlonjava.runtime.runtimetypes.RuntimeScalarType;
 import org.perlonjava.runtime.runtimetypes.NameNormalizer;
 import org.perlonjava.runtime.runtimetypes.ScalarUtils;
 import org.perlonjava.runtime.runtimetypes.GlobalVariable;
+import org.perlonjava.runtime.util.ByteStrings;
 
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
@@ -269,9 +270,7 @@ public final class StorableWriter {
         if (cookieSv == null) {
             frozen = new byte[0];
         } else if (cookieSv.type == RuntimeScalarType.BYTE_STRING) {
-            String s = cookieSv.toString();
-            frozen = new byte[s.length()];
-            for (int i = 0; i < frozen.length; i++) frozen[i] = (byte) s.charAt(i);
+            frozen = ByteStrings.toBytes(cookieSv);
         } else {
             // Plain STRING — also a byte string in practice for hook cookies,
             // since STORABLE_freeze returns the result of nfreeze(). Use
@@ -257,6 +257,9 @@ final class JoniRegexPattern {
     private final boolean hasUserDefinedUnicodeProperty;
     private final boolean byteMode;
     private final List<String> compileWarnings;
+    // Backtracking-free engine for ASCII subjects, or null when the pattern
+    // needs Joni (see LinearRegexEngine)
+    private final LinearRegexEngine linear;
 
     JoniRegexPattern(String perlPattern, RegexFlags flags) {
         this(perlPattern, flags, 0, false);
@@ -369,6 +372,10 @@ final class JoniRegexPattern {
         NamedGroupMaps groupMaps = collectNamedGroups(regex);
         namedGroups = groupMaps.logical();
         physicalNamedGroups = groupMaps.physical();
+        LinearRegexEngine engine = trustedCalloutCount == 0 && !hasControlVerbState
+                && !hasDeferredUserDefinedUnicodeProperty && physicalNamedGroups.isEmpty()
+                ? LinearRegexEngine.compile(sourcePattern, flags) : null;
+        linear = engine != null && engine.groupCount() == regex.numberOfCaptures() ? engine : null;
     }
 
     private record WarningDisplay(String pattern, int offset) {}
@@ -419,6 +426,10 @@ final class JoniRegexPattern {
 
     RegexMatcher matcher(String input, List<RuntimeRegexCallback> callbacks,
                          RuntimeScalar subject) {
+        if (linear != null && callbacks.isEmpty()
+                && inputEncoding(input, subject, byteMode).ascii()) {
+            return new LinearRegexMatcher(linear, regex, sourcePattern, namedGroups, input);
+        }
         return new JoniRegexMatcher(regex, sourcePattern, namedGroups, physicalNamedGroups, flags,
                 hasControlVerbState, byteMode, input, callbacks, subject);
     }
@@ -427,7 +438,7 @@ final class JoniRegexPattern {
         return namedGroups;
     }
 
-    record InputEncoding(byte[] bytes, int[] charToByte, int[] byteToChar) {}
+    record InputEncoding(byte[] bytes, int[] charToByte, int[] byteToChar, boolean ascii) {}
 
     private record SubjectInputEncodings(Object value, int type, boolean uncheckedOctets,
                                         InputEncoding unicode, InputEncoding bytes) {}
@@ -485,15 +496,17 @@ final class JoniRegexPattern {
     private static InputEncoding buildByteInputEncoding(String input) {
         byte[] bytes = input.getBytes(StandardCharsets.ISO_8859_1);
         int[] identity = new int[input.length() + 1];
+        boolean ascii = true;
         for (int i = 0; i < identity.length; i++) identity[i] = i;
-        return new InputEncoding(bytes, identity, identity);
+        for (int i = 0; i < input.length() && ascii; i++) ascii = input.charAt(i) < 128;
+        return new InputEncoding(bytes, identity, identity, ascii);
     }
 
     private static InputEncoding buildInputEncoding(String input) {
         byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
         int[] charToByte = JoniRegexMatcher.buildCharToByte(input);
         int[] byteToChar = JoniRegexMatcher.buildByteToChar(input, bytes.length, charToByte);
-        return new InputEncoding(bytes, charToByte, byteToChar);
+        return new InputEncoding(bytes, charToByte, byteToChar, bytes.length == input.length());
     }
 
     String patternDescription() {
@@ -1224,6 +1237,9 @@ final class JoniRegexPattern {
         private int globalPosition = -1;
         private boolean matched;
         private int committedLastClosedCapture = -1;
+        // Substrings of the current match, taken once so that $N, the list a
+        // match returns and $& all share a single copy per group.
+        private String[] groupStrings;
         private final boolean hasControlVerbState;
         private final boolean byteMode;
         private final List<RuntimeRegexCallback> callbacks;
@@ -1305,6 +1321,7 @@ final class JoniRegexPattern {
                 return false;
             }
             consumedStart = directMatch ? nextStart : toCharOffset(result);
+            groupStrings = null;
             captures = Region.newRegion(regex.numberOfCaptures() + 1);
             for (int group = 0; group <= regex.numberOfCaptures(); group++) {
                 captures.setBeg(group, matcher.captureBegin(group));
@@ -1354,7 +1371,18 @@ final class JoniRegexPattern {
             int end = index == 0 ? matcher.getEnd() : captures.getEnd(index);
             if (begin < 0 || end < 0) return null;
             if (index == 0 && begin > end) return null;
-            return input.substring(toCharOffset(begin), toCharOffset(end));
+            if (index >= captures.getNumRegs()) {
+                return input.substring(toCharOffset(begin), toCharOffset(end));
+            }
+            String[] memo = groupStrings;
+            if (memo == null) {
+                memo = groupStrings = new String[captures.getNumRegs()];
+            }
+            String value = memo[index];
+            if (value == null) {
+                value = memo[index] = input.substring(toCharOffset(begin), toCharOffset(end));
+            }
+            return value;
         }
 
         @Override
@@ -1462,6 +1490,146 @@ final class JoniRegexPattern {
         }
     }
 
+    /**
+     * Matcher over {@link LinearRegexEngine} with the same region, empty-match
+     * advance and capture conventions as {@link JoniRegexMatcher}. Subjects are
+     * ASCII, so character and byte offsets coincide.
+     */
+    private static final class LinearRegexMatcher implements RegexMatcher {
+        private final LinearRegexEngine engine;
+        private final Regex regex;
+        private final String sourcePattern;
+        private final Map<String, Integer> namedGroups;
+        private final String input;
+        private int[] captures;
+        private int regionEnd;
+        private int nextStart;
+        private int consumedStart = -1;
+        private int lastClosedCapture = -1;
+        private String[] groupStrings;
+
+        LinearRegexMatcher(LinearRegexEngine engine, Regex regex, String sourcePattern,
+                           Map<String, Integer> namedGroups, String input) {
+            this.engine = engine;
+            this.regex = regex;
+            this.sourcePattern = sourcePattern;
+            this.namedGroups = namedGroups;
+            this.input = input;
+            region(0, input.length());
+        }
+
+        @Override
+        public boolean find() {
+            return find(false);
+        }
+
+        @Override
+        public boolean findNotEmpty() {
+            return find(true);
+        }
+
+        private boolean find(boolean anchored) {
+            captures = nextStart > regionEnd ? null
+                    : anchored ? engine.match(input, nextStart, true)
+                    : engine.search(input, nextStart, regionEnd);
+            groupStrings = null;
+            if (captures == null) {
+                consumedStart = -1;
+                lastClosedCapture = -1;
+                return false;
+            }
+            consumedStart = captures[0];
+            lastClosedCapture = captures[captures.length - 1];
+            if (lastClosedCapture <= 0) {
+                int latestEnd = -1;
+                for (int group = 1; group <= engine.groupCount(); group++) {
+                    if (captures[group * 2] >= 0 && captures[group * 2 + 1] > latestEnd) {
+                        lastClosedCapture = group;
+                        latestEnd = captures[group * 2 + 1];
+                    }
+                }
+            }
+            int end = captures[1];
+            nextStart = end > consumedStart ? end : end >= regionEnd ? regionEnd + 1 : end + 1;
+            return true;
+        }
+
+        @Override
+        public void region(int start, int end) {
+            int regionStart = Math.max(0, Math.min(start, input.length()));
+            regionEnd = Math.max(regionStart, Math.min(end, input.length()));
+            nextStart = regionStart;
+            consumedStart = -1;
+            captures = null;
+        }
+
+        @Override public void useAnchoringBounds(boolean enabled) { }
+        @Override public void useTransparentBounds(boolean enabled) { }
+        // Patterns using \G never get here, so the position has nothing to anchor
+        @Override public boolean setGlobalPosition(int position) {
+            return position >= 0 && position <= input.length();
+        }
+        @Override public int start() { return captures == null ? -1 : captures[0]; }
+        @Override public int consumedStart() { return consumedStart; }
+        @Override public int end() { return captures == null ? -1 : captures[1]; }
+        @Override public int start(String name) { return start(namedGroupNumber(name)); }
+        @Override public int end(String name) { return end(namedGroupNumber(name)); }
+
+        @Override
+        public int start(int index) {
+            requireMatch();
+            return index < 0 || index > engine.groupCount() ? -1 : captures[index * 2];
+        }
+
+        @Override
+        public int end(int index) {
+            requireMatch();
+            return index < 0 || index > engine.groupCount() ? -1 : captures[index * 2 + 1];
+        }
+
+        @Override
+        public String group(int index) {
+            int begin = start(index);
+            int end = end(index);
+            if (begin < 0 || end < 0) return null;
+            String[] memo = groupStrings;
+            if (memo == null) {
+                memo = groupStrings = new String[engine.groupCount() + 1];
+            }
+            String value = memo[index];
+            if (value == null) {
+                value = memo[index] = input.substring(begin, end);
+            }
+            return value;
+        }
+
+        @Override public String group(String name) { return group(namedGroupNumber(name)); }
+        @Override public int groupCount() { return engine.groupCount(); }
+        @Override public int lastClosedCapture() { return lastClosedCapture; }
+        @Override public String controlMark() { return null; }
+        @Override public String controlError() { return null; }
+        @Override public Map<String, Integer> namedGroups() { return namedGroups; }
+        @Override public String patternDescription() { return sourcePattern; }
+
+        private int namedGroupNumber(String name) {
+            Integer knownGroup = namedGroups.get(name);
+            if (knownGroup != null) return knownGroup;
+            requireMatch();
+            Region region = Region.newRegion(engine.groupCount() + 1);
+            for (int group = 0; group <= engine.groupCount(); group++) {
+                region.setBeg(group, captures[group * 2]);
+                region.setEnd(group, captures[group * 2 + 1]);
+            }
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            return regex.nameToBackrefNumber(nameBytes, 0, nameBytes.length,
+                    UTF8Encoding.INSTANCE, region);
+        }
+
+        private void requireMatch() {
+            if (captures == null) throw new IllegalStateException("No successful match");
+        }
+    }
+
     private static final class PerlCalloutHandler implements CalloutHandler {
         private record Token(int localLevel, RegexState regexState, RuntimeScalar previousR,
                              RuntimeScalar result, boolean block, boolean dynamic,
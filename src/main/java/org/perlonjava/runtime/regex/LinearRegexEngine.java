@@ -0,0 +1,1387 @@
+package org.perlonjava.runtime.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Linear-time matcher for the regular subset of Perl patterns.
+ *
+ * <p>A pattern without backreferences, lookaround, recursion, code blocks,
+ * control verbs, atomic groups or possessive quantifiers describes a regular
+ * language, so it can be matched without backtracking. Such a pattern is
+ * compiled to a Thompson NFA. A lazily built DFA first decides in one pass
+ * whether the subject can match at all; only then a Pike VM, which keeps its
+ * threads in backtracking priority order, finds the same leftmost match and
+ * captures Joni would report. Both passes are linear in the subject length,
+ * so these matches cannot run away and need no timeout checks.</p>
+ *
+ * <p>As in Perl, each iteration of a quantifier whose body cannot match empty
+ * starts with the groups inside that body unset, so a group the last
+ * iteration did not take part in reports undef rather than an older value.</p>
+ *
+ * <p>Only ASCII subjects are matched here: for them {@code \w}, {@code \d},
+ * {@code \s}, POSIX classes and {@code /i} folding are exact without Unicode
+ * tables. {@link JoniRegexPattern} keeps every other subject on Joni.</p>
+ */
+final class LinearRegexEngine {
+    // Keep expanded counted repeats and the DFA cache small
+    private static final int MAX_PROGRAM_LENGTH = 4096;
+    private static final int MAX_DFA_STATES = 2048;
+    // Larger (instruction, position) grids are matched by the Pike VM instead
+    private static final long MAX_BACKTRACK_BITS = 1L << 22;
+    // Alternations of at least this many plain literals become one trie
+    private static final int MIN_LITERAL_SET = 16;
+
+    private static final int CHAR = 0;
+    private static final int SPLIT = 1;
+    private static final int JMP = 2;
+    private static final int SAVE = 3;
+    private static final int ASSERT = 4;
+    private static final int MATCH = 5;
+    private static final int LITERALS = 6;        // one of literalSets[arg]
+    private static final int CLEAR = 7;           // unset groups arg..alt
+
+    private static final int BEGIN_BUF = 0;        // \A, ^ without /m
+    private static final int END_BUF = 1;          // \z
+    private static final int SEMI_END_BUF = 2;     // \Z, $ without /m
+    private static final int BEGIN_LINE = 3;       // ^ with /m
+    private static final int END_LINE = 4;         // $ with /m
+    private static final int WORD_BOUND = 5;
+    private static final int NOT_WORD_BOUND = 6;
+
+    private static final int FLAG_I = 1;
+    private static final int FLAG_M = 2;
+    private static final int FLAG_S = 4;
+    private static final int FLAG_X = 8;
+    private static final int FLAG_N = 16;
+
+    private static final long[] WORD = mask("0-9A-Z_a-z");
+    private static final long[] DIGIT = mask("0-9");
+    private static final long[] SPACE = mask("\t-\r ");
+    private static final long[] HORIZONTAL_SPACE = mask("\t ");
+    private static final long[] VERTICAL_SPACE = mask("\n-\r");
+    private static final long[] NEWLINE = mask("\n");
+
+    private final int[] op;
+    private final int[] arg;
+    private final int[] alt;
+    private final long[] low;
+    private final long[] high;
+    private final int groupCount;
+    private final LiteralSet[] literalSets;
+    private final int maxLiteralLength;
+    // Program starts with \A (or ^ without /m): only offset 0 can match
+    private final boolean anchoredAtStart;
+    // Characters a match can start with; null when a match may be empty
+    private final long[] firstChars;
+    // The same characters listed, when there are only a few of them
+    private final char[] firstList;
+    // First instruction after the leading SAVEs
+    private final int entry;
+
+    // DFA states are only ever added; transitions are filled in under the lock
+    // and read without it, a missing entry just takes the locked path.
+    private final Map<BitSet, DfaState> dfaStates = new HashMap<>();
+    private final BitSet[] closures;
+    private final DfaState dfaStart;
+    private volatile boolean dfaSaturated;
+
+    private LinearRegexEngine(Program program, int groupCount) {
+        this.op = Arrays.copyOf(program.op, program.length);
+        this.arg = Arrays.copyOf(program.arg, program.length);
+        this.alt = Arrays.copyOf(program.alt, program.length);
+        this.low = Arrays.copyOf(program.low, program.length);
+        this.high = Arrays.copyOf(program.high, program.length);
+        this.groupCount = groupCount;
+        this.literalSets = program.literalSets.toArray(new LiteralSet[0]);
+        this.maxLiteralLength = Arrays.stream(literalSets).mapToInt(set -> set.maxLength).max().orElse(0);
+        this.closures = new BitSet[program.length];
+        this.dfaStart = dfaState(closure(0));
+        this.anchoredAtStart = op[1] == ASSERT && arg[1] == BEGIN_BUF;
+        long[] first = new long[2];
+        for (int pc = dfaStart.pcs.nextSetBit(0); pc >= 0; pc = dfaStart.pcs.nextSetBit(pc + 1)) {
+            first[0] |= low[pc];
+            first[1] |= high[pc];
+        }
+        this.firstChars = dfaStart.accepting ? null : first;
+        int count = Long.bitCount(first[0]) + Long.bitCount(first[1]);
+        if (firstChars != null && count <= 4) {
+            firstList = new char[count];
+            int i = 0;
+            for (char c = 0; c < 128; c++) {
+                if (contains(first, c)) firstList[i++] = c;
+            }
+        } else {
+            firstList = null;
+        }
+        int pc = 0;
+        while (op[pc] == SAVE || op[pc] == JMP) pc = op[pc] == SAVE ? pc + 1 : arg[pc];
+        this.entry = pc;
+    }
+
+    /**
+     * The linear engine for {@code pattern}, or null when the pattern uses
+     * anything outside the regular subset this engine implements.
+     */
+    static LinearRegexEngine compile(String pattern, RegexFlags flags) {
+        if (pattern == null || flags.isExtendedWhitespace() || flags.useGAssertion()) return null;
+        int initial = (flags.isCaseInsensitive() ? FLAG_I : 0)
+                | (flags.isMultiLine() ? FLAG_M : 0)
+                | (flags.isDotAll() ? FLAG_S : 0)
+                | (flags.isExtended() ? FLAG_X : 0)
+                | (flags.isNonCapturing() ? FLAG_N : 0);
+        Parser parser = new Parser(pattern, initial);
+        Node root = parser.parse();
+        if (root == null) return null;
+        Program program = new Program();
+        program.emit(SAVE, 0, 0);
+        if (!program.compile(root)) return null;
+        program.emit(SAVE, 1, 0);
+        program.emit(MATCH, 0, 0);
+        if (program.length > MAX_PROGRAM_LENGTH) return null;
+        return new LinearRegexEngine(program, parser.groupCount);
+    }
+
+    int groupCount() {
+        return groupCount;
+    }
+
+    /**
+     * Leftmost match starting anywhere in {@code [from, lastStart]}, as capture
+     * offsets {@code [begin0, end0, begin1, end1, ..., lastClosedGroup]}, or null.
+     */
+    int[] search(String input, int from, int lastStart) {
+        if (anchoredAtStart) return from == 0 ? match(input, 0, false) : null;
+        if (!mayMatch(input, from)) return null;
+        return run(input, from, lastStart, false, false);
+    }
+
+    /** Match starting exactly at {@code at}, in the same form as {@link #search}. */
+    int[] match(String input, int at, boolean notEmpty) {
+        return run(input, at, at, true, notEmpty);
+    }
+
+    private int[] run(String input, int from, int lastStart, boolean anchored, boolean notEmpty) {
+        // Literal sets consume several characters at once, which the Pike VM's
+        // lockstep cannot express, so they always take the backtracker
+        if (literalSets.length > 0
+                || (long) op.length * (input.length() - from + 1) <= MAX_BACKTRACK_BITS) {
+            return new Backtracker(input, from, notEmpty).run(lastStart, anchored);
+        }
+        return pike(input, from, lastStart, anchored, notEmpty);
+    }
+
+    /**
+     * Finds the offsets a match can start at. With only a few possible first
+     * characters it leans on {@link String#indexOf(int, int)}, remembering each
+     * character's next occurrence so that one pass over the subject stays linear.
+     */
+    private final class StartScanner {
+        private final String input;
+        private final int[] next;
+
+        StartScanner(String input) {
+            this.input = input;
+            this.next = firstList == null ? null : new int[firstList.length];
+            if (next != null) Arrays.fill(next, -1);
+        }
+
+        /** The first offset from {@code pos} on where a match can start, or the subject length. */
+        int from(int pos) {
+            if (firstChars == null) return pos;
+            int end = input.length();
+            if (next != null) {
+                int nearest = end;
+                for (int i = 0; i < next.length; i++) {
+                    if (next[i] < pos) {
+                        int found = input.indexOf(firstList[i], pos);
+                        next[i] = found < 0 ? end : found;
+                    }
+                    nearest = Math.min(nearest, next[i]);
+                }
+                return nearest;
+            }
+            long first0 = firstChars[0];
+            long first1 = firstChars[1];
+            for (; pos < end; pos++) {
+                char c = input.charAt(pos);
+                if (c < 64 ? (first0 >>> c & 1) != 0 : c < 128 && (first1 >>> (c - 64) & 1) != 0) break;
+            }
+            return pos;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Bounded backtracking: explores alternatives in Perl's priority order
+    // but visits each (instruction, position) pair at most once, because a
+    // pair that failed once fails again whatever the captures are.
+
+    private final class Backtracker {
+        private final String input;
+        private final int from;
+        private final int end;
+        private final boolean notEmpty;
+        private final int[] caps = new int[groupCount * 2 + 3];
+        private final StartScanner starts;
+        private long[] visited = new long[16];
+        private final int[] lengths = new int[maxLiteralLength + 1];
+        private final int[] order = new int[maxLiteralLength + 1];
+        // (pc, pos) pairs; a negative pc restores capture slot -1 - pc to pos
+        private int[] jobs = new int[32];
+        private int size;
+
+        Backtracker(String input, int from, boolean notEmpty) {
+            this.input = input;
+            this.from = from;
+            this.end = input.length();
+            this.notEmpty = notEmpty;
+            this.starts = new StartScanner(input);
+        }
+
+        int[] run(int lastStart, boolean anchored) {
+            for (int start = from; start <= lastStart; start++) {
+                if (!anchored) {
+                    start = starts.from(start);
+                    if (start > lastStart || start == end && firstChars != null) break;
+                    // An earlier start already failed from here
+                    if (isVisited(entry, start)) continue;
+                }
+                Arrays.fill(caps, -1);
+                if (tryAt(start)) return caps.clone();
+            }
+            return null;
+        }
+
+        private boolean tryAt(int start) {
+            size = 0;
+            push(0, start);
+            while (size > 0) {
+                int pos = jobs[--size];
+                int pc = jobs[--size];
+                if (pc < 0) {
+                    caps[-1 - pc] = pos;
+                    continue;
+                }
+                while (true) {
+                    while (op[pc] == JMP) pc = arg[pc];
+                    long bit = (long) (pos - from) * op.length + pc;
+                    int word = (int) (bit >>> 6);
+                    if (word >= visited.length) {
+                        visited = Arrays.copyOf(visited, Math.max(word + 1, visited.length * 2));
+                    }
+                    if ((visited[word] & 1L << bit) != 0) break;
+                    visited[word] |= 1L << bit;
+                    int opcode = op[pc];
+                    if (opcode == CHAR) {
+                        if (pos >= end) break;
+                        char c = input.charAt(pos);
+                        if (c >= 128 || (c < 64 ? low[pc] >>> c & 1 : high[pc] >>> (c - 64) & 1) == 0) break;
+                        pc++;
+                        pos++;
+                    } else if (opcode == SPLIT) {
+                        push(alt[pc], pos);
+                        pc = arg[pc];
+                    } else if (opcode == SAVE) {
+                        int slot = arg[pc];
+                        push(-1 - slot, caps[slot]);
+                        caps[slot] = pos;
+                        if ((slot & 1) != 0 && slot > 1) {
+                            push(-caps.length, caps[caps.length - 1]);
+                            caps[caps.length - 1] = slot >> 1;
+                        }
+                        pc++;
+                    } else if (opcode == CLEAR) {
+                        for (int slot = arg[pc] * 2, last = alt[pc] * 2 + 1; slot <= last; slot++) {
+                            push(-1 - slot, caps[slot]);
+                            caps[slot] = -1;
+                        }
+                        pc++;
+                    } else if (opcode == ASSERT) {
+                        if (!holds(arg[pc], input, pos)) break;
+                        pc++;
+                    } else if (opcode == LITERALS) {
+                        // Continue after the highest priority literal, queue the others
+                        int count = literalSets[arg[pc]].matches(input, pos, lengths, order);
+                        if (count == 0) break;
+                        for (int i = count - 1; i > 0; i--) push(pc + 1, pos + lengths[i]);
+                        pc++;
+                        pos += lengths[0];
+                    } else {
+                        if (notEmpty && pos == caps[0]) break;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean isVisited(int pc, int pos) {
+            long bit = (long) (pos - from) * op.length + pc;
+            return (bit >>> 6) < visited.length && (visited[(int) (bit >>> 6)] & 1L << bit) != 0;
+        }
+
+        private void push(int pc, int pos) {
+            if (size == jobs.length) jobs = Arrays.copyOf(jobs, size << 1);
+            jobs[size++] = pc;
+            jobs[size++] = pos;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Pike VM, for subjects too long for the backtracker's visited set
+
+    private int[] pike(String input, int from, int lastStart, boolean anchored, boolean notEmpty) {
+        int end = input.length();
+        Threads current = new Threads(op.length);
+        Threads next = new Threads(op.length);
+        int[] seen = new int[op.length];
+        int generation = 1;
+        int[] initial = new int[groupCount * 2 + 3];
+        Arrays.fill(initial, -1);
+        int[] matched = null;
+        Stack stack = new Stack();
+        StartScanner starts = new StartScanner(input);
+
+        for (int pos = from; ; pos++) {
+            if (matched == null && current.size == 0 && !anchored) {
+                // Nothing in flight: jump to where a match can start
+                pos = starts.from(pos);
+                if (pos > lastStart || pos == end && firstChars != null) break;
+            }
+            if (matched == null && pos <= lastStart && (!anchored || pos == from)) {
+                addThread(current, 0, initial, input, pos, seen, generation, stack);
+            }
+            if (current.size == 0) {
+                if (matched != null || pos >= lastStart || pos >= end) break;
+                generation++;
+                continue;
+            }
+            generation++;
+            int c = pos < end ? input.charAt(pos) : -1;
+            for (int t = 0; t < current.size; t++) {
+                int pc = current.pcs[t];
+                int[] caps = current.caps[t];
+                if (op[pc] == MATCH) {
+                    if (notEmpty && caps[0] == caps[1]) continue;
+                    matched = caps;
+                    break; // lower priority threads lose to this match
+                }
+                if (c >= 0 && c < 128 && (c < 64 ? (low[pc] >>> c & 1) != 0 : (high[pc] >>> (c - 64) & 1) != 0)) {
+                    addThread(next, pc + 1, caps, input, pos + 1, seen, generation, stack);
+                }
+            }
+            Threads swap = current;
+            current = next;
+            next = swap;
+            next.size = 0;
+            if (pos >= end) break;
+        }
+        return matched;
+    }
+
+    /** Adds the threads reachable from {@code pc} without consuming input, highest priority first. */
+    private void addThread(Threads list, int pc, int[] caps, String input, int pos,
+                           int[] seen, int generation, Stack stack) {
+        stack.push(pc, caps);
+        while (stack.size > 0) {
+            stack.size--;
+            pc = stack.pcs[stack.size];
+            caps = stack.caps[stack.size];
+            stack.caps[stack.size] = null;
+            if (seen[pc] == generation) continue;
+            seen[pc] = generation;
+            switch (op[pc]) {
+                case JMP -> stack.push(arg[pc], caps);
+                case SPLIT -> {
+                    stack.push(alt[pc], caps);
+                    stack.push(arg[pc], caps);
+                }
+                case SAVE -> {
+                    int[] saved = caps.clone();
+                    int slot = arg[pc];
+                    saved[slot] = pos;
+                    if ((slot & 1) != 0 && slot > 1) saved[saved.length - 1] = slot >> 1;
+                    stack.push(pc + 1, saved);
+                }
+                case CLEAR -> {
+                    int[] cleared = caps.clone();
+                    Arrays.fill(cleared, arg[pc] * 2, alt[pc] * 2 + 2, -1);
+                    stack.push(pc + 1, cleared);
+                }
+                case ASSERT -> {
+                    if (holds(arg[pc], input, pos)) stack.push(pc + 1, caps);
+                }
+                default -> list.add(pc, caps);
+            }
+        }
+    }
+
+    private static boolean holds(int assertion, String input, int pos) {
+        int end = input.length();
+        return switch (assertion) {
+            case BEGIN_BUF -> pos == 0;
+            case END_BUF -> pos == end;
+            case SEMI_END_BUF -> pos == end || pos == end - 1 && input.charAt(pos) == '\n';
+            case BEGIN_LINE -> pos == 0 || pos < end && input.charAt(pos - 1) == '\n';
+            case END_LINE -> pos == end || input.charAt(pos) == '\n';
+            case WORD_BOUND -> isWord(input, pos - 1) != isWord(input, pos);
+            case NOT_WORD_BOUND -> isWord(input, pos - 1) == isWord(input, pos);
+            default -> false;
+        };
+    }
+
+    private static boolean isWord(String input, int pos) {
+        if (pos < 0 || pos >= input.length()) return false;
+        char c = input.charAt(pos);
+        return c < 128 && contains(WORD, c);
+    }
+
+    private static final class Threads {
+        final int[] pcs;
+        final int[][] caps;
+        int size;
+
+        Threads(int capacity) {
+            pcs = new int[capacity];
+            caps = new int[capacity][];
+        }
+
+        void add(int pc, int[] captures) {
+            pcs[size] = pc;
+            caps[size++] = captures;
+        }
+    }
+
+    private static final class Stack {
+        int[] pcs = new int[16];
+        int[][] caps = new int[16][];
+        int size;
+
+        void push(int pc, int[] captures) {
+            if (size == pcs.length) {
+                pcs = Arrays.copyOf(pcs, size << 1);
+                caps = Arrays.copyOf(caps, size << 1);
+            }
+            pcs[size] = pc;
+            caps[size++] = captures;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Lazy DFA: assertions are treated as always true, so it recognizes a
+    // superset of the pattern and may only be used to rule matches out.
+
+    private static final class DfaState {
+        final boolean accepting;
+        final BitSet pcs;
+        final DfaState[] next = new DfaState[128];
+
+        DfaState(BitSet pcs, boolean accepting) {
+            this.pcs = pcs;
+            this.accepting = accepting;
+        }
+    }
+
+    private boolean mayMatch(String input, int from) {
+        DfaState state = dfaStart;
+        if (literalSets.length > 0 || state == null || state.accepting || dfaSaturated) return true;
+        StartScanner starts = new StartScanner(input);
+        for (int pos = from, end = input.length(); pos < end; pos++) {
+            if (state == dfaStart) {
+                // Characters no match starts with lead back to the start state
+                pos = starts.from(pos);
+                if (pos == end) break;
+            }
+            char c = input.charAt(pos);
+            if (c >= 128) return true;
+            DfaState next = state.next[c];
+            if (next == null) {
+                next = transition(state, c);
+                if (next == null) return true;
+            }
+            if (next.accepting) return true;
+            state = next;
+        }
+        return false;
+    }
+
+    private synchronized DfaState transition(DfaState state, char c) {
+        DfaState next = state.next[c];
+        if (next != null || dfaSaturated) return next;
+        BitSet target = (BitSet) dfaStart.pcs.clone(); // unanchored: a match may start anywhere
+        for (int pc = state.pcs.nextSetBit(0); pc >= 0; pc = state.pcs.nextSetBit(pc + 1)) {
+            if (op[pc] == CHAR && (c < 64 ? (low[pc] >>> c & 1) != 0 : (high[pc] >>> (c - 64) & 1) != 0)) {
+                target.or(closure(pc + 1));
+            }
+        }
+        next = dfaState(target);
+        if (next != null) state.next[c] = next;
+        return next;
+    }
+
+    private DfaState dfaState(BitSet pcs) {
+        DfaState state = dfaStates.get(pcs);
+        if (state == null) {
+            if (dfaStates.size() >= MAX_DFA_STATES) {
+                dfaSaturated = true;
+                return null;
+            }
+            boolean accepting = false;
+            for (int pc = pcs.nextSetBit(0); pc >= 0; pc = pcs.nextSetBit(pc + 1)) {
+                accepting |= op[pc] == MATCH;
+            }
+            state = new DfaState(pcs, accepting);
+            dfaStates.put(pcs, state);
+        }
+        return state;
+    }
+
+    /** The CHAR and MATCH instructions reachable from {@code start} without consuming input. */
+    private BitSet closure(int start) {
+        BitSet cached = closures[start];
+        if (cached != null) return cached;
+        BitSet result = new BitSet(op.length);
+        BitSet visited = new BitSet(op.length);
+        int[] work = new int[op.length * 2];
+        int size = 0;
+        work[size++] = start;
+        while (size > 0) {
+            int pc = work[--size];
+            if (visited.get(pc)) continue;
+            visited.set(pc);
+            switch (op[pc]) {
+                case JMP -> work[size++] = arg[pc];
+                case SPLIT -> {
+                    work[size++] = arg[pc];
+                    work[size++] = alt[pc];
+                }
+                case SAVE, ASSERT, CLEAR -> work[size++] = pc + 1;
+                case LITERALS -> {
+                    result.set(pc);
+                    if (literalSets[arg[pc]].matchesEmpty()) work[size++] = pc + 1;
+                }
+                default -> result.set(pc);
+            }
+        }
+        closures[start] = result;
+        return result;
+    }
+
+    // ------------------------------------------------------------------
+    // Syntax tree and NFA construction
+
+    private sealed interface Node permits CharSet, Concat, Alternation, Capture, Repeat, Assertion, Literals {
+    }
+
+    private record CharSet(long low, long high) implements Node {
+    }
+
+    private record Concat(List<Node> items) implements Node {
+    }
+
+    private record Alternation(List<Node> branches) implements Node {
+    }
+
+    private record Capture(int group, Node body) implements Node {
+    }
+
+    /** {@code max} is -1 for an unbounded repeat. */
+    private record Repeat(Node body, int min, int max, boolean greedy) implements Node {
+    }
+
+    private record Assertion(int kind) implements Node {
+    }
+
+    private record Literals(LiteralSet set) implements Node {
+    }
+
+    private static boolean nullable(Node node) {
+        return switch (node) {
+            case CharSet ignored -> false;
+            case Assertion ignored -> true;
+            case Literals literals -> literals.set().matchesEmpty();
+            case Capture capture -> nullable(capture.body());
+            case Repeat repeat -> repeat.min() == 0 || nullable(repeat.body());
+            case Concat concat -> concat.items().stream().allMatch(LinearRegexEngine::nullable);
+            case Alternation alternation -> alternation.branches().stream().anyMatch(LinearRegexEngine::nullable);
+        };
+    }
+
+    /** First and last capture group inside {@code node}; groups are numbered in order, so they are contiguous. */
+    private static int[] groupRange(Node node) {
+        return switch (node) {
+            case Capture capture -> {
+                int[] inner = groupRange(capture.body());
+                yield new int[]{capture.group(), inner == null ? capture.group() : inner[1]};
+            }
+            case Repeat repeat -> groupRange(repeat.body());
+            case Concat concat -> groupRange(concat.items());
+            case Alternation alternation -> groupRange(alternation.branches());
+            case CharSet ignored -> null;
+            case Assertion ignored -> null;
+            case Literals ignored -> null;
+        };
+    }
+
+    private static int[] groupRange(List<Node> nodes) {
+        int[] range = null;
+        for (Node node : nodes) {
+            int[] item = groupRange(node);
+            if (item == null) continue;
+            if (range == null) range = item;
+            else range = new int[]{range[0], item[1]};
+        }
+        return range;
+    }
+
+    private static final class Program {
+        int[] op = new int[64];
+        int[] arg = new int[64];
+        int[] alt = new int[64];
+        long[] low = new long[64];
+        long[] high = new long[64];
+        final List<LiteralSet> literalSets = new ArrayList<>();
+        int length;
+
+        int emit(int opcode, int a, int b) {
+            if (length == op.length) {
+                int capacity = length << 1;
+                op = Arrays.copyOf(op, capacity);
+                arg = Arrays.copyOf(arg, capacity);
+                alt = Arrays.copyOf(alt, capacity);
+                low = Arrays.copyOf(low, capacity);
+                high = Arrays.copyOf(high, capacity);
+            }
+            op[length] = opcode;
+            arg[length] = a;
+            alt[length] = b;
+            return length++;
+        }
+
+        /** Emits {@code node}; false once the program grows past its limit. */
+        boolean compile(Node node) {
+            if (length > MAX_PROGRAM_LENGTH) return false;
+            switch (node) {
+                case CharSet set -> {
+                    int pc = emit(CHAR, 0, 0);
+                    low[pc] = set.low();
+                    high[pc] = set.high();
+                }
+                case Assertion assertion -> emit(ASSERT, assertion.kind(), 0);
+                case Literals literals -> {
+                    int pc = emit(LITERALS, literalSets.size(), 0);
+                    literalSets.add(literals.set());
+                    low[pc] = literals.set().firstChars()[0];
+                    high[pc] = literals.set().firstChars()[1];
+                }
+                case Capture capture -> {
+                    emit(SAVE, capture.group() * 2, 0);
+                    if (!compile(capture.body())) return false;
+                    emit(SAVE, capture.group() * 2 + 1, 0);
+                }
+                case Concat concat -> {
+                    for (Node item : concat.items()) {
+                        if (!compile(item)) return false;
+                    }
+                }
+                case Alternation alternation -> {
+                    List<Integer> exits = new ArrayList<>();
+                    List<Node> branches = alternation.branches();
+                    for (int i = 0; i < branches.size(); i++) {
+                        int split = i + 1 < branches.size() ? emit(SPLIT, 0, 0) : -1;
+                        if (split >= 0) arg[split] = length;
+                        if (!compile(branches.get(i))) return false;
+                        if (split >= 0) {
+                            exits.add(emit(JMP, 0, 0));
+                            alt[split] = length;
+                        }
+                    }
+                    for (int exit : exits) arg[exit] = length;
+                }
+                case Repeat repeat -> {
+                    // Like Joni, a body that can match empty keeps its groups
+                    int[] groups = nullable(repeat.body()) ? null : groupRange(repeat.body());
+                    int required = repeat.max() < 0 ? Math.max(0, repeat.min() - 1) : repeat.min();
+                    for (int i = 0; i < required; i++) {
+                        if (!iteration(repeat.body(), groups)) return false;
+                    }
+                    if (repeat.max() < 0) {
+                        // Test at the bottom: one SPLIT per iteration, entered
+                        // through it for x* and through the body for x+
+                        int entry = repeat.min() == 0 ? emit(JMP, 0, 0) : -1;
+                        int body = length;
+                        if (!iteration(repeat.body(), groups)) return false;
+                        if (entry >= 0) arg[entry] = length;
+                        int split = emit(SPLIT, 0, 0);
+                        branch(split, body, length, repeat.greedy());
+                    } else {
+                        List<Integer> splits = new ArrayList<>();
+                        for (int i = repeat.min(); i < repeat.max(); i++) {
+                            splits.add(emit(SPLIT, 0, 0));
+                            if (!iteration(repeat.body(), groups)) return false;
+                        }
+                        for (int split : splits) branch(split, split + 1, length, repeat.greedy());
+                    }
+                }
+            }
+            return length <= MAX_PROGRAM_LENGTH;
+        }
+
+        /** One pass through a repeat body, starting with its groups unset. */
+        private boolean iteration(Node body, int[] groups) {
+            if (groups != null) emit(CLEAR, groups[0], groups[1]);
+            return compile(body);
+        }
+
+        private void branch(int split, int body, int exit, boolean greedy) {
+            arg[split] = greedy ? body : exit;
+            alt[split] = greedy ? exit : body;
+        }
+    }
+
+    /**
+     * Recursive descent parser for the supported subset. Every construct it
+     * does not know makes {@link #parse} return null, so unsupported syntax
+     * is never guessed at; Joni has already validated the pattern.
+     */
+    /**
+     * A large alternation of plain literals, such as the {@code join '|', map
+     * quotemeta @words} lists used for keyword and stop-word filters, kept as
+     * a trie. One walk from a position finds every word that matches there
+     * instead of trying the branches one after another.
+     */
+    private static final class LiteralSet {
+        private final boolean folded;
+        // Children of each node: sorted labels and the node each one leads to
+        private final char[][] labels;
+        private final int[][] next;
+        // Lowest branch index of the words ending at each node, -1 for none
+        private final int[] priority;
+        private final int maxLength;
+        private final long[] firstChars = new long[2];
+
+        private LiteralSet(List<String> words, boolean folded) {
+            this.folded = folded;
+            List<TreeMap<Character, Integer>> children = new ArrayList<>();
+            List<Integer> ends = new ArrayList<>();
+            children.add(new TreeMap<>());
+            ends.add(-1);
+            int longest = 0;
+            for (int i = 0; i < words.size(); i++) {
+                String word = words.get(i);
+                int node = 0;
+                for (int j = 0; j < word.length(); j++) {
+                    Integer child = children.get(node).get(word.charAt(j));
+                    if (child == null) {
+                        child = children.size();
+                        children.get(node).put(word.charAt(j), child);
+                        children.add(new TreeMap<>());
+                        ends.add(-1);
+                    }
+                    node = child;
+                }
+                if (ends.get(node) < 0) ends.set(node, i);
+                longest = Math.max(longest, word.length());
+            }
+            this.maxLength = longest;
+            this.labels = new char[children.size()][];
+            this.next = new int[children.size()][];
+            this.priority = new int[children.size()];
+            for (int node = 0; node < children.size(); node++) {
+                TreeMap<Character, Integer> map = children.get(node);
+                labels[node] = new char[map.size()];
+                next[node] = new int[map.size()];
+                int k = 0;
+                for (Map.Entry<Character, Integer> entry : map.entrySet()) {
+                    labels[node][k] = entry.getKey();
+                    next[node][k++] = entry.getValue();
+                }
+                priority[node] = ends.get(node);
+            }
+            for (char c : labels[0]) {
+                add(firstChars, c);
+                if (folded && c >= 'a' && c <= 'z') add(firstChars, (char) (c - 32));
+            }
+        }
+
+        /**
+         * The set for {@code branches}, or null unless every branch is a plain
+         * string. Under /i the parser turns each letter into a two-character
+         * set; those are looked up in a lowercased trie, which only works when
+         * every letter in the list is folded.
+         */
+        static LiteralSet of(List<Node> branches) {
+            List<String> words = new ArrayList<>(branches.size());
+            boolean exactLetters = false;
+            boolean foldedLetters = false;
+            StringBuilder word = new StringBuilder();
+            for (Node branch : branches) {
+                word.setLength(0);
+                List<Node> items = branch instanceof Concat concat ? concat.items() : List.of(branch);
+                for (Node item : items) {
+                    if (!(item instanceof CharSet set)) return null;
+                    int count = Long.bitCount(set.low()) + Long.bitCount(set.high());
+                    if (count == 1) {
+                        char c = (char) (set.low() != 0
+                                ? Long.numberOfTrailingZeros(set.low())
+                                : 64 + Long.numberOfTrailingZeros(set.high()));
+                        exactLetters |= Character.isLetter(c);
+                        word.append(c);
+                    } else {
+                        // Both cases of one letter: bits c and c + 32 in the high word
+                        int upper = Long.numberOfTrailingZeros(set.high());
+                        if (count != 2 || set.low() != 0 || upper < 1 || upper > 26
+                                || set.high() != (1L << upper | 1L << upper + 32)) {
+                            return null;
+                        }
+                        foldedLetters = true;
+                        word.append((char) (96 + upper));
+                    }
+                }
+                words.add(word.toString());
+            }
+            if (exactLetters && foldedLetters) return null;
+            return new LiteralSet(words, foldedLetters);
+        }
+
+        boolean matchesEmpty() {
+            return priority[0] >= 0;
+        }
+
+        long[] firstChars() {
+            return firstChars;
+        }
+
+        /**
+         * Stores the lengths of the words matching at {@code pos} into
+         * {@code lengths} in the order Perl would try their branches, and
+         * returns how many there are. Those words are prefixes of each other,
+         * so each length occurs once.
+         */
+        int matches(String input, int pos, int[] lengths, int[] order) {
+            int count = 0;
+            int node = 0;
+            for (int i = pos; ; i++) {
+                if (priority[node] >= 0) {
+                    // Insertion sort by branch index; there are few matches
+                    int j = count++;
+                    while (j > 0 && order[j - 1] > priority[node]) {
+                        order[j] = order[j - 1];
+                        lengths[j] = lengths[j - 1];
+                        j--;
+                    }
+                    order[j] = priority[node];
+                    lengths[j] = i - pos;
+                }
+                if (i >= input.length()) break;
+                char c = input.charAt(i);
+                if (folded && c >= 'A' && c <= 'Z') c += 32;
+                int k = Arrays.binarySearch(labels[node], c);
+                if (k < 0) break;
+                node = next[node][k];
+            }
+            return count;
+        }
+    }
+
+    private static final class Parser {
+        private final String pattern;
+        private final List<String> names = new ArrayList<>();
+        private int pos;
+        private int flags;
+        int groupCount;
+
+        Parser(String pattern, int flags) {
+            this.pattern = pattern;
+            this.flags = flags;
+        }
+
+        Node parse() {
+            try {
+                Node root = alternation();
+                return pos == pattern.length() ? root : null;
+            } catch (Unsupported e) {
+                return null;
+            }
+        }
+
+        private Node alternation() {
+            List<Node> branches = new ArrayList<>();
+            branches.add(concat(true));
+            while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+                pos++;
+                branches.add(concat(false));
+            }
+            if (branches.size() >= MIN_LITERAL_SET) {
+                LiteralSet set = LiteralSet.of(branches);
+                if (set != null) return new Literals(set);
+            }
+            return branches.size() == 1 ? branches.get(0) : new Alternation(branches);
+        }
+
+        private Node concat(boolean firstBranch) {
+            List<Node> items = new ArrayList<>();
+            while (true) {
+                skipInsignificant();
+                if (pos >= pattern.length()) break;
+                char c = pattern.charAt(pos);
+                if (c == '|' || c == ')') break;
+                Node atom = atom();
+                if (atom == null) {
+                    // (?i) reaches into later branches differently in Perl and
+                    // Oniguruma syntax; only a leading one means the same to both.
+                    if (!firstBranch || !items.isEmpty()) throw new Unsupported();
+                    continue;
+                }
+                skipInsignificant();
+                items.add(quantified(atom));
+            }
+            return items.size() == 1 ? items.get(0) : new Concat(items);
+        }
+
+        private Node quantified(Node atom) {
+            if (pos >= pattern.length()) return atom;
+            int min;
+            int max;
+            char c = pattern.charAt(pos);
+            if (c == '*') {
+                min = 0;
+                max = -1;
+                pos++;
+            } else if (c == '+') {
+                min = 1;
+                max = -1;
+                pos++;
+            } else if (c == '?') {
+                min = 0;
+                max = 1;
+                pos++;
+            } else if (c == '{') {
+                int close = pattern.indexOf('}', pos);
+                if (close < 0) throw new Unsupported();
+                String body = pattern.substring(pos + 1, close);
+                int comma = body.indexOf(',');
+                String lower = comma < 0 ? body : body.substring(0, comma);
+                String upper = comma < 0 ? body : body.substring(comma + 1);
+                if (!isCount(lower) || !upper.isEmpty() && !isCount(upper)) throw new Unsupported();
+                min = Integer.parseInt(lower);
+                max = upper.isEmpty() ? -1 : Integer.parseInt(upper);
+                if (max >= 0 && max < min) throw new Unsupported();
+                pos = close + 1;
+            } else {
+                return atom;
+            }
+            boolean greedy = true;
+            if (pos < pattern.length() && pattern.charAt(pos) == '?') {
+                greedy = false;
+                pos++;
+            } else if (pos < pattern.length() && pattern.charAt(pos) == '+') {
+                throw new Unsupported(); // possessive
+            }
+            if (atom instanceof Assertion) throw new Unsupported();
+            // Empty iterations are where Perl's loop checks and a Pike VM can
+            // disagree on captures, so such loops stay on Joni.
+            if ((max < 0 || max > 1) && nullable(atom)) throw new Unsupported();
+            skipInsignificant();
+            if (pos < pattern.length() && "*+?{".indexOf(pattern.charAt(pos)) >= 0) {
+                throw new Unsupported();
+            }
+            if (min == 1 && max == 1) return atom;
+            return new Repeat(atom, min, max, greedy);
+        }
+
+        private static boolean isCount(String digits) {
+            if (digits.isEmpty() || digits.length() > 4) return false;
+            for (int i = 0; i < digits.length(); i++) {
+                if (digits.charAt(i) < '0' || digits.charAt(i) > '9') return false;
+            }
+            return true;
+        }
+
+        /** The next atom, or null after a group that only changed the flags. */
+        private Node atom() {
+            char c = pattern.charAt(pos++);
+            return switch (c) {
+                case '(' -> group();
+                case '[' -> characterClass();
+                case '.' -> (flags & FLAG_S) != 0 ? set(0, 128) : complement(NEWLINE);
+                case '^' -> new Assertion((flags & FLAG_M) != 0 ? BEGIN_LINE : BEGIN_BUF);
+                case '$' -> new Assertion((flags & FLAG_M) != 0 ? END_LINE : SEMI_END_BUF);
+                case '\\' -> escape();
+                case '*', '+', '?', '{', '}', ']' -> throw new Unsupported();
+                default -> literal(c);
+            };
+        }
+
+        private Node group() {
+            if (!pattern.startsWith("?", pos)) {
+                int saved = flags;
+                Node body = (flags & FLAG_N) != 0 ? alternation() : capture(null);
+                expect(')');
+                flags = saved;
+                return body;
+            }
+            pos++;
+            if (pattern.startsWith(":", pos)) {
+                pos++;
+                return scoped(flags);
+            }
+            if (pattern.startsWith("P<", pos) || pattern.startsWith("<", pos) && !pattern.startsWith("<=", pos)
+                    && !pattern.startsWith("<!", pos) || pattern.startsWith("'", pos)) {
+                pos += pattern.charAt(pos) == 'P' ? 2 : 1;
+                char terminator = pattern.charAt(pos - 1) == '\'' ? '\'' : '>';
+                int close = pattern.indexOf(terminator, pos);
+                if (close < 0) throw new Unsupported();
+                String name = pattern.substring(pos, close);
+                if (name.isEmpty() || names.contains(name) || !isName(name)) throw new Unsupported();
+                pos = close + 1;
+                int saved = flags;
+                Node body = capture(name);
+                expect(')');
+                flags = saved;
+                return body;
+            }
+            // (?flags), (?flags:...), (?^flags:...)
+            int on = 0;
+            int off = 0;
+            boolean negate = false;
+            if (pattern.startsWith("^", pos)) {
+                off = FLAG_I | FLAG_M | FLAG_S | FLAG_X | FLAG_N;
+                pos++;
+            }
+            while (pos < pattern.length()) {
+                char c = pattern.charAt(pos++);
+                int flag = switch (c) {
+                    case 'i' -> FLAG_I;
+                    case 'm' -> FLAG_M;
+                    case 's' -> FLAG_S;
+                    case 'x' -> FLAG_X;
+                    case 'n' -> FLAG_N;
+                    case 'a', 'u', 'l', 'd' -> 0; // no effect on ASCII subjects
+                    default -> -1;
+                };
+                if (c == 'x' && pattern.charAt(pos - 2) == 'x') throw new Unsupported(); // xx
+                if (flag >= 0) {
+                    if (negate) {
+                        off |= flag;
+                        on &= ~flag;
+                    } else {
+                        on |= flag;
+                        off &= ~flag;
+                    }
+                } else if (c == '-' && !negate) {
+                    negate = true;
+                } else if (c == ':') {
+                    return scoped(flags & ~off | on);
+                } else if (c == ')') {
+                    flags = flags & ~off | on;
+                    return null;
+                } else {
+                    throw new Unsupported();
+                }
+            }
+            throw new Unsupported();
+        }
+
+        private Node scoped(int groupFlags) {
+            int saved = flags;
+            flags = groupFlags;
+            Node body = alternation();
+            expect(')');
+            flags = saved;
+            return body;
+        }
+
+        private Node capture(String name) {
+            int group = ++groupCount;
+            names.add(name);
+            return new Capture(group, alternation());
+        }
+
+        private static boolean isName(String name) {
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (!(c == '_' || c < 128 && Character.isLetterOrDigit(c)) || i == 0 && Character.isDigit(c)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void expect(char c) {
+            if (pos >= pattern.length() || pattern.charAt(pos) != c) throw new Unsupported();
+            pos++;
+        }
+
+        private Node escape() {
+            if (pos >= pattern.length()) throw new Unsupported();
+            char c = pattern.charAt(pos++);
+            return switch (c) {
+                case 'd' -> set(DIGIT);
+                case 'D' -> complement(DIGIT);
+                case 'w' -> set(WORD);
+                case 'W' -> complement(WORD);
+                case 's' -> set(SPACE);
+                case 'S' -> complement(SPACE);
+                case 'h' -> set(HORIZONTAL_SPACE);
+                case 'H' -> complement(HORIZONTAL_SPACE);
+                case 'v' -> set(VERTICAL_SPACE);
+                case 'V' -> complement(VERTICAL_SPACE);
+                case 'N' -> {
+                    if (pattern.startsWith("{", pos)) throw new Unsupported();
+                    yield complement(NEWLINE);
+                }
+                case 'A' -> new Assertion(BEGIN_BUF);
+                case 'z' -> new Assertion(END_BUF);
+                case 'Z' -> new Assertion(SEMI_END_BUF);
+                case 'b', 'B' -> {
+                    if (pattern.startsWith("{", pos)) throw new Unsupported();
+                    yield new Assertion(c == 'b' ? WORD_BOUND : NOT_WORD_BOUND);
+                }
+                default -> literal(escapedChar(c));
+            };
+        }
+
+        /** The character a single-character escape stands for, inside or outside a class. */
+        private char escapedChar(char c) {
+            switch (c) {
+                case 't': return '\t';
+                case 'n': return '\n';
+                case 'r': return '\r';
+                case 'f': return '\f';
+                case 'e': return '\u001b';
+                case 'a': return '\u0007';
+                case '0': {
+                    int value = 0;
+                    for (int digits = 0; digits < 2 && pos < pattern.length()
+                            && pattern.charAt(pos) >= '0' && pattern.charAt(pos) <= '7'; digits++) {
+                        value = value * 8 + pattern.charAt(pos++) - '0';
+                    }
+                    return (char) value;
+                }
+                case 'x': {
+                    int value = 0;
+                    if (pattern.startsWith("{", pos)) {
+                        int close = pattern.indexOf('}', pos);
+                        if (close < 0) throw new Unsupported();
+                        String digits = pattern.substring(pos + 1, close);
+                        if (digits.isEmpty() || digits.length() > 2) throw new Unsupported();
+                        for (int i = 0; i < digits.length(); i++) {
+                            int digit = Character.digit(digits.charAt(i), 16);
+                            if (digit < 0) throw new Unsupported();
+                            value = value * 16 + digit;
+                        }
+                        pos = close + 1;
+                    } else {
+                        for (int digits = 0; digits < 2 && pos < pattern.length()
+                                && Character.digit(pattern.charAt(pos), 16) >= 0; digits++) {
+                            value = value * 16 + Character.digit(pattern.charAt(pos++), 16);
+                        }
+                    }
+                    return (char) value;
+                }
+                case 'c': {
+                    if (pos >= pattern.length()) throw new Unsupported();
+                    char control = pattern.charAt(pos++);
+                    if (control < '?' || control > 'z') throw new Unsupported();
+                    return (char) (Character.toUpperCase(control) ^ 64);
+                }
+                default:
+                    // Backreferences, \p, \X, \R, \K, \G, \Q and friends stay on Joni
+                    if (c >= 128 || Character.isLetterOrDigit(c)) throw new Unsupported();
+                    return c;
+            }
+        }
+
+        private Node literal(char c) {
+            if (c >= 128) throw new Unsupported();
+            long[] bits = new long[2];
+            add(bits, c);
+            return set(fold(bits));
+        }
+
+        private Node characterClass() {
+            boolean negated = pattern.startsWith("^", pos);
+            if (negated) pos++;
+            long[] bits = new long[2];
+            boolean first = true;
+            while (true) {
+                if (pos >= pattern.length()) throw new Unsupported();
+                char c = pattern.charAt(pos);
+                if (c == ']' && !first) {
+                    pos++;
+                    break;
+                }
+                first = false;
+                long[] item = classItem();
+                if (item != null) {
+                    bits[0] |= item[0];
+                    bits[1] |= item[1];
+                    continue;
+                }
+                char from = lastCharacter;
+                if (pos + 1 < pattern.length() && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                    pos++;
+                    if (classItem() != null) throw new Unsupported(); // a-\d is a literal '-' with a warning
+                    char to = lastCharacter;
+                    if (to < from) throw new Unsupported();
+                    for (char ch = from; ch <= to; ch++) add(bits, ch);
+                } else {
+                    add(bits, from);
+                }
+            }
+            fold(bits);
+            return negated ? complement(bits) : set(bits);
+        }
+
+        private char lastCharacter;
+
+        /**
+         * Parses one class member. A set such as {@code \d} or {@code [:alpha:]}
+         * is returned as a mask; a single character returns null and leaves
+         * the character in {@link #lastCharacter}.
+         */
+        private long[] classItem() {
+            char c = pattern.charAt(pos++);
+            if (c == '[') {
+                if (pattern.startsWith(":", pos)) return posixClass();
+                if (pattern.startsWith("=", pos) || pattern.startsWith(".", pos)) throw new Unsupported();
+            }
+            if (c >= 128) throw new Unsupported();
+            if (c != '\\') {
+                lastCharacter = c;
+                return null;
+            }
+            if (pos >= pattern.length()) throw new Unsupported();
+            char e = pattern.charAt(pos++);
+            long[] set = switch (e) {
+                case 'd' -> DIGIT;
+                case 'w' -> WORD;
+                case 's' -> SPACE;
+                case 'h' -> HORIZONTAL_SPACE;
+                case 'v' -> VERTICAL_SPACE;
+                case 'D' -> invert(DIGIT);
+                case 'W' -> invert(WORD);
+                case 'S' -> invert(SPACE);
+                case 'H' -> invert(HORIZONTAL_SPACE);
+                case 'V' -> invert(VERTICAL_SPACE);
+                default -> null;
+            };
+            if (set != null) return set.clone();
+            lastCharacter = e == 'b' ? '\b' : escapedChar(e);
+            if (lastCharacter >= 128) throw new Unsupported();
+            return null;
+        }
+
+        private long[] posixClass() {
+            int close = pattern.indexOf(":]", pos + 1);
+            if (close < 0) throw new Unsupported();
+            String name = pattern.substring(pos + 1, close);
+            pos = close + 2;
+            boolean negated = name.startsWith("^");
+            if (negated) name = name.substring(1);
+            long[] set = switch (name) {
+                case "alpha" -> mask("A-Za-z");
+                case "digit" -> DIGIT;
+                case "alnum" -> mask("0-9A-Za-z");
+                case "upper" -> mask("A-Z");
+                case "lower" -> mask("a-z");
+                case "space" -> SPACE;
+                case "blank" -> HORIZONTAL_SPACE;
+                case "punct" -> mask("!-/:-@[-`{-~");
+                case "xdigit" -> mask("0-9A-Fa-f");
+                case "word" -> WORD;
+                case "cntrl" -> mask("\u0000-\u001f\u007f");
+                case "graph" -> mask("!-~");
+                case "print" -> mask(" -~");
+                case "ascii" -> mask("\u0000-\u007f");
+                default -> throw new Unsupported();
+            };
+            return negated ? invert(set) : set.clone();
+        }
+
+        private long[] fold(long[] bits) {
+            if ((flags & FLAG_I) != 0) {
+                for (char c = 'A'; c <= 'Z'; c++) {
+                    if (contains(bits, c) || contains(bits, (char) (c + 32))) {
+                        add(bits, c);
+                        add(bits, (char) (c + 32));
+                    }
+                }
+            }
+            return bits;
+        }
+
+        private void skipInsignificant() {
+            while (pos < pattern.length()) {
+                char c = pattern.charAt(pos);
+                if (pattern.startsWith("(?#", pos)) {
+                    int close = pattern.indexOf(')', pos);
+                    if (close < 0) throw new Unsupported();
+                    pos = close + 1;
+                } else if ((flags & FLAG_X) != 0 && (c == ' ' || c >= '\t' && c <= '\r')) {
+                    pos++;
+                } else if ((flags & FLAG_X) != 0 && c == '#') {
+                    int newline = pattern.indexOf('\n', pos);
+                    pos = newline < 0 ? pattern.length() : newline + 1;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Unsupported extends RuntimeException {
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // 128-bit character masks
+
+    private static long[] mask(String ranges) {
+        long[] bits = new long[2];
+        for (int i = 0; i < ranges.length(); i++) {
+            char from = ranges.charAt(i);
+            char to = from;
+            if (i + 2 < ranges.length() && ranges.charAt(i + 1) == '-') {
+                to = ranges.charAt(i + 2);
+                i += 2;
+            }
+            for (char c = from; c <= to; c++) add(bits, c);
+        }
+        return bits;
+    }
+
+    private static void add(long[] bits, char c) {
+        bits[c >> 6] |= 1L << (c & 63);
+    }
+
+    private static boolean contains(long[] bits, char c) {
+        return (bits[c >> 6] >>> (c & 63) & 1) != 0;
+    }
+
+    private static long[] invert(long[] bits) {
+        return new long[] {~bits[0], ~bits[1]};
+    }
+
+    private static CharSet set(long[] bits) {
+        return new CharSet(bits[0], bits[1]);
+    }
+
+    private static CharSet set(int from, int to) {
+        long[] bits = new long[2];
+        for (int c = from; c < to; c++) add(bits, (char) c);
+        return set(bits);
+    }
+
+    private static CharSet complement(long[] bits) {
+        return new CharSet(~bits[0], ~bits[1]);
+    }
+}
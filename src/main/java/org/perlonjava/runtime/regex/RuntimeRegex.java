@@ -265,6 +265,48 @@ public class RuntimeRegex extends RuntimeBase implements RuntimeScalarReference
         return patternString;
     }
 
+    /**
+     * The text this pattern matches when it is a plain ASCII literal: no
+     * metacharacters, no case folding and no code blocks. Simple escapes such
+     * as {@code \t} or {@code \|} are decoded. Returns null for anything else.
+     * split uses this to scan with {@link String#indexOf} instead of the engine.
+     */
+    public String literalText() {
+        String source = patternString;
+        if (source == null || source.isEmpty() || regexFlags == null
+                || regexFlags.isCaseInsensitive() || hasCodeBlockCaptures
+                || !executableCallbacks.isEmpty()) {
+            return null;
+        }
+        boolean extended = regexFlags.isExtended();
+        StringBuilder text = new StringBuilder(source.length());
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c >= 0x80) return null;
+            if (c == '\\') {
+                if (++i == source.length()) return null;
+                char escaped = source.charAt(i);
+                switch (escaped) {
+                    case 't' -> text.append('\t');
+                    case 'n' -> text.append('\n');
+                    case 'r' -> text.append('\r');
+                    case 'f' -> text.append('\f');
+                    case 'e' -> text.append('\u001b');
+                    case 'a' -> text.append('\u0007');
+                    default -> {
+                        if (escaped >= 0x80 || Character.isLetterOrDigit(escaped)) return null;
+                        text.append(escaped);
+                    }
+                }
+                continue;
+            }
+            if ("^$.|?*+()[]{}".indexOf(c) >= 0) return null;
+            if (extended && (c == '#' || Character.isWhitespace(c))) return null;
+            text.append(c);
+        }
+        return text.toString();
+    }
+
     private void emitWarningsOnUse() {
         // These warnings belong to the regex use site, not the earlier qr//
         // construction site. The active Perl code supplies the baseline lexical
@@ -715,6 +757,11 @@ public class RuntimeRegex extends RuntimeBase implements RuntimeScalarReference
         // Check if the regex is already cached
         RuntimeRegex regex = refreshLexicalNamedCharacter || forceRecompile
                 ? null : state().compiledRegexCache.get(cacheKey);
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.count(regex != null
+                    ? RuntimeMetrics.Counter.REGEX_CACHE_HITS
+                    : RuntimeMetrics.Counter.REGEX_CACHE_MISSES);
+        }
         if (regex == null) {
             if (DEBUG_REGEX) {
                 System.err.println("  cache miss, compiling new regex");
@@ -1014,6 +1061,8 @@ public class RuntimeRegex extends RuntimeBase implements RuntimeScalarReference
             if (state().compiledRegexCache.size() < MAX_REGEX_CACHE_SIZE
                     || state().compiledRegexCache.containsKey(cacheKey)) {
                 state().compiledRegexCache.put(cacheKey, regex);
+            } else if (RuntimeMetrics.ENABLED) {
+                RuntimeMetrics.count(RuntimeMetrics.Counter.REGEX_CACHE_OVERFLOWS);
             }
             if (lexicalDebugMode != 0 && REPORTED_DEBUG_COMPILATIONS.add(cacheKey)) {
                 regex.emitCompileDebugTrace();
@@ -2225,11 +2274,12 @@ public class RuntimeRegex extends RuntimeBase implements RuntimeScalarReference
     private static void updateLastNamedCaptureGroups(RegexMatcher matcher) {
         RuntimeRegexState regexState = state();
         Map<String, Integer> namedGroups = matcher.namedGroups();
-        Map<String, List<String>> byPerlName = new LinkedHashMap<>();
         if (namedGroups == null || namedGroups.isEmpty()) {
-            regexState.lastNamedCaptureGroups = byPerlName;
+            // %+ and %- only read this map; most patterns have no names at all
+            regexState.lastNamedCaptureGroups = Map.of();
             return;
         }
+        Map<String, List<String>> byPerlName = new LinkedHashMap<>();
 
         Map<String, List<String>> javaNamesByPerlName = new LinkedHashMap<>();
         for (String javaName : namedGroups.keySet()) {
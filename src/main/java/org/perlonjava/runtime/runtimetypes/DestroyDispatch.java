@@ -175,6 +175,20 @@ public class DestroyDispatch {
         state().destroyMethodCache.clear();
     }
 
+    /**
+     * Called when DESTROY or AUTOLOAD is (re)defined: forgets the DESTROY
+     * lookups of the affected classes only.
+     */
+    public static void invalidateCache(Set<Integer> blessIds) {
+        LifecycleRuntimeState state = state();
+        for (int blessId : blessIds) {
+            int idx = Math.abs(blessId);
+            state.destroyClasses.clear(idx);
+            state.destroyClassesChecked.clear(idx);
+            state.destroyMethodCache.remove(blessId);
+        }
+    }
+
     /**
      * Call DESTROY on a referent whose refCount has reached 0.
      * The caller MUST have already set refCount to Integer.MIN_VALUE.
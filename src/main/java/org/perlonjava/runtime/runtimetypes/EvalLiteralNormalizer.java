@@ -0,0 +1,440 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Lifts string and number literals out of eval STRING source so structurally
+ * identical sources share one generated class.
+ *
+ * <p>Accessor generators (Moo, Class::Accessor, Sub::Quote, Type::Tiny, DBIC)
+ * emit thousands of evals such as {@code sub { $_[0]->{'name'} }} that differ
+ * only in their literals. The normalized template replaces each liftable
+ * literal by a lexical declared in a one-line prologue:</p>
+ *
+ * <pre>
+ * my ($__jperl_eval_k0) = Internals::jperl_eval_constants(); Internals::SvREADONLY($__jperl_eval_k0, 1);
+ * #line 1
+ * sub { $_[0]->{$__jperl_eval_k0} }
+ * </pre>
+ *
+ * <p>The lexicals are read-only, so a lifted literal that ends up aliased
+ * ({@code for (1, 2)}, {@code @_}) still dies with "Modification of a
+ * read-only value attempted". Literals whose meaning depends on being a
+ * constant item stay verbatim: operands of {@code \}, of assignment and
+ * of {@code chop}-like builtins, and the bodies of {@code sub () {...}},
+ * which Perl turns into constant subs.</p>
+ *
+ * <p>The template is the eval-cache key. Before the cached class runs, the
+ * eval helper hands this instance's values to the prologue, so closures built
+ * by the eval capture their own constants exactly like literals.</p>
+ *
+ * <p>The scanner is deliberately conservative. Anything it cannot classify
+ * with certainty (regex and quote-like operators, heredocs, POD, named sub or
+ * END/format definitions, interpolating strings) either stays verbatim in the
+ * template or rejects normalization, in which case the exact-text cache is
+ * used as before. Sources with {@code use}, {@code no}, {@code package},
+ * {@code require} or a phase block are rejected too: a template that fails
+ * to compile is compiled again from the original text, and their BEGIN-time
+ * effects must run only once.</p>
+ */
+public final class EvalLiteralNormalizer {
+    static final String CONSTANT_PREFIX = "$__jperl_eval_k";
+    private static final int MAX_CONSTANTS = 256;
+
+    private static final Set<String> REJECT_WORDS = Set.of(
+            "END", "format", "__END__", "__DATA__", "q", "qq", "qw", "qr", "m", "s", "tr", "y");
+    private static final Set<String> PHASE_BLOCKS = Set.of("BEGIN", "INIT", "CHECK", "UNITCHECK");
+    private static final Set<String> COMPILE_TIME_STATEMENTS = Set.of("use", "no", "package", "require");
+    private static final Set<String> UNAMBIGUOUS_BLOCK_WORDS = Set.of("sub", "do", "eval", "else");
+    private static final Set<String> LITERAL_OPERAND_WORDS = Set.of(
+            "split", "require", "goto", "dump", "last", "next", "redo");
+    /** Builtins that modify their operand; Perl rejects a constant there at compile time. */
+    private static final Set<String> LVALUE_OPERAND_WORDS = Set.of(
+            "chop", "chomp", "undef");
+    private static final Pattern ASSIGNMENT_AHEAD = Pattern.compile(
+            "\\s*(?:\\+\\+|--|(?:\\*\\*|\\|\\||&&|//|<<|>>|[-+*/.%x|&^])?=(?![=~>]))");
+
+    /** A normalized eval source and the literal values it expects at run time. */
+    public record Template(String source, List<RuntimeScalar> constants) {
+    }
+
+    private final String src;
+    private final StringBuilder out;
+    private final List<RuntimeScalar> constants = new ArrayList<>();
+    private int pos;
+    private int depth;
+    /** The three most recent significant tokens. */
+    private String prev1 = "", prev2 = "", prev3 = "";
+    private int constantSubDepth = -1;
+
+    private EvalLiteralNormalizer(String src) {
+        this.src = src;
+        this.out = new StringBuilder(src.length() + 32);
+    }
+
+    /**
+     * Normalize {@code source}, or return {@code null} when it has no liftable
+     * literal or contains a construct the scanner does not model.
+     */
+    public static Template normalize(String source) {
+        if (source == null || source.isEmpty() || source.contains("__jperl_eval_k")) {
+            return null;
+        }
+        for (int i = 0; i < source.length(); i++) {
+            if (source.charAt(i) > 127) return null;
+        }
+        EvalLiteralNormalizer scanner = new EvalLiteralNormalizer(source);
+        if (!scanner.scan() || scanner.constants.isEmpty()) {
+            return null;
+        }
+        StringBuilder prologue = new StringBuilder("my (");
+        for (int i = 0; i < scanner.constants.size(); i++) {
+            if (i > 0) prologue.append(", ");
+            prologue.append(CONSTANT_PREFIX).append(i);
+        }
+        prologue.append(") = Internals::jperl_eval_constants();");
+        for (int i = 0; i < scanner.constants.size(); i++) {
+            prologue.append(" Internals::SvREADONLY(").append(CONSTANT_PREFIX).append(i).append(", 1);");
+        }
+        prologue.append("\n#line 1\n");
+        return new Template(prologue.append(scanner.out).toString(), List.copyOf(scanner.constants));
+    }
+
+    /**
+     * Hand the constants published by the eval helper to the template
+     * prologue. Each value is consumed exactly once.
+     */
+    public static RuntimeList takePendingConstants() {
+        RuntimeCodeRuntimeState state = PerlRuntime.current().runtimeCodeState();
+        List<RuntimeScalar> pending = state.pendingEvalConstants;
+        state.pendingEvalConstants = null;
+        RuntimeList result = new RuntimeList();
+        if (pending != null) {
+            for (RuntimeScalar constant : pending) {
+                result.add(new RuntimeScalar(constant));
+            }
+        }
+        return result;
+    }
+
+    /** Eval STRING cache counters for the current runtime, in a stable order. */
+    public static Map<String, Long> statistics() {
+        RuntimeCodeRuntimeState state = PerlRuntime.current().runtimeCodeState();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", state.evalCacheHits);
+        stats.put("misses", state.evalCacheMisses);
+        stats.put("template_hits", state.evalTemplateHits);
+        stats.put("template_misses", state.evalTemplateMisses);
+        stats.put("template_rejects", state.evalTemplateRejects);
+        synchronized (state.evalCache) {
+            stats.put("size", (long) state.evalCache.size());
+        }
+        return stats;
+    }
+
+    private boolean scan() {
+        int n = src.length();
+        while (pos < n) {
+            char c = src.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                if (c == '\n' && pos + 1 < n && src.charAt(pos + 1) == '='
+                        && pos + 2 < n && Character.isLetter(src.charAt(pos + 2))) {
+                    return false;  // POD
+                }
+                out.append(c);
+                pos++;
+            } else if (c == '#') {
+                int end = src.indexOf('\n', pos);
+                end = end < 0 ? n : end;
+                out.append(src, pos, end);
+                pos = end;
+            } else if (c == '$' || c == '@'
+                    || ((c == '%' || c == '&') && pos + 1 < n && startsSigilBody(src.charAt(pos + 1)))) {
+                if (!scanVariable()) return false;
+            } else if (c == '\'') {
+                if (!scanSingleQuoted()) return false;
+            } else if (c == '"') {
+                if (!scanDoubleQuoted()) return false;
+            } else if (c == '`' || c == '/') {
+                return false;
+            } else if (c >= '0' && c <= '9') {
+                scanNumber();
+            } else if (Character.isLetter(c) || c == '_') {
+                if (!scanWord()) return false;
+            } else {
+                if (!scanPunctuation(c)) return false;
+            }
+            if (constants.size() > MAX_CONSTANTS) return false;
+        }
+        return depth == 0;
+    }
+
+    private static boolean startsSigilBody(char c) {
+        return Character.isLetter(c) || c == '_' || c == '{' || c == '$' || c == ':';
+    }
+
+    private boolean scanVariable() {
+        int start = pos;
+        int n = src.length();
+        pos++;  // sigil
+        if (pos < n && src.charAt(pos) == '#') pos++;  // $#array / $#{expr} / $#$ref
+        if (pos < n) {
+            char c = src.charAt(pos);
+            if (c == '^') {
+                pos += 2;  // $^W
+            } else if (Character.isLetter(c) || c == '_' || c == ':') {
+                while (pos < n) {
+                    char d = src.charAt(pos);
+                    if (Character.isLetterOrDigit(d) || d == '_' || d == ':') {
+                        pos++;
+                    } else if (d == '\'' && pos + 1 < n && Character.isLetter(src.charAt(pos + 1))) {
+                        return false;  // old-style package separator
+                    } else {
+                        break;
+                    }
+                }
+            } else if (Character.isDigit(c)) {
+                while (pos < n && Character.isDigit(src.charAt(pos))) pos++;
+            } else if (c != '{' && c != '$' && !Character.isWhitespace(c)) {
+                pos++;  // punctuation variable: $_ handled above, $/ $' $; $@ ...
+            }
+        }
+        pos = Math.min(pos, n);
+        out.append(src, start, pos);
+        token("var");
+        return true;
+    }
+
+    private boolean scanSingleQuoted() {
+        int n = src.length();
+        StringBuilder value = new StringBuilder();
+        int i = pos + 1;
+        for (; i < n; i++) {
+            char c = src.charAt(i);
+            if (c == '\\' && i + 1 < n && (src.charAt(i + 1) == '\\' || src.charAt(i + 1) == '\'')) {
+                value.append(src.charAt(++i));
+            } else if (c == '\'') {
+                break;
+            } else {
+                value.append(c);
+            }
+        }
+        if (i >= n) return false;
+        String text = src.substring(pos, i + 1);
+        pos = i + 1;
+        emitLiteral(text, value.indexOf("\n") < 0 ? value.toString() : null, false);
+        return true;
+    }
+
+    private boolean scanDoubleQuoted() {
+        int n = src.length();
+        int i = pos + 1;
+        boolean plain = true;
+        for (; i < n; i++) {
+            char c = src.charAt(i);
+            if (c == '\\') {
+                plain = false;
+                i++;
+            } else if (c == '"') {
+                break;
+            } else if (c == '$' || c == '@' || c == '\n') {
+                plain = false;
+            }
+        }
+        if (i >= n) return false;
+        String text = src.substring(pos, i + 1);
+        String value = plain ? src.substring(pos + 1, i) : null;
+        pos = i + 1;
+        emitLiteral(text, value, false);
+        return true;
+    }
+
+    private void scanNumber() {
+        int n = src.length();
+        int start = pos;
+        while (pos < n && Character.isDigit(src.charAt(pos))) pos++;
+        boolean fractional = false;
+        boolean liftable = true;
+        if (pos + 1 < n && src.charAt(pos) == '.' && src.charAt(pos + 1) != '.'
+                && !Character.isDigit(src.charAt(pos + 1))) {
+            liftable = false;  // `1.` is a complete numeric literal, not 1 followed by concat
+        }
+        if (pos + 1 < n && src.charAt(pos) == '.' && Character.isDigit(src.charAt(pos + 1))) {
+            fractional = true;
+            pos++;
+            while (pos < n && Character.isDigit(src.charAt(pos))) pos++;
+        }
+        if (pos < n && (src.charAt(pos) == 'e' || src.charAt(pos) == 'E')) {
+            int exp = pos + 1;
+            if (exp < n && (src.charAt(exp) == '+' || src.charAt(exp) == '-')) exp++;
+            if (exp < n && Character.isDigit(src.charAt(exp))) {
+                fractional = true;
+                pos = exp;
+                while (pos < n && Character.isDigit(src.charAt(pos))) pos++;
+            }
+        }
+        // Hex/octal/binary, underscores, version strings, trailing identifiers,
+        // `.5`-style decimals and chained `1.2.3` all stay verbatim.
+        while (pos < n && (Character.isLetterOrDigit(src.charAt(pos)) || src.charAt(pos) == '_'
+                || (src.charAt(pos) == '.' && pos + 1 < n && Character.isDigit(src.charAt(pos + 1))))) {
+            liftable = false;
+            pos++;
+        }
+        String text = src.substring(start, pos);
+        if (text.length() > 1 && text.charAt(0) == '0' && !fractional) liftable = false;
+        if (start > 0 && src.charAt(start - 1) == '.') liftable = false;
+        if (prev1.equals("[")) liftable = false;  // keep constant array indexes
+        if (liftable) {
+            liftable = fractional || text.length() < 18;
+        }
+        emitLiteral(text, liftable ? text : null, true);
+    }
+
+    private boolean scanWord() {
+        int n = src.length();
+        int start = pos;
+        while (pos < n) {
+            char d = src.charAt(pos);
+            if (Character.isLetterOrDigit(d) || d == '_') {
+                pos++;
+            } else if (d == ':' && pos + 1 < n && src.charAt(pos + 1) == ':') {
+                pos += 2;
+            } else if (d == '\'' && pos + 1 < n && Character.isLetter(src.charAt(pos + 1))) {
+                return false;  // old-style package separator
+            } else {
+                break;
+            }
+        }
+        String word = src.substring(start, pos);
+        out.append(word);
+        boolean methodOrKey = prev1.equals("->") || (prev1.equals("{") && nextSignificantIs('}'));
+        if (!methodOrKey && !nextSignificantIsFatComma()) {
+            if (REJECT_WORDS.contains(word)) return false;
+            if (word.equals("sub") && nextSignificantIsIdentifier()) return false;
+            if (PHASE_BLOCKS.contains(word) || COMPILE_TIME_STATEMENTS.contains(word)) return false;
+        }
+        token(word);
+        return true;
+    }
+
+    private boolean scanPunctuation(char c) {
+        int n = src.length();
+        char next = pos + 1 < n ? src.charAt(pos + 1) : '\0';
+        if ((c == '=' || c == '!') && next == '~') return false;  // pattern binding
+        if (c == '<' && next == '<') return false;                // heredoc or shift
+        if (c == '-' && next == '>') {
+            out.append("->");
+            pos += 2;
+            token("->");
+            return true;
+        }
+        if (c == '=' && next == '>') {
+            out.append("=>");
+            pos += 2;
+            token("=>");
+            return true;
+        }
+        out.append(c);
+        pos++;
+        switch (c) {
+            case '{' -> {
+                if (constantSubDepth < 0 && prev1.equals(")") && prev2.equals("(") && prev3.equals("sub")) {
+                    constantSubDepth = depth;  // sub () { LITERAL } is a constant sub
+                }
+                depth++;
+            }
+            case '}' -> {
+                depth--;
+                if (depth < 0) return false;
+                if (constantSubDepth == depth) constantSubDepth = -1;
+            }
+            default -> {
+            }
+        }
+        token(String.valueOf(c));
+        return true;
+    }
+
+    /**
+     * Append a literal that ends at {@code pos}, lifting it when {@code value}
+     * is non-null and the context allows it.
+     */
+    private void emitLiteral(String text, String value, boolean numeric) {
+        if (value != null && canLiftHere()) {
+            out.append(CONSTANT_PREFIX).append(constants.size());
+            constants.add(numeric ? numberConstant(value) : stringConstant(value));
+        } else {
+            out.append(text);
+        }
+        token(numeric ? "num" : "str");
+    }
+
+    private boolean canLiftHere() {
+        if (constantSubDepth >= 0) return false;
+        if (LITERAL_OPERAND_WORDS.contains(prev1) || prev1.equals("->")) return false;
+        if (prev1.equals("(") && LITERAL_OPERAND_WORDS.contains(prev2)) return false;
+        // Constant items that Perl refuses to modify or references as constants
+        if (prev1.equals("\\") || (prev1.equals("(") && prev2.equals("\\"))) return false;
+        if (LVALUE_OPERAND_WORDS.contains(prev1)
+                || (prev1.equals("(") && LVALUE_OPERAND_WORDS.contains(prev2))) return false;
+        if ((prev1.equals("+") && prev2.equals("+")) || (prev1.equals("-") && prev2.equals("-"))) return false;
+        if (ASSIGNMENT_AHEAD.matcher(src).region(pos, src.length()).lookingAt()) return false;
+        if (prev1.equals("{")) {
+            // A subscript key may become an expression; a leading literal in
+            // a bare block or map/grep/sort block would change Perl's
+            // block-versus-anonymous-hash guess.
+            return prev2.equals("var") || prev2.equals("->") || prev2.equals("}") || prev2.equals("]")
+                    || prev2.equals(")") || UNAMBIGUOUS_BLOCK_WORDS.contains(prev2);
+        }
+        return true;
+    }
+
+    private static RuntimeScalar stringConstant(String value) {
+        RuntimeScalar scalar = new RuntimeScalar(value);
+        scalar.type = RuntimeScalarType.BYTE_STRING;  // ASCII literals compile as octets
+        return scalar;
+    }
+
+    private static RuntimeScalar numberConstant(String text) {
+        boolean integral = true;
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                integral = false;
+                break;
+            }
+        }
+        return integral ? new RuntimeScalar(Long.parseLong(text))
+                : new RuntimeScalar(Double.parseDouble(text), text);
+    }
+
+    private void token(String token) {
+        prev3 = prev2;
+        prev2 = prev1;
+        prev1 = token;
+    }
+
+    private int skipWhitespace(int i) {
+        while (i < src.length() && Character.isWhitespace(src.charAt(i))) i++;
+        return i;
+    }
+
+    private boolean nextSignificantIs(char expected) {
+        int i = skipWhitespace(pos);
+        return i < src.length() && src.charAt(i) == expected;
+    }
+
+    private boolean nextSignificantIsFatComma() {
+        int i = skipWhitespace(pos);
+        return i + 1 < src.length() && src.charAt(i) == '=' && src.charAt(i + 1) == '>';
+    }
+
+    private boolean nextSignificantIsIdentifier() {
+        int i = skipWhitespace(pos);
+        return i < src.length() && (Character.isLetter(src.charAt(i)) || src.charAt(i) == '_');
+    }
+}
@@ -0,0 +1,177 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.perlonjava.runtime.debugger.DebugState;
+import org.perlonjava.runtime.operators.ReferenceOperators;
+
+/**
+ * Java implementation of the hash-slot methods generated by Class::XSAccessor
+ * and by Class::MOP for plain attributes.
+ *
+ * <p>An instance is installed as the {@link RuntimeCode#subroutine} of an
+ * ordinary code ref, so glob assignment, {@code set_subname} and closure
+ * cloning all carry it along. Plain calls arrive through {@link #apply}. The
+ * method inline cache in {@link RuntimeCode} recognizes the subroutine and
+ * calls {@link #invokeMethod} directly, which reads or writes the slot
+ * without building {@code @_} or pushing a Perl frame.</p>
+ *
+ * <p>When a {@code fallback} sub is supplied (Class::MOP), only the expected
+ * shape of call is served here: a hash-based invocant without a {@code %{}}
+ * overload and the usual argument count. Anything else runs the Perl sub the
+ * accessor was generated from, so its diagnostics are unchanged.</p>
+ */
+public final class FastAccessor implements PerlSubroutine {
+
+    public enum Kind {
+        GETTER, SETTER, ACCESSOR, DEFINED_PREDICATE, EXISTS_PREDICATE, CONSTRUCTOR, BOOLEAN
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final RuntimeScalar key;
+    private final boolean flag;        // chained for setters, the constant for BOOLEAN
+    private final RuntimeCode fallback;
+
+    public FastAccessor(Kind kind, String name, RuntimeScalar key, boolean flag, RuntimeCode fallback) {
+        this.kind = kind;
+        this.name = name;
+        this.key = key;
+        this.flag = flag;
+        this.fallback = fallback;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    @Override
+    public RuntimeList apply(RuntimeArray args, int callContext) throws Exception {
+        if (kind == Kind.CONSTRUCTOR) {
+            return construct(args);
+        }
+        int argc = args.size();
+        RuntimeList result = dispatch(argc > 0 ? args.get(0) : null, argc, argc > 1 ? args.get(1) : null);
+        if (result != null) {
+            return result;
+        }
+        if (fallback != null) {
+            // The caller already pushed the frame for this code ref.
+            return fallback.subroutine != null
+                    ? fallback.subroutine.apply(args, callContext)
+                    : fallback.apply(args, callContext);
+        }
+        if (!arityMatches(argc)) {
+            throw new PerlCompilerException("Usage: " + name + "(" + usageArguments() + ")");
+        }
+        throw new PerlCompilerException(
+                "Class::XSAccessor: invalid instance method invocant: no hash ref supplied");
+    }
+
+    /**
+     * Frame-free entry used by the method inline cache.
+     *
+     * @param self        the invocant as passed to the method call
+     * @param args        the remaining call arguments
+     * @param callContext the call context
+     * @return the result, or null when the call must take the normal path
+     */
+    public RuntimeList invokeMethod(RuntimeScalar self, RuntimeBase[] args, int callContext) {
+        if (kind == Kind.CONSTRUCTOR
+                || callContext == RuntimeContextType.LVALUE
+                || callContext == RuntimeContextType.LVALUE_LIST
+                || DebugState.isDebugMode()) {
+            return null;
+        }
+        for (RuntimeBase arg : args) {
+            if (!(arg instanceof RuntimeScalar)) {
+                return null;  // Arrays and lists flatten; let @_ construction count them
+            }
+        }
+        MortalList.pushMark();
+        try {
+            return dispatch(self, args.length + 1, args.length > 0 ? (RuntimeScalar) args[0] : null);
+        } finally {
+            MortalList.popMark();
+        }
+    }
+
+    private RuntimeList dispatch(RuntimeScalar self, int argc, RuntimeScalar value) {
+        if (!arityMatches(argc)) {
+            return null;
+        }
+        if (kind == Kind.BOOLEAN) {
+            return new RuntimeList(truth(flag));
+        }
+        RuntimeHash hash = slots(self);
+        if (hash == null) {
+            return null;
+        }
+        return switch (kind) {
+            case GETTER -> new RuntimeList(new RuntimeScalar(hash.get(key)));
+            case SETTER -> store(hash, self, value);
+            case ACCESSOR -> argc == 1 ? new RuntimeList(new RuntimeScalar(hash.get(key))) : store(hash, self, value);
+            case DEFINED_PREDICATE -> new RuntimeList(truth(hash.get(key).getDefinedBoolean()));
+            case EXISTS_PREDICATE -> new RuntimeList(truth(hash.exists(key).getBoolean()));
+            default -> null;
+        };
+    }
+
+    private RuntimeList store(RuntimeHash hash, RuntimeScalar self, RuntimeScalar value) {
+        hash.get(key).set(value);
+        return new RuntimeList(new RuntimeScalar(flag ? self : value));
+    }
+
+    private RuntimeHash slots(RuntimeScalar self) {
+        if (self == null) {
+            return null;
+        }
+        while (self.type == RuntimeScalarType.READONLY_SCALAR) {
+            self = (RuntimeScalar) self.value;
+        }
+        if (self.type != RuntimeScalarType.HASHREFERENCE) {
+            return null;
+        }
+        RuntimeHash hash = (RuntimeHash) self.value;
+        // Class::XSAccessor reads the referent directly, as the XS does;
+        // Class::MOP's inlined code honours a %{} overload.
+        if (fallback != null && hash.blessId < 0) {
+            return null;
+        }
+        return hash;
+    }
+
+    private RuntimeList construct(RuntimeArray args) {
+        int argc = args.size();
+        if (argc > 0 && (argc - 1) % 2 != 0) {
+            throw new PerlCompilerException("Uneven number of arguments to constructor.");
+        }
+        RuntimeScalar invocant = argc > 0 ? args.get(0) : new RuntimeScalar();
+        RuntimeScalar refName = ReferenceOperators.ref(invocant);
+        RuntimeList init = new RuntimeList();
+        for (int i = 1; i < argc; i++) {
+            init.elements.add(args.get(i));
+        }
+        RuntimeScalar object = RuntimeHash.createHashRef(init);
+        return new RuntimeList(ReferenceOperators.bless(object, refName.getBoolean() ? refName : invocant));
+    }
+
+    private boolean arityMatches(int argc) {
+        return switch (kind) {
+            case SETTER -> argc == 2;
+            case ACCESSOR -> argc >= 1;
+            case CONSTRUCTOR -> true;
+            default -> argc == 1;
+        };
+    }
+
+    private String usageArguments() {
+        return switch (kind) {
+            case SETTER -> "self, newvalue";
+            case ACCESSOR -> "self, ...";
+            default -> "self";
+        };
+    }
+
+    private static RuntimeScalar truth(boolean value) {
+        return value ? new RuntimeScalar(1) : new RuntimeScalar("");
+    }
+}
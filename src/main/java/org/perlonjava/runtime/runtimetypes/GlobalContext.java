@@ -241,7 +241,10 @@ public class GlobalContext {
         RuntimeHash environmentHash = GlobalVariable.getGlobalHash("main::ENV");
         environmentHash.isEnvironmentHash = true;
         Map<String, RuntimeScalar> env = environmentHash.elements;
-        System.getenv().forEach((k, v) -> {
+        // An in-process jperl child starts from the environment its parent passed it
+        Map<String, String> initialEnvironment = compilerOptions.environment != null
+                ? compilerOptions.environment : System.getenv();
+        initialEnvironment.forEach((k, v) -> {
             RuntimeScalar envValue = new RuntimeScalar(v);
             envValue.tainted = compilerOptions.taintMode;
             env.put(k, envValue);
@@ -276,7 +279,7 @@ public class GlobalContext {
         // clean jcpan run creates $PERLONJAVA_HOME/lib in a child make process;
         // the long-lived parent must be able to discover those newly-installed
         // prerequisites without restarting.
-        addUserLibraryPath(inc, resolvePerlOnJavaHome(System.getenv(), System.getProperty("user.home")));
+        addUserLibraryPath(inc, resolvePerlOnJavaHome(initialEnvironment, System.getProperty("user.home")));
         inc.add(new RuntimeScalar(JAR_PERLLIB));    // internal src/main/perl/lib (lowest priority)
 
         // Honor PERL_USE_UNSAFE_INC=1 (required by CPAN.pm / Module::Install-based
@@ -21,18 +21,18 @@ public final class GlobalRuntimeState {
     private static final int COMPILED_CODE_REF_RANGE_SIZE = 1_000_000;
     private static final AtomicInteger NEXT_THREAD_COMPILED_CODE_REF_BASE =
             new AtomicInteger(COMPILED_CODE_REF_RANGE_SIZE);
-    private final Map<String, RuntimeScalar> scalarValues = new HashMap<>();
-    private final Map<String, RuntimeArray> arrayValues = new HashMap<>();
-    private final Map<String, RuntimeHash> hashValues = new HashMap<>();
+    private Map<String, RuntimeScalar> scalarValues = new HashMap<>();
+    private Map<String, RuntimeArray> arrayValues = new HashMap<>();
+    private Map<String, RuntimeHash> hashValues = new HashMap<>();
     private final Map<String, RuntimeScalar> foreachScalarAliases = new HashMap<>();
     private final Map<String, RuntimeScalar> temporaryScalarAliases = new HashMap<>();
     private final Map<String, Boolean> importedSubs = new HashMap<>();
     private final Map<String, Boolean> operatorOverrideGlobs = new HashMap<>();
-    private final Map<String, RuntimeScalar> codeRefs = new HashMap<>();
-    private final Map<String, RuntimeScalar> pseudoConstants = new HashMap<>();
-    private final Map<String, RuntimeScalar> pinnedCodeRefs = new HashMap<>();
+    private Map<String, RuntimeScalar> codeRefs = new HashMap<>();
+    private Map<String, RuntimeScalar> pseudoConstants = new HashMap<>();
+    private Map<String, RuntimeScalar> pinnedCodeRefs = new HashMap<>();
     private final Set<String> deletedCodeRefPins = new HashSet<>();
-    private final Map<Integer, RuntimeScalar> compiledCodeRefs = new HashMap<>();
+    private Map<Integer, RuntimeScalar> compiledCodeRefs = new HashMap<>();
     private final Map<String, Integer> localizedCodeRefDepth = new HashMap<>();
     private final IdentityHashMap<RuntimeScalar, String> displacedLocalizedCodeRefs =
             new IdentityHashMap<>();
@@ -290,14 +290,37 @@ public final class GlobalRuntimeState {
 
     /** Copy package-owned interpreter state through one ithread graph cloner. */
     synchronized void snapshotInto(GlobalRuntimeState target, RuntimeGraphCloner cloner) {
-        cloneMap(scalarValues, target.scalarValues, cloner, RuntimeScalar.class);
-        cloneMap(arrayValues, target.arrayValues, cloner, RuntimeArray.class);
-        cloneMap(hashValues, target.hashValues, cloner, RuntimeHash.class);
-        cloneMap(foreachScalarAliases, target.foreachScalarAliases, cloner, RuntimeScalar.class);
-        cloneMap(temporaryScalarAliases, target.temporaryScalarAliases, cloner, RuntimeScalar.class);
-        cloneMap(codeRefs, target.codeRefs, cloner, RuntimeScalar.class);
-        cloneMap(pseudoConstants, target.pseudoConstants, cloner, RuntimeScalar.class);
-        cloneMap(pinnedCodeRefs, target.pinnedCodeRefs, cloner, RuntimeScalar.class);
+        snapshotInto(target, cloner, false);
+    }
+
+    /**
+     * Copy this state into a snapshot child. With {@code copyOnRead} the
+     * package, CODE and compiled-CV slots are handed over as
+     * {@link SnapshotSlotMap}s and cloned on first use; the caller guarantees
+     * that this runtime no longer executes Perl code that writes them.
+     */
+    synchronized void snapshotInto(
+            GlobalRuntimeState target, RuntimeGraphCloner cloner, boolean copyOnRead) {
+        if (copyOnRead) {
+            target.scalarValues = new SnapshotSlotMap<>(target.scalarValues, scalarValues, cloner);
+            target.arrayValues = new SnapshotSlotMap<>(target.arrayValues, arrayValues, cloner);
+            target.hashValues = new SnapshotSlotMap<>(target.hashValues, hashValues, cloner);
+            target.codeRefs = new SnapshotSlotMap<>(target.codeRefs, codeRefs, cloner);
+            target.pseudoConstants = new SnapshotSlotMap<>(target.pseudoConstants, pseudoConstants, cloner);
+            target.pinnedCodeRefs = new SnapshotSlotMap<>(target.pinnedCodeRefs, pinnedCodeRefs, cloner);
+            target.compiledCodeRefs = new SnapshotSlotMap<>(target.compiledCodeRefs, compiledCodeRefs, cloner);
+            cloneMap(foreachScalarAliases, target.foreachScalarAliases, cloner, RuntimeScalar.class);
+            cloneMap(temporaryScalarAliases, target.temporaryScalarAliases, cloner, RuntimeScalar.class);
+        } else {
+            cloneMap(scalarValues, target.scalarValues, cloner, RuntimeScalar.class);
+            cloneMap(arrayValues, target.arrayValues, cloner, RuntimeArray.class);
+            cloneMap(hashValues, target.hashValues, cloner, RuntimeHash.class);
+            cloneMap(foreachScalarAliases, target.foreachScalarAliases, cloner, RuntimeScalar.class);
+            cloneMap(temporaryScalarAliases, target.temporaryScalarAliases, cloner, RuntimeScalar.class);
+            cloneMap(codeRefs, target.codeRefs, cloner, RuntimeScalar.class);
+            cloneMap(pseudoConstants, target.pseudoConstants, cloner, RuntimeScalar.class);
+            cloneMap(pinnedCodeRefs, target.pinnedCodeRefs, cloner, RuntimeScalar.class);
+        }
         // Parsers register many inert glob placeholders (notably through eval).
         // Cloning all of them into every ithread makes snapshot cost quadratic
         // for regex matrices that compile thousands of evals. Only an IO slot
@@ -310,9 +333,11 @@ public final class GlobalRuntimeState {
                         (RuntimeGlob) cloner.cloneValue(glob));
             }
         }
-        for (Map.Entry<Integer, RuntimeScalar> entry : compiledCodeRefs.entrySet()) {
-            target.compiledCodeRefs.put(entry.getKey(),
-                    (RuntimeScalar) cloner.cloneValue(entry.getValue()));
+        if (!copyOnRead) {
+            for (Map.Entry<Integer, RuntimeScalar> entry : compiledCodeRefs.entrySet()) {
+                target.compiledCodeRefs.put(entry.getKey(),
+                        (RuntimeScalar) cloner.cloneValue(entry.getValue()));
+            }
         }
 
         target.importedSubs.putAll(importedSubs);
@@ -350,6 +375,12 @@ public final class GlobalRuntimeState {
     /** Copy CV ids registered by a named sub that was materialized after snapshot. */
     synchronized void snapshotCompiledCodeRefsInto(
             GlobalRuntimeState target, RuntimeGraphCloner cloner) {
+        if (target.compiledCodeRefs instanceof SnapshotSlotMap<Integer, RuntimeScalar> lazy) {
+            lazy.addPending(compiledCodeRefs, cloner);
+            target.nextCompiledCodeRefId = Math.max(target.nextCompiledCodeRefId,
+                    nextCompiledCodeRefId);
+            return;
+        }
         for (Map.Entry<Integer, RuntimeScalar> entry : compiledCodeRefs.entrySet()) {
             RuntimeScalar cloned = (RuntimeScalar) cloner.cloneValue(entry.getValue());
             RuntimeScalar existing = target.compiledCodeRefs.get(entry.getKey());
@@ -0,0 +1,390 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.perlonjava.app.cli.ArgumentParser;
+import org.perlonjava.app.cli.CompilerOptions;
+import org.perlonjava.app.scriptengine.PerlLanguageProvider;
+import org.perlonjava.runtime.io.InternalPipeHandle;
+import org.perlonjava.runtime.util.Settings;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.perlonjava.runtime.runtimetypes.GlobalVariable.getGlobalVariable;
+
+/**
+ * A jperl child command run inside this JVM instead of a new one.
+ *
+ * <p>With {@code JPERL_INPROCESS=1}, {@code system}, {@code qx//} and pipe
+ * opens whose command is this jperl (directly, or through a script whose
+ * {@code #!} names it) run the program on a warm {@link PerlRuntime} taken
+ * from a pool. The child gets its own copy of {@code %ENV}, its own working
+ * directory, and STDIN, STDOUT and STDERR that are internal pipes with no
+ * native descriptors behind them; {@code exit}, {@code die} and a fatal
+ * signal become the wait status the parent sees in {@code $?}.</p>
+ *
+ * <p>Anything that needs a real process is left to one: shell commands,
+ * redirected streams, interpreter switches other than the few that only set
+ * up the program, a program read from STDIN, a script for another
+ * interpreter, launcher settings that differ from this JVM's, a command
+ * started during compilation, and a pool with no idle runtime.</p>
+ */
+public final class JperlChildProcess extends Process {
+    static final String ENABLED_PROPERTY = "jperl.inprocess";
+    static final String ENABLED_ENVIRONMENT = "JPERL_INPROCESS";
+    static final String POOL_SIZE_PROPERTY = "jperl.inprocess.pool";
+    static final String POOL_SIZE_ENVIRONMENT = "JPERL_INPROCESS_POOL";
+    private static final boolean ENABLED = Settings.isOn(ENABLED_PROPERTY, ENABLED_ENVIRONMENT, false);
+    private static final AtomicInteger NEXT_PID = new AtomicInteger(1);
+    private static final Map<Integer, JperlChildProcess> RUNNING = new ConcurrentHashMap<>();
+
+    // Settings the jperl launcher turns into JVM options; a child that changes them needs its own JVM
+    private static final List<String> LAUNCHER_ENVIRONMENT =
+            List.of("CLASSPATH", "JAVA_HOME", "JPERL_OPTS", "JPERL_THREAD_MODE", "PERL5OPT");
+
+    // Switches that only configure the program: -w -W -X -T -t, -Idir, -Mmodule, -mmodule
+    private static final Pattern PROGRAM_SWITCH = Pattern.compile("-[wWXTt]+|-[IMm]\\S.*");
+
+    private final int pid;
+    private final PerlRuntimePool.Lease lease;
+    private final PerlRuntime runtime;
+    private final String[] arguments;
+    private final Map<String, String> environment;
+    private final String directory;
+    private final InternalPipeHandle stdinReader;
+    private final InternalPipeHandle stdoutWriter;
+    private final InternalPipeHandle stderrWriter;
+    private final OutputStream stdin;
+    private final InputStream stdout;
+    private final InputStream stderr;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final CompletableFuture<Process> exited = new CompletableFuture<>();
+    private volatile int exitCode;
+    volatile int terminatingSignal;
+    private Thread platformThread;
+
+    private JperlChildProcess(PerlRuntimePool.Lease lease, String[] arguments,
+                              Map<String, String> environment, String directory) throws IOException {
+        this.pid = PerlPseudoProcess.PID_BASE + NEXT_PID.getAndIncrement();
+        this.lease = lease;
+        this.runtime = lease.runtime();
+        this.arguments = arguments;
+        this.environment = environment;
+        this.directory = directory;
+
+        PipedInputStream stdinPipe = new PipedInputStream(InternalPipeHandle.PIPE_SIZE);
+        PipedOutputStream stdinSource = new PipedOutputStream(stdinPipe);
+        InternalPipeHandle[] stdinEnds = InternalPipeHandle.createPair(stdinPipe, stdinSource);
+        this.stdinReader = stdinEnds[0];
+        this.stdin = new PipeWriterStream(stdinSource, stdinEnds[1]);
+
+        PipedInputStream stdoutPipe = new PipedInputStream(InternalPipeHandle.PIPE_SIZE);
+        this.stdoutWriter = InternalPipeHandle.createPair(stdoutPipe, new PipedOutputStream(stdoutPipe))[1];
+        this.stdout = stdoutPipe;
+
+        PipedInputStream stderrPipe = new PipedInputStream(InternalPipeHandle.PIPE_SIZE);
+        this.stderrWriter = InternalPipeHandle.createPair(stderrPipe, new PipedOutputStream(stderrPipe))[1];
+        this.stderr = stderrPipe;
+    }
+
+    /** Whether jperl child commands may run in this JVM; JPERL_INPROCESS=1 turns it on. */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Run a jperl child in this JVM, given the arguments that follow the
+     * interpreter in its command line and the {@code builder} prepared for
+     * the real process. Returns null when the child needs a real process.
+     */
+    public static Process start(List<String> interpreterArguments, ProcessBuilder builder) {
+        if (!ENABLED || builder.redirectErrorStream()
+                || builder.redirectInput() != ProcessBuilder.Redirect.PIPE
+                || builder.redirectOutput() != ProcessBuilder.Redirect.PIPE
+                || builder.redirectError() != ProcessBuilder.Redirect.PIPE) {
+            return null;
+        }
+        // The parent holds the compiler (system() in a BEGIN block); the child would wait for it forever
+        if (PerlLanguageProvider.COMPILE_LOCK.isHeldByCurrentThread()) {
+            return null;
+        }
+        Map<String, String> environment = new HashMap<>(builder.environment());
+        for (String name : LAUNCHER_ENVIRONMENT) {
+            if (!Objects.equals(environment.get(name), System.getenv(name))) {
+                return null;
+            }
+        }
+        String directory = builder.directory() != null
+                ? builder.directory().getAbsolutePath() : RuntimeEnvironment.currentDirectory();
+        String[] arguments = programArguments(interpreterArguments, directory);
+        if (arguments == null) {
+            return null;
+        }
+
+        PerlRuntimePool.Lease lease;
+        try {
+            lease = Pool.RUNTIMES.checkout(Duration.ZERO);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (RuntimeException | LinkageError noIdleRuntime) {
+            return null;
+        }
+        JperlChildProcess child;
+        try {
+            child = new JperlChildProcess(lease, arguments, environment, directory);
+        } catch (IOException | RuntimeException e) {
+            lease.close();
+            return null;
+        }
+        RUNNING.put(child.pid, child);
+        child.platformThread = Thread.ofPlatform().name("jperl-child-" + child.pid).daemon(true)
+                .unstarted(child::run);
+        child.platformThread.start();
+        return child;
+    }
+
+    /** The running in-process child with this pid, or null. */
+    public static JperlChildProcess find(long pid) {
+        return pid >= PerlPseudoProcess.PID_BASE ? RUNNING.get((int) pid) : null;
+    }
+
+    /** Deliver {@code signal} to the child at its next safe point. */
+    public boolean signal(String signal) {
+        if (finished.getCount() == 0) return false;
+        PerlSignalQueue.enqueue(runtime.signalState, signal);
+        Thread javaThread = platformThread;
+        if (javaThread != null) javaThread.interrupt();
+        return true;
+    }
+
+    /**
+     * The command line for ArgumentParser, or null when it needs a real
+     * process. A relative script is made absolute when the child runs in
+     * another directory, because the script is read before the child starts.
+     */
+    private static String[] programArguments(List<String> interpreterArguments, String directory) {
+        List<String> arguments = new ArrayList<>(interpreterArguments);
+        boolean inlineProgram = false;
+        int index = 0;
+        while (index < arguments.size()) {
+            String argument = arguments.get(index);
+            if (argument.equals("-e") || argument.equals("-E")) {
+                if (index + 1 >= arguments.size()) return null;
+                inlineProgram = true;
+                index += 2;
+                continue;
+            }
+            if (argument.equals("--")) {
+                index++;
+                break;
+            }
+            if (!argument.startsWith("-") || argument.equals("-")) break;
+            if (!PROGRAM_SWITCH.matcher(argument).matches()) return null;
+            index++;
+        }
+        if (inlineProgram) {
+            return arguments.toArray(String[]::new);
+        }
+        if (index >= arguments.size() || arguments.get(index).equals("-")) {
+            return null;
+        }
+
+        File script = new File(arguments.get(index));
+        if (!script.isAbsolute()) {
+            script = new File(directory, arguments.get(index));
+            if (!directory.equals(System.getProperty("user.dir"))) {
+                arguments.set(index, script.getPath());
+            }
+        }
+        // A missing script is reported by the real process, with its own exit status
+        if (!script.isFile() || !script.canRead()) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(script.toPath(), StandardCharsets.ISO_8859_1)) {
+            String firstLine = reader.readLine();
+            if (firstLine != null && firstLine.startsWith("#!")
+                    && ArgumentParser.delegatesToShebangInterpreter(firstLine.substring(2))) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return arguments.toArray(String[]::new);
+    }
+
+    private void run() {
+        int status;
+        try {
+            status = runtime.execute(this::runProgram);
+        } catch (Throwable failure) {
+            status = 255;
+        }
+        stdoutWriter.close();
+        stderrWriter.close();
+        stdinReader.close();
+        try {
+            // Reset the runtime for the next child before reporting the exit,
+            // so a parent that immediately starts another child finds it idle
+            lease.close();
+        } catch (RuntimeException recycleFailure) {
+            // The pool has already discarded the runtime
+        }
+        exitCode = status;
+        RUNNING.remove(pid, this);
+        finished.countDown();
+        exited.complete(this);
+    }
+
+    /** Run the program in the bound child runtime, returning its exit status as Main would. */
+    private int runProgram() {
+        runtime.setJperlChild(this);
+        RuntimeEnvironment.setCurrentDirectory(directory);
+        RuntimeIO.setStdin(new RuntimeIO(stdinReader));
+        RuntimeIO.setStdout(new RuntimeIO(stdoutWriter));
+        RuntimeIO stderrIO = new RuntimeIO(stderrWriter);
+        stderrIO.autoFlush = true;
+        RuntimeIO.setStderr(stderrIO);
+        try {
+            CompilerOptions options = ArgumentParser.parseArguments(arguments);
+            options.environment = environment;
+            PerlLanguageProvider.executePerlCode(options, true);
+            awaitPseudoChildren();
+
+            int requestedThreadExit = runtime.threadRegistry().requestedProcessExitOr(Integer.MIN_VALUE);
+            if (requestedThreadExit != Integer.MIN_VALUE) {
+                return requestedThreadExit & 0xFF;
+            }
+            // Test frameworks request a non-zero exit by setting $? in an END block
+            int childStatus = getGlobalVariable("main::?").getInt();
+            return childStatus > 0 && childStatus <= 255 ? childStatus : 0;
+        } catch (PerlExitException exit) {
+            awaitPseudoChildren();
+            if (terminatingSignal != 0) {
+                return 128 + terminatingSignal;
+            }
+            return runtime.threadRegistry().requestedProcessExitOr(exit.getExitCode()) & 0xFF;
+        } catch (Throwable failure) {
+            // An uncaught die ends the child with the status perl uses for die
+            return PerlPseudoProcess.dieExitStatus(failure);
+        } finally {
+            RuntimeIO.flushAllHandles();
+        }
+    }
+
+    /** Wait for pseudo-fork children, as the CLI does before the process exits. */
+    private static void awaitPseudoChildren() {
+        for (PerlPseudoProcess child : PerlPseudoProcess.children()) {
+            try {
+                child.await(-1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return stdin;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return stdout;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return stderr;
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        finished.await();
+        return exitCode;
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    @Override
+    public int exitValue() {
+        if (finished.getCount() != 0) {
+            throw new IllegalThreadStateException("jperl child " + pid + " has not exited");
+        }
+        return exitCode;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return finished.getCount() != 0;
+    }
+
+    @Override
+    public CompletableFuture<Process> onExit() {
+        return exited;
+    }
+
+    @Override
+    public long pid() {
+        return pid;
+    }
+
+    @Override
+    public void destroy() {
+        signal("TERM");
+    }
+
+    @Override
+    public Process destroyForcibly() {
+        signal("KILL");
+        return this;
+    }
+
+    /** The parent's end of the child's STDIN; closing it is end of file for the child. */
+    private static final class PipeWriterStream extends FilterOutputStream {
+        private final InternalPipeHandle writer;
+
+        PipeWriterStream(PipedOutputStream pipe, InternalPipeHandle writer) {
+            super(pipe);
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() {
+            writer.close();
+        }
+    }
+
+    private static final class Pool {
+        static final PerlRuntimePool RUNTIMES = new PerlRuntimePool(Settings.nonNegative(
+                POOL_SIZE_PROPERTY, POOL_SIZE_ENVIRONMENT, "Perl in-process child pool size", 2));
+    }
+}
@@ -0,0 +1,250 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.perlonjava.app.scriptengine.PerlLanguageProvider;
+import org.perlonjava.runtime.util.Settings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Optional background materialization of lazily compiled named subroutines.
+ *
+ * <p>A named sub body is generated by its placeholder's {@code compilerSupplier}
+ * on first call. With {@code JPERL_PRECOMPILE=1} each placeholder is queued as
+ * it is defined, and once a compilation unit finishes compiling the queue is
+ * drained on a low-priority daemon thread whenever the runtime is idle: no
+ * thread executes in it or holds a binding. Startup stays lazy; the first call
+ * simply finds the body already installed.</p>
+ *
+ * <p>{@code JPERL_PRECOMPILE_PROFILE=FILE} orders the queue by the first-call
+ * order written by an earlier run with {@code JPERL_PRECOMPILE_RECORD=FILE}.
+ * Subs absent from the profile follow in definition order.</p>
+ *
+ * <p>Compiling a body updates runtime state that is not synchronized, so the
+ * worker never compiles next to running Perl code. It holds the compilation
+ * lock and claims the idle runtime through {@link PerlRuntime#runIfIdle} for
+ * one sub at a time; a thread that binds the runtime meanwhile waits for that
+ * sub. When the runtime is busy the queue is kept and drained again once its
+ * last binding is released. A runtime bound for its whole life, like the CLI's
+ * main runtime, is therefore never drained. The supplier clears
+ * {@code compilerSupplier} (volatile) only after publishing the body, so a
+ * caller that sees it cleared also sees the body. A background failure is
+ * discarded: the supplier stays installed and reports the error at the call
+ * site exactly as in lazy mode.</p>
+ */
+public final class LazySubroutinePrecompiler {
+    static final String ENABLE_PROPERTY = "jperl.precompile";
+    static final String ENABLE_ENVIRONMENT = "JPERL_PRECOMPILE";
+    static final String PROFILE_PROPERTY = "jperl.precompile.profile";
+    static final String PROFILE_ENVIRONMENT = "JPERL_PRECOMPILE_PROFILE";
+    static final String RECORD_PROPERTY = "jperl.precompile.record";
+    static final String RECORD_ENVIRONMENT = "JPERL_PRECOMPILE_RECORD";
+
+    private static volatile boolean enabled = Settings.isOn(ENABLE_PROPERTY, ENABLE_ENVIRONMENT, false);
+    private static final String RECORD_FILE = setting(
+            System.getProperty(RECORD_PROPERTY), System.getenv(RECORD_ENVIRONMENT));
+    private static volatile Map<String, Integer> profileRanks = enabled
+            ? loadProfile(setting(System.getProperty(PROFILE_PROPERTY), System.getenv(PROFILE_ENVIRONMENT)))
+            : Map.of();
+    private static final Set<String> FIRST_CALLS = RECORD_FILE != null ? new LinkedHashSet<>() : null;
+    private static final AtomicLong PRECOMPILED = new AtomicLong();
+    private static final AtomicLong FAILED = new AtomicLong();
+    private static volatile Thread workerThread;
+
+    static {
+        if (RECORD_FILE != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(LazySubroutinePrecompiler::writeProfile));
+        }
+    }
+
+    /** Runtime-owned queue of placeholders that still hold a compiler supplier. */
+    public static final class State {
+        private final PriorityQueue<Pending> pending = new PriorityQueue<>();
+        private long nextSequence;
+        private boolean drainScheduled;
+    }
+
+    private record Pending(int rank, long sequence, RuntimeCode code) implements Comparable<Pending> {
+        @Override
+        public int compareTo(Pending other) {
+            int byRank = Integer.compare(rank, other.rank);
+            return byRank != 0 ? byRank : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Worker {
+        static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "PerlSubPrecompiler");
+            t.setDaemon(true);  // Never delays JVM exit
+            t.setPriority(Thread.MIN_PRIORITY);
+            workerThread = t;
+            return t;
+        });
+    }
+
+    private LazySubroutinePrecompiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Turn precompilation on with the given profile ranks, as JPERL_PRECOMPILE would. */
+    static void enableForTesting(Map<String, Integer> ranks) {
+        profileRanks = Map.copyOf(ranks);
+        enabled = true;
+    }
+
+    static void disableForTesting() {
+        enabled = false;
+        profileRanks = Map.of();
+    }
+
+    /** Number of placeholders materialized by the background worker. */
+    public static long precompiledCount() {
+        return PRECOMPILED.get();
+    }
+
+    /** Number of background attempts that left the placeholder lazy. */
+    public static long failedCount() {
+        return FAILED.get();
+    }
+
+    /** Queue a placeholder whose supplier has just been installed. */
+    public static void enqueue(RuntimeCode placeholder) {
+        if (!enabled || placeholder == null) return;
+        PerlRuntime runtime = PerlRuntime.currentOrNull();
+        if (runtime == null) return;
+        State state = runtime.precompileState;
+        Integer rank = profileRanks.get(qualifiedName(placeholder));
+        synchronized (state) {
+            state.pending.add(new Pending(
+                    rank != null ? rank : Integer.MAX_VALUE, state.nextSequence++, placeholder));
+        }
+    }
+
+    /**
+     * Start draining the runtime's queue after a compilation unit is complete
+     * or the runtime's last binding is released. At most one drain task per
+     * runtime is outstanding at any time.
+     */
+    public static void scheduleDrain(PerlRuntime runtime) {
+        if (!enabled || runtime == null) return;
+        State state = runtime.precompileState;
+        synchronized (state) {
+            if (state.drainScheduled || state.pending.isEmpty()) return;
+            state.drainScheduled = true;
+        }
+        Worker.EXECUTOR.execute(() -> drain(runtime, state));
+    }
+
+    /** Note a foreground first call for the next run's profile. */
+    public static void recordFirstCall(RuntimeCode placeholder) {
+        if (FIRST_CALLS == null || Thread.currentThread() == workerThread) return;
+        String name = qualifiedName(placeholder);
+        if (name == null) return;
+        synchronized (FIRST_CALLS) {
+            FIRST_CALLS.add(name);
+        }
+    }
+
+    private static void drain(PerlRuntime runtime, State state) {
+        while (true) {
+            Pending next;
+            synchronized (state) {
+                next = state.pending.peek();
+                if (next == null || runtime.isClosed() || runtime.precompileState != state) {
+                    state.pending.clear();
+                    state.drainScheduled = false;
+                    return;
+                }
+            }
+            Supplier<Void> supplier = next.code.compilerSupplier;
+            if (supplier != null && !compileIfIdle(runtime, supplier)) {
+                // Busy: keep the queue for the next release of the runtime
+                synchronized (state) {
+                    state.drainScheduled = false;
+                }
+                // A release before the flag was cleared found a drain still scheduled
+                if (runtime.isIdle()) scheduleDrain(runtime);
+                return;
+            }
+            synchronized (state) {
+                state.pending.remove(next);
+            }
+        }
+    }
+
+    /**
+     * Run one supplier while the runtime is idle. The compilation lock is taken
+     * first, as every compiler does, so a thread that holds it while binding
+     * the runtime cannot wait on this task.
+     */
+    private static boolean compileIfIdle(PerlRuntime runtime, Supplier<Void> supplier) {
+        PerlLanguageProvider.COMPILE_LOCK.lock();
+        try {
+            return runtime.runIfIdle(() -> {
+                try {
+                    supplier.get();
+                    PRECOMPILED.incrementAndGet();
+                } catch (Throwable deferred) {
+                    FAILED.incrementAndGet();
+                }
+            });
+        } finally {
+            PerlLanguageProvider.COMPILE_LOCK.unlock();
+        }
+    }
+
+    private static String qualifiedName(RuntimeCode code) {
+        if (code.subName == null || code.subName.isEmpty()) return null;
+        String pkg = code.packageName == null || code.packageName.isEmpty() ? "main" : code.packageName;
+        return pkg + "::" + code.subName;
+    }
+
+    private static String setting(String propertyValue, String environmentValue) {
+        String value = propertyValue != null ? propertyValue : environmentValue;
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    static Map<String, Integer> loadProfile(String file) {
+        if (file == null) return Map.of();
+        Map<String, Integer> ranks = new HashMap<>();
+        try {
+            for (String line : Files.readAllLines(Path.of(file), StandardCharsets.UTF_8)) {
+                String name = line.strip();
+                if (name.isEmpty() || name.startsWith("#")) continue;
+                ranks.putIfAbsent(name, ranks.size());
+            }
+        } catch (IOException | RuntimeException missing) {
+            // A missing or unreadable profile only loses the ordering hint.
+            return Map.of();
+        }
+        return ranks;
+    }
+
+    private static void writeProfile() {
+        List<String> names;
+        synchronized (FIRST_CALLS) {
+            names = new ArrayList<>(FIRST_CALLS);
+        }
+        try {
+            Files.write(Path.of(RECORD_FILE), names, StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException ignored) {
+            // Profile recording is advisory and must not alter the exit status.
+        }
+    }
+}
@@ -1330,6 +1330,9 @@ public class MortalList {
             refreshBoundaryWork(state);
             return;
         }
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.count(RuntimeMetrics.Counter.MORTAL_FLUSHES);
+        }
         invalidateDrainReachabilityCaches();
         state.flushing = true;
         try {
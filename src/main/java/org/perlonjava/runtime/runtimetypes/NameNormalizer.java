@@ -93,6 +93,22 @@ public class NameNormalizer {
         state().blessIdCache.clear();
     }
 
+    /** Forget the className->id mappings of {@code classNames} only. */
+    public static void invalidateBlessIds(Set<String> classNames) {
+        state().blessIdCache.keySet().removeAll(classNames);
+    }
+
+    /** Every bless id, current or superseded, that names one of {@code classNames}. */
+    public static Set<Integer> blessIdsOf(Set<String> classNames) {
+        Set<Integer> ids = new java.util.HashSet<>();
+        for (Map.Entry<Integer, String> entry : state().blessStrCache.entrySet()) {
+            if (classNames.contains(entry.getValue())) {
+                ids.add(entry.getKey());
+            }
+        }
+        return ids;
+    }
+
     /**
      * Existing objects keep the id they received at bless time, but overload
      * and @ISA edits can change whether their class is overloaded. Method-cache
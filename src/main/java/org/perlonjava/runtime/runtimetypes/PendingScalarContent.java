@@ -0,0 +1,57 @@
+package org.perlonjava.runtime.runtimetypes;
+
+/**
+ * Value of a scalar whose content still sits in an in-memory filehandle's
+ * write buffer.
+ *
+ * <p>{@code open my $fh, '>', \$buf} appends to a growable buffer instead of
+ * rebuilding the String on every print. While output is pending the scalar
+ * holds this object as a {@code TIED_SCALAR} value, so the first read or
+ * assignment — through any path that already honours tie magic — asks the
+ * handle to materialize the buffer and then carries on with the plain scalar.
+ * Unlike a real tie there is no handler object: {@code tied} returns undef and
+ * {@code untie} leaves the scalar alone.</p>
+ */
+public final class PendingScalarContent extends TiedVariableBase {
+
+    /** Owner of the buffered bytes. */
+    public interface Source {
+        /**
+         * Stores the buffered content in the scalar as a byte string and
+         * returns the scalar, which no longer holds this object.
+         */
+        RuntimeScalar materialize();
+
+        /** Returns the buffered content without touching the scalar. */
+        String snapshot();
+    }
+
+    private final Source source;
+
+    public PendingScalarContent(Source source) {
+        super(null, null);
+        this.source = source;
+    }
+
+    /** The buffered content, for copies that must not disturb the handle (thread clones). */
+    public String snapshot() {
+        return source.snapshot();
+    }
+
+    @Override
+    void vivify() {
+        RuntimeScalar content = source.materialize();
+        this.type = content.type;
+        this.value = content.value;
+    }
+
+    @Override
+    public RuntimeScalar fetch() {
+        return new RuntimeScalar(source.materialize());
+    }
+
+    @Override
+    public RuntimeScalar tiedStore(RuntimeScalar v) {
+        return source.materialize().set(v);
+    }
+}
@@ -0,0 +1,241 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.perlonjava.runtime.operators.WarnDie;
+import org.perlonjava.runtime.util.Settings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.perlonjava.runtime.runtimetypes.GlobalVariable.getGlobalVariable;
+
+/**
+ * One child of a Win32-style pseudo-fork: a snapshot clone of the forking
+ * runtime that continues on its own Java thread.
+ *
+ * <p>The child is identified by a negative pseudo-pid, which {@code waitpid},
+ * {@code wait} and {@code kill} recognize. {@code exit} in the child ends only
+ * the child, after its own END blocks; open handles reach the child through
+ * the same shared-transport leases that ithreads use, so either side may close
+ * its copy without closing the other's. A signal whose disposition is DEFAULT
+ * terminates the child with that signal as its wait status.</p>
+ *
+ * <p>The parent's Java call stack cannot be copied, so the caller supplies the
+ * continuation: the part of the forking frame that runs after {@code fork}.
+ * When it returns, the child exits as if it had fallen off the end of the
+ * program.</p>
+ */
+public final class PerlPseudoProcess {
+    static final String ENABLED_PROPERTY = "jperl.pseudo.fork";
+    static final String ENABLED_ENVIRONMENT = "JPERL_PSEUDO_FORK";
+    private static final boolean ENABLED = Settings.isOn(ENABLED_PROPERTY, ENABLED_ENVIRONMENT, true);
+
+    /**
+     * Pseudo-pids and in-process child pids start beyond Linux's
+     * PID_MAX_LIMIT, so that a stale or mistyped one can never name a real
+     * process or process group in kill() or waitpid().
+     */
+    static final int PID_BASE = 1 << 22;
+    private static final AtomicInteger NEXT_PID = new AtomicInteger(1);
+    private static final Map<Integer, PerlPseudoProcess> UNREAPED = new ConcurrentHashMap<>();
+
+    // Signals whose default action terminates the process; numbered as in KillOperator
+    static final Map<String, Integer> FATAL_SIGNALS = Map.ofEntries(
+            Map.entry("HUP", 1), Map.entry("INT", 2), Map.entry("QUIT", 3),
+            Map.entry("ILL", 4), Map.entry("TRAP", 5), Map.entry("ABRT", 6),
+            Map.entry("BUS", 7), Map.entry("FPE", 8), Map.entry("KILL", 9),
+            Map.entry("USR1", 10), Map.entry("SEGV", 11), Map.entry("USR2", 12),
+            Map.entry("PIPE", 13), Map.entry("ALRM", 14), Map.entry("TERM", 15));
+
+    @FunctionalInterface
+    public interface Continuation {
+        /** Run the rest of the forking frame inside the child, given its cloned roots. */
+        void run(List<RuntimeBase> roots) throws Throwable;
+    }
+
+    private final int pid;
+    private final PerlRuntime parent;
+    private final PerlRuntime childRuntime;
+    private final List<RuntimeBase> roots;
+    private final Continuation continuation;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile int waitStatus;
+    private volatile int terminatingSignal;
+    private Thread platformThread;
+
+    private PerlPseudoProcess(PerlRuntime parent, List<? extends RuntimeBase> roots,
+                              Continuation continuation) {
+        this.parent = parent;
+        this.continuation = Objects.requireNonNull(continuation, "continuation");
+        this.pid = -(PID_BASE + NEXT_PID.getAndIncrement());
+        PerlThreadRegistry registry = parent.threadRegistry();
+        PerlRuntime.RootSnapshot snapshot = parent.snapshotCloneForThread(
+                registry, registry.allocateId(), roots);
+        this.childRuntime = snapshot.runtime();
+        this.roots = snapshot.roots();
+        childRuntime.setPerlThreadExitOnly(false);
+        childRuntime.setPseudoProcess(this);
+        try (PerlRuntime.Binding ignored = childRuntime.bind()) {
+            getGlobalVariable("main::$").set(pid);
+        }
+    }
+
+    /** Whether fork() may create pseudo-processes; JPERL_PSEUDO_FORK=0 turns it off. */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Clone the current runtime together with {@code roots} and run
+     * {@code continuation} in the clone on a new thread.
+     */
+    public static PerlPseudoProcess start(List<? extends RuntimeBase> roots, Continuation continuation) {
+        PerlPseudoProcess child = new PerlPseudoProcess(PerlRuntime.current(), roots, continuation);
+        UNREAPED.put(child.pid, child);
+        child.platformThread = PerlThreadExecutionPolicy.configured()
+                .unstarted(child.childRuntime.perlThreadId(), child::run);
+        child.platformThread.start();
+        return child;
+    }
+
+    /** Whether {@code pid} lies in the range handed out to pseudo-processes. */
+    public static boolean isPseudoPid(long pid) {
+        return pid <= -PID_BASE;
+    }
+
+    /** The unreaped pseudo-process with this pid, or null. */
+    public static PerlPseudoProcess find(long pid) {
+        return isPseudoPid(pid) ? UNREAPED.get((int) pid) : null;
+    }
+
+    /** Unreaped pseudo-children of the current runtime, oldest first. */
+    public static List<PerlPseudoProcess> children() {
+        PerlRuntime current = PerlRuntime.current();
+        List<PerlPseudoProcess> result = new ArrayList<>();
+        for (PerlPseudoProcess child : UNREAPED.values()) {
+            if (child.parent == current) result.add(child);
+        }
+        result.sort((a, b) -> Integer.compare(b.pid, a.pid));
+        return result;
+    }
+
+    /**
+     * Block until every pseudo-process has finished. The CLI calls this before
+     * the JVM exits, as a Win32 parent waits for its pseudo-children.
+     */
+    public static void awaitAll() {
+        for (PerlPseudoProcess child : new ArrayList<>(UNREAPED.values())) {
+            try {
+                child.finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called for a queued signal whose disposition is DEFAULT, and for every
+     * KILL: inside a pseudo-process or an in-process jperl child a fatal
+     * signal ends the child, as it would end a process.
+     */
+    public static void terminateOnSignal(String signal) {
+        Integer number = FATAL_SIGNALS.get(signal);
+        if (number == null) return;
+        PerlRuntime runtime = PerlRuntime.current();
+        PerlPseudoProcess pseudoProcess = runtime.pseudoProcess();
+        JperlChildProcess jperlChild = runtime.jperlChild();
+        if (pseudoProcess != null) {
+            pseudoProcess.terminatingSignal = number;
+        } else if (jperlChild != null) {
+            jperlChild.terminatingSignal = number;
+        } else {
+            return;
+        }
+        throw new PerlExitException(128 + number);
+    }
+
+    /** Report an uncaught die on STDERR and return the exit status it ends the child with. */
+    static int dieExitStatus(Throwable failure) {
+        RuntimeIO.getStderr().write(ErrorMessageUtil.stringifyException(failure));
+        return dieExitStatus(getGlobalVariable("main::!").getInt(), getGlobalVariable("main::?").getInt());
+    }
+
+    /**
+     * The exit status perl uses for an uncaught die: {@code $!} if set, else
+     * {@code $? >> 8} if set, else 255.
+     */
+    public static int dieExitStatus(int errno, int childStatus) {
+        int childError = childStatus >> 8;
+        return (errno != 0 ? errno : childError != 0 ? childError : 255) & 0xFF;
+    }
+
+    public int pid() { return pid; }
+    public boolean isFinished() { return finished.getCount() == 0; }
+
+    /** The child's wait status, in the format of {@code $?}; valid once finished. */
+    public int waitStatus() { return waitStatus; }
+
+    /** Wait up to {@code timeoutMillis} (forever when negative) for the child to finish. */
+    public boolean await(long timeoutMillis) throws InterruptedException {
+        if (timeoutMillis < 0) {
+            finished.await();
+            return true;
+        }
+        return finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Forget a finished child once its status has been collected. */
+    public void reap() {
+        UNREAPED.remove(pid, this);
+    }
+
+    /** Deliver {@code signal} to the child at its next safe point. */
+    public boolean signal(String signal) {
+        if (isFinished()) return false;
+        PerlSignalQueue.enqueue(childRuntime.signalState, signal);
+        Thread javaThread = platformThread;
+        if (javaThread != null) javaThread.interrupt();
+        return true;
+    }
+
+    private void run() {
+        int status;
+        try {
+            status = childRuntime.execute(() -> {
+                try {
+                    runToExit();
+                } catch (PerlExitException exit) {
+                    return terminatingSignal != 0 ? terminatingSignal
+                            : (exit.getExitCode() & 0xFF) << 8;
+                }
+                throw new IllegalStateException("exit() returned");
+            });
+        } catch (Throwable failure) {
+            status = 255 << 8;
+        }
+        waitStatus = status;
+        try {
+            childRuntime.close();
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    /** Run the continuation, then exit the child the way a program ends. */
+    private void runToExit() {
+        try {
+            continuation.run(roots);
+        } catch (PerlExitException exit) {
+            throw exit;
+        } catch (Throwable failure) {
+            WarnDie.exit(new RuntimeScalar(dieExitStatus(failure)));
+        }
+        WarnDie.exit(new RuntimeScalar(0));
+    }
+}
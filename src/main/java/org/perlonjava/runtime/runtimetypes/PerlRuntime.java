@@ -58,11 +58,14 @@ public final class PerlRuntime implements AutoCloseable {
     private volatile boolean closed;
     private volatile boolean resetting;
     private volatile Thread resetOwner;
+    private Thread idleTaskOwner; // guarded by lifecycleMonitor
     private final PerlThreadRegistry threadRegistry;
     private final long perlThreadId;
     private volatile int perlThreadContext = RuntimeContextType.SCALAR;
     private volatile long perlThreadStackSize;
     private volatile boolean perlThreadExitOnly;
+    private volatile PerlPseudoProcess pseudoProcess;
+    private volatile JperlChildProcess jperlChild;
 
     public ExecutionRuntimeState executionState = new ExecutionRuntimeState();
     public RuntimeRegexState regexState = new RuntimeRegexState();
@@ -120,6 +123,8 @@ public final class PerlRuntime implements AutoCloseable {
     final Map<String, Boolean> stateVariableInitialized = new HashMap<>();
     LifecycleRuntimeState lifecycleState = new LifecycleRuntimeState();
     NameNormalizer.State nameNormalizerState = new NameNormalizer.State();
+    LazySubroutinePrecompiler.State precompileState = new LazySubroutinePrecompiler.State();
+    final RuntimeMetrics metrics = new RuntimeMetrics();
 
     public PerlRuntime() {
         this(new PerlThreadRegistry(), 0);
@@ -156,6 +161,7 @@ public final class PerlRuntime implements AutoCloseable {
         ioStdout.globName = "main::STDOUT";
         ioStderr.globName = "main::STDERR";
         ioStdin.globName = "main::STDIN";
+        metrics.register(this);
     }
 
     /** Make replay-child output visible once execution reaches its fork point. */
@@ -235,6 +241,7 @@ public final class PerlRuntime implements AutoCloseable {
             if (resetting && resetOwner != Thread.currentThread()) {
                 throw new IllegalStateException("PerlRuntime is resetting");
             }
+            awaitIdleTask();
             activeBindings.incrementAndGet();
         }
         BindingFrame frame = new BindingFrame(this, CURRENT.get());
@@ -242,6 +249,51 @@ public final class PerlRuntime implements AutoCloseable {
         return new Binding(frame, Thread.currentThread(), this);
     }
 
+    /** Wait, holding lifecycleMonitor, until no other thread runs an idle-time task here. */
+    private void awaitIdleTask() {
+        boolean interrupted = false;
+        while (idleTaskOwner != null && idleTaskOwner != Thread.currentThread()) {
+            try {
+                lifecycleMonitor.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Run {@code task} bound to this runtime, but only while no thread executes
+     * in it or holds a binding. A thread that binds meanwhile waits until the
+     * task returns. Returns false, without running the task, when the runtime
+     * is busy, closed or resetting.
+     */
+    boolean runIfIdle(Runnable task) {
+        if (!executionLock.tryLock()) return false;
+        try {
+            synchronized (lifecycleMonitor) {
+                if (closed || resetting || activeBindings.get() != 0) return false;
+                idleTaskOwner = Thread.currentThread();
+            }
+            try (Binding ignored = bind()) {
+                task.run();
+            } finally {
+                synchronized (lifecycleMonitor) {
+                    idleTaskOwner = null;
+                    lifecycleMonitor.notifyAll();
+                }
+            }
+            return true;
+        } finally {
+            executionLock.unlock();
+        }
+    }
+
+    /** Whether no thread currently executes in this runtime or holds a binding. */
+    boolean isIdle() {
+        return !executionLock.isLocked() && activeBindings.get() == 0;
+    }
+
     /** Convenience form for {@code runtime.bind()}. */
     public static Binding bind(PerlRuntime runtime) {
         return Objects.requireNonNull(runtime, "runtime").bind();
@@ -277,6 +329,15 @@ public final class PerlRuntime implements AutoCloseable {
         return runtimeCodeState;
     }
 
+    public RuntimeMetrics metrics() {
+        return metrics;
+    }
+
+    /** Held while a copy-on-read child clones from this runtime's graph. */
+    ReentrantLock snapshotSourceLock() {
+        return executionLock;
+    }
+
     public PerlThreadRegistry threadRegistry() {
         return threadRegistry;
     }
@@ -293,6 +354,14 @@ public final class PerlRuntime implements AutoCloseable {
     public void setDefaultPerlThreadStackSize(long size) { threadRegistry.setDefaultStackSize(size); }
     public boolean perlThreadExitOnly() { return perlThreadExitOnly; }
     public void setPerlThreadExitOnly(boolean value) { perlThreadExitOnly = value; }
+    /** The pseudo-fork child this runtime runs as, or null in an ordinary runtime. */
+    public PerlPseudoProcess pseudoProcess() { return pseudoProcess; }
+    public void setPseudoProcess(PerlPseudoProcess value) { pseudoProcess = value; }
+    /** The in-process jperl child this runtime runs as, or null in an ordinary runtime. */
+    public JperlChildProcess jperlChild() { return jperlChild; }
+    public void setJperlChild(JperlChildProcess value) { jperlChild = value; }
+    /** Whether this runtime stands in for a child process, so exiting it must not end the JVM. */
+    public boolean isChildInSharedJvm() { return pseudoProcess != null || jperlChild != null; }
     public boolean defaultPerlThreadExitOnly() { return threadRegistry.defaultExitOnly(); }
     public void setDefaultPerlThreadExitOnly(boolean value) { threadRegistry.setDefaultExitOnly(value); }
 
@@ -332,6 +401,7 @@ public final class PerlRuntime implements AutoCloseable {
             }
         } finally {
             executionLock.unlock();
+            scheduleIdleWork();
         }
     }
 
@@ -418,13 +488,26 @@ public final class PerlRuntime implements AutoCloseable {
      * lifecycle, alarm, signal, native and I/O state starts fresh in the child.
      */
     public PerlRuntime snapshotClone() {
-        return snapshotCloneInternal(new PerlThreadRegistry(), 0, java.util.List.of()).runtime();
+        return snapshotCloneInternal(new PerlThreadRegistry(), 0, java.util.List.of(), false).runtime();
     }
 
     /** Snapshot this runtime and clone additional non-global roots through the same graph map. */
     public RootSnapshot snapshotCloneWithRoots(java.util.List<? extends RuntimeBase> roots) {
         Objects.requireNonNull(roots, "roots");
-        return snapshotCloneInternal(new PerlThreadRegistry(), 0, roots);
+        return snapshotCloneInternal(new PerlThreadRegistry(), 0, roots, false);
+    }
+
+    /**
+     * Like {@link #snapshotCloneWithRoots}, but package variables, CODE slots
+     * and compiled CV ids are cloned into the child on first access instead of
+     * up front. Only valid for a template that runs no further Perl code of
+     * its own: the child clones a slot from whatever the source holds when the
+     * slot is first read. Roots, named I/O and compile-time hints are still
+     * copied eagerly.
+     */
+    public RootSnapshot copyOnReadSnapshotWithRoots(java.util.List<? extends RuntimeBase> roots) {
+        Objects.requireNonNull(roots, "roots");
+        return snapshotCloneInternal(new PerlThreadRegistry(), 0, roots, true);
     }
 
     public record RootSnapshot(PerlRuntime runtime, java.util.List<RuntimeBase> roots) {}
@@ -432,12 +515,12 @@ public final class PerlRuntime implements AutoCloseable {
     RootSnapshot snapshotCloneForThread(
             PerlThreadRegistry registry, long threadId,
             java.util.List<? extends RuntimeBase> roots) {
-        return snapshotCloneInternal(registry, threadId, roots);
+        return snapshotCloneInternal(registry, threadId, roots, false);
     }
 
     private RootSnapshot snapshotCloneInternal(
             PerlThreadRegistry registry, long threadId,
-            java.util.List<? extends RuntimeBase> roots) {
+            java.util.List<? extends RuntimeBase> roots, boolean copyOnRead) {
         executionLock.lock();
         try {
             if (closed) throw new IllegalStateException("PerlRuntime is closed");
@@ -459,7 +542,7 @@ public final class PerlRuntime implements AutoCloseable {
             nameNormalizerState.snapshotInto(child.nameNormalizerState);
             RuntimeGraphCloner cloner = new RuntimeGraphCloner(this, child, skipped);
             try (Binding ignored = bind()) {
-                globalState.snapshotInto(child.globalState, cloner);
+                globalState.snapshotInto(child.globalState, cloner, copyOnRead);
                 cloner.cloneCompilationHints(compilationState, child.compilationState);
                 runtimeCodeState.snapshotCompiledMetadataInto(child.runtimeCodeState);
                 regexState.snapshotInto(child.regexState);
@@ -557,6 +640,7 @@ public final class PerlRuntime implements AutoCloseable {
                 pointerPackState.clear();
                 referenceAddresses.clear();
             }
+            metrics.unregister();
             closed = true;
         } finally {
             executionLock.unlock();
@@ -576,6 +660,7 @@ public final class PerlRuntime implements AutoCloseable {
         Time.cancelCurrentAlarm();
         PerlSignalQueue.clearSignals();
         RuntimeIO.closeAllHandles();
+        ioRegistryState.closeReadiness();
         NetSSLeay.resetState();
         MortalList.clearCurrentRuntimeState();
     }
@@ -600,6 +685,7 @@ public final class PerlRuntime implements AutoCloseable {
         nativeState = new ExtendedNativeUtils.State();
         lifecycleState = new LifecycleRuntimeState();
         nameNormalizerState = new NameNormalizer.State();
+        precompileState = new LazySubroutinePrecompiler.State();
 
         flipFlopState.clear();
         scalarGlobState.clear();
@@ -617,6 +703,8 @@ public final class PerlRuntime implements AutoCloseable {
         perlThreadContext = RuntimeContextType.SCALAR;
         perlThreadStackSize = 0;
         perlThreadExitOnly = false;
+        pseudoProcess = null;
+        jperlChild = null;
         resetStandardIOState();
     }
 
@@ -645,6 +733,14 @@ public final class PerlRuntime implements AutoCloseable {
 
     private void releaseBinding() {
         activeBindings.decrementAndGet();
+        scheduleIdleWork();
+    }
+
+    /** Once nothing executes here any more, start work deferred while the runtime was busy. */
+    private void scheduleIdleWork() {
+        if (LazySubroutinePrecompiler.isEnabled() && isIdle()) {
+            LazySubroutinePrecompiler.scheduleDrain(this);
+        }
     }
 
     void sharedLockAcquired() { activeSharedLocks.incrementAndGet(); }
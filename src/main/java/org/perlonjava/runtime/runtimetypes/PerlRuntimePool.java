@@ -1,19 +1,39 @@
 package org.perlonjava.runtime.runtimetypes;
 
+import org.perlonjava.runtime.util.Settings;
+
+import javax.management.ObjectName;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /** A bounded, explicitly owned pool of independent {@link PerlRuntime}s. */
 public final class PerlRuntimePool implements AutoCloseable {
     public static final String SIZE_PROPERTY = "jperl.runtime.pool.size";
     public static final String SIZE_ENVIRONMENT = "JPERL_RUNTIME_POOL_SIZE";
+    public static final String COPY_ON_READ_PROPERTY = "jperl.runtime.pool.cow";
+    public static final String COPY_ON_READ_ENVIRONMENT = "JPERL_RUNTIME_POOL_COW";
+    public static final String MAX_REQUESTS_PROPERTY = "jperl.runtime.pool.max.requests";
+    public static final String MAX_REQUESTS_ENVIRONMENT = "JPERL_RUNTIME_POOL_MAX_REQUESTS";
+    public static final String MAX_HEAP_PROPERTY = "jperl.runtime.pool.max.heap";
+    public static final String MAX_HEAP_ENVIRONMENT = "JPERL_RUNTIME_POOL_MAX_HEAP";
+
+    /** First and longest delay before a failed background refill is retried. */
+    static final long REFILL_RETRY_MIN_MILLIS = 50;
+    static final long REFILL_RETRY_MAX_MILLIS = 5_000;
 
     @FunctionalInterface
     public interface Recycler {
@@ -23,25 +43,63 @@ public final class PerlRuntimePool implements AutoCloseable {
     private final int capacity;
     private final Supplier<PerlRuntime> factory;
     private final Recycler recycler;
+    private final Predicate<PerlRuntime> retain;
+    private final ScheduledExecutorService refiller;
     private final ArrayBlockingQueue<PerlRuntime> available;
     private final Set<PerlRuntime> checkedOut =
             Collections.newSetFromMap(new IdentityHashMap<>());
     private final Object ownershipMonitor = new Object();
     private final AtomicBoolean closed = new AtomicBoolean();
 
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong createNanos = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+    private final AtomicLong recycleNanos = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong refillFailures = new AtomicLong();
+    private final AtomicLong checkouts = new AtomicLong();
+    private final AtomicLong checkoutWaits = new AtomicLong();
+    private final AtomicLong checkoutWaitNanos = new AtomicLong();
+    private final ObjectName objectName;
+
     public PerlRuntimePool(int capacity) {
         this(capacity, () -> new PerlRuntime().initialize(), runtime -> runtime.reset());
     }
 
     public PerlRuntimePool(int capacity, Supplier<PerlRuntime> factory, Recycler recycler) {
+        this(capacity, factory, Objects.requireNonNull(recycler, "recycler"), null, false);
+    }
+
+    /**
+     * A pool of persistent workers. A returned runtime goes straight back to
+     * the pool while {@code retain} accepts it; otherwise it is closed and its
+     * slot is refilled from {@code factory}. With {@code asyncRefill} the
+     * refill runs on a dedicated daemon thread, so neither the returning
+     * request nor a later checkout waits for the replacement to be built.
+     * A refill that fails is retried with a growing delay until it succeeds
+     * or the pool is closed, so a transient failure never shrinks the pool.
+     */
+    public PerlRuntimePool(int capacity, Supplier<PerlRuntime> factory,
+                           Predicate<PerlRuntime> retain, boolean asyncRefill) {
+        this(capacity, factory, null, Objects.requireNonNull(retain, "retain"), asyncRefill);
+    }
+
+    private PerlRuntimePool(int capacity, Supplier<PerlRuntime> factory, Recycler recycler,
+                            Predicate<PerlRuntime> retain, boolean asyncRefill) {
         if (capacity < 0) throw new IllegalArgumentException("Runtime pool size must not be negative");
         this.capacity = capacity;
         this.factory = Objects.requireNonNull(factory, "factory");
-        this.recycler = Objects.requireNonNull(recycler, "recycler");
+        this.recycler = recycler;
+        this.retain = retain;
         this.available = capacity == 0 ? null : new ArrayBlockingQueue<>(capacity);
         for (int i = 0; i < capacity; i++) {
             available.add(newRuntime());
         }
+        this.refiller = asyncRefill && capacity != 0
+                ? Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().daemon(true).name("perl-runtime-refill").factory())
+                : null;
+        this.objectName = RuntimeMetrics.registerBean("PerlRuntimePool", this::stats);
     }
 
     /** Resolve the process-wide pool size. The safe default is disabled. */
@@ -49,19 +107,49 @@ public final class PerlRuntimePool implements AutoCloseable {
         return resolveSize(System.getProperty(SIZE_PROPERTY), System.getenv(SIZE_ENVIRONMENT));
     }
 
-    static int resolveSize(String propertyValue, String environmentValue) {
-        String value = propertyValue != null ? propertyValue : environmentValue;
-        if (value == null || value.isBlank()) return 0;
-        final int size;
-        try {
-            size = Integer.parseInt(value.strip());
-        } catch (NumberFormatException invalid) {
-            throw new IllegalArgumentException(
-                    "Invalid Perl runtime pool size '" + value + "'; expected a non-negative integer",
-                    invalid);
+    /** Whether pooled application snapshots clone package data on first access. */
+    public static boolean configuredCopyOnRead() {
+        return Settings.isOn(COPY_ON_READ_PROPERTY, COPY_ON_READ_ENVIRONMENT, false);
+    }
+
+    /**
+     * Requests a pooled application runtime serves before it is replaced.
+     * The default of one keeps every request on a fresh snapshot.
+     */
+    public static int configuredMaxRequests() {
+        return resolveMaxRequests(System.getProperty(MAX_REQUESTS_PROPERTY),
+                System.getenv(MAX_REQUESTS_ENVIRONMENT));
+    }
+
+    /**
+     * Heap occupancy, in percent of the maximum heap, at or above which a
+     * persistent runtime is replaced instead of reused. Zero disables the check.
+     */
+    public static int configuredMaxHeapPercent() {
+        int percent = Settings.nonNegative(MAX_HEAP_PROPERTY, MAX_HEAP_ENVIRONMENT,
+                "Perl runtime pool heap threshold", 0);
+        if (percent > 100) {
+            throw new IllegalArgumentException("Runtime pool heap threshold must not exceed 100");
         }
-        if (size < 0) throw new IllegalArgumentException("Runtime pool size must not be negative");
-        return size;
+        return percent;
+    }
+
+    /** Current heap occupancy of the JVM, in percent of its maximum heap. */
+    public static int heapUsedPercent() {
+        Runtime jvm = Runtime.getRuntime();
+        long used = jvm.totalMemory() - jvm.freeMemory();
+        return (int) (used * 100 / jvm.maxMemory());
+    }
+
+    static int resolveSize(String propertyValue, String environmentValue) {
+        return Settings.parseNonNegative(propertyValue, environmentValue, "Perl runtime pool size", 0);
+    }
+
+    static int resolveMaxRequests(String propertyValue, String environmentValue) {
+        int requests = Settings.parseNonNegative(propertyValue, environmentValue,
+                "Perl runtime pool request limit", 1);
+        if (requests == 0) throw new IllegalArgumentException("Runtime pool request limit must be positive");
+        return requests;
     }
 
     public int capacity() {
@@ -83,8 +171,15 @@ public final class PerlRuntimePool implements AutoCloseable {
 
         PerlRuntime runtime;
         boolean pooled = capacity != 0;
+        checkouts.incrementAndGet();
         if (pooled) {
-            runtime = available.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            runtime = available.poll();
+            if (runtime == null) {
+                long start = System.nanoTime();
+                checkoutWaits.incrementAndGet();
+                runtime = available.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+                checkoutWaitNanos.addAndGet(System.nanoTime() - start);
+            }
             if (runtime == null) throw new IllegalStateException("Timed out waiting for a Perl runtime");
         } else {
             runtime = newRuntime();
@@ -102,9 +197,13 @@ public final class PerlRuntimePool implements AutoCloseable {
     }
 
     private PerlRuntime newRuntime() {
+        long start = System.nanoTime();
         PerlRuntime runtime = Objects.requireNonNull(factory.get(), "runtime factory returned null");
         if (runtime.isClosed()) throw new IllegalStateException("Runtime factory returned a closed runtime");
-        return runtime.isInitialized() ? runtime : runtime.initialize();
+        runtime = runtime.isInitialized() ? runtime : runtime.initialize();
+        created.incrementAndGet();
+        createNanos.addAndGet(System.nanoTime() - start);
+        return runtime;
     }
 
     private void release(PerlRuntime runtime, boolean pooled) {
@@ -118,10 +217,34 @@ public final class PerlRuntimePool implements AutoCloseable {
             return;
         }
 
+        if (recycler == null) {
+            boolean keep;
+            try {
+                keep = retain.test(runtime) && !runtime.isClosed();
+            } catch (RuntimeException retainFailure) {
+                keep = false;
+            }
+            if (keep) {
+                reused.incrementAndGet();
+                offer(runtime);
+                return;
+            }
+            runtime.close();
+            if (refiller != null) {
+                refiller.execute(() -> refillInBackground(REFILL_RETRY_MIN_MILLIS));
+            } else {
+                offer(newRuntime());
+            }
+            return;
+        }
+
         PerlRuntime reusable = null;
+        long start = System.nanoTime();
         try {
             reusable = Objects.requireNonNull(recycler.recycle(runtime), "runtime recycler returned null");
             if (reusable.isClosed()) throw new IllegalStateException("Runtime recycler returned a closed runtime");
+            recycled.incrementAndGet();
+            recycleNanos.addAndGet(System.nanoTime() - start);
         } catch (Throwable resetFailure) {
             runtime.close();
             try {
@@ -131,16 +254,67 @@ public final class PerlRuntimePool implements AutoCloseable {
                 throw new IllegalStateException("Failed to recycle and replace a Perl runtime", resetFailure);
             }
         }
+        offer(reusable);
+    }
 
+    private void offer(PerlRuntime reusable) {
         if (closed.get() || !available.offer(reusable)) {
             reusable.close();
             if (!closed.get()) throw new IllegalStateException("Perl runtime pool overflow");
+        } else if (closed.get() && available.remove(reusable)) {
+            // close() drained the queue between the check and the offer
+            reusable.close();
         }
     }
 
+    private void refillInBackground(long retryMillis) {
+        if (closed.get()) return;
+        PerlRuntime runtime;
+        try {
+            runtime = newRuntime();
+        } catch (Throwable failure) {
+            refillFailures.incrementAndGet();
+            if (closed.get()) return;
+            System.err.println("Warning: failed to refill Perl runtime pool slot, retrying in "
+                    + retryMillis + "ms: " + failure);
+            long nextMillis = Math.min(retryMillis * 2, REFILL_RETRY_MAX_MILLIS);
+            try {
+                refiller.schedule(() -> refillInBackground(nextMillis), retryMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shutDown) {
+                // close() won the race; the slot no longer matters
+            }
+            return;
+        }
+        offer(runtime);
+    }
+
+    /**
+     * Cumulative pool counters: runtimes built and the time spent building
+     * them (snapshot clones for the PSGI pool), recycles, persistent reuses,
+     * failed background refills, and how many checkouts had to wait for a
+     * runtime and for how long.
+     */
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("capacity", (long) capacity);
+        stats.put("available", (long) availableCount());
+        stats.put("created", created.get());
+        stats.put("create_nanos", createNanos.get());
+        stats.put("recycled", recycled.get());
+        stats.put("recycle_nanos", recycleNanos.get());
+        stats.put("reused", reused.get());
+        stats.put("refill_failures", refillFailures.get());
+        stats.put("checkouts", checkouts.get());
+        stats.put("checkout_waits", checkoutWaits.get());
+        stats.put("checkout_wait_nanos", checkoutWaitNanos.get());
+        return stats;
+    }
+
     @Override
     public void close() {
         if (!closed.compareAndSet(false, true)) return;
+        RuntimeMetrics.unregisterBean(objectName);
+        if (refiller != null) refiller.shutdown();
         if (available != null) {
             PerlRuntime runtime;
             while ((runtime = available.poll()) != null) runtime.close();
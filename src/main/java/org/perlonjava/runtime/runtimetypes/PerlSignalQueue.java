@@ -72,9 +72,14 @@ public class PerlSignalQueue {
                 handler = GlobalVariable.getGlobalHash("main::SIG").get(event.signal);
             }
             String disposition = handler == null ? "" : handler.toString();
+            if ("KILL".equals(event.signal)) {
+                // KILL cannot be caught or ignored
+                PerlPseudoProcess.terminateOnSignal(event.signal);
+            }
             if ("IGNORE".equals(disposition)) continue;
             if (handler == null || !handler.getDefinedBoolean()
                     || disposition.isEmpty() || "DEFAULT".equals(disposition)) {
+                PerlPseudoProcess.terminateOnSignal(event.signal);
                 continue;
             }
             RuntimeArray args = new RuntimeArray();
@@ -105,6 +105,19 @@ public class ReachabilityWalker {
      * @return the set of reachable RuntimeBase instances
      */
     public Set<RuntimeBase> walk() {
+        if (!RuntimeMetrics.ENABLED) {
+            return walkFromRoots();
+        }
+        long start = System.nanoTime();
+        try {
+            return walkFromRoots();
+        } finally {
+            RuntimeMetrics.time(RuntimeMetrics.Counter.REACHABILITY_WALKS,
+                    RuntimeMetrics.Counter.REACHABILITY_WALK_NANOS, start);
+        }
+    }
+
+    private Set<RuntimeBase> walkFromRoots() {
         java.util.ArrayDeque<RuntimeBase> todo = new java.util.ArrayDeque<>();
 
         // Phase 1: seed globalCodeRefs, walk WITH captures.
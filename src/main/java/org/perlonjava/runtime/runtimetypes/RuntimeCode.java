@@ -632,8 +632,9 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
      * 5. On cache miss, we do full method resolution and update the cache.
      * 
      * Cache invalidation:
-     * When @ISA changes or methods are redefined, InheritanceResolver.invalidateCache()
-     * calls clearInlineMethodCache() to clear all cached entries.
+     * When @ISA changes, InheritanceResolver.invalidateCache() calls
+     * clearInlineMethodCache() to clear all cached entries. Redefining a method
+     * only evicts the entries of its class and subclasses (evictInlineMethodCache).
      * 
      * This optimization provides ~50% speedup for method-heavy code like:
      *   while ($i < 10000) { $obj->method($arg); $i++ }
@@ -649,6 +650,13 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
         PerlRuntime.current().runtimeCodeState().clearInlineMethodCache();
     }
 
+    /**
+     * Drop the inline cache entries recorded for objects blessed with one of {@code blessIds}.
+     */
+    public static void evictInlineMethodCache(Set<Integer> blessIds) {
+        PerlRuntime.current().runtimeCodeState().evictInlineMethods(blessIds);
+    }
+
     public static int effectiveCallContext(int callContext) {
         return callContext == RuntimeContextType.LVALUE || callContext == RuntimeContextType.OBJECT
                 ? RuntimeContextType.SCALAR
@@ -1127,8 +1135,9 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
     public Map<String, RuntimeArray> stateArray = new HashMap<>();
     public Map<String, RuntimeHash> stateHash = new HashMap<>();
     public RuntimeList constantValue;
-    // Field to hold the thread compiling this code
-    public Supplier<Void> compilerSupplier;
+    // Field to hold the thread compiling this code. Volatile: the supplier clears it
+    // after publishing subroutine/codeObject, possibly from the precompiler thread.
+    public volatile Supplier<Void> compilerSupplier;
     // Self-reference for __SUB__ (set after construction for InterpretedCode)
     public RuntimeScalar __SUB__;
 
@@ -2170,6 +2179,28 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
      * @throws Exception if an error occurs during compilation
      */
     public static Class<?> evalStringHelper(RuntimeScalar code, String evalTag, Object[] runtimeValues) throws Exception {
+        try {
+            return evalStringHelper(code, evalTag, runtimeValues, true, null);
+        } catch (EvalTemplateRejected rejected) {
+            // The literal-normalized template did not compile. Recompile the
+            // original text under the same "(eval N)" name so $@ describes
+            // the caller's source, not the template.
+            return evalStringHelper(code, evalTag, runtimeValues, false, rejected.fileName);
+        }
+    }
+
+    /** Unwinds a failed template compilation so the original source is compiled instead. */
+    private static final class EvalTemplateRejected extends RuntimeException {
+        final String fileName;
+
+        EvalTemplateRejected(String fileName) {
+            super(null, null, false, false);
+            this.fileName = fileName;
+        }
+    }
+
+    private static Class<?> evalStringHelper(RuntimeScalar code, String evalTag, Object[] runtimeValues,
+                                             boolean allowTemplate, String reservedFileName) throws Exception {
 
         try (PerlRuntime.Binding runtimeBinding = PerlRuntime.current().bind();
              PerlLanguageProvider.CompilationLockGuard ignored =
@@ -2271,15 +2302,31 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
             boolean isDebugging = debugFlags != 0;
 
             // Always generate a unique filename for each eval to prevent source location collisions
-            String actualFileName = getNextEvalFilename();
+            String actualFileName = reservedFileName != null ? reservedFileName : getNextEvalFilename();
             evalCompilerOptions.fileName = actualFileName;
 
+            // Generated accessors differ only in their literals. Key the cache
+            // on the literal-normalized template when the source allows it.
+            RuntimeCodeRuntimeState codeState = PerlRuntime.current().runtimeCodeState();
+            EvalLiteralNormalizer.Template template = null;
+            if (allowTemplate && !isDebugging && !hasUnicode && !ctx.isEvalbytes) {
+                template = EvalLiteralNormalizer.normalize(evalString);
+                if (template != null) {
+                    synchronized (codeState.rejectedEvalTemplates) {
+                        if (codeState.rejectedEvalTemplates.containsKey(template.source())) {
+                            template = null;
+                        }
+                    }
+                }
+            }
+            String compiledSource = template != null ? template.source() : evalString;
+
             // Check if the result is already cached (include hasUnicode, isEvalbytes, byte-string-source, feature flags, and package in cache key)
             // Skip caching when $^P is set, so each eval gets a unique filename
             // Include package name in cache key to ensure source location info is correct per-package
             int featureFlags = ctx.symbolTable.featureFlagsStack.peek();
             String currentPackage = ctx.symbolTable.getCurrentPackage();
-            String cacheKey = evalString + '\0' + evalTag + '\0' + hasUnicode + '\0' + ctx.isEvalbytes + '\0' + evalbytesUtf8Source + '\0' + byteStringUtf8Source + '\0' + isByteStringSource + '\0' + featureFlags + '\0' + currentPackage;
+            String cacheKey = compiledSource + '\0' + evalTag + '\0' + hasUnicode + '\0' + ctx.isEvalbytes + '\0' + evalbytesUtf8Source + '\0' + byteStringUtf8Source + '\0' + isByteStringSource + '\0' + featureFlags + '\0' + currentPackage;
             Class<?> cachedClass = null;
             if (!isDebugging) {
                 Map<String, Class<?>> runtimeEvalCache = evalCache();
@@ -2290,8 +2337,19 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
                 }
 
                 if (cachedClass != null) {
+                    if (template != null) {
+                        codeState.evalTemplateHits++;
+                        codeState.pendingEvalConstants = template.constants();
+                    } else {
+                        codeState.evalCacheHits++;
+                    }
                     return cachedClass;
                 }
+                if (template != null) {
+                    codeState.evalTemplateMisses++;
+                } else {
+                    codeState.evalCacheMisses++;
+                }
             }
 
             // IMPORTANT: The eval call site (EmitEval) computes the constructor signature from
@@ -2413,7 +2471,7 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
             // evalCtx.logDebug("evalStringHelper Code: " + code);
 
             // Process the string source code to create the LexerToken list
-            Lexer lexer = new Lexer(evalString);
+            Lexer lexer = new Lexer(compiledSource);
             List<LexerToken> tokens = lexer.tokenize(); // Tokenize the Perl code
             Node ast = null;
             Class<?> generatedClass;
@@ -2461,6 +2519,17 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
             } catch (Throwable e) {
                 // Compilation error in eval-string
 
+                if (template != null) {
+                    // Report errors against the caller's text. Sources with
+                    // BEGIN-time constructs are never templated, so the retry
+                    // cannot run an import or a BEGIN block a second time.
+                    synchronized (codeState.rejectedEvalTemplates) {
+                        codeState.rejectedEvalTemplates.put(template.source(), Boolean.TRUE);
+                    }
+                    codeState.evalTemplateRejects++;
+                    throw new EvalTemplateRejected(actualFileName);
+                }
+
                 // Set the global error variable "$@"
                 RuntimeScalar err = GlobalVariable.getGlobalVariable("main::@");
                 // A BEGIN block can die with a blessed error object (for
@@ -2569,6 +2638,9 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
                     runtimeEvalCache.put(cacheKey, generatedClass);
                 }
             }
+            if (template != null) {
+                codeState.pendingEvalConstants = template.constants();
+            }
 
             return generatedClass;
         } finally {
@@ -3531,6 +3603,14 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
                             callsiteId, blessId, methodHash);
                     if (cachedCode != null
                             && (cachedCode.subroutine != null || cachedCode.methodHandle != null)) {
+                            // Java-implemented slot accessors need no frame at all
+                            if (cachedCode.subroutine instanceof FastAccessor fast
+                                    && cachedCode.boundRuntime == null) {
+                                RuntimeList fastResult = fast.invokeMethod(runtimeScalar, args, callContext);
+                                if (fastResult != null) {
+                                    return fastResult;
+                                }
+                            }
                             // Cache hit: skip method lookup, but still enter through
                             // RuntimeCode.apply() so caller(), next::method, warnings,
                             // recursion tracking, and scope cleanup see a real Perl frame.
@@ -3592,6 +3672,15 @@ public class RuntimeCode extends RuntimeBase implements RuntimeScalarReference {
                                 runtimeCodeState.cacheInlineMethod(
                                         callsiteId, blessId, methodHash, code);
                             }
+
+                            if (code.subroutine instanceof FastAccessor fast
+                                    && code.boundRuntime == null
+                                    && code.autoloadVariableName == null) {
+                                RuntimeList fastResult = fast.invokeMethod(runtimeScalar, args, callContext);
+                                if (fastResult != null) {
+                                    return fastResult;
+                                }
+                            }
                             
                             // Call the method with function-scoped mortal boundary
                             RuntimeArray a = new RuntimeArray(args.length + 1);
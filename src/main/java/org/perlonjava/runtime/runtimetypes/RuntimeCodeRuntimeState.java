@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /** Runtime-owned compilation handoff, eval, and method-dispatch cache state. */
@@ -18,7 +19,14 @@ public final class RuntimeCodeRuntimeState {
     private static final int METHOD_HANDLE_CACHE_SIZE = 100;
 
     final IdentityHashMap<OperatorNode, Integer> evalBeginIds = new IdentityHashMap<>();
-    final Map<String, Class<?>> evalCache = lruMap(EVAL_CACHE_SIZE);
+    final Map<String, Class<?>> evalCache = lruMap(EVAL_CACHE_SIZE, RuntimeMetrics.Counter.EVAL_CACHE_EVICTIONS);
+    final Map<String, Boolean> rejectedEvalTemplates = lruMap(EVAL_CACHE_SIZE);
+    java.util.List<RuntimeScalar> pendingEvalConstants;
+    long evalCacheHits;
+    long evalCacheMisses;
+    long evalTemplateHits;
+    long evalTemplateMisses;
+    long evalTemplateRejects;
     final Map<Class<?>, MethodHandle> methodHandleCache = lruMap(METHOD_HANDLE_CACHE_SIZE);
     final HashMap<String, Class<?>> anonymousSubs = new HashMap<>();
     final HashMap<String, Object> interpretedSubs = new HashMap<>();
@@ -37,10 +45,18 @@ public final class RuntimeCodeRuntimeState {
     boolean lexicalAliasSupportEnabled;
 
     private static <K, V> Map<K, V> lruMap(int maximumSize) {
+        return lruMap(maximumSize, null);
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maximumSize, RuntimeMetrics.Counter evictions) {
         return new LinkedHashMap<K, V>(maximumSize, 0.75f, true) {
             @Override
             protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-                return size() > maximumSize;
+                boolean evict = size() > maximumSize;
+                if (RuntimeMetrics.ENABLED && evict && evictions != null) {
+                    RuntimeMetrics.count(evictions);
+                }
+                return evict;
             }
         };
     }
@@ -69,14 +85,23 @@ public final class RuntimeCodeRuntimeState {
 
     RuntimeCode cachedInlineMethod(int callsiteId, int blessId, int methodHash) {
         int index = callsiteId & (METHOD_CALL_CACHE_SIZE - 1);
-        return inlineCacheBlessId[index] == blessId
+        RuntimeCode code = inlineCacheBlessId[index] == blessId
                 && inlineCacheMethodHash[index] == methodHash
                 ? inlineCacheCode[index]
                 : null;
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.count(code != null
+                    ? RuntimeMetrics.Counter.INLINE_METHOD_CACHE_HITS
+                    : RuntimeMetrics.Counter.INLINE_METHOD_CACHE_MISSES);
+        }
+        return code;
     }
 
     void cacheInlineMethod(int callsiteId, int blessId, int methodHash, RuntimeCode code) {
         int index = callsiteId & (METHOD_CALL_CACHE_SIZE - 1);
+        if (RuntimeMetrics.ENABLED && inlineCacheCode[index] != null) {
+            RuntimeMetrics.count(RuntimeMetrics.Counter.INLINE_METHOD_CACHE_EVICTIONS);
+        }
         inlineCacheBlessId[index] = blessId;
         inlineCacheMethodHash[index] = methodHash;
         inlineCacheCode[index] = code;
@@ -88,9 +113,21 @@ public final class RuntimeCodeRuntimeState {
         Arrays.fill(inlineCacheCode, null);
     }
 
+    void evictInlineMethods(Set<Integer> blessIds) {
+        for (int i = 0; i < METHOD_CALL_CACHE_SIZE; i++) {
+            if (inlineCacheCode[i] != null && blessIds.contains(inlineCacheBlessId[i])) {
+                inlineCacheBlessId[i] = 0;
+                inlineCacheMethodHash[i] = 0;
+                inlineCacheCode[i] = null;
+            }
+        }
+    }
+
     void clearCaches() {
         evalBeginIds.clear();
         evalCache.clear();
+        rejectedEvalTemplates.clear();
+        pendingEvalConstants = null;
         methodHandleCache.clear();
         anonymousSubs.clear();
         interpretedSubs.clear();
@@ -515,7 +515,7 @@ public class RuntimeGlob extends RuntimeScalar implements RuntimeScalarReference
                 }
 
                 if (fillForwardCodeRefInPlace(this.globName, codeContainer, value)) {
-                    InheritanceResolver.invalidateCache();
+                    InheritanceResolver.invalidateCacheForSub(this.globName);
                     GlobalVariable.isSubs.put(this.globName, true);
                     int lastColonIdx = this.globName.lastIndexOf("::");
                     if (lastColonIdx > 0) {
@@ -549,7 +549,7 @@ public class RuntimeGlob extends RuntimeScalar implements RuntimeScalarReference
                 }
 
                 // Invalidate the method resolution cache
-                InheritanceResolver.invalidateCache();
+                InheritanceResolver.invalidateCacheForSub(this.globName);
 
                 // Mark as an imported override for overridable built-in operators.
                 // In Perl 5, typeglob CODE assignment (e.g., *time = \&Time::HiRes::time
@@ -1470,7 +1470,7 @@ public class RuntimeGlob extends RuntimeScalar implements RuntimeScalarReference
         GlobalVariable.getGlobalCodeRef(this.globName).set(new RuntimeScalar());
 
         // Invalidate the method resolution cache
-        InheritanceResolver.invalidateCache();
+        InheritanceResolver.invalidateCacheForSub(this.globName);
 
         // Undefine FORMAT
         GlobalVariable.getGlobalFormatRef(this.globName).undefineFormat();
@@ -141,6 +141,26 @@ public class RuntimeGraphCloner {
         }
     }
 
+    /**
+     * Clone one slot of a copy-on-read snapshot after the snapshot boundary.
+     * The source runtime's execution lock keeps concurrent children, and a
+     * pool refill of the same source, from walking its graph at once.
+     */
+    RuntimeBase cloneOnRead(RuntimeBase value) {
+        java.util.concurrent.locks.ReentrantLock lock = sourceRuntime.snapshotSourceLock();
+        lock.lock();
+        try {
+            publicDepth++;
+            try {
+                return cloneValue(value);
+            } finally {
+                if (--publicDepth == 0) finishWeakReferences();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /** Complete a runtime snapshot before any child CLONE hooks execute. */
     void finishSnapshot() {
         finishCloneBoundary();
@@ -261,6 +281,7 @@ public class RuntimeGraphCloner {
         target.signatureMaxArgs = source.signatureMaxArgs;
         target.signatureSubName = source.signatureSubName;
         target.gotoLabelPcs = source.gotoLabelPcs;
+        target.transliterateTables = source.transliterateTables;
         copyCodeMetadata(source, target);
         return target;
     }
@@ -464,7 +485,12 @@ public class RuntimeGraphCloner {
         copyBase(source, target);
         copyScalarMetadata(source, target);
 
-        if (RuntimeScalarType.isReference(source) && source.value == null) {
+        if (source.value instanceof PendingScalarContent pending) {
+            // Output still buffered in an in-memory handle: the copy gets the
+            // content as a plain byte string, and the source stays pending.
+            target.type = RuntimeScalarType.BYTE_STRING;
+            target.value = pending.snapshot();
+        } else if (RuntimeScalarType.isReference(source) && source.value == null) {
             // A cleared weak reference can temporarily retain its reference
             // type while its payload has already disappeared.  It is Perl
             // undef at a thread snapshot boundary; copying the stale type
@@ -0,0 +1,251 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.perlonjava.runtime.util.Settings;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache and hot-path counters owned by one {@link PerlRuntime}.
+ *
+ * <p>Recording is off unless {@code JPERL_METRICS=1} (or
+ * {@code -Djperl.metrics=1}) is set. Every call site is guarded by the
+ * constant {@link #ENABLED}, so a disabled build pays nothing once the JIT
+ * folds the branch away. When enabled, each runtime registers an MBean named
+ * {@code org.perlonjava:type=PerlRuntime,id=N} on the platform MBean server,
+ * and Perl code can read the same values with {@code Internals::stats()}.</p>
+ *
+ * <p>Counters are cumulative for the life of the runtime. Sizes are read from
+ * the live caches when a snapshot is taken.</p>
+ */
+public final class RuntimeMetrics {
+    static final String ENABLE_PROPERTY = "jperl.metrics";
+    static final String ENABLE_ENVIRONMENT = "JPERL_METRICS";
+
+    /** True when counters are recorded; a compile-time constant for the JIT. */
+    public static final boolean ENABLED = Settings.isOn(ENABLE_PROPERTY, ENABLE_ENVIRONMENT, false);
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    public enum Counter {
+        REGEX_CACHE_HITS,
+        REGEX_CACHE_MISSES,
+        REGEX_CACHE_OVERFLOWS,
+        EVAL_CACHE_EVICTIONS,
+        INLINE_METHOD_CACHE_HITS,
+        INLINE_METHOD_CACHE_MISSES,
+        INLINE_METHOD_CACHE_EVICTIONS,
+        MRO_METHOD_CACHE_HITS,
+        MRO_METHOD_CACHE_MISSES,
+        NUMIFICATION_CACHE_HITS,
+        NUMIFICATION_CACHE_MISSES,
+        JVM_COMPILES,
+        JVM_COMPILE_NANOS,
+        INTERPRETER_COMPILES,
+        INTERPRETER_COMPILE_NANOS,
+        INTERPRETER_FALLBACKS,
+        MORTAL_FLUSHES,
+        REACHABILITY_WALKS,
+        REACHABILITY_WALK_NANOS;
+
+        final String key = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTERS.length);
+    private final int id = NEXT_ID.getAndIncrement();
+    private ObjectName objectName;
+
+    RuntimeMetrics() {
+    }
+
+    /** Adds one to {@code counter} in the runtime bound to this thread. */
+    public static void count(Counter counter) {
+        PerlRuntime runtime = PerlRuntime.currentOrNull();
+        if (runtime != null) {
+            runtime.metrics.counters.incrementAndGet(counter.ordinal());
+        }
+    }
+
+    /**
+     * Counts one event and the nanoseconds elapsed since {@code startNanos}.
+     *
+     * @param events     the event counter
+     * @param nanos      the matching time counter
+     * @param startNanos a {@link System#nanoTime()} taken before the event
+     */
+    public static void time(Counter events, Counter nanos, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        PerlRuntime runtime = PerlRuntime.currentOrNull();
+        if (runtime != null) {
+            runtime.metrics.counters.incrementAndGet(events.ordinal());
+            runtime.metrics.counters.addAndGet(nanos.ordinal(), elapsed);
+        }
+    }
+
+    public long get(Counter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    /**
+     * Returns every counter followed by the current cache sizes, keyed by the
+     * names {@code Internals::stats()} and the MBean expose.
+     */
+    public static Map<String, Long> snapshot(PerlRuntime runtime) {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("enabled", ENABLED ? 1L : 0L);
+        for (Counter counter : COUNTERS) {
+            stats.put(counter.key, runtime.metrics.get(counter));
+        }
+
+        RuntimeCodeRuntimeState code = runtime.runtimeCodeState;
+        stats.put("eval_cache_hits", code.evalCacheHits);
+        stats.put("eval_cache_misses", code.evalCacheMisses);
+        stats.put("eval_template_hits", code.evalTemplateHits);
+        stats.put("eval_template_misses", code.evalTemplateMisses);
+        stats.put("eval_template_rejects", code.evalTemplateRejects);
+        synchronized (code.evalCache) {
+            stats.put("eval_cache_size", (long) code.evalCache.size());
+        }
+        synchronized (code.methodHandleCache) {
+            stats.put("method_handle_cache_size", (long) code.methodHandleCache.size());
+        }
+        long occupied = 0;
+        for (RuntimeCode cached : code.inlineCacheCode) {
+            if (cached != null) occupied++;
+        }
+        stats.put("inline_method_cache_size", occupied);
+        stats.put("regex_cache_size", (long) runtime.regexState.compiledRegexCache.size());
+        stats.put("pos_cache_size", (long) runtime.regexState.positionCache.size());
+        stats.put("mro_method_cache_size", (long) runtime.mroState.methodCache().size());
+        return stats;
+    }
+
+    /** Publishes the runtime's MBean when metrics are enabled. */
+    void register(PerlRuntime runtime) {
+        // The bean holds the runtime weakly so a runtime that is dropped
+        // without close() is still collectable.
+        WeakReference<PerlRuntime> weak = new WeakReference<>(runtime);
+        objectName = registerBean("PerlRuntime", id, () -> {
+            PerlRuntime target = weak.get();
+            return target == null ? Map.of() : snapshot(target);
+        });
+    }
+
+    void unregister() {
+        ObjectName name = objectName;
+        objectName = null;
+        unregisterBean(name);
+    }
+
+    /**
+     * Publishes a read-only MBean named {@code org.perlonjava:type=TYPE,id=N}
+     * whose attributes are the entries of {@code values}. Returns null, and
+     * registers nothing, when metrics are disabled or JMX is unavailable.
+     */
+    static ObjectName registerBean(String type, Supplier<Map<String, Long>> values) {
+        return registerBean(type, NEXT_ID.getAndIncrement(), values);
+    }
+
+    private static ObjectName registerBean(String type, int id, Supplier<Map<String, Long>> values) {
+        if (!ENABLED) return null;
+        try {
+            ObjectName name = new ObjectName("org.perlonjava:type=" + type + ",id=" + id);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(values), name);
+            return name;
+        } catch (Exception | LinkageError ignored) {
+            // JMX is optional; Internals::stats() still works without it
+            return null;
+        }
+    }
+
+    static void unregisterBean(ObjectName name) {
+        if (name == null) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (Exception ignored) {
+        }
+    }
+
+    /** Read-only view of a live counter map. */
+    static final class Bean implements DynamicMBean {
+        private final Supplier<Map<String, Long>> values;
+
+        Bean(Supplier<Map<String, Long>> values) {
+            this.values = values;
+        }
+
+        private Map<String, Long> values() {
+            return values.get();
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Long value = values().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Long> values = values();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                Long value = values.get(attribute);
+                if (value != null) {
+                    list.add(new Attribute(attribute, value));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            // The bean declares no operations
+            throw new ReflectionException(new NoSuchMethodException(actionName), actionName);
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            Map<String, Long> values = values();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+            int i = 0;
+            for (String key : values.keySet()) {
+                attributes[i++] = new MBeanAttributeInfo(key, "long", key, true, false, false);
+            }
+            return new MBeanInfo(RuntimeMetrics.class.getName(), "PerlOnJava runtime metrics",
+                    attributes, null, null, null);
+        }
+    }
+}
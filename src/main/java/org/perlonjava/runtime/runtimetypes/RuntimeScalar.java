@@ -203,6 +203,17 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
      */
     public boolean numericContextSeen;
 
+    /**
+     * Numeric value parsed from this scalar's string, like the IV/NV slot that
+     * Perl keeps next to the PV. It is valid only while {@code value} is still
+     * the String it was parsed from: every write stores a new value, so
+     * writes invalidate it without any bookkeeping of their own.
+     */
+    private ParsedNumber parsedNumber;
+
+    private record ParsedNumber(String source, RuntimeScalar number) {
+    }
+
     /** True on the scalar slot that owns a newly created anonymous IO glob. */
     public boolean ioOwner;
 
@@ -481,6 +492,7 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
         this.tainted = scalar.tainted;
         this.numericLiteralText = scalar.numericLiteralText;
         this.numericContextSeen = scalar.numericContextSeen;
+        this.parsedNumber = scalar.parsedNumber;
         this.firstClassRegexScalar = scalar.firstClassRegexScalar;
         this.formatPictureTainted = scalar.formatPictureTainted;
         if (this.type == GLOBREFERENCE && this.value instanceof RuntimeGlob glob
@@ -532,6 +544,12 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
         this.type = BYTE_STRING;
     }
 
+    /** Creates a byte string from {@code length} bytes of {@code bytes} starting at {@code offset}. */
+    public RuntimeScalar(byte[] bytes, int offset, int length) {
+        this.value = new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        this.type = BYTE_STRING;
+    }
+
     /**
      * Returns a new RuntimeScalar instance with the given value.
      * Tries to store the value as a known type if possible, otherwise stores it as Object.
@@ -562,6 +580,7 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
                 this.tainted = scalar.tainted;
                 this.numericLiteralText = scalar.numericLiteralText;
                 this.numericContextSeen = scalar.numericContextSeen;
+                this.parsedNumber = scalar.parsedNumber;
                 this.firstClassRegexScalar = scalar.firstClassRegexScalar;
                 this.formatPictureTainted = scalar.formatPictureTainted;
             }
@@ -635,6 +654,19 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
         return t == STRING || t == BYTE_STRING || t == VSTRING;
     }
 
+    /** The cached numeric value of this scalar's string, or null if there is none. */
+    public RuntimeScalar getParsedNumber() {
+        ParsedNumber parsed = parsedNumber;
+        return parsed != null && parsed.source == value ? parsed.number : null;
+    }
+
+    /** Cache {@code number} as the numeric value of {@code source}, if that is still this scalar's string. */
+    public void cacheParsedNumber(String source, RuntimeScalar number) {
+        if (source == value) {
+            parsedNumber = new ParsedNumber(source, number);
+        }
+    }
+
     private void markNumericContextSeen() {
         int t = this.type;
         if (t == STRING || t == BYTE_STRING || t == VSTRING) {
@@ -888,8 +920,12 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
             case DOUBLE -> (int) ((double) value);
             case STRING, BYTE_STRING -> {
                 markNumericContextSeen();
-                // Avoid recursion when NumberParser.parseNumber() returns a cached scalar
-                // that is also STRING. Add fast-path for plain integer strings.
+                // Avoid recursion when NumberParser.parseNumber() returns a scalar that is
+                // also STRING. Add fast-path for plain integer strings.
+                RuntimeScalar parsed = getParsedNumber();
+                if (parsed != null) {
+                    yield parsed.getInt();
+                }
                 String s = (String) value;
                 if (s != null) {
                     String t = s.trim();
@@ -1086,6 +1122,10 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
                 // Avoid recursion when large integer strings are preserved as STRING to keep
                 // precision (e.g. values > 2^53). NumberParser.parseNumber() may return a scalar
                 // that is also STRING, and calling getLong() on it would recurse indefinitely.
+                RuntimeScalar parsed = getParsedNumber();
+                if (parsed != null) {
+                    yield parsed.getLong();
+                }
                 String s = (String) value;
                 if (s != null) {
                     String t = s.trim();
@@ -1127,9 +1167,13 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
             case DOUBLE -> (double) value;
             case STRING, BYTE_STRING -> {
                 markNumericContextSeen();
-                // Avoid recursion when numeric values are preserved as STRING and also stored in
-                // NumberParser's numification cache. If parseNumber() returns a scalar whose
-                // conversion path leads back to getDouble(), this can recurse indefinitely.
+                // Avoid recursion when numeric values are preserved as STRING. If parseNumber()
+                // returns a scalar whose conversion path leads back to getDouble(), this can
+                // recurse indefinitely.
+                RuntimeScalar parsed = getParsedNumber();
+                if (parsed != null) {
+                    yield parsed.getDouble();
+                }
                 String s = (String) value;
                 if (s != null) {
                     String t = s.trim();
@@ -1561,6 +1605,7 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
                 this.tainted = value.tainted;
                 this.numericLiteralText = value.numericLiteralText;
                 this.numericContextSeen = value.numericContextSeen;
+                this.parsedNumber = value.parsedNumber;
                 this.firstClassRegexScalar = value.firstClassRegexScalar;
                 this.formatPictureTainted = value.formatPictureTainted;
                 RuntimePosLvalue.invalidatePos(this);
@@ -1571,6 +1616,7 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
                 this.tainted = value.tainted;
                 this.numericLiteralText = value.numericLiteralText;
                 this.numericContextSeen = value.numericContextSeen;
+                this.parsedNumber = value.parsedNumber;
                 this.firstClassRegexScalar = value.firstClassRegexScalar;
                 this.formatPictureTainted = value.formatPictureTainted;
             }
@@ -1692,6 +1738,7 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
         this.tainted = value.tainted;
         this.numericLiteralText = value.numericLiteralText;
         this.numericContextSeen = value.numericContextSeen;
+        this.parsedNumber = value.parsedNumber;
         this.firstClassRegexScalar = value.firstClassRegexScalar;
         this.formatPictureTainted = value.formatPictureTainted;
         return this;
@@ -1740,6 +1787,7 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
                     this.tainted = value.tainted;
                     this.numericLiteralText = value.numericLiteralText;
                     this.numericContextSeen = value.numericContextSeen;
+                    this.parsedNumber = value.parsedNumber;
                     return this;
                 }
             }
@@ -1856,6 +1904,7 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
         this.tainted = value.tainted;
         this.numericLiteralText = value.numericLiteralText;
         this.numericContextSeen = value.numericContextSeen;
+        this.parsedNumber = value.parsedNumber;
         this.firstClassRegexScalar = value.firstClassRegexScalar;
         this.formatPictureTainted = value.formatPictureTainted;
         if (this.globalCodeRefFqn != null && this.value instanceof RuntimeCode code) {
@@ -3279,7 +3328,7 @@ public class RuntimeScalar extends RuntimeBase implements RuntimeScalarReference
             this.firstClassRegexScalar = false;
             this.formatPictureTainted = false;
             // Invalidate the method resolution cache
-            InheritanceResolver.invalidateCache();
+            InheritanceResolver.invalidateCacheForSub(globalCodeRefFqn);
             if (releasedCode && WeakRefRegistry.weakRefsExist() && !ModuleInitGuard.inModuleInit()) {
                 ReachabilityWalker.sweepWeakRefs(true);
             }
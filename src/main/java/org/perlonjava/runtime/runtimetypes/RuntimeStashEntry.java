@@ -209,7 +209,7 @@ public class RuntimeStashEntry extends RuntimeGlob {
                 }
 
                 // Invalidate the method resolution cache
-                InheritanceResolver.invalidateCache();
+                InheritanceResolver.invalidateCacheForSub(this.globName);
 
                 return value;
             case FORMAT:
@@ -248,7 +248,7 @@ public class RuntimeStashEntry extends RuntimeGlob {
                         //   $stash->{name} = $saved;
                         if (sourceGlob.codeSlot != null) {
                             GlobalVariable.globalCodeRefs.put(this.globName, sourceGlob.codeSlot);
-                            InheritanceResolver.invalidateCache();
+                            InheritanceResolver.invalidateCacheForSub(this.globName);
                         }
                         if (sourceGlob.IO != null && sourceGlob.IO.getDefinedBoolean()) {
                             this.set(sourceGlob.IO);
@@ -336,7 +336,7 @@ public class RuntimeStashEntry extends RuntimeGlob {
 
     /** Notify method introspection caches after pseudo-constant CODE installation. */
     private void notifyCodeSlotChanged() {
-        InheritanceResolver.invalidateCache();
+        InheritanceResolver.invalidateCacheForSub(this.globName);
         int lastColonIdx = this.globName.lastIndexOf("::");
         if (lastColonIdx > 0) {
             org.perlonjava.runtime.perlmodule.Mro.incrementPackageGeneration(
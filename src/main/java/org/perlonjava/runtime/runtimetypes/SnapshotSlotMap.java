@@ -0,0 +1,201 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Package-slot table of a copy-on-read runtime snapshot.
+ *
+ * <p>At snapshot time the child receives a private copy of the source's
+ * key-to-value table, not of the values. A slot is cloned through the
+ * snapshot's {@link RuntimeGraphCloner} the first time it is read, so the
+ * identity map still preserves aliases between slots, and package data the
+ * child never touches is never copied. Writes and removals only ever affect
+ * the child.</p>
+ *
+ * <p>Enumerating keys does not clone anything; reading an entry's value clones
+ * just that slot. Once every pending slot has been cloned the table behaves
+ * like the plain {@link HashMap} it wraps.</p>
+ */
+final class SnapshotSlotMap<K, V extends RuntimeBase> extends AbstractMap<K, V> {
+    private final HashMap<K, V> local;
+    private HashMap<K, V> pending;
+    private RuntimeGraphCloner cloner;
+
+    /**
+     * @param existing entries the child created before the snapshot was taken;
+     *                 a source slot with the same key replaces them, as an
+     *                 eager clone would
+     * @param source   the source runtime's table as of the snapshot
+     * @param cloner   the snapshot's cloner, retained until every slot is cloned
+     */
+    SnapshotSlotMap(Map<K, V> existing, Map<K, V> source, RuntimeGraphCloner cloner) {
+        this.local = new HashMap<>(existing);
+        this.local.keySet().removeAll(source.keySet());
+        this.pending = source.isEmpty() ? null : new HashMap<>(source);
+        this.cloner = pending == null ? null : cloner;
+    }
+
+    /** Adds source slots registered after the snapshot, unless the child already has the key. */
+    void addPending(Map<K, V> source, RuntimeGraphCloner cloner) {
+        for (Map.Entry<K, V> entry : source.entrySet()) {
+            if (local.containsKey(entry.getKey())) continue;
+            if (pending == null) pending = new HashMap<>();
+            pending.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        if (pending != null) this.cloner = cloner;
+    }
+
+    int pendingCount() {
+        return pending == null ? 0 : pending.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V materialize(Object key) {
+        V source = pending.remove(key);
+        V value = source == null ? null : (V) cloner.cloneOnRead(source);
+        local.put((K) key, value);
+        if (pending != null && pending.isEmpty()) {
+            pending = null;
+            cloner = null;
+        }
+        return value;
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = local.get(key);
+        if (value != null || pending == null || !pending.containsKey(key)) {
+            return value;
+        }
+        return materialize(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return local.containsKey(key) || (pending != null && pending.containsKey(key));
+    }
+
+    @Override
+    public V put(K key, V value) {
+        V previous = pending != null && pending.containsKey(key) ? materialize(key) : null;
+        V replaced = local.put(key, value);
+        return previous != null ? previous : replaced;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (pending != null && pending.containsKey(key)) {
+            materialize(key);
+        }
+        return local.remove(key);
+    }
+
+    /** Removes a slot without cloning a pending source value. */
+    private void discard(Object key) {
+        if (pending != null) {
+            pending.remove(key);
+            if (pending.isEmpty()) {
+                pending = null;
+                cloner = null;
+            }
+        }
+        local.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        pending = null;
+        cloner = null;
+    }
+
+    @Override
+    public int size() {
+        return local.size() + pendingCount();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return local.isEmpty() && pending == null;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (pending == null) {
+            return local.entrySet();
+        }
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                List<K> keys = new ArrayList<>(local.keySet());
+                if (pending != null) keys.addAll(pending.keySet());
+                Iterator<K> iterator = keys.iterator();
+                return new Iterator<>() {
+                    private K current;
+                    private boolean canRemove;
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        K key = iterator.next();
+                        current = key;
+                        canRemove = true;
+                        return new LazyEntry(key);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (!canRemove) throw new IllegalStateException("next() has not been called");
+                        discard(current);
+                        canRemove = false;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return SnapshotSlotMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                SnapshotSlotMap.this.clear();
+            }
+        };
+    }
+
+    /** Entry whose value is cloned only when read. */
+    private final class LazyEntry implements Entry<K, V> {
+        private final K key;
+
+        LazyEntry(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return get(key);
+        }
+
+        @Override
+        public V setValue(V value) {
+            return put(key, value);
+        }
+    }
+}
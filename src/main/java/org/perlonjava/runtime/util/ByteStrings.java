@@ -0,0 +1,96 @@
+package org.perlonjava.runtime.util;
+
+import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
+import org.perlonjava.runtime.runtimetypes.RuntimeScalarType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Conversions between Perl byte strings and Java {@code byte[]}.
+ *
+ * <p>A byte string is held as a Java String whose chars are all 0..255. With
+ * compact strings the JVM stores such a String as a Latin-1 {@code byte[]}
+ * already, so {@code getBytes(ISO_8859_1)} and {@code new String(bytes,
+ * ISO_8859_1)} are a single array copy. These helpers replaced the per-char
+ * copy loops, which the JIT cannot turn into a memcpy, in the file and pipe
+ * channels, the scalar-backed handle, print/syswrite, Encode, utf8, Storable,
+ * DBI and HTTP::Tiny. They are not the only crossing: Digest::*, Compress::*,
+ * SocketIO and Sereal still convert with Latin-1 {@code getBytes} and
+ * {@code new String} directly, and pack keeps its own byte handling.</p>
+ */
+public final class ByteStrings {
+    private ByteStrings() {
+    }
+
+    /**
+     * Returns the Latin-1 bytes of {@code s}, or null if it contains a char
+     * above 0xFF.
+     */
+    public static byte[] latin1OrNull(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.ISO_8859_1);
+        // Unmappable chars come back as '?'; only those positions need a second look.
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '?' && s.charAt(i) != '?') {
+                return null;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the bytes Perl writes for {@code s} on a handle without an
+     * encoding layer: one byte per char, or UTF-8 when a wide char is present
+     * (the "Wide character in print" case).
+     */
+    public static byte[] toOutputBytes(String s) {
+        byte[] bytes = latin1OrNull(s);
+        return bytes != null ? bytes : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the UTF-8 encoding of {@code s} as a String of octets. Pure ASCII
+     * input is its own encoding and is returned as is.
+     */
+    public static String utf8Octets(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return new String(s.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Wraps {@code octets}, whose chars must all be 0..255, as a byte string
+     * without copying it.
+     */
+    public static RuntimeScalar byteString(String octets) {
+        RuntimeScalar scalar = new RuntimeScalar(octets);
+        scalar.type = RuntimeScalarType.BYTE_STRING;
+        return scalar;
+    }
+
+    /**
+     * Returns the octets of {@code scalar}. A {@code BYTE_STRING} is 0..255 by
+     * construction and is copied without a scan; other strings are truncated to
+     * their low byte, as the callers' previous char loops did.
+     */
+    public static byte[] toBytes(RuntimeScalar scalar) {
+        String s = scalar.toString();
+        if (scalar.type == RuntimeScalarType.BYTE_STRING) {
+            return s.getBytes(StandardCharsets.ISO_8859_1);
+        }
+        return toBytes(s);
+    }
+
+    /** Returns the low byte of every char of {@code s}. */
+    public static byte[] toBytes(String s) {
+        byte[] bytes = latin1OrNull(s);
+        if (bytes != null) return bytes;
+        bytes = new byte[s.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) s.charAt(i);
+        }
+        return bytes;
+    }
+}
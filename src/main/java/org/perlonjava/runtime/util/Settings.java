@@ -0,0 +1,51 @@
+package org.perlonjava.runtime.util;
+
+import java.util.Locale;
+
+/**
+ * Reads the runtime's JVM-property and environment switches. The property
+ * always wins over the environment, and a blank value counts as unset.
+ */
+public final class Settings {
+    private Settings() {
+    }
+
+    /** Whether the switch named by {@code property} or {@code environment} is on. */
+    public static boolean isOn(String property, String environment, boolean defaultValue) {
+        return parseSwitch(System.getProperty(property), System.getenv(environment), defaultValue);
+    }
+
+    /** 0, false, off and no turn a switch off; any other non-blank value turns it on. */
+    public static boolean parseSwitch(String propertyValue, String environmentValue, boolean defaultValue) {
+        String value = propertyValue != null ? propertyValue : environmentValue;
+        if (value == null || value.isBlank()) return defaultValue;
+        return switch (value.strip().toLowerCase(Locale.ROOT)) {
+            case "0", "false", "off", "no" -> false;
+            default -> true;
+        };
+    }
+
+    /** The non-negative integer named by {@code property} or {@code environment}. */
+    public static int nonNegative(String property, String environment, String description, int defaultValue) {
+        return parseNonNegative(System.getProperty(property), System.getenv(environment), description, defaultValue);
+    }
+
+    /**
+     * Parses a non-negative integer setting, naming it by {@code description}
+     * (for example "DBI statement cache size") when the value is rejected.
+     */
+    public static int parseNonNegative(String propertyValue, String environmentValue,
+                                       String description, int defaultValue) {
+        String value = propertyValue != null ? propertyValue : environmentValue;
+        if (value == null || value.isBlank()) return defaultValue;
+        final int number;
+        try {
+            number = Integer.parseInt(value.strip());
+        } catch (NumberFormatException invalid) {
+            throw new IllegalArgumentException(
+                    "Invalid " + description + " '" + value + "'; expected a non-negative integer", invalid);
+        }
+        if (number < 0) throw new IllegalArgumentException(description + " must not be negative");
+        return number;
+    }
+}
@@ -110,6 +110,63 @@ _install_reader('Class::MOP::Instance', 'associated_metaclass');
 # Class::MOP::Attribute
 _install_readers('Class::MOP::Attribute', qw(associated_class associated_methods));
 
+# ---------------------------------------------------------------------------
+# Class::MOP::Method::Accessor inline generators
+#
+# When an attribute's inlined code is nothing but a hash-slot access (no
+# lazy default, type constraint, coercion, trigger, weak ref or
+# auto-deref), wrap the compiled sub in the Java accessor from
+# Class::XSAccessor. The Java side serves calls with the usual argument
+# count on a hash-based object and hands every other call to the compiled
+# sub, so exceptions and their messages are unchanged.
+{
+    my $have_fast = defined &Class::XSAccessor::_fast_accessor || eval {
+        require XSLoader;
+        XSLoader::load('Class::XSAccessor');
+        defined &Class::XSAccessor::_fast_accessor;
+    };
+
+    my $is_plain_slot = sub {
+        my ($attr) = @_;
+        my $ok = eval {
+            my $mi   = $attr->associated_class->get_meta_instance;
+            my $slot = $mi->inline_slot_access('$_[0]', $attr->name);
+            $slot eq sprintf(q[$_[0]->{"%s"}], quotemeta($attr->name))
+                && join('', $attr->_inline_get_value('$_[0]')) =~ /\A(?:return )?\Q$slot\E;\z/
+                && join('', $attr->_inline_set_value('$_[0]', '$_[1]')) eq "$slot = \$_[1];"
+                && join('', $attr->_inline_has_value('$_[0]')) eq "exists $slot;";
+        };
+        return $ok;
+    };
+
+    my %generators = (
+        reader    => 'getter',
+        writer    => 'setter',
+        accessor  => 'accessor',
+        predicate => 'exists_predicate',
+    );
+
+    no strict 'refs';
+    no warnings 'redefine';
+    for my $type ($have_fast ? sort keys %generators : ()) {
+        my $kind      = $generators{$type};
+        my $generator = "Class::MOP::Method::Accessor::_generate_${type}_method_inline";
+        my $orig      = \&{$generator};
+        *{$generator} = sub {
+            my $self = $_[0];
+            my $code = $orig->(@_);
+            my $class = ref $self;
+            return $code
+                unless $class eq 'Class::MOP::Method::Accessor'
+                    || $class eq 'Moose::Meta::Method::Accessor';
+            my $attr = $self->associated_attribute;
+            return $code unless $is_plain_slot->($attr);
+            return Class::XSAccessor::_fast_accessor(
+                $kind, $self->fully_qualified_name, $attr->name, 0, $code);
+        };
+    }
+}
+
 # ---------------------------------------------------------------------------
 # Class::MOP::Mixin::HasMethods::_method_map
 #
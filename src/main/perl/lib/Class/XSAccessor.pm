@@ -7,10 +7,16 @@ use Carp qw(croak);
 use Scalar::Util qw(refaddr reftype);
 use Sub::Util ();
 use Class::XSAccessor::Heavy;
+use XSLoader;
 
 our $VERSION = '1.19';
 our %_is_emulated_xsub;
 
+# PerlOnJava: the generated methods are Java code refs (_fast_accessor), so
+# method calls through the inline cache reach the hash slot without a Perl
+# frame. Only the lvalue accessor is still a Perl closure.
+XSLoader::load('Class::XSAccessor');
+
 sub _make_hash {
     my $ref = shift;
 
@@ -132,7 +138,7 @@ sub _install {
     my ($name, $code) = @_;
     # set_subname is metadata only.  During isolated CPAN compile tests the
     # Java Sub::Util registration can be temporarily unavailable even though
-    # the pure-Perl accessor itself is fully usable.
+    # the accessor itself is fully usable.
     $code = Sub::Util::set_subname($name, $code)
         if defined &Sub::Util::set_subname;
     $_is_emulated_xsub{refaddr($code)} = 1;
@@ -143,11 +149,7 @@ sub _install {
 
 sub newxs_getter {
     my ($name, $key) = @_;
-    _install($name, sub {
-        @_ == 1 or _usage($name, 'self');
-        _check_hash_invocant($_[0]);
-        return $_[0]->{$key};
-    });
+    _install($name, _fast_accessor(getter => $name, $key));
 }
 
 sub newxs_lvalue_accessor {
@@ -161,25 +163,12 @@ sub newxs_lvalue_accessor {
 
 sub newxs_setter {
     my ($name, $key, $chained) = @_;
-    _install($name, sub {
-        @_ == 2 or _usage($name, 'self, newvalue');
-        _check_hash_invocant($_[0]);
-        $_[0]->{$key} = $_[1];
-        return $chained ? $_[0] : $_[1];
-    });
+    _install($name, _fast_accessor(setter => $name, $key, $chained));
 }
 
 sub newxs_accessor {
     my ($name, $key, $chained) = @_;
-    _install($name, sub {
-        @_ >= 1 or _usage($name, 'self, ...');
-        _check_hash_invocant($_[0]);
-        if (@_ > 1) {
-            $_[0]->{$key} = $_[1];
-            return $chained ? $_[0] : $_[1];
-        }
-        return $_[0]->{$key};
-    });
+    _install($name, _fast_accessor(accessor => $name, $key, $chained));
 }
 
 sub newxs_predicate {
@@ -188,37 +177,22 @@ sub newxs_predicate {
 
 sub newxs_defined_predicate {
     my ($name, $key) = @_;
-    _install($name, sub {
-        @_ == 1 or _usage($name, 'self');
-        _check_hash_invocant($_[0]);
-        return defined $_[0]->{$key} ? 1 : q{};
-    });
+    _install($name, _fast_accessor(defined_predicate => $name, $key));
 }
 
 sub newxs_exists_predicate {
     my ($name, $key) = @_;
-    _install($name, sub {
-        @_ == 1 or _usage($name, 'self');
-        _check_hash_invocant($_[0]);
-        return exists $_[0]->{$key} ? 1 : q{};
-    });
+    _install($name, _fast_accessor(exists_predicate => $name, $key));
 }
 
 sub newxs_constructor {
     my ($name) = @_;
-    _install($name, sub {
-        my $class = shift;
-        croak('Uneven number of arguments to constructor.') if @_ % 2;
-        return bless { @_ }, ref($class) || $class;
-    });
+    _install($name, _fast_accessor(constructor => $name));
 }
 
 sub newxs_boolean {
     my ($name, $truth) = @_;
-    _install($name, sub {
-        @_ == 1 or _usage($name, 'self');
-        return $truth ? 1 : q{};
-    });
+    _install($name, _fast_accessor(boolean => $name, undef, $truth));
 }
 
 sub newxs_test {
@@ -314,6 +314,7 @@ my $startperl = $is_windows
     d_readlink => 'define',
     d_symlink => _check_symlink_support(),
     d_fork => undef,  # No true fork in Java
+    d_pseudofork => _check_pseudofork_support(),  # Win32-style, on threads
     d_alarm => 'define', # We now have alarm support with signal queue
     d_chown => _check_chown_support(),
     d_chroot => undef,
@@ -520,6 +521,11 @@ sub _check_symlink_support {
     return 'define';
 }
 
+sub _check_pseudofork_support {
+    # Follows JPERL_PSEUDO_FORK and -Djperl.pseudo.fork exactly as fork does
+    return Internals::jperl_pseudo_fork() ? 'define' : undef;
+}
+
 sub _check_chown_support {
     # Check if the OS supports chown
     my $os = lc(getProperty('os.name') || '');
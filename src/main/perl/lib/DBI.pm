@@ -28,7 +28,12 @@ our %DriverPrefix = (
 our ($JDBC_CONNECT, $JDBC_PREPARE, $JDBC_EXECUTE, $JDBC_FINISH,
      $JDBC_DISCONNECT, $JDBC_PING, $JDBC_FETCHROW_ARRAYREF,
      $JDBC_FETCHROW_HASHREF, $JDBC_BEGIN_WORK, $JDBC_COMMIT,
-     $JDBC_ROLLBACK);
+     $JDBC_ROLLBACK, $JDBC_EXECUTE_BATCH, $JDBC_FETCHALL_ARRAYREF,
+     $JDBC_FETCHCOL_ARRAYREF, $JDBC_RELEASE_STATEMENT);
+
+# Number of tuples execute_for_fetch/execute_array send to a JDBC handle as
+# one PreparedStatement batch.
+our $EXECUTE_BATCH_SIZE = 1000;
 
 # SQL type constants exported on demand, e.g. `use DBI qw(SQL_BLOB SQL_VARCHAR)`
 # or via the :sql_types tag. Mirrors real DBI's export interface so modules
@@ -99,6 +104,10 @@ sub DBD::_::st::finish {
     $JDBC_ROLLBACK = \&DBI::_jdbc_rollback;
     $JDBC_FETCHROW_ARRAYREF = \&DBI::_jdbc_fetchrow_arrayref;
     $JDBC_FETCHROW_HASHREF = \&DBI::_jdbc_fetchrow_hashref;
+    $JDBC_EXECUTE_BATCH = \&DBI::_jdbc_execute_batch;
+    $JDBC_FETCHALL_ARRAYREF = \&DBI::_jdbc_fetchall_arrayref;
+    $JDBC_FETCHCOL_ARRAYREF = \&DBI::_jdbc_fetchcol_arrayref;
+    $JDBC_RELEASE_STATEMENT = \&DBI::_jdbc_release_statement;
 
     no warnings 'redefine';
 
@@ -275,6 +284,7 @@ sub DBD::_::st::finish {
 
 # DESTROY for statement handles — calls finish() if still active.
 # This matches Perl DBI behavior where sth DESTROY triggers finish().
+# JDBC statements then go back to the connection's statement cache.
 sub DBI::st::DESTROY {
     my $sth = $_[0];
     return unless $sth && ref($sth);
@@ -284,6 +294,7 @@ sub DBI::st::DESTROY {
     if ($sth->{Active}) {
         eval { $sth->finish() };
     }
+    eval { $JDBC_RELEASE_STATEMENT->($sth) } if _is_jdbc_handle($sth);
 }
 
 # DESTROY for database handles — calls disconnect() if still active.
@@ -938,6 +949,8 @@ sub finish {
 
 # Batch execution: calls $fetch_tuple->() repeatedly to get parameter arrays,
 # executes the prepared statement for each, and tracks results in $tuple_status.
+# JDBC handles send the tuples in chunks of $EXECUTE_BATCH_SIZE as one
+# PreparedStatement batch each; other handles execute them one at a time.
 sub execute_for_fetch {
     my ($sth, $fetch_tuple_sub, $tuple_status) = @_;
     # start with empty status array
@@ -949,15 +962,38 @@ sub execute_for_fetch {
 
     my $rc_total = 0;
     my $err_count;
-    while ( my $tuple = &$fetch_tuple_sub() ) {
-        my $rc = eval { $sth->execute(@$tuple) };
-        if ($rc) {
-            push @$tuple_status, $rc;
+    if (_is_jdbc_handle($sth) && !$sth->{NUM_OF_FIELDS}) {
+        my $size = $EXECUTE_BATCH_SIZE > 0 ? $EXECUTE_BATCH_SIZE : 1;
+        my $more = 1;
+        while ($more) {
+            my @chunk;
+            while (@chunk < $size) {
+                my $tuple = &$fetch_tuple_sub();
+                unless ($tuple) {
+                    $more = 0;
+                    last;
+                }
+                # Copy: a fetch sub may hand back the same (reused) array each time
+                push @chunk, [@$tuple];
+            }
+            last unless @chunk;
+            my ($errors, $rc) = $JDBC_EXECUTE_BATCH->($sth, \@chunk, $tuple_status);
+            return undef unless defined $errors;
+            $err_count += $errors;
             $rc_total = ($rc >= 0 && $rc_total >= 0) ? $rc_total + $rc : -1;
         }
-        else {
-            $err_count++;
-            push @$tuple_status, [ $sth->err, $sth->errstr || $@, $sth->state ];
+    }
+    else {
+        while ( my $tuple = &$fetch_tuple_sub() ) {
+            my $rc = eval { $sth->execute(@$tuple) };
+            if ($rc) {
+                push @$tuple_status, $rc;
+                $rc_total = ($rc >= 0 && $rc_total >= 0) ? $rc_total + $rc : -1;
+            }
+            else {
+                $err_count++;
+                push @$tuple_status, [ $sth->err, $sth->errstr || $@, $sth->state ];
+            }
         }
     }
     my $tuples = @$tuple_status;
@@ -972,6 +1008,52 @@ sub execute_for_fetch {
     return ($tuples, $rc_total);
 }
 
+# $sth->execute_array(\%attr, @bind_values): each bind value is an array ref
+# of per-tuple values or a scalar used for every tuple; without bind values the
+# arrays from bind_param_array() are used.  ArrayTupleFetch supplies tuples from
+# a code ref or another statement handle instead.
+sub execute_array {
+    my ($sth, $attr, @bind_values) = @_;
+    $attr ||= {};
+
+    my $fetch_tuple_sub = $attr->{ArrayTupleFetch};
+    if ($fetch_tuple_sub) {
+        die "Can't use both ArrayTupleFetch and explicit bind values\n"
+            if @bind_values;
+        if (Scalar::Util::blessed($fetch_tuple_sub)) {
+            my $fetch_sth = $fetch_tuple_sub;
+            $fetch_tuple_sub = sub { $fetch_sth->fetchrow_arrayref };
+        }
+    }
+    else {
+        my $param_arrays = $sth->{ParamArrays} || {};
+        @bind_values = map { $param_arrays->{$_} }
+            sort { $a <=> $b } keys %$param_arrays
+            unless @bind_values;
+        my $count;
+        for my $values (@bind_values) {
+            next unless ref($values) eq 'ARRAY';
+            $count = @$values if !defined($count) || @$values > $count;
+        }
+        $count = @bind_values ? 1 : 0 unless defined $count;
+        my $idx = 0;
+        $fetch_tuple_sub = sub {
+            return if $idx >= $count;
+            my @tuple = map { ref($_) eq 'ARRAY' ? $_->[$idx] : $_ } @bind_values;
+            $idx++;
+            return \@tuple;
+        };
+    }
+    return $sth->execute_for_fetch($fetch_tuple_sub, $attr->{ArrayTupleStatus});
+}
+
+sub bind_param_array {
+    my ($sth, $param_num, $values, $attr) = @_;
+    $sth->{ParamArrays} ||= {};
+    $sth->{ParamArrays}{$param_num} = $values;
+    return 1;
+}
+
 sub bind_param {
     my ($sth, $param_num, $value, $attr) = @_;
     # Store bind parameter for later use
@@ -1113,6 +1195,7 @@ sub bind_col {
     return undef unless $col && ref($ref) eq 'SCALAR';
     $sth->{bound_columns} ||= {};
     $sth->{bound_columns}{$col} = $ref;
+    delete $sth->{_bound_row};
     return 1;
 }
 
@@ -1140,6 +1223,8 @@ sub fetchall_arrayref {
     # Database->{Active} accurate but clear sth->{Active} after DML executes; using
     # Database here makes fetchall_arrayref spuriously return [] after SELECT execute().
     return undef unless $sth->{Active};
+    return $JDBC_FETCHALL_ARRAYREF->($sth, $slice, $max_rows)
+        if _is_jdbc_handle($sth) && !$sth->{_pragma_rows};
 
     my @rows;
     my $row_count = 0;
@@ -1321,6 +1406,8 @@ sub selectcol_arrayref {
     my @col;
     my $columns = $attr && ref($attr) eq 'HASH' && $attr->{Columns}
         ? $attr->{Columns} : [1];
+    return $JDBC_FETCHCOL_ARRAYREF->($sth, $columns)
+        if _is_jdbc_handle($sth) && !$sth->{_pragma_rows};
     if (@$columns == 1) {
         my $idx = $columns->[0] - 1;
         while (my $row = $sth->fetchrow_arrayref()) {
@@ -1443,9 +1530,13 @@ sub connect_cached {
         if ($dbh->{Active} && $dbh->ping) {
             return $dbh;
         }
+        # Hand a dead handle's connection back so the pool can drop it
+        eval { $dbh->disconnect } if $dbh->{Active};
     }
 
-    my $dbh = $class->connect($dsn, $user, $pass, $attr) or return undef;
+    # JDBC connections come from the process-wide pool (see DBIConnectionPool)
+    my %connect_attr = (jdbc_pooled => 1, (ref $attr eq 'HASH' ? %$attr : ()));
+    my $dbh = $class->connect($dsn, $user, $pass, \%connect_attr) or return undef;
 
     # Implement simple LRU
     if (keys %CACHED_CONNECTIONS >= $MAX_CACHED_CONNECTIONS) {
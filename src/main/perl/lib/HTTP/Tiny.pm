@@ -77,7 +77,7 @@ BEGIN {
     @attributes = qw(
         cookie_jar default_headers http_proxy https_proxy keep_alive
         local_address max_redirect max_size proxy no_proxy
-        SSL_options verify_SSL
+        SSL_options verify_SSL http2
     );
     my %persist_ok = map {; $_ => 1 } qw(
         cookie_jar default_headers max_redirect max_size
@@ -1121,6 +1121,10 @@ C<SSL_options> — A hashref of C<SSL_*> — options to pass through to L<IO::So
 
 C<$ENV{PERL_HTTP_TINY_SSL_INSECURE_BY_DEFAULT}> - Changes the default certificate verification behavior to not check server identity if set to 1. Only effective if C<verify_SSL> is not set. Added in version 0.083.
 
+=item *
+
+C<http2> — PerlOnJava only: negotiate HTTP/2 when the server supports it (defaults to false). The response C<protocol> field reports the version used.
+
 =back
 
 An accessor/mutator method exists for each attribute.
@@ -1138,6 +1142,12 @@ attributes are modified via accessor, or if the process ID or thread ID change,
 the persistent connection will be dropped.  If you want persistent connections
 across multiple destinations, use multiple HTTP::Tiny objects.
 
+On PerlOnJava, requests go through a pooled Java C<HttpClient> shared by every
+HTTP::Tiny object with the same connection settings (timeout, C<verify_SSL>,
+proxies, C<local_address> and C<http2>), so keep-alive connections and TLS
+sessions are reused for any destination and across objects.  With
+C<keep_alive> set to false each request uses a fresh connection.
+
 See L</SSL SUPPORT> for more on the C<verify_SSL> and C<SSL_options> attributes.
 
 =head2 get|head|put|post|patch|delete
@@ -1307,6 +1317,21 @@ C<redirects> If this field exists, it is an arrayref of response hash references
 On an error during the execution of the request, the C<status> field will
 contain 599, and the C<content> field will contain the text of the error.
 
+=head2 request_parallel
+
+    $responses = $http->request_parallel([
+        [ GET  => 'http://example.com/a' ],
+        [ POST => 'http://example.com/b', { content => $body } ],
+    ]);
+    $responses = $http->request_parallel(\@requests, { max_in_flight => 8 });
+
+PerlOnJava only.  Sends every C<[METHOD, URL, \%options]> entry concurrently
+and returns an array reference of response hashes, in the same order as the
+requests.  The options are those of C<request>.  C<max_in_flight> limits how
+many requests are outstanding at once (default: no limit).  Response bodies are
+buffered; a C<data_callback> is called once with the whole body after the
+response is complete.
+
 =head2 www_form_urlencode
 
     $params = $http->www_form_urlencode( $data );
@@ -1354,6 +1379,7 @@ host has closed its end of the socket.
 agent
 cookie_jar
 default_headers
+http2
 http_proxy
 https_proxy
 keep_alive
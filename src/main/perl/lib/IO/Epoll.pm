@@ -0,0 +1,83 @@
+package IO::Epoll;
+
+use strict;
+use warnings;
+use Exporter ();
+
+our @ISA = qw(Exporter);
+our $VERSION = "0.03";
+
+# Load Java XS backend (epoll_create, epoll_ctl, epoll_wait)
+require XSLoader;
+XSLoader::load('IO::Epoll', $VERSION);
+
+# Constants (matching <sys/epoll.h>)
+use constant EPOLLIN      => 0x001;
+use constant EPOLLPRI     => 0x002;
+use constant EPOLLOUT     => 0x004;
+use constant EPOLLERR     => 0x008;
+use constant EPOLLHUP     => 0x010;
+use constant EPOLLRDNORM  => 0x040;
+use constant EPOLLRDBAND  => 0x080;
+use constant EPOLLWRNORM  => 0x100;
+use constant EPOLLWRBAND  => 0x200;
+use constant EPOLLMSG     => 0x400;
+use constant EPOLLRDHUP   => 0x2000;
+use constant EPOLLONESHOT => 1 << 30;
+use constant EPOLLET      => 1 << 31;
+
+use constant EPOLL_CTL_ADD => 1;
+use constant EPOLL_CTL_DEL => 2;
+use constant EPOLL_CTL_MOD => 3;
+
+our @EXPORT = qw(
+    epoll_create epoll_ctl epoll_wait
+    EPOLLIN EPOLLPRI EPOLLOUT EPOLLERR EPOLLHUP
+    EPOLLRDNORM EPOLLRDBAND EPOLLWRNORM EPOLLWRBAND EPOLLMSG EPOLLRDHUP
+    EPOLLONESHOT EPOLLET
+    EPOLL_CTL_ADD EPOLL_CTL_DEL EPOLL_CTL_MOD
+);
+
+1;
+
+__END__
+
+=head1 NAME
+
+IO::Epoll - Incremental readiness notification for file descriptors
+
+=head1 SYNOPSIS
+
+    use IO::Epoll;
+    use POSIX ();
+
+    my $epfd = epoll_create(10);
+    epoll_ctl($epfd, EPOLL_CTL_ADD, fileno($sock), EPOLLIN) >= 0
+        or die "epoll_ctl: $!";
+
+    my $events = epoll_wait($epfd, 10, 1000);   # timeout in ms, -1 = forever
+    for my $event (@$events) {
+        my ($fd, $mask) = @$event;
+        ...
+    }
+
+    POSIX::close($epfd);
+
+=head1 DESCRIPTION
+
+The functional interface of the CPAN module, on top of the same persistent
+Java NIO selector that C<select> and L<IO::Poll> use. Descriptors are
+registered once with C<epoll_ctl>; C<epoll_wait> then waits on the whole set.
+
+Readiness is level-triggered: C<EPOLLET> is accepted but has no effect.
+C<EPOLLONESHOT> disables a descriptor after one report until it is re-armed
+with C<EPOLL_CTL_MOD>. Descriptors closed while in the set are dropped from it.
+
+C<epoll_create> and C<epoll_ctl> return -1 and C<epoll_wait> returns undef
+on failure, with C<$!> set.
+
+=head1 SEE ALSO
+
+L<IO::Poll>, L<IO::Select>
+
+=cut
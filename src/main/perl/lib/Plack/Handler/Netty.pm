@@ -19,7 +19,8 @@ sub _handle_streaming_response {
     my ($streaming_coderef, $send_response_callback) = @_;
 
     # Create a native Perl responder coderef
-    # When called with [status, headers, body], it sends the HTTP response
+    # When called with [status, headers, body], it sends the HTTP response;
+    # with [status, headers] it returns a writer for the body
     my $responder = sub {
         my ($response_array) = @_;
 
@@ -27,8 +28,8 @@ sub _handle_streaming_response {
         die "responder requires arrayref argument"
             unless ref($response_array) eq 'ARRAY';
 
-        die "responder requires 3-element array [status, headers, body]"
-            unless @$response_array == 3;
+        die "responder requires [status, headers] or [status, headers, body]"
+            unless @$response_array == 2 || @$response_array == 3;
 
         my ($status, $headers, $body) = @$response_array;
 
@@ -38,21 +39,21 @@ sub _handle_streaming_response {
         die "headers must be arrayref"
             unless ref($headers) eq 'ARRAY';
 
-        die "body must be arrayref"
-            unless ref($body) eq 'ARRAY';
+        die "body must be arrayref or filehandle"
+            if @$response_array == 3 && !ref($body);
 
-        # Call back to Java to send the HTTP response
-        $send_response_callback->([
-            $status,
-            $headers,
-            $body,
-        ]);
+        # Call back to Java to send the HTTP response (or start the writer)
+        return $send_response_callback->([ @$response_array ]);
     };
 
     # Invoke the app's streaming function with our responder
     $streaming_coderef->($responder);
 }
 
+# Writer returned by $responder->([$status, $headers]).
+# write, close and poll_cb are implemented in Java.
+package Plack::Handler::Netty::Writer;
+
 1;
 
 __END__
@@ -206,9 +207,30 @@ connection, improving performance for clients making multiple requests.
 =item * C<max_request_size> (integer, default: C<10485760>)
 
 Maximum HTTP request body size in bytes (default 10MB). Requests exceeding
-this size will be rejected. Increase for applications that handle large
+this size are answered with 413. Increase for applications that handle large
 file uploads.
 
+=item * C<input_buffer_size> (integer, default: C<1048576>)
+
+Request bodies up to this size are read completely before the application
+runs, and C<psgi.input> is seekable. With a runtime pool
+(C<JPERL_RUNTIME_POOL_SIZE>), larger and chunked bodies are streamed instead:
+the application starts as soon as the headers arrive, reads the body as it
+comes in, and the server stops reading from the socket while about this many
+bytes are waiting to be read. Without a pool every body is buffered.
+
+=item * C<input_timeout> (integer, default: C<60>)
+
+Seconds a read from a streamed C<psgi.input> waits for more of the body.
+When it expires, or the client disconnects, the read fails with C<$!> set
+and the handle reports end of file.
+
+=item * C<request_threads> (integer, default: the runtime pool size)
+
+Number of threads that run applications whose bodies are streamed. Further
+streamed requests wait for a free thread. There is no point in more threads
+than pooled runtimes, since each request needs one.
+
 =back
 
 B<Example Configurations:>
@@ -270,6 +292,18 @@ a responder callback:
         $responder->([200, ['Content-Type' => 'text/plain'], ['chunk1', 'chunk2']]);
     };
 
+Calling the responder with only C<[status, headers]> returns a writer with
+C<write($chunk)>, C<close> and C<poll_cb($cb)>. Chunks are sent as they are
+written, using chunked transfer encoding unless the app set Content-Length.
+C<poll_cb> calls C<$cb-E<gt>($writer)> on the event loop each time the
+connection can take more data, after the application has returned.
+
+=item * B<Filehandle bodies>
+
+The body may be a filehandle or an object with C<getline> and C<close>. A
+handle opened on a file is sent from its current position with zero-copy
+file transfer (chunked file reads under TLS) and never enters the heap.
+
 This is useful for:
 
 =over 4
@@ -306,6 +340,9 @@ The handler provides all required PSGI 1.1 environment keys:
 
 =item * C<psgi.input> - Request body as IO::Handle
 
+=item * C<psgix.input.buffered> - \1 when the whole body was read before the
+app was called, \0 when C<psgi.input> is streamed (see C<input_buffer_size>)
+
 =item * C<psgi.errors> - Error log (STDERR)
 
 =item * C<psgi.multithread> - \0 by default. When
@@ -0,0 +1,104 @@
+package org.perlonjava.runtime.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.perlonjava.runtime.runtimetypes.PerlRuntime;
+import org.perlonjava.runtime.runtimetypes.RuntimeIO;
+
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ReadinessSelectorTest {
+    @Test
+    void stdinIsStillRecheckedWhileWaitingOnASocket() throws Exception {
+        PerlRuntime runtime = new PerlRuntime().initialize();
+        PipedOutputStream typed = new PipedOutputStream();
+        PipedInputStream stdin = new PipedInputStream(typed);
+        try (PerlRuntime.Binding ignored = runtime.bind();
+             ServerSocketChannel server = ServerSocketChannel.open();
+             ReadinessSelector readiness = ReadinessSelector.open()) {
+            RuntimeIO.setStdin(new RuntimeIO(new StandardIO(stdin)));
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            int listener = new RuntimeIO(new SocketIO(server.socket(), server)).assignFileno();
+
+            Thread typist = new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                    typed.write('x');
+                    typed.flush();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            typist.start();
+
+            int[] revents = new int[2];
+            long start = System.nanoTime();
+            int ready = readiness.poll(new int[]{StandardIO.STDIN_FILENO, listener},
+                    new int[]{ReadinessSelector.POLLIN, ReadinessSelector.POLLIN}, revents, 5000);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            typist.join();
+
+            assertEquals(1, ready);
+            assertEquals(ReadinessSelector.POLLIN, revents[0] & ReadinessSelector.POLLIN);
+            assertEquals(0, revents[1]);
+            assertTrue(elapsedMillis < 4000, "stdin input noticed after " + elapsedMillis + "ms");
+        } finally {
+            runtime.close();
+        }
+    }
+
+    @Test
+    void releaseLeavesTheSelectionToTheThreadThatIsWaiting() throws Exception {
+        PerlRuntime runtime = new PerlRuntime().initialize();
+        try (PerlRuntime.Binding ignored = runtime.bind();
+             ServerSocketChannel server = ServerSocketChannel.open();
+             ReadinessSelector readiness = ReadinessSelector.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            SocketChannel client = SocketChannel.open(server.getLocalAddress());
+            SocketChannel accepted = server.accept();
+            RuntimeIO socket = new RuntimeIO(new SocketIO(client, StandardProtocolFamily.INET));
+            int fd = socket.assignFileno();
+            client.configureBlocking(false);
+            // A non-blocking channel stays registered after the call
+            readiness.poll(new int[]{fd}, new int[]{ReadinessSelector.POLLIN}, new int[1], 0);
+            assertTrue(client.isRegistered());
+
+            CountDownLatch waiting = new CountDownLatch(1);
+            Thread owner = new Thread(() -> {
+                waiting.countDown();
+                try {
+                    readiness.poll(new int[0], new int[0], new int[0], 2000);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            owner.start();
+            waiting.await();
+            Thread.sleep(100);
+
+            long start = System.nanoTime();
+            ReadinessSelector.release(client);
+            client.configureBlocking(true);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertFalse(client.isRegistered());
+            assertTrue(elapsedMillis < 1500, "channel handed back after " + elapsedMillis + "ms");
+
+            owner.join();
+            accepted.close();
+            client.close();
+        } finally {
+            runtime.close();
+        }
+    }
+}
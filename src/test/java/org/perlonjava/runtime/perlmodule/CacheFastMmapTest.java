@@ -0,0 +1,166 @@
+package org.perlonjava.runtime.perlmodule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.perlonjava.runtime.runtimetypes.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class CacheFastMmapTest {
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void clearTimeOverride() {
+        CacheFastMmap.fc_set_time_override(new RuntimeArray(new RuntimeScalar(0)), 0);
+    }
+
+    private static RuntimeScalar open(Path file, boolean init) {
+        return open(file, init, 5);
+    }
+
+    private static RuntimeScalar open(Path file, boolean init, int numPages) {
+        RuntimeScalar cache = (RuntimeScalar) CacheFastMmap.fc_new(new RuntimeArray(), 0).elements.getFirst();
+        param(cache, "share_file", new RuntimeScalar(file.toString()));
+        param(cache, "num_pages", new RuntimeScalar(numPages));
+        param(cache, "page_size", new RuntimeScalar(4096));
+        param(cache, "init_file", new RuntimeScalar(init ? 1 : 0));
+        CacheFastMmap.fc_init(new RuntimeArray(cache), 0);
+        return cache;
+    }
+
+    private static void param(RuntimeScalar cache, String name, RuntimeScalar value) {
+        CacheFastMmap.fc_set_param(new RuntimeArray(cache, new RuntimeScalar(name), value), 0);
+    }
+
+    private static int write(RuntimeScalar cache, String key, RuntimeScalar value, long expireOn) {
+        CacheFastMmap.fc_expunge(new RuntimeArray(cache, new RuntimeScalar(2), new RuntimeScalar(0),
+                new RuntimeScalar(key.length() + value.toString().length())), 0);
+        return ((RuntimeScalar) CacheFastMmap.fc_write(new RuntimeArray(cache, new RuntimeScalar(0),
+                new RuntimeScalar(key), value, new RuntimeScalar(expireOn), new RuntimeScalar(0)), 0)
+                .elements.getFirst()).getInt();
+    }
+
+    private static List<RuntimeBase> read(RuntimeScalar cache, String key) {
+        return CacheFastMmap.fc_read(new RuntimeArray(cache, new RuntimeScalar(0), new RuntimeScalar(key)), 0).elements;
+    }
+
+    private static boolean found(RuntimeScalar cache, String key) {
+        return ((RuntimeScalar) read(cache, key).get(2)).getBoolean();
+    }
+
+    private static void close(RuntimeScalar cache) {
+        CacheFastMmap.fc_close(new RuntimeArray(cache), 0);
+    }
+
+    @Test
+    void handlesOnOneShareFileSeeTheSameEntries() {
+        Path file = dir.resolve("cache");
+        RuntimeScalar first = open(file, true);
+        RuntimeScalar second = open(file, false);
+        try {
+            assertEquals(1, write(first, "text", new RuntimeScalar("café ☺"), -1));
+            assertEquals(1, write(first, "bytes", new RuntimeScalar(new byte[]{(byte) 0xff, 0}), 0));
+
+            List<RuntimeBase> text = read(second, "text");
+            assertEquals("café ☺", text.get(0).toString());
+            assertEquals(RuntimeScalarType.STRING, ((RuntimeScalar) text.get(0)).type);
+            assertFalse(((RuntimeScalar) text.get(3)).getDefinedBoolean());
+            RuntimeScalar bytes = (RuntimeScalar) read(second, "bytes").getFirst();
+            assertEquals(RuntimeScalarType.BYTE_STRING, bytes.type);
+            assertEquals("ÿ\u0000", bytes.toString());
+
+            CacheFastMmap.fc_delete(new RuntimeArray(second, new RuntimeScalar(0), new RuntimeScalar("text")), 0);
+            assertFalse(found(first, "text"));
+        } finally {
+            close(first);
+            close(second);
+        }
+    }
+
+    @Test
+    void entriesPersistInTheShareFile() throws Exception {
+        Path file = dir.resolve("cache");
+        RuntimeScalar cache = open(file, true);
+        write(cache, "kept", new RuntimeScalar("value"), 0);
+        close(cache);
+        assertEquals(5 * 4096, Files.size(file));
+
+        cache = open(file, false);
+        try {
+            assertEquals("value", read(cache, "kept").getFirst().toString());
+        } finally {
+            close(cache);
+        }
+        cache = open(file, true);
+        try {
+            assertFalse(found(cache, "kept"));
+        } finally {
+            close(cache);
+        }
+    }
+
+    @Test
+    void anOpenShareFileIsNotRemappedWithAnotherGeometry() throws Exception {
+        Path file = dir.resolve("cache");
+        RuntimeScalar first = open(file, true);
+        try {
+            write(first, "kept", new RuntimeScalar("value"), 0);
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> open(file, false, 7));
+            assertTrue(e.getMessage().contains("num_pages=5"), e.getMessage());
+            assertEquals(5 * 4096, Files.size(file));
+            assertEquals("value", read(first, "kept").getFirst().toString());
+        } finally {
+            close(first);
+        }
+
+        RuntimeScalar resized = open(file, false, 7);
+        try {
+            assertEquals(7 * 4096, Files.size(file));
+            assertFalse(found(resized, "kept"));
+        } finally {
+            close(resized);
+        }
+    }
+
+    @Test
+    void fullPagesEvictLeastRecentlyUsedEntries() {
+        RuntimeScalar cache = open(dir.resolve("cache"), true);
+        try {
+            String value = "v".repeat(200);
+            for (int i = 0; i < 1000; i++) {
+                CacheFastMmap.fc_set_time_override(new RuntimeArray(new RuntimeScalar(1000 + i)), 0);
+                assertEquals(1, write(cache, "key" + i, new RuntimeScalar(value), 0));
+            }
+            assertTrue(found(cache, "key999"));
+            assertFalse(found(cache, "key0"));
+            int kept = CacheFastMmap.fc_get_keys(new RuntimeArray(cache, new RuntimeScalar(0)), 0).elements.size();
+            assertTrue(kept > 5 && kept < 100, "kept " + kept);
+        } finally {
+            close(cache);
+        }
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        RuntimeScalar cache = open(dir.resolve("cache"), true);
+        try {
+            CacheFastMmap.fc_set_time_override(new RuntimeArray(new RuntimeScalar(1000)), 0);
+            write(cache, "soon", new RuntimeScalar("x"), 1005);
+            assertTrue(found(cache, "soon"));
+
+            CacheFastMmap.fc_set_time_override(new RuntimeArray(new RuntimeScalar(1005)), 0);
+            assertFalse(found(cache, "soon"));
+            assertTrue(CacheFastMmap.fc_get_keys(new RuntimeArray(cache, new RuntimeScalar(0)), 0).elements.isEmpty());
+        } finally {
+            close(cache);
+        }
+    }
+}
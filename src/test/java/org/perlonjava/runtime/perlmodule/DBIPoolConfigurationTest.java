@@ -0,0 +1,21 @@
+package org.perlonjava.runtime.perlmodule;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class DBIPoolConfigurationTest {
+    @Test
+    void sizesPreferThePropertyAndRejectInvalidValues() {
+        assertEquals(0, DBIConnectionPool.resolveSize(null, null));
+        assertEquals(4, DBIConnectionPool.resolveSize(null, " 4 "));
+        assertEquals(2, DBIConnectionPool.resolveSize("2", "8"));
+        assertThrows(IllegalArgumentException.class, () -> DBIConnectionPool.resolveSize("-1", null));
+
+        assertEquals(32, DBIStatementCache.resolveSize(null, ""));
+        assertEquals(0, DBIStatementCache.resolveSize("0", "16"));
+        assertThrows(IllegalArgumentException.class, () -> DBIStatementCache.resolveSize(null, "lots"));
+    }
+}
@@ -0,0 +1,146 @@
+package org.perlonjava.runtime.perlmodule;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.perlonjava.runtime.runtimetypes.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class HttpTinyTest {
+    private HttpServer server;
+    private PerlRuntime runtime;
+    private String base;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/hello", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            reply(exchange, "hello".getBytes(StandardCharsets.ISO_8859_1));
+        });
+        server.createContext("/echo", exchange ->
+                reply(exchange, exchange.getRequestURI().getQuery().getBytes(StandardCharsets.ISO_8859_1)));
+        server.createContext("/stream", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            byte[] block = new byte[50_000];
+            Arrays.fill(block, (byte) 0xFF);
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (int i = 0; i < 4; i++) {
+                    body.write(block);
+                    body.flush();
+                }
+            }
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+        runtime = new PerlRuntime().initialize();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        runtime.close();
+    }
+
+    private static void reply(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static RuntimeScalar client() {
+        RuntimeHash instance = new RuntimeHash();
+        instance.put("agent", new RuntimeScalar("HttpTinyTest"));
+        instance.put("timeout", new RuntimeScalar(10));
+        instance.put("keep_alive", new RuntimeScalar(1));
+        instance.put("verify_SSL", new RuntimeScalar(1));
+        return instance.createReference();
+    }
+
+    private RuntimeHash get(RuntimeScalar client, String path, RuntimeHash options) throws Exception {
+        RuntimeArray args = new RuntimeArray(client, new RuntimeScalar("GET"), new RuntimeScalar(base + path));
+        if (options != null) RuntimeArray.push(args, options.createReference());
+        return HttpTiny.request(args, RuntimeContextType.SCALAR).getFirst().hashDeref();
+    }
+
+    @Test
+    void objectsWithTheSameSettingsShareKeepAliveConnections() throws Exception {
+        try (PerlRuntime.Binding ignored = runtime.bind()) {
+            RuntimeHash first = get(client(), "/hello", null);
+            RuntimeHash second = get(client(), "/hello", null);
+
+            assertTrue(first.get("success").getBoolean());
+            assertEquals("hello", second.get("content").toString());
+            assertEquals(RuntimeScalarType.BYTE_STRING, second.get("content").type);
+            assertEquals("HTTP/1.1", second.get("protocol").toString());
+            assertEquals(1, clientPorts.size(), "both requests used one pooled connection");
+        }
+    }
+
+    @Test
+    void dataCallbackReceivesTheBodyInChunks() throws Exception {
+        try (PerlRuntime.Binding ignored = runtime.bind()) {
+            List<Integer> chunks = new ArrayList<>();
+            RuntimeHash options = new RuntimeHash();
+            options.put("data_callback", new RuntimeScalar(new RuntimeCode((args, context) -> {
+                RuntimeScalar chunk = args.get(0);
+                assertEquals(200, args.get(1).hashDeref().get("status").getInt());
+                assertEquals(0xFF, chunk.toString().charAt(0));
+                chunks.add(chunk.toString().length());
+                return new RuntimeList();
+            }, null)));
+
+            RuntimeHash response = get(client(), "/stream", options);
+
+            assertTrue(response.get("success").getBoolean());
+            assertFalse(response.exists("content").getBoolean());
+            assertEquals(200_000, chunks.stream().mapToInt(Integer::intValue).sum());
+            assertTrue(chunks.size() > 1, "body was delivered incrementally");
+        }
+    }
+
+    @Test
+    void parallelRequestsReturnResponsesInRequestOrder() throws Exception {
+        try (PerlRuntime.Binding ignored = runtime.bind()) {
+            RuntimeArray requests = new RuntimeArray();
+            for (int i = 0; i < 6; i++) {
+                RuntimeArray entry = new RuntimeArray(new RuntimeScalar("GET"),
+                        new RuntimeScalar(base + "/echo?n=" + i));
+                RuntimeArray.push(requests, entry.createReference());
+            }
+            RuntimeArray.push(requests, new RuntimeArray(new RuntimeScalar("GET"),
+                    new RuntimeScalar("http://127.0.0.1:1/")).createReference());
+            RuntimeHash limits = new RuntimeHash();
+            limits.put("max_in_flight", new RuntimeScalar(2));
+
+            RuntimeArray responses = HttpTiny.request_parallel(
+                    new RuntimeArray(client(), requests.createReference(), limits.createReference()),
+                    RuntimeContextType.SCALAR).getFirst().arrayDeref();
+
+            assertEquals(7, responses.size());
+            for (int i = 0; i < 6; i++) {
+                assertEquals("n=" + i, responses.get(i).hashDeref().get("content").toString());
+            }
+            assertEquals(599, responses.get(6).hashDeref().get("status").getInt());
+        }
+    }
+}
@@ -48,6 +48,36 @@ class PlackRuntimePoolTest {
         }
     }
 
+    @Test
+    void persistentWorkersServeTheConfiguredNumberOfRequests() throws Exception {
+        PerlRuntime template = new PerlRuntime().initialize();
+        RuntimeScalar app = new RuntimeScalar(new RuntimeCode(
+                (args, context) -> new RuntimeScalar(200).getList(), null));
+        PlackHandlerNetty.PsgiRuntimePool pool =
+                new PlackHandlerNetty.PsgiRuntimePool(template, app, 1, false, 2, 0);
+        try {
+            PerlRuntime worker;
+            RuntimeScalar workerApp;
+            try (PlackHandlerNetty.PsgiRuntimePool.RequestLease lease = pool.checkout()) {
+                worker = lease.runtime();
+                workerApp = lease.app();
+            }
+            assertFalse(worker.isClosed());
+            try (PlackHandlerNetty.PsgiRuntimePool.RequestLease lease = pool.checkout()) {
+                assertSame(worker, lease.runtime());
+                assertSame(workerApp, lease.app());
+            }
+            assertTrue(worker.isClosed());
+            try (PlackHandlerNetty.PsgiRuntimePool.RequestLease lease = pool.checkout()) {
+                assertNotSame(worker, lease.runtime());
+            }
+            assertEquals(1L, pool.stats().get("reused"));
+        } finally {
+            pool.close();
+            template.close();
+        }
+    }
+
     @Test
     void pooledHandlerAdvertisesMultithreadAndUsesDistinctRequestRuntimes() {
         PerlRuntime template = new PerlRuntime().initialize();
@@ -0,0 +1,162 @@
+package org.perlonjava.runtime.perlmodule;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.perlonjava.runtime.runtimetypes.*;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class PlackStreamingInputTest {
+    private static RuntimeScalar bodyLengthApp() {
+        return new RuntimeScalar(new RuntimeCode((args, context) -> {
+            RuntimeHash env = args.get(0).hashDeref();
+            RuntimeIO input = RuntimeIO.getRuntimeIO(env.get("psgi.input"));
+            StringBuilder body = new StringBuilder();
+            String chunk;
+            while (!(chunk = input.ioHandle.read(7).toString()).isEmpty()) {
+                body.append(chunk);
+            }
+            String reply = env.get("psgix.input.buffered").getInt() + ":" + body;
+            RuntimeArray response = new RuntimeArray(
+                    new RuntimeScalar(200),
+                    new RuntimeArray().createReference(),
+                    new RuntimeArray(new RuntimeScalar(reply)).createReference());
+            return response.createReference().getList();
+        }, null));
+    }
+
+    private static FullHttpResponse awaitResponse(EmbeddedChannel channel) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            channel.runPendingTasks();
+            Object outbound = channel.readOutbound();
+            if (outbound instanceof FullHttpResponse response) return response;
+            Thread.sleep(10);
+        }
+        fail("no response");
+        return null;
+    }
+
+    @Test
+    void largeBodiesAreStreamedToTheAppWhileTheyArrive() throws Exception {
+        PerlRuntime template = new PerlRuntime().initialize();
+        RuntimeScalar app = bodyLengthApp();
+        PlackHandlerNetty.PsgiRuntimePool pool = new PlackHandlerNetty.PsgiRuntimePool(template, app, 1);
+        EmbeddedChannel channel = new EmbeddedChannel(new PlackHandlerNetty.PSGIRequestHandler(
+                app, "localhost", 5000, false, template, pool, 1024, 16));
+        try {
+            HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/upload");
+            HttpUtil.setContentLength(request, 40);
+            channel.writeInbound(request);
+            for (int i = 0; i < 3; i++) {
+                channel.writeInbound(new DefaultHttpContent(
+                        Unpooled.copiedBuffer("0123456789", StandardCharsets.ISO_8859_1)));
+            }
+            channel.writeInbound(new DefaultLastHttpContent(
+                    Unpooled.copiedBuffer("abcdefghij", StandardCharsets.ISO_8859_1)));
+
+            FullHttpResponse response = awaitResponse(channel);
+            assertEquals(200, response.status().code());
+            assertEquals("0:012345678901234567890123456789abcdefghij",
+                    response.content().toString(StandardCharsets.ISO_8859_1));
+            response.release();
+        } finally {
+            channel.finishAndReleaseAll();
+            pool.close();
+            template.close();
+        }
+    }
+
+    @Test
+    void smallBodiesStayBufferedAndOversizedOnesAreRejected() throws Exception {
+        PerlRuntime template = new PerlRuntime().initialize();
+        RuntimeScalar app = bodyLengthApp();
+        PlackHandlerNetty.PsgiRuntimePool pool = new PlackHandlerNetty.PsgiRuntimePool(template, app, 1);
+        EmbeddedChannel channel = new EmbeddedChannel(new PlackHandlerNetty.PSGIRequestHandler(
+                app, "localhost", 5000, true, template, pool, 32, 16));
+        try {
+            FullHttpRequest small = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/",
+                    Unpooled.copiedBuffer("tiny", StandardCharsets.ISO_8859_1));
+            HttpUtil.setContentLength(small, 4);
+            channel.writeInbound(small);
+            FullHttpResponse response = awaitResponse(channel);
+            assertEquals("1:tiny", response.content().toString(StandardCharsets.ISO_8859_1));
+            response.release();
+
+            HttpRequest large = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/");
+            HttpUtil.setContentLength(large, 33);
+            channel.writeInbound(large);
+            response = awaitResponse(channel);
+            assertEquals(413, response.status().code());
+            response.release();
+        } finally {
+            channel.finishAndReleaseAll();
+            pool.close();
+            template.close();
+        }
+    }
+
+    @Test
+    void aStalledBodyTimesOutInsteadOfBlockingTheReader() throws Exception {
+        PerlRuntime runtime = new PerlRuntime().initialize();
+        EmbeddedChannel channel = new EmbeddedChannel();
+        PsgiStreamingInput input = new PsgiStreamingInput(channel, 1024, 50);
+        try (PerlRuntime.Binding ignored = runtime.bind()) {
+            input.offer(Unpooled.copiedBuffer("head", StandardCharsets.ISO_8859_1));
+            assertEquals("head", input.doRead(16, null).toString());
+
+            long start = System.nanoTime();
+            assertFalse(input.doRead(16, null).getBoolean());
+            assertTrue(System.nanoTime() - start < 5_000_000_000L);
+            assertTrue(GlobalVariable.getGlobalVariable("main::!").toString().contains("Timed out"));
+            assertTrue(input.eof().getBoolean());
+        } finally {
+            channel.finishAndReleaseAll();
+            runtime.close();
+        }
+    }
+
+    @Test
+    void closingTheConnectionOrTheHandleWakesAWaitingReader() throws Exception {
+        PerlRuntime runtime = new PerlRuntime().initialize();
+        EmbeddedChannel channel = new EmbeddedChannel();
+        PsgiStreamingInput dropped = new PsgiStreamingInput(channel, 1024, 60_000);
+        PsgiStreamingInput discarded = new PsgiStreamingInput(new EmbeddedChannel(), 1024, 60_000);
+        try (PerlRuntime.Binding ignored = runtime.bind()) {
+            channel.close();
+            assertFalse(dropped.doRead(16, null).getBoolean());
+            assertTrue(GlobalVariable.getGlobalVariable("main::!").toString().contains("closed the connection"));
+
+            Thread closer = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                discarded.close();
+            });
+            closer.start();
+            assertFalse(discarded.doRead(16, null).getBoolean());
+            closer.join();
+        } finally {
+            runtime.close();
+        }
+    }
+
+    @Test
+    void streamedRequestsRunOnABoundedExecutor() {
+        java.util.concurrent.ThreadPoolExecutor executor =
+                (java.util.concurrent.ThreadPoolExecutor) PlackHandlerNetty.newRequestExecutor(3);
+        try {
+            assertEquals(3, executor.getMaximumPoolSize());
+            assertTrue(executor.allowsCoreThreadTimeOut());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
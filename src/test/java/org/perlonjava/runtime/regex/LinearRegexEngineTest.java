@@ -0,0 +1,175 @@
+package org.perlonjava.runtime.regex;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+@Tag("unit")
+class LinearRegexEngineTest {
+    private static LinearRegexEngine compile(String pattern, String modifiers) {
+        return LinearRegexEngine.compile(pattern, RegexFlags.fromModifiers(modifiers, pattern));
+    }
+
+    private static RegexMatcher matcher(String pattern, String modifiers, String input) {
+        return new JoniRegexPattern(pattern, RegexFlags.fromModifiers(modifiers, pattern))
+                .matcher(input, List.of());
+    }
+
+    @Test
+    void acceptsOnlyRegularPatterns() {
+        assertNotNull(compile("^(\\d+)\\s+(\\S+)\\s+(\\S+)", ""));
+        assertNotNull(compile("(?<key>[[:alpha:]_]\\w*)=(?i:yes|no)\\b", ""));
+        assertNotNull(compile("a{2,5}?|(?:x|y)*z$", "ms"));
+        assertNull(compile("(\\w+)\\s+\\1", ""));
+        assertNull(compile("foo(?=bar)", ""));
+        assertNull(compile("(?<!x)y", ""));
+        assertNull(compile("(?>a+)b", ""));
+        assertNull(compile("a++b", ""));
+        assertNull(compile("(a(?1)?b)", ""));
+        assertNull(compile("a(*PRUNE)b", ""));
+        assertNull(compile("\\Gfoo", ""));
+        assertNull(compile("café", ""));
+        assertNull(compile("(a*)*", ""));
+        assertNull(compile("a b", "xx"));
+    }
+
+    @Test
+    void reportsTheLeftmostMatchWithPerlCaptures() {
+        RegexMatcher m = matcher("(\\w+)@(\\w+)\\.com", "", "mail bob@example.com today");
+
+        assertTrue(m.find());
+        assertEquals(5, m.start());
+        assertEquals("bob", m.group(1));
+        assertEquals("example", m.group(2));
+        assertEquals(2, m.lastClosedCapture());
+    }
+
+    @Test
+    void eachIterationStartsWithItsGroupsUnset() {
+        RegexMatcher m = matcher("(?:(a)|b)+", "", "ab");
+        assertTrue(m.find());
+        assertEquals("ab", m.group(0));
+        assertNull(m.group(1));
+
+        m = matcher("((foo)|(bar))*", "", "foobar");
+        assertTrue(m.find());
+        assertEquals("bar", m.group(1));
+        assertNull(m.group(2));
+        assertEquals("bar", m.group(3));
+
+        m = matcher("(?:x(y)?z)+", "", "xyzxz");
+        assertTrue(m.find());
+        assertEquals("xyzxz", m.group(0));
+        assertNull(m.group(1));
+
+        m = matcher("(a(b)?)+", "", "aba");
+        assertTrue(m.find());
+        assertEquals("a", m.group(1));
+        assertNull(m.group(2));
+
+        m = matcher("(?:(x)?y)+", "", "xyy");
+        assertTrue(m.find());
+        assertEquals("xyy", m.group(0));
+        assertNull(m.group(1));
+
+        m = matcher("(?:b(a)*b)+", "", "cbaaabbb");
+        assertTrue(m.find());
+        assertEquals("baaabbb", m.group(0));
+        assertNull(m.group(1));
+    }
+
+    @Test
+    void longSubjectsClearIterationGroupsToo() {
+        // Long enough for the Pike VM instead of the backtracker
+        RegexMatcher m = matcher("(?:x(y)?z)+", "", "xyz" + "xz".repeat(300_000));
+
+        assertTrue(m.find());
+        assertEquals(600_003, m.end());
+        assertNull(m.group(1));
+    }
+
+    @Test
+    void honoursFlagsAndNamedGroups() {
+        RegexMatcher m = matcher("^(?<word>[a-z]+)$", "im", "123\nHello\n");
+
+        assertTrue(m.find());
+        assertEquals("Hello", m.group("word"));
+        assertEquals(4, m.start("word"));
+        assertFalse(m.find());
+    }
+
+    @Test
+    void advancesPastEmptyMatches() {
+        RegexMatcher m = matcher("x*", "", "axb");
+
+        StringBuilder seen = new StringBuilder();
+        while (m.find()) seen.append('[').append(m.start()).append(',').append(m.end()).append(']');
+        assertEquals("[0,0][1,2][2,2][3,3]", seen.toString());
+    }
+
+    @Test
+    void findNotEmptyOnlyMatchesAtTheCurrentPosition() {
+        RegexMatcher m = matcher("b*", "", "abb");
+
+        assertFalse(m.findNotEmpty());
+        m.region(1, 3);
+        assertTrue(m.findNotEmpty());
+        assertEquals("bb", m.group(0));
+    }
+
+    @Test
+    void nonAsciiSubjectsStillMatchThroughJoni() {
+        RegexMatcher m = matcher("(\\w+)", "", "été");
+
+        assertTrue(m.find());
+        assertEquals("été", m.group(1));
+    }
+
+    @Test
+    void largeLiteralAlternationsKeepBranchOrder() {
+        String words = "a|ab|abc|b|bc|c|cd|d|de|e|ef|f|fg|g|gh|h|hi";
+        RegexMatcher m = matcher("\\b(?:" + words + ")\\b|(" + words + ")x", "", "abcx abc");
+
+        assertTrue(m.find());
+        assertEquals("abcx", m.group(0));
+        assertEquals("abc", m.group(1));
+        assertTrue(m.find());
+        assertEquals("abc", m.group(0));
+        assertNull(m.group(1));
+        assertFalse(m.find());
+    }
+
+    @Test
+    void largeLiteralAlternationsFoldCase() {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < 5000; i++) words.append(i == 0 ? "" : "|").append("word").append(i);
+
+        RegexMatcher m = matcher("\\b(" + words + ")\\b", "i", "a WORD4999 and Word12.");
+        assertTrue(m.find());
+        assertEquals("WORD4999", m.group(1));
+        assertTrue(m.find());
+        assertEquals("Word12", m.group(1));
+        assertFalse(m.find());
+        assertFalse(matcher("^(?:" + words + ")$", "", "WORD1").find());
+    }
+
+    @Test
+    void nestedQuantifiersDoNotBacktrackExponentially() {
+        String input = "x".repeat(100_000);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertFalse(matcher("(x+x+)+y", "", input).find());
+            assertFalse(matcher("^(\\w+\\s?)*$", "", input + "!").find());
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class EvalLiteralNormalizerTest {
+    @Test
+    void liftedLiteralsAreBoundReadOnly() {
+        EvalLiteralNormalizer.Template template = EvalLiteralNormalizer.normalize("for (1, 2) { $_++ }");
+        assertNotNull(template);
+        assertEquals(2, template.constants().size());
+        String prologue = template.source().substring(0, template.source().indexOf('\n'));
+        assertTrue(prologue.contains("Internals::SvREADONLY($__jperl_eval_k0, 1);"), prologue);
+        assertTrue(prologue.contains("Internals::SvREADONLY($__jperl_eval_k1, 1);"), prologue);
+    }
+
+    @Test
+    void constantItemsStayVerbatim() {
+        assertNull(EvalLiteralNormalizer.normalize("chop('abc')"));
+        assertNull(EvalLiteralNormalizer.normalize("chomp 'abc'"));
+        assertNull(EvalLiteralNormalizer.normalize("my $r = \\'x'; $$r"));
+        assertNull(EvalLiteralNormalizer.normalize("'x' = $y"));
+        assertNull(EvalLiteralNormalizer.normalize("'x' .= $y"));
+        assertNull(EvalLiteralNormalizer.normalize("++1"));
+        assertNull(EvalLiteralNormalizer.normalize("sub () { 42 }"));
+    }
+
+    @Test
+    void sourcesWithCompileTimeEffectsAreNotTemplated() {
+        assertNull(EvalLiteralNormalizer.normalize("use constant X => 42; X + 1"));
+        assertNull(EvalLiteralNormalizer.normalize("no warnings 'once'; $x = 1"));
+        assertNull(EvalLiteralNormalizer.normalize("BEGIN { $n++ } 'x'"));
+        assertNull(EvalLiteralNormalizer.normalize("package Foo; sub { 'x' }"));
+        assertNotNull(EvalLiteralNormalizer.normalize("$h{use} + $o->no('x')"));
+    }
+
+    @Test
+    void ordinaryOperandsAreStillLifted() {
+        assertNotNull(EvalLiteralNormalizer.normalize("sub ($) { 42 }"));
+        assertNotNull(EvalLiteralNormalizer.normalize("$_[0] == 42"));
+        assertNotNull(EvalLiteralNormalizer.normalize("$_[0] <= 42"));
+        assertNotNull(EvalLiteralNormalizer.normalize("sub () { 42 }; $_[0] + 1"));
+    }
+}
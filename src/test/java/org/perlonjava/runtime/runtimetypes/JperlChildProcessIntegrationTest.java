@@ -0,0 +1,110 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Runs the launcher with JPERL_INPROCESS=1, since the switch is read once per
+ * JVM. Every child reports {@code $$}, which an in-process child shares with
+ * its parent and a real process does not.
+ */
+@Tag("unit")
+class JperlChildProcessIntegrationTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    void jperlChildrenRunInTheLauncherJvm() throws Exception {
+        assumeFalse(System.getProperty("os.name").toLowerCase().startsWith("windows"));
+        Path projectDirectory = Path.of(System.getProperty("user.dir")).toAbsolutePath();
+        Path launcher = projectDirectory.resolve("jperl");
+        Path work = Files.createDirectories(temporaryDirectory.resolve("work").toRealPath());
+        Path child = work.resolve("child.pl");
+        Files.writeString(child, """
+                use Cwd ();
+                my $mode = shift;
+                if ($mode eq 'status') {
+                    exit($$ == $ARGV[0] ? 3 : 4);
+                } elsif ($mode eq 'env') {
+                    print "$$ $ENV{INPROCESS_PROBE} ", Cwd::getcwd(), "\\n";
+                    $ENV{INPROCESS_PROBE} = 'child';
+                    chdir '/';
+                } elsif ($mode eq 'lines') {
+                    print "$$\\n", "a\\n", "b\\n";
+                } elsif ($mode eq 'count') {
+                    my @lines = <STDIN>;
+                    exit(scalar @lines);
+                } elsif ($mode eq 'wait') {
+                    sleep 1 while 1;
+                }
+                """);
+        Path probe = work.resolve("probe.pl");
+        Files.writeString(probe, """
+                use strict;
+                use warnings;
+                use Cwd ();
+                my ($child) = @ARGV;
+                my $n = 0;
+                sub check {
+                    my ($ok, $name) = @_;
+                    $n++;
+                    print +($ok ? 'ok' : 'not ok'), " $n - $name\\n";
+                }
+
+                system($^X, $child, 'status', $$);
+                check($? >> 8 == 3, 'system runs in this JVM and reports the exit status');
+
+                $ENV{INPROCESS_PROBE} = 'parent';
+                my $cwd = Cwd::getcwd();
+                my $out = `$^X $child env`;
+                check($out eq "$$ parent $cwd\\n", "backticks capture the child's STDOUT: $out");
+                check($? == 0, 'backticks report the exit status');
+                check($ENV{INPROCESS_PROBE} eq 'parent', "the child's %ENV is its own");
+                check(Cwd::getcwd() eq $cwd, "the child's working directory is its own");
+
+                my $pid = open(my $in, '-|', $^X, $child, 'lines') or die "open: $!";
+                my @lines = <$in>;
+                check(close($in), 'reading pipe closes cleanly');
+                check("@lines" eq "$$\\n a\\n b\\n", "pipe open reads the child's STDOUT: @lines");
+                check($pid >= 1 << 22, 'pipe open returns an in-process child pid');
+
+                open(my $to, '|-', $^X, $child, 'count') or die "open: $!";
+                print $to "x\\n" for 1 .. 5;
+                close $to;
+                check($? >> 8 == 5, "writing pipe feeds the child's STDIN");
+
+                $pid = open(my $waiting, '-|', $^X, $child, 'wait') or die "open: $!";
+                check(kill('TERM', $pid) == 1, 'kill reaches the child');
+                check(waitpid($pid, 0) == $pid, 'waitpid reaps the child');
+                check($? >> 8 == 128 + 15, 'the signal becomes the wait status');
+                close $waiting;
+                print "1..$n\\n";
+                """);
+
+        ProcessBuilder builder = new ProcessBuilder(launcher.toString(), probe.toString(), child.toString());
+        builder.directory(work.toFile());
+        builder.redirectErrorStream(true);
+        builder.environment().put("JPERL_INPROCESS", "1");
+        Process process = builder.start();
+        if (!process.waitFor(120, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            process.waitFor(10, TimeUnit.SECONDS);
+            throw new AssertionError("in-process child probe timed out");
+        }
+        String output = new String(process.getInputStream().readAllBytes());
+        assertEquals(0, process.exitValue(), output);
+        assertTrue(output.contains("1..12\n"), output);
+        assertFalse(output.contains("not ok"), output);
+    }
+}
@@ -0,0 +1,35 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.perlonjava.app.cli.ArgumentParser;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class JperlChildProcessTest {
+    @Test
+    void disabledModeLeavesEveryCommandToARealProcess() {
+        assertFalse(JperlChildProcess.isEnabled());
+        assertNull(JperlChildProcess.start(List.of("-e", "exit 3"), new ProcessBuilder("jperl", "-e", "exit 3")));
+    }
+
+    @Test
+    void realPidsAndPseudoForkPidsAreNeverInProcessChildren() {
+        assertNull(JperlChildProcess.find(ProcessHandle.current().pid()));
+        assertNull(JperlChildProcess.find(1));
+        assertNull(JperlChildProcess.find(-(1 << 22) - 1));
+        assertNull(JperlChildProcess.find((1 << 22) + 1_000_000));
+    }
+
+    @Test
+    void onlyForeignShebangInterpretersNeedTheirOwnProcess() {
+        assertFalse(ArgumentParser.delegatesToShebangInterpreter("/usr/bin/perl -w"));
+        assertFalse(ArgumentParser.delegatesToShebangInterpreter("/usr/bin/env perl"));
+        assertFalse(ArgumentParser.delegatesToShebangInterpreter("  "));
+        assertTrue(ArgumentParser.delegatesToShebangInterpreter("/usr/bin/python3"));
+        assertTrue(ArgumentParser.delegatesToShebangInterpreter("/bin/sh -e"));
+    }
+}
@@ -0,0 +1,81 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.perlonjava.app.cli.CompilerOptions;
+import org.perlonjava.app.scriptengine.PerlLanguageProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class LazySubroutinePrecompilerTest {
+    @AfterEach
+    void disable() {
+        LazySubroutinePrecompiler.disableForTesting();
+    }
+
+    @Test
+    void profileRanksFollowFirstObservedCallOrder(@TempDir Path dir) throws Exception {
+        Path profile = dir.resolve("subs.profile");
+        Files.write(profile, List.of("# first calls", "main::handler", "", "Foo::new",
+                "main::handler", "Foo::name"), StandardCharsets.UTF_8);
+
+        Map<String, Integer> ranks = LazySubroutinePrecompiler.loadProfile(profile.toString());
+
+        assertEquals(Map.of("main::handler", 0, "Foo::new", 1, "Foo::name", 2), ranks);
+    }
+
+    @Test
+    void missingProfileOnlyLosesTheOrderingHint(@TempDir Path dir) {
+        assertEquals(Map.of(),
+                LazySubroutinePrecompiler.loadProfile(dir.resolve("absent").toString()));
+        assertEquals(Map.of(), LazySubroutinePrecompiler.loadProfile(null));
+    }
+
+    @Test
+    void profiledSubsAreBuiltOnlyOnceTheRuntimeIsIdle() throws Exception {
+        LazySubroutinePrecompiler.enableForTesting(Map.of("main::greet", 0));
+        PerlRuntime runtime = new PerlRuntime();
+        try {
+            RuntimeCode[] subs = runtime.execute(() -> {
+                run("my $greeting = 'hi'; sub greet { \"$greeting $_[0]\" } "
+                        + "sub twice { join ',', greet($_[0]), greet($_[0]) } 1");
+                RuntimeCode greet = (RuntimeCode) GlobalVariable.getGlobalCodeRef("main::greet").value;
+                RuntimeCode twice = (RuntimeCode) GlobalVariable.getGlobalCodeRef("main::twice").value;
+                // The owner is still executing, so nothing is compiled next to it
+                Thread.sleep(200);
+                assertNotNull(greet.compilerSupplier);
+                assertNotNull(twice.compilerSupplier);
+                return new RuntimeCode[]{greet, twice};
+            });
+
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while ((subs[0].compilerSupplier != null || subs[1].compilerSupplier != null)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNull(subs[0].compilerSupplier);
+            assertNull(subs[1].compilerSupplier);
+            assertNotNull(subs[0].subroutine);
+
+            assertEquals("hi you,hi you", runtime.execute(() -> run("twice('you')")));
+        } finally {
+            runtime.close();
+        }
+    }
+
+    private static String run(String source) throws Exception {
+        CompilerOptions options = new CompilerOptions();
+        options.fileName = "<precompile-test>";
+        options.code = source;
+        return PerlLanguageProvider.executePerlCode(options, false).scalar().toString();
+    }
+}
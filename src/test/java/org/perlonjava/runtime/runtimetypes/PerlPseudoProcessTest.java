@@ -0,0 +1,18 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unit")
+class PerlPseudoProcessTest {
+    @Test
+    void uncaughtDieExitsWithErrnoThenChildStatusThen255() {
+        assertEquals(2, PerlPseudoProcess.dieExitStatus(2, 3 << 8));
+        assertEquals(3, PerlPseudoProcess.dieExitStatus(0, 3 << 8));
+        assertEquals(255, PerlPseudoProcess.dieExitStatus(0, 0));
+        assertEquals(255, PerlPseudoProcess.dieExitStatus(0, 9));
+        assertEquals(1, PerlPseudoProcess.dieExitStatus(257, 0));
+    }
+}
@@ -0,0 +1,84 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.perlonjava.app.cli.CompilerOptions;
+import org.perlonjava.app.scriptengine.PerlLanguageProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class PerlRuntimeCopyOnReadSnapshotTest {
+
+    @Test
+    void childrenCloneSlotsOnFirstUseAndStayIsolated() throws Exception {
+        for (boolean interpreter : new boolean[]{false, true}) {
+            PerlRuntime template = new PerlRuntime();
+            run(template, interpreter, ""
+                    + "package Counter; sub bump { ++$_[0]{n} } "
+                    + "package main; our $graph = { n => 40 }; our $alias = $graph; "
+                    + "our @list = (1, 2, 3); our %INC_COPY = %INC; 1");
+
+            PerlRuntime first = template.copyOnReadSnapshotWithRoots(List.of()).runtime();
+            PerlRuntime second = template.copyOnReadSnapshotWithRoots(List.of()).runtime();
+
+            // Only the clones run code: the template must not execute after the snapshot
+            assertEquals("41:41:3", run(first, interpreter,
+                    "Counter::bump($graph); join q(:), $graph->{n}, $alias->{n}, scalar @list"));
+            assertEquals("40:40", run(second, interpreter,
+                    "join q(:), $graph->{n}, $alias->{n}"));
+            assertEquals("1", run(first, interpreter,
+                    "push @list, 4; exists $main::{INC_COPY} ? 1 : 0"));
+            assertEquals("3", run(second, interpreter, "scalar @list"));
+            assertEquals("41:4", run(first, interpreter, "join q(:), $graph->{n}, scalar @list"));
+
+            // The template's own containers are untouched by either clone
+            RuntimeScalar graph = template.globalState().scalarValues().get("main::graph");
+            assertEquals(40, ((RuntimeHash) graph.value).elements.get("n").getInt());
+            assertSame(graph.value,
+                    template.globalState().scalarValues().get("main::alias").value);
+            assertEquals(3, template.globalState().arrayValues().get("main::list").size());
+
+            first.close();
+            second.close();
+            template.close();
+        }
+    }
+
+    @Test
+    void untouchedSlotsAreNeverCloned() throws Exception {
+        PerlRuntime template = new PerlRuntime();
+        run(template, false, "our $touched = 1; our $untouched = 2; 1");
+
+        PerlRuntime child = template.copyOnReadSnapshotWithRoots(List.of()).runtime();
+        SnapshotSlotMap<String, RuntimeScalar> scalars =
+                (SnapshotSlotMap<String, RuntimeScalar>) child.globalState().scalarValues();
+        int pending = scalars.pendingCount();
+        assertTrue(pending > 0);
+
+        try (PerlRuntime.Binding ignored = child.bind()) {
+            RuntimeScalar touched = GlobalVariable.getGlobalVariable("main::touched");
+            assertEquals(1, touched.getInt());
+            assertNotSame(touched, template.globalState().scalarValues().get("main::touched"));
+        }
+        assertEquals(pending - 1, scalars.pendingCount());
+        assertTrue(scalars.containsKey("main::untouched"));
+        assertEquals(pending - 1, scalars.pendingCount());
+
+        child.close();
+        template.close();
+    }
+
+    private static String run(PerlRuntime runtime, boolean interpreter, String source)
+            throws Exception {
+        try (PerlRuntime.Binding ignored = runtime.bind()) {
+            CompilerOptions options = new CompilerOptions();
+            options.fileName = "<copy-on-read-snapshot>";
+            options.useInterpreter = interpreter;
+            options.code = source;
+            return PerlLanguageProvider.executePerlCode(options, false).scalar().toString();
+        }
+    }
+}
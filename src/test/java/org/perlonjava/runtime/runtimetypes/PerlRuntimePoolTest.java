@@ -20,6 +20,67 @@ class PerlRuntimePoolTest {
                 () -> PerlRuntimePool.resolveSize("-1", null));
         assertThrows(IllegalArgumentException.class,
                 () -> PerlRuntimePool.resolveSize("many", null));
+        assertEquals(1, PerlRuntimePool.resolveMaxRequests(null, null));
+        assertEquals(500, PerlRuntimePool.resolveMaxRequests(null, "500"));
+        assertThrows(IllegalArgumentException.class,
+                () -> PerlRuntimePool.resolveMaxRequests("0", null));
+    }
+
+    @Test
+    void persistentWorkersAreReusedUntilRetiredAndRefilledInBackground() throws Exception {
+        java.util.concurrent.atomic.AtomicInteger served = new java.util.concurrent.atomic.AtomicInteger();
+        PerlRuntimePool pool = new PerlRuntimePool(1, () -> new PerlRuntime().initialize(),
+                runtime -> served.incrementAndGet() % 3 != 0, true);
+        try {
+            PerlRuntime worker;
+            try (PerlRuntimePool.Lease lease = pool.checkout(Duration.ofSeconds(1))) {
+                worker = lease.runtime();
+            }
+            try (PerlRuntimePool.Lease lease = pool.checkout(Duration.ofSeconds(1))) {
+                assertSame(worker, lease.runtime());
+            }
+            try (PerlRuntimePool.Lease lease = pool.checkout(Duration.ofSeconds(1))) {
+                assertSame(worker, lease.runtime());
+            }
+            assertTrue(worker.isClosed());
+
+            try (PerlRuntimePool.Lease lease = pool.checkout(Duration.ofSeconds(5))) {
+                assertNotSame(worker, lease.runtime());
+                assertFalse(lease.runtime().isClosed());
+            }
+            java.util.Map<String, Long> stats = pool.stats();
+            assertEquals(2L, stats.get("created"));
+            assertEquals(2L, stats.get("reused"));
+            assertEquals(4L, stats.get("checkouts"));
+            assertTrue(stats.get("create_nanos") > 0);
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void failedBackgroundRefillIsRetriedUntilTheSlotIsBack() throws Exception {
+        java.util.concurrent.atomic.AtomicInteger builds = new java.util.concurrent.atomic.AtomicInteger();
+        PerlRuntimePool pool = new PerlRuntimePool(1, () -> {
+            int build = builds.incrementAndGet();
+            if (build == 2 || build == 3) throw new IllegalStateException("clone failed " + build);
+            return new PerlRuntime().initialize();
+        }, runtime -> false, true);
+        try {
+            PerlRuntime retired;
+            try (PerlRuntimePool.Lease lease = pool.checkout(Duration.ofSeconds(1))) {
+                retired = lease.runtime();
+            }
+            try (PerlRuntimePool.Lease lease = pool.checkout(Duration.ofSeconds(5))) {
+                assertNotSame(retired, lease.runtime());
+                assertFalse(lease.runtime().isClosed());
+            }
+            java.util.Map<String, Long> stats = pool.stats();
+            assertEquals(2L, stats.get("refill_failures"));
+            assertTrue(builds.get() >= 4);
+        } finally {
+            pool.close();
+        }
     }
 
     @Test
@@ -0,0 +1,58 @@
+package org.perlonjava.runtime.runtimetypes;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ReflectionException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class RuntimeMetricsTest {
+    @Test
+    void countersBelongToTheBoundRuntime() {
+        PerlRuntime first = new PerlRuntime();
+        PerlRuntime second = new PerlRuntime();
+        try (PerlRuntime.Binding ignored = first.bind()) {
+            RuntimeMetrics.count(RuntimeMetrics.Counter.REGEX_CACHE_MISSES);
+            RuntimeMetrics.count(RuntimeMetrics.Counter.REGEX_CACHE_MISSES);
+        }
+        try (PerlRuntime.Binding ignored = second.bind()) {
+            RuntimeMetrics.time(RuntimeMetrics.Counter.JVM_COMPILES,
+                    RuntimeMetrics.Counter.JVM_COMPILE_NANOS, System.nanoTime() - 5);
+        }
+
+        assertEquals(2, first.metrics().get(RuntimeMetrics.Counter.REGEX_CACHE_MISSES));
+        assertEquals(0, first.metrics().get(RuntimeMetrics.Counter.JVM_COMPILES));
+        assertEquals(0, second.metrics().get(RuntimeMetrics.Counter.REGEX_CACHE_MISSES));
+        assertEquals(1, second.metrics().get(RuntimeMetrics.Counter.JVM_COMPILES));
+        assertTrue(second.metrics().get(RuntimeMetrics.Counter.JVM_COMPILE_NANOS) >= 5);
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void snapshotNamesCountersAndCacheSizes() {
+        PerlRuntime runtime = new PerlRuntime();
+        try (PerlRuntime.Binding ignored = runtime.bind()) {
+            RuntimeMetrics.count(RuntimeMetrics.Counter.MORTAL_FLUSHES);
+        }
+        Map<String, Long> stats = RuntimeMetrics.snapshot(runtime);
+
+        assertEquals(1L, stats.get("mortal_flushes"));
+        assertEquals(0L, stats.get("regex_cache_size"));
+        assertTrue(stats.containsKey("eval_cache_hits"));
+        assertTrue(stats.containsKey("inline_method_cache_size"));
+        runtime.close();
+    }
+
+    @Test
+    void beanDeclaresNoOperations() {
+        RuntimeMetrics.Bean bean = new RuntimeMetrics.Bean(() -> Map.of("hits", 3L));
+        ReflectionException failure = assertThrows(ReflectionException.class,
+                () -> bean.invoke("reset", new Object[0], new String[0]));
+        assertInstanceOf(NoSuchMethodException.class, failure.getTargetException());
+        assertEquals(0, bean.getMBeanInfo().getOperations().length);
+    }
+}
@@ -0,0 +1,40 @@
+package org.perlonjava.runtime.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.perlonjava.runtime.runtimetypes.RuntimeScalar;
+import org.perlonjava.runtime.runtimetypes.RuntimeScalarType;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ByteStringsTest {
+    @Test
+    void latin1StringsConvertAndWideOnesAreDetected() {
+        assertArrayEquals(new byte[]{'a', '?', (byte) 0xFF}, ByteStrings.latin1OrNull("a?ÿ"));
+        assertNull(ByteStrings.latin1OrNull("aĀ"));
+        assertArrayEquals("€".getBytes(StandardCharsets.UTF_8), ByteStrings.toOutputBytes("€"));
+        assertArrayEquals(new byte[]{'x', 0}, ByteStrings.toBytes("xĀ"));
+    }
+
+    @Test
+    void utf8OctetsReuseAsciiAndEncodeEverythingElse() {
+        String ascii = "plain";
+        assertSame(ascii, ByteStrings.utf8Octets(ascii));
+        assertEquals("Ã©", ByteStrings.utf8Octets("é"));
+    }
+
+    @Test
+    void byteStringsRoundTripWithoutChangingTheirValue() {
+        byte[] data = {0, 1, (byte) 0x80, (byte) 0xFF, 'z'};
+        RuntimeScalar scalar = new RuntimeScalar(data, 1, 3);
+        assertEquals(RuntimeScalarType.BYTE_STRING, scalar.type);
+        assertArrayEquals(new byte[]{1, (byte) 0x80, (byte) 0xFF}, ByteStrings.toBytes(scalar));
+
+        RuntimeScalar wrapped = ByteStrings.byteString("abc");
+        assertEquals(RuntimeScalarType.BYTE_STRING, wrapped.type);
+        assertEquals("abc", wrapped.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package org.perlonjava.runtime.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class SettingsTest {
+    @Test
+    void switchesReadTheUsualBooleanSpellingsAndThePropertyWins() {
+        assertFalse(Settings.parseSwitch(null, null, false));
+        assertTrue(Settings.parseSwitch(null, null, true));
+        assertTrue(Settings.parseSwitch(null, " ", true));
+        assertFalse(Settings.parseSwitch("", null, false));
+
+        assertTrue(Settings.parseSwitch(null, "1", false));
+        assertTrue(Settings.parseSwitch(null, " yes ", false));
+        assertTrue(Settings.parseSwitch("ON", null, false));
+        assertFalse(Settings.parseSwitch(null, "0", true));
+        assertFalse(Settings.parseSwitch(null, " Off", true));
+
+        assertFalse(Settings.parseSwitch("false", "1", false));
+        assertFalse(Settings.parseSwitch("No", "1", true));
+        assertTrue(Settings.parseSwitch("yes", "0", false));
+    }
+
+    @Test
+    void nonNegativeSettingsRejectNegativeAndNonNumericValues() {
+        assertEquals(7, Settings.parseNonNegative(null, null, "test size", 7));
+        assertEquals(7, Settings.parseNonNegative(" ", null, "test size", 7));
+        assertEquals(3, Settings.parseNonNegative(null, " 3 ", "test size", 7));
+        assertEquals(0, Settings.parseNonNegative("0", "4", "test size", 7));
+
+        IllegalArgumentException negative = assertThrows(IllegalArgumentException.class,
+                () -> Settings.parseNonNegative("-1", null, "test size", 7));
+        assertEquals("test size must not be negative", negative.getMessage());
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+                () -> Settings.parseNonNegative(null, "lots", "test size", 7));
+        assertEquals("Invalid test size 'lots'; expected a non-negative integer", invalid.getMessage());
+    }
+}
@@ -0,0 +1,85 @@
+use strict;
+use warnings;
+use Test::More;
+
+# The generated methods are Java code refs. The same call site is hit
+# repeatedly so the method inline cache serves the later iterations.
+
+package FastHash;
+use Class::XSAccessor
+    constructor => 'new',
+    accessors   => { name => 'name' },
+    getters     => { get_size => 'size' },
+    setters     => { set_size => 'size' };
+
+package FastChained;
+use Class::XSAccessor
+    chained   => 1,
+    accessors => { x => 'x', y => 'y' };
+
+package main;
+
+my $obj = FastHash->new(name => 'a');
+for my $i (1 .. 50) {
+    $obj->set_size($i);
+    $obj->name("n$i");
+}
+is($obj->get_size, 50, 'setter and getter agree after repeated calls');
+is($obj->name, 'n50', 'accessor keeps the last value');
+
+my $copy = $obj->name;
+$copy .= '!';
+is($obj->{name}, 'n50', 'getter returns a copy of the slot');
+
+my $clone = $obj->new(name => 'b');
+isa_ok($clone, 'FastHash', 'constructor called on an instance');
+is($clone->name, 'b', 'constructor stores its arguments');
+
+ok(!eval { FastHash->new('odd'); 1 }, 'odd constructor arguments die');
+like($@, qr/Uneven number of arguments to constructor\./, 'constructor error message');
+
+my @list = map { $obj->get_size } 1 .. 3;
+is_deeply(\@list, [50, 50, 50], 'getter in list context');
+
+ok(!eval { $obj->set_size; 1 }, 'setter with missing value dies');
+like($@, qr/Usage: FastHash::set_size\(self, newvalue\)/, 'setter usage message');
+
+my $point = bless {}, 'FastChained';
+is($point->x(3)->y(4), $point, 'chained accessors return the invocant');
+is($point->x + $point->y, 7, 'chained values are stored');
+
+{
+    package TiedStore;
+    require Tie::Hash;
+    our @ISA = ('Tie::StdHash');
+    sub FETCH { uc $_[0]->{$_[1]} }
+}
+tie my %tied, 'TiedStore';
+my $tied_obj = bless \%tied, 'FastHash';
+$tied_obj->name('quiet');
+is($tied_obj->name, 'QUIET', 'accessor goes through a tied hash');
+
+SKIP: {
+    skip 'Moose not available', 6 unless eval { require Moose; 1 };
+
+    eval q{
+        package FastMoose;
+        use Moose;
+        has plain => (is => 'rw', predicate => 'has_plain');
+        has fixed => (is => 'ro');
+        has typed => (is => 'rw', isa => 'Int');
+        __PACKAGE__->meta->make_immutable;
+        1;
+    } or die $@;
+
+    my $m = FastMoose->new(fixed => 'f');
+    ok(!$m->has_plain, 'predicate before set');
+    $m->plain($_) for 1 .. 20;
+    is($m->plain, 20, 'plain Moose accessor');
+    ok($m->has_plain, 'predicate after set');
+    is($m->fixed, 'f', 'plain Moose reader');
+    ok(!eval { $m->fixed('x'); 1 }, 'read-only accessor still rejects a value');
+    ok(!eval { $m->typed('abc'); 1 }, 'type-constrained accessor still validates');
+}
+
+done_testing();
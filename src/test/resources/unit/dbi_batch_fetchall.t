@@ -0,0 +1,77 @@
+use strict;
+use warnings;
+use Test::More tests => 16;
+use DBI;
+
+my $dbh = DBI->connect('dbi:SQLite:dbname=:memory:', '', '', {
+    RaiseError   => 1,
+    PrintError   => 0,
+    RowCacheSize => 2,
+});
+
+$dbh->do('CREATE TABLE item (id INTEGER PRIMARY KEY, name TEXT NOT NULL)');
+
+my $insert = $dbh->prepare('INSERT INTO item (id, name) VALUES (?, ?)');
+my ($tuples, $rows) = $insert->execute_array(
+    { ArrayTupleStatus => \my @status },
+    [1, 2, 3], ['one', 'two', 'three'],
+);
+is($tuples, 3, 'execute_array reports the number of tuples');
+is($rows, 3, 'execute_array reports the rows affected in list context');
+is_deeply(\@status, [1, 1, 1], 'each tuple status holds its row count');
+
+{
+    local $DBI::EXECUTE_BATCH_SIZE = 2;
+    my @queue = ([4, 'four'], [2, 'dup'], [5, undef], [6, 'six'], [7, 'seven']);
+    local $insert->{RaiseError} = 0;
+    local $insert->{Database}{RaiseError} = 0;
+    my $result = $insert->execute_for_fetch(sub { shift @queue }, \my @batch_status);
+    ok(!defined $result, 'execute_for_fetch returns undef when a tuple fails');
+    is(scalar(@batch_status), 5, 'every tuple gets a status entry');
+    is_deeply([ map { ref($_) ? 'error' : $_ } @batch_status ],
+        [1, 'error', 'error', 1, 1], 'failed tuples are reported individually');
+    like($batch_status[1][1], qr/unique|constraint/i, 'error entries carry errstr');
+}
+
+is_deeply(
+    $dbh->selectcol_arrayref('SELECT id FROM item ORDER BY id'),
+    [1, 2, 3, 4, 6, 7],
+    'batch members around a failed tuple are kept',
+);
+
+my $select = $dbh->prepare('SELECT id, name FROM item WHERE id <= 3 ORDER BY id');
+$select->execute;
+is_deeply($select->fetchall_arrayref, [[1, 'one'], [2, 'two'], [3, 'three']],
+    'fetchall_arrayref returns whole rows');
+ok(!$select->{Active}, 'a drained statement is no longer active');
+
+$select->execute;
+is_deeply($select->fetchall_arrayref([-1], 2), [['one'], ['two']],
+    'array slices and max_rows select columns and rows');
+is_deeply($select->fetchall_arrayref({ name => 1 }), [{ name => 'three' }],
+    'hash slices key rows by column name');
+
+is_deeply(
+    $dbh->selectall_arrayref('SELECT id, name FROM item WHERE id < ? ORDER BY id',
+        { Slice => {} }, 3),
+    [{ id => 1, name => 'one' }, { id => 2, name => 'two' }],
+    'selectall_arrayref builds hash rows',
+);
+is_deeply(
+    $dbh->selectcol_arrayref('SELECT id, name FROM item WHERE id = 1', { Columns => [2, 1] }),
+    ['one', 1],
+    'selectcol_arrayref flattens the requested columns',
+);
+
+$select->execute;
+$select->bind_columns(\my ($id, $name));
+my @seen;
+while ($select->fetch) {
+    push @seen, "$id=$name";
+}
+is_deeply(\@seen, ['1=one', '2=two', '3=three'], 'bind_columns updates the bound scalars');
+
+$select->execute;
+my $first = $select->fetch;
+my $second = $select->fetch;
+is($first, $second, 'bound fetches reuse one row buffer');
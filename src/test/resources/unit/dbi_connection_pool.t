@@ -0,0 +1,46 @@
+use strict;
+use warnings;
+use Test::More tests => 11;
+use DBI;
+use File::Spec;
+use File::Temp qw(tempdir);
+
+my $dir = tempdir(CLEANUP => 1);
+my $dsn = 'dbi:SQLite:dbname=' . File::Spec->catfile($dir, 'pool.db');
+my %attr = (RaiseError => 1, PrintError => 0);
+
+my $first = DBI->connect_cached($dsn, '', '', {%attr});
+ok($first->{jdbc_pooled}, 'connect_cached asks for a pooled connection');
+is($first->{jdbc_pool_active}, 1, 'the checked-out connection counts as active');
+$first->do('CREATE TABLE item (id INTEGER PRIMARY KEY, name TEXT)');
+
+{
+    my $sth = $first->prepare('SELECT name FROM item WHERE id = ?');
+    $sth->execute(1);
+    $sth->finish;
+}
+my $again = $first->prepare('SELECT name FROM item WHERE id = ?');
+cmp_ok($first->{jdbc_statement_cache_hits}, '>=', 1,
+    'preparing the same SQL reuses the released statement');
+undef $again;
+
+$first->{AutoCommit} = 0;
+$first->do(q{INSERT INTO item (id, name) VALUES (1, 'uncommitted')});
+$first->disconnect;
+is($first->{jdbc_pool_idle}, 1, 'disconnect returns the connection to the pool');
+is($first->{jdbc_pool_active}, 0, 'nothing is checked out after disconnect');
+
+my $second = DBI->connect_cached($dsn, '', '', {%attr});
+isnt($second, $first, 'a disconnected cached handle is replaced');
+is($second->{jdbc_pool_idle}, 0, 'the replacement reuses the idle connection');
+ok($second->{AutoCommit}, 'a reused connection starts in AutoCommit mode');
+is($second->selectrow_array('SELECT COUNT(*) FROM item'), 0,
+    'work left uncommitted at disconnect is rolled back');
+
+my $memory = DBI->connect_cached('dbi:SQLite:dbname=:memory:', '', '', {%attr});
+ok(!defined $memory->{jdbc_pool_active}, 'in-memory databases are never pooled');
+
+my $plain = DBI->connect($dsn, '', '', {%attr});
+ok(!defined $plain->{jdbc_pool_active}, 'plain connect keeps a private connection');
+$plain->disconnect;
+$second->disconnect;
@@ -0,0 +1,54 @@
+use strict;
+use warnings;
+use Test::More tests => 19;
+
+# Generated accessors that differ only in their literals share one compiled
+# template; each instance must still see its own constants.
+my %stats_before = Internals::jperl_eval_cache_stats();
+
+my @getters;
+for my $name (qw(alpha beta gamma delta)) {
+    push @getters, eval "sub { \$_[0]->{'$name'} }" or die $@;
+}
+my $object = { alpha => 1, beta => 2, gamma => 3, delta => 4 };
+is_deeply([map { $_->($object) } @getters], [1, 2, 3, 4],
+    'closures from one template keep distinct string constants');
+
+my @scaled = map { eval "sub { \$_[0] * $_ + 0.5 }" or die $@ } 2, 3;
+is($scaled[0]->(10), 20.5, 'numeric constants are lifted per instance');
+is($scaled[1]->(10), 30.5, 'second instance sees its own numeric constant');
+
+my %stats_after = Internals::jperl_eval_cache_stats();
+cmp_ok($stats_after{template_hits} - $stats_before{template_hits}, '>=', 4,
+    'structurally identical sources hit the template cache');
+
+is(eval q{ my @a = (5, 6, 7); $a[1] }, 6, 'constant array index still works');
+is(eval q{ my %h = ('k' => 'v'); $h{'k'} . "!" }, 'v!', 'hash subscript constants');
+
+eval q{ die 'boom' . 'x' . };
+like($@, qr/^syntax error at \(eval \d+\) line 1/,
+    'template compile errors are reported against the original source');
+
+# A syntax error must not run BEGIN-time effects twice
+our $begins = 0;
+eval q{ BEGIN { $main::begins++ } my $x = 'a' . ; };
+like($@, qr/^syntax error/, 'syntax error after a BEGIN block is reported');
+is($begins, 1, 'the BEGIN block ran once');
+
+is(eval q{ split ' ', '  a b '; }, 2, "split ' ' keeps its awk-mode literal");
+
+my $line;
+eval qq{\n\n\$line = __LINE__; 'unused'};
+is($line, 3, 'line numbers are unchanged by the template prologue');
+
+# Lifted literals stay read-only, and constant items stay constant items.
+for my $case (
+    [q{ for (1, 2) { $_++ } 1 }, 'foreach aliases of literals'],
+    [q{ my $inc = sub { $_[0]++ }; $inc->('v'); 1 }, '@_ aliases of literals'],
+    [q{ my $r = \'x'; $$r = 'y'; 1 }, 'writes through a literal reference'],
+) {
+    ok(!eval $case->[0], "$case->[1] are read-only");
+    like($@, qr/^Modification of a read-only value attempted/, "$case->[1] die like perl");
+}
+ok(!eval q{ chop('abc'); 1 }, 'chop of a literal is refused');
+like($@, qr/^Can't modify constant item in chop/, 'chop of a literal fails at compile time');
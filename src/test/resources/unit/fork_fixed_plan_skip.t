@@ -3,7 +3,7 @@ use warnings;
 use Config;
 use Test::More;
 
-if ($Config{d_fork}) {
+if ($Config{d_fork} || $Config{d_pseudofork}) {
     plan skip_all => 'requires a platform without process fork support';
 }
 
@@ -16,7 +16,7 @@ SKIP: {
         exit 0;
     }
 
-    ok $child > 0, 'operator-form fork returns a child pid in the parent';
+    ok $child != 0, 'operator-form fork returns a child pid in the parent';
     waitpid($child, 0);
     is $?, 0, 'child process exits cleanly';
 }
@@ -0,0 +1,34 @@
+use strict;
+use warnings;
+use Test::More;
+
+# Internals::stats() always returns the full key set. Counters only move
+# under JPERL_METRICS=1, so their values are checked just for shape.
+
+my $stats = Internals::stats();
+is(ref $stats, 'HASH', 'stats returns a hash ref');
+
+for my $key (qw(enabled regex_cache_hits regex_cache_misses eval_cache_evictions
+                inline_method_cache_hits mro_method_cache_misses jvm_compiles
+                jvm_compile_nanos interpreter_fallbacks mortal_flushes
+                reachability_walks eval_cache_size regex_cache_size
+                mro_method_cache_size)) {
+    ok(exists $stats->{$key}, "has $key");
+    like($stats->{$key}, qr/^\d+\z/, "$key is a count");
+}
+
+my $pattern = 'st[a-z]+ts';
+ok('stats' =~ /$pattern/, 'runtime pattern matched');
+cmp_ok(Internals::stats()->{regex_cache_size}, '>', 0, 'compiled regex cache size is live');
+
+my $snapshot = Internals::stats();
+$snapshot->{regex_cache_size} = -1;
+isnt(Internals::stats()->{regex_cache_size}, -1, 'each call returns a fresh hash');
+
+if ($stats->{enabled}) {
+    eval "1 + $_" for 1 .. 3;
+    cmp_ok(Internals::stats()->{jvm_compiles} + Internals::stats()->{interpreter_compiles},
+        '>', $stats->{jvm_compiles} + $stats->{interpreter_compiles}, 'eval STRING is counted');
+}
+
+done_testing();
@@ -0,0 +1,45 @@
+use strict;
+use warnings;
+use Test::More tests => 14;
+use IO::Epoll;
+use IO::Handle;
+use POSIX ();
+use Socket;
+
+pipe(my $reader, my $writer) or die "pipe: $!";
+$writer->autoflush(1);
+my $rfd = fileno($reader);
+
+my $epfd = epoll_create(4);
+cmp_ok($epfd, '>=', 0, 'epoll_create returns a descriptor');
+is(epoll_ctl($epfd, EPOLL_CTL_ADD, $rfd, EPOLLIN), 0, 'a pipe reader can be added');
+is(epoll_ctl($epfd, EPOLL_CTL_ADD, $rfd, EPOLLIN), -1, 'adding it twice fails');
+is_deeply(epoll_wait($epfd, 4, 0), [], 'an empty pipe is not readable');
+
+syswrite($writer, 'x');
+is_deeply(epoll_wait($epfd, 4, 1000), [[$rfd, EPOLLIN]], 'written data is reported');
+
+is(epoll_ctl($epfd, EPOLL_CTL_MOD, $rfd, EPOLLIN | EPOLLONESHOT), 0, 'the mask can be changed');
+is(scalar @{ epoll_wait($epfd, 4, 0) }, 1, 'a one-shot descriptor is reported once');
+is_deeply(epoll_wait($epfd, 4, 0), [], 'and then stays disabled until re-armed');
+
+is(epoll_ctl($epfd, EPOLL_CTL_DEL, $rfd, 0), 0, 'a descriptor can be removed');
+is(epoll_ctl($epfd, EPOLL_CTL_DEL, $rfd, 0), -1, 'removing it again fails');
+ok(POSIX::close($epfd), 'the epoll descriptor closes with POSIX::close');
+
+socketpair(my $left, my $right, AF_UNIX, SOCK_STREAM, PF_UNSPEC) or die "socketpair: $!";
+$right->blocking(0);
+my $rbits = '';
+vec($rbits, fileno($right), 1) = 1;
+my $ready = 0;
+for (1 .. 50) {
+    my $r = $rbits;
+    $ready += select($r, undef, undef, 0);
+}
+is($ready, 0, 'repeated select on an idle non-blocking socket reports nothing');
+syswrite($left, 'ping');
+my $r = $rbits;
+is(select($r, undef, undef, 1), 1, 'select still sees data on the registered socket');
+$right->blocking(1);
+sysread($right, my $buf, 4);
+is($buf, 'ping', 'the socket can go back to blocking mode after select');
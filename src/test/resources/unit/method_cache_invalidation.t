@@ -0,0 +1,53 @@
+use strict;
+use warnings;
+use Test::More tests => 12;
+
+package Base;
+sub new { bless {}, shift }
+sub greet { 'base' }
+
+package Child;
+our @ISA = ('Base');
+
+package GrandChild;
+our @ISA = ('Child');
+
+package Unrelated;
+sub new { bless {}, shift }
+sub greet { 'unrelated' }
+
+package main;
+
+my $child = Child->new;
+my $grand = GrandChild->new;
+my $other = Unrelated->new;
+my @seen = map { $_->greet } $child, $grand, $other;
+is_deeply(\@seen, [qw(base base unrelated)], 'initial dispatch');
+
+{
+    no warnings 'redefine';
+    *Base::greet = sub { 'base2' };
+}
+is($child->greet, 'base2', 'redefining a base method reaches a subclass');
+is($grand->greet, 'base2', 'and an indirect subclass');
+is($other->greet, 'unrelated', 'an unrelated class keeps its method');
+
+eval 'sub Child::greet { "child" } 1' or die $@;
+is($child->greet, 'child', 'a new override in the subclass wins');
+is($grand->greet, 'child', 'and is inherited further down');
+is(Base->new->greet, 'base2', 'the parent class is unaffected');
+
+ok(!GrandChild->can('wave'), 'no method before AUTOLOAD');
+eval 'package Base; sub AUTOLOAD { our $AUTOLOAD; return if $AUTOLOAD =~ /DESTROY$/; "auto" } 1' or die $@;
+is($grand->wave, 'auto', 'AUTOLOAD defined in a base class is found');
+
+my $destroyed = 0;
+eval 'sub Child::DESTROY { $destroyed++ } 1' or die $@;
+{ my $tmp = GrandChild->new; }
+is($destroyed, 1, 'a DESTROY defined after blessing runs');
+
+eval 'package Child; use overload q("") => sub { "stringified" }, fallback => 1; 1' or die $@;
+is("$grand", 'stringified', 'overloading added to a parent applies to existing objects');
+
+@GrandChild::ISA = ('Unrelated');
+is($grand->greet, 'unrelated', '@ISA changes still redirect dispatch');
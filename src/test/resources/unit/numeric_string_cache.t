@@ -0,0 +1,29 @@
+use strict;
+use warnings;
+use Test::More tests => 8;
+
+my $x = "10";
+is($x + 1, 11, 'a numeric string numifies');
+is($x + 1, 11, 'and gives the same value again');
+$x .= "5";
+is($x + 1, 106, 'appending invalidates the cached number');
+substr($x, 0, 1) = "9";
+is($x * 1, 905, 'an lvalue substr invalidates it too');
+
+my $copy = $x;
+$x = "1.5";
+is($copy + 0, 905, 'a copy keeps the number of the string it copied');
+is($x + 0, 1.5, 'the original sees its new value');
+
+my @column = map { ($_ * 7) % 100 . "" } 1 .. 200;
+my @sorted = sort { $a <=> $b } @column;
+is_deeply(\@sorted, [sort { $a <=> $b } map { $_ + 0 } @column], 'numeric sort of string data');
+
+{
+    my @warnings;
+    local $SIG{__WARN__} = sub { push @warnings, @_ };
+    my $bad = "3 apples";
+    my $sum = 0;
+    $sum += $bad for 1 .. 2;
+    like($warnings[0] // '', qr/isn't numeric/, 'a non-numeric string still warns');
+}
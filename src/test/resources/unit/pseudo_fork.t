@@ -0,0 +1,62 @@
+use strict;
+use warnings;
+use Config;
+use Test::More;
+
+plan skip_all => 'pseudo-fork is turned off' unless $Config{d_fork} || $Config{d_pseudofork};
+plan tests => 12;
+
+# Each child exits with its own status; waitpid reports it through $?
+my %expected;
+for my $n (1 .. 3) {
+    my $pid = fork();
+    die "fork: $!" unless defined $pid;
+    if ($pid == 0) {
+        exit $n;
+    }
+    $expected{$pid} = $n;
+}
+for my $pid (sort keys %expected) {
+    is(waitpid($pid, 0), $pid, "waitpid returns child $expected{$pid}");
+    is($? >> 8, $expected{$pid}, "child $expected{$pid} exit status");
+}
+
+# The child works on copies of the parent's variables
+my $shared = 'parent';
+my $pid = fork();
+die "fork: $!" unless defined $pid;
+if ($pid == 0) {
+    $shared = 'child';
+    exit($shared eq 'child' ? 0 : 1);
+}
+waitpid($pid, 0);
+is($?, 0, 'child sees its own assignment');
+is($shared, 'parent', 'parent variables are unchanged by the child');
+
+# Handles are duplicated: the child writes its $$ through an inherited pipe
+pipe(my $reader, my $writer) or die "pipe: $!";
+$pid = fork();
+die "fork: $!" unless defined $pid;
+if ($pid == 0) {
+    close $reader;
+    print {$writer} "$$\n";
+    close $writer;
+    exit 0;
+}
+close $writer;
+chomp(my $reported = <$reader> // '');
+close $reader;
+is(wait(), $pid, 'wait reaps the remaining child');
+is($reported, $pid, 'the child sees its pid in $$');
+is(wait(), -1, 'wait returns -1 once no children are left');
+
+# A signal with the default disposition ends the child
+$pid = fork();
+die "fork: $!" unless defined $pid;
+if ($pid == 0) {
+    sleep 30 for 1 .. 10;
+    exit 0;
+}
+kill 'TERM', $pid;
+waitpid($pid, 0);
+is($? & 127, 15, 'TERM terminates a sleeping child');
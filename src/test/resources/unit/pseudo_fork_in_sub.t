@@ -0,0 +1,34 @@
+use strict;
+use warnings;
+use Config;
+
+# No Test::More: the no-fork path would turn the whole file into a skip
+unless ($Config{d_pseudofork}) {
+    print "1..0 # SKIP pseudo-fork is turned off\n";
+    exit 0;
+}
+print "1..4\n";
+
+# A child could not return into spawn's caller, so fork fails here
+sub spawn {
+    my $pid = fork();
+    return $pid unless defined $pid;
+    exit 0 if $pid == 0;
+    return $pid;
+}
+my $pid = spawn();
+print defined $pid ? "not ok 1 - fork in a named sub returns undef\n" : "ok 1 - fork in a named sub returns undef\n";
+print $! ? "ok 2 - \$! says why\n" : "not ok 2 - \$! says why\n";
+
+$pid = sub { fork() }->();
+print defined $pid ? "not ok 3 - fork in an anonymous sub returns undef\n"
+                   : "ok 3 - fork in an anonymous sub returns undef\n";
+
+# The main program still forks
+$pid = fork();
+if (defined $pid && $pid == 0) {
+    exit 7;
+}
+waitpid($pid, 0) if defined $pid;
+print defined $pid && $? >> 8 == 7 ? "ok 4 - fork in the main program still runs a child\n"
+                                   : "not ok 4 - fork in the main program still runs a child\n";
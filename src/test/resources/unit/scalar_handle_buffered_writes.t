@@ -0,0 +1,60 @@
+use strict;
+use warnings;
+use Test::More;
+
+subtest 'scalar reflects every print while the handle is open' => sub {
+    my $buf = '';
+    open(my $fh, '>', \$buf) or die "open: $!";
+    print $fh "a";
+    is($buf, "a", 'first print visible before close');
+    print $fh "b" for 1 .. 3;
+    is(length($buf), 4, 'length sees pending output');
+    ok(!defined tied($buf), 'buffered scalar is not reported as tied');
+    close $fh;
+    is($buf, "abbb", 'content after close');
+};
+
+subtest 'assignments behind the handle are picked up' => sub {
+    my $buf = '';
+    open(my $fh, '>>', \$buf) or die "open: $!";
+    print $fh "one";
+    $buf .= "-two";
+    print $fh "-three";
+    close $fh;
+    is($buf, "one-two-three", 'append mode continues after an external append');
+};
+
+subtest 'seek, overwrite and truncate' => sub {
+    my $buf = '';
+    open(my $fh, '+>', \$buf) or die "open: $!";
+    print $fh "hello world";
+    seek($fh, 0, 0);
+    print $fh "J";
+    seek($fh, 0, 0);
+    my $line = <$fh>;
+    is($line, "Jello world", 'read back through the handle');
+    truncate($fh, 5);
+    is($buf, "Jello", 'truncate shortens the scalar');
+    close $fh;
+};
+
+subtest 'many prints build the expected content' => sub {
+    my $buf;
+    open(my $fh, '>', \$buf) or die "open: $!";
+    print $fh "line $_\n" for 1 .. 20000;
+    close $fh;
+    my @lines = split /\n/, $buf;
+    is(scalar(@lines), 20000, 'all lines written');
+    is($lines[-1], 'line 20000', 'last line intact');
+};
+
+subtest 'binary bytes survive' => sub {
+    my $buf = '';
+    open(my $fh, '>:raw', \$buf) or die "open: $!";
+    print $fh join('', map { chr } 0 .. 255);
+    close $fh;
+    is(length($buf), 256, 'all byte values written');
+    is(ord(substr($buf, 255, 1)), 255, 'high byte preserved');
+};
+
+done_testing();
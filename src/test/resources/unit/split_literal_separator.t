@@ -0,0 +1,47 @@
+use strict;
+use warnings;
+use Test::More;
+
+# Plain-text separators take the indexOf path in split; these cases pin
+# its limit, trailing-field and escape handling to the regex semantics.
+
+is_deeply([split /,/, 'a,b,,c'], ['a', 'b', '', 'c'], 'single character separator');
+is_deeply([split /,/, ',a,b'], ['', 'a', 'b'], 'leading empty field is kept');
+is_deeply([split /,/, 'a,b,,,'], ['a', 'b'], 'trailing empty fields are dropped');
+is_deeply([split /,/, 'a,b,,,', -1], ['a', 'b', '', '', ''], 'negative limit keeps trailing fields');
+is_deeply([split /,/, 'a,b,c,d', 2], ['a', 'b,c,d'], 'positive limit');
+is_deeply([split /,/, 'a,b,,', 3], ['a', 'b', ','], 'limit leaves the rest intact');
+is_deeply([split /,/, 'abc', 1], ['abc'], 'limit of one');
+is_deeply([split /::/, 'A::B::C'], ['A', 'B', 'C'], 'multi-character separator');
+is_deeply([split /\t/, "x\ty\t\tz"], ['x', 'y', '', 'z'], 'escaped tab');
+is_deeply([split /\|/, 'p|q|r'], ['p', 'q', 'r'], 'escaped metacharacter');
+is_deeply([split /\./, '1.2.3'], ['1', '2', '3'], 'escaped dot');
+is_deeply([split /a/i, 'xAyaz'], ['x', 'y', 'z'], 'case-insensitive pattern still folds');
+is_deeply([split /, /, 'a, b,c'], ['a', 'b,c'], 'separator containing a space');
+is_deeply([split / /, ' a  b'], ['', 'a', '', 'b'], 'single space regex is not awk mode');
+
+my $sep = ';';
+is_deeply([split /$sep/, 'u;v'], ['u', 'v'], 'interpolated separator');
+
+my $count = () = split /,/, 'a,b,c,,';
+is($count, 3, 'list assignment count');
+is(scalar(my @f = split /,/, 'a,b,c,,'), 3, 'array assignment count');
+is(scalar(split(/,/, 'a,b,c,,')), 3, 'scalar context count');
+is(scalar(split(/,/, ',,,')), 0, 'scalar context with only empty fields');
+
+my $bytes = "k\x{e9}y,val";
+my ($k) = split /,/, $bytes;
+ok(!utf8::is_utf8($k), 'byte string input gives byte string fields');
+
+my $wide = "\x{263a},smile";
+my ($w) = split /,/, $wide;
+is($w, "\x{263a}", 'wide character field');
+
+# Captures returned by a match and stored in $1/$2 are the same values
+my @list = ('a=1;b=2' =~ /(\w)=(\d)/g);
+is_deeply(\@list, ['a', '1', 'b', '2'], 'list-context global captures');
+is("$1$2", 'b2', 'captures reflect the last iteration');
+$list[0] = 'changed';
+is($1, 'b', 'returned captures are independent copies');
+
+done_testing();
@@ -244,4 +244,40 @@ subtest 'Specific tr.t issues' => sub {
     is($c, 128, "/cd should count 128 deleted characters");
 };
 
+subtest 'Constant tables reused across executions' => sub {
+    my @counts;
+    for my $s ("hello world", "", "ABC xyz", "\x{263a}abc\x{1F600}") {
+        push @counts, scalar($s =~ tr/a-z//);
+    }
+    is("@counts", "10 0 3 3", "count-only tr/// on each iteration");
+
+    my @out;
+    for my $s ("aabbcc", "abc", "a\x{263a}a") {
+        (my $t = $s) =~ tr/a-c/A-C/s;
+        push @out, $t;
+    }
+    is($out[0], "ABC", "squash with shared tables");
+    is($out[1], "ABC", "second execution of the same tr///");
+    is($out[2], "A\x{263a}A", "characters outside Latin-1 are kept");
+
+    my $buffer = ("abc-123 " x 100_000) . "\x{100}";
+    is($buffer =~ tr/0-9//, 300_000, "count digits in a large buffer");
+    is($buffer =~ tr/a-z//c, 500_001, "complement count in a large buffer");
+    is(length($buffer), 800_001, "counting does not modify the buffer");
+
+    my $s = "hello";
+    is(($s =~ tr/a-y/b-z/r), "ifmmp", "/r with shared tables");
+    is($s, "hello", "/r leaves the original alone");
+};
+
+subtest 'Callsite tables' => sub {
+    # Each eval compiles its own callsite with its own lists
+    my @results = map { my $t = "abc"; eval "\$t =~ tr/a-c/$_/; \$t" } qw(x y z);
+    is("@results", "xxx yyy zzz", "callsites from string evals keep their own tables");
+
+    # One callsite reuses its tables for every target it sees
+    my $upper = sub { my $t = shift; $t =~ tr/a-z/A-Z/; $t };
+    is(join(",", map { $upper->($_) } qw(ab cd ef)), "AB,CD,EF", "a callsite reuses its tables");
+};
+
 done_testing();
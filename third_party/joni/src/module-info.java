@@ -4,4 +4,5 @@ open module org.jruby.joni {
     exports org.joni.exception;
 
     requires transitive org.jruby.jcodings;
+    requires org.objectweb.asm;
 }
\ No newline at end of file
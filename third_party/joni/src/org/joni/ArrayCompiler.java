@@ -28,6 +28,7 @@ import static org.joni.ast.QuantifierNode.isRepeatInfinite;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -57,6 +58,8 @@ import org.joni.constants.internal.TargetInfo;
 final class ArrayCompiler extends Compiler {
     private int[]code;
     private int codeLength;
+    private int[] instructionStarts;
+    private int instructionCount;
 
     private byte[][]templates;
     private int templateNum;
@@ -78,6 +81,8 @@ final class ArrayCompiler extends Compiler {
         int codeSize = Config.USE_STRING_TEMPLATES ? 8 : ((analyser.getEnd() - analyser.getBegin()) * 2 + 2);
         code = new int[codeSize];
         codeLength = 0;
+        instructionStarts = new int[codeSize >> 1];
+        instructionCount = 0;
         collectPreviousRepeatBackrefs(root, 0, 0, new boolean[regex.numMem + 1]);
         collectRecursiveFrameBackrefs(root, false);
     }
@@ -89,6 +94,7 @@ final class ArrayCompiler extends Compiler {
 
         regex.code = code;
         regex.codeLength = codeLength;
+        regex.instructionStarts = Arrays.copyOf(instructionStarts, instructionCount);
         regex.templates = templates;
         regex.templateNum = templateNum;
         regex.controlVerbLabels = controlVerbLabelIds.keySet().toArray(String[]::new);
@@ -1854,6 +1860,10 @@ final class ArrayCompiler extends Compiler {
     }
 
     private void addOpcode(int opcode) {
+        if (instructionCount == instructionStarts.length) {
+            instructionStarts = Arrays.copyOf(instructionStarts, Math.max(8, instructionCount << 1));
+        }
+        instructionStarts[instructionCount++] = codeLength;
         addInt(opcode);
     }
 
@@ -0,0 +1,362 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.joni;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+import org.joni.constants.internal.OPCode;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Translates the program of a hot regex into a JVM class.
+ *
+ * <p>The generated method is a call-threaded copy of the interpreter loop:
+ * every instruction becomes a call to the same {@link ByteCodeMachine} op
+ * method the loop would run, followed by a direct jump to the next instruction
+ * when the op fell through. Only taken branches and backtracking go through a
+ * dispatch switch on {@code ip}. Interrupts and timeouts are checked on
+ * instruction entry, as often as the interpreter checks them. Because the op methods are shared, captures, callouts, control
+ * verbs and Perl code blocks behave exactly as they do when interpreted.</p>
+ *
+ * <p>An instruction without a translation, or an {@code ip} that is not an
+ * instruction start, makes the program return {@link #BAIL_OUT}; the caller
+ * then resumes the interpreter at the current {@code ip}, so a partial
+ * translation is always correct.</p>
+ */
+final class ByteCodeJit {
+    /** Returned when the interpreter has to continue from the machine's ip. */
+    static final int BAIL_OUT = Integer.MIN_VALUE;
+
+    // Keep the generated method well below the JVM's 64k code limit
+    private static final int MAX_CODE_LENGTH = 8000;
+    private static final int MAX_INSTRUCTIONS = 1500;
+
+    interface Program {
+        int execute(ByteCodeMachine machine, boolean checkThreadInterrupt) throws InterruptedException;
+    }
+
+    /** Marks a regex whose program could not be compiled, so that it is not retried. */
+    static final Program UNSUPPORTED = (machine, checkThreadInterrupt) -> BAIL_OUT;
+
+    private static final String MACHINE = Type.getInternalName(ByteCodeMachine.class);
+    private static final String PROGRAM = Type.getInternalName(Program.class);
+
+    private ByteCodeJit() {
+    }
+
+    /**
+     * The compiled program to run for this match, or null while the regex is
+     * still below its threshold or when it cannot be compiled.
+     */
+    static Program program(Regex regex, boolean singleByte, MethodHandles.Lookup lookup) {
+        if (regex.jitThreshold < 0 || Config.DEBUG_MATCH) return null;
+        Program program = regex.jitPrograms[singleByte ? 1 : 0];
+        if (program == null) {
+            if (regex.jitExecutions++ < regex.jitThreshold) return null;
+            synchronized (regex.jitPrograms) {
+                program = regex.jitPrograms[singleByte ? 1 : 0];
+                if (program == null) {
+                    program = compile(regex, singleByte, lookup);
+                    regex.jitPrograms[singleByte ? 1 : 0] = program;
+                }
+            }
+        }
+        return program == UNSUPPORTED ? null : program;
+    }
+
+    private static Program compile(Regex regex, boolean singleByte, MethodHandles.Lookup lookup) {
+        int[] starts = regex.instructionStarts;
+        if (starts == null || starts.length > MAX_INSTRUCTIONS || regex.codeLength > MAX_CODE_LENGTH) {
+            return UNSUPPORTED;
+        }
+        try {
+            byte[] bytes = generate(regex.code, regex.codeLength, starts, singleByte);
+            Class<?> compiled = lookup.defineHiddenClass(bytes, true,
+                    MethodHandles.Lookup.ClassOption.NESTMATE).lookupClass();
+            Program program = (Program) compiled.getDeclaredConstructor().newInstance();
+            if (Config.DEBUG_COMPILE) {
+                Config.log.println("jit: " + starts.length + " instructions, " + bytes.length + " bytes");
+            }
+            return program;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            if (Config.DEBUG_COMPILE) Config.log.println("jit: not compiled, " + e);
+            return UNSUPPORTED;
+        }
+    }
+
+    private static byte[] generate(int[] code, int codeLength, int[] starts, boolean singleByte)
+            throws NoSuchMethodException {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return "java/lang/Object"; // frames only ever hold the machine and the flag
+            }
+        };
+        cw.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                MACHINE + "$Jit", null, "java/lang/Object", new String[] {PROGRAM});
+
+        MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "execute",
+                "(L" + MACHINE + ";Z)I", null, null);
+        mv.visitCode();
+        Label dispatch = new Label();
+        Label bail = new Label();
+        Label[] labels = new Label[codeLength];
+        Label[] instructions = new Label[starts.length];
+        for (int i = 0; i < codeLength; i++) labels[i] = bail;
+        for (int i = 0; i < starts.length; i++) labels[starts[i]] = instructions[i] = new Label();
+
+        mv.visitJumpInsn(Opcodes.GOTO, dispatch);
+        for (int i = 0; i < starts.length; i++) {
+            int address = starts[i];
+            mv.visitLabel(instructions[i]);
+            int opcode = code[address];
+            if (opcode == OPCode.FINISH) {
+                step(mv, address);
+                returnFinish(mv);
+                continue;
+            }
+            Op op = opcode == OPCode.END ? call("opEnd")
+                    : opcode == OPCode.ACCEPT ? call("opAccept")
+                    : op(opcode, singleByte);
+            if (op == null) {
+                mv.visitJumpInsn(Opcodes.GOTO, bail);
+                continue;
+            }
+            step(mv, address);
+            Method method = op.flag == null
+                    ? ByteCodeMachine.class.getDeclaredMethod(op.name)
+                    : ByteCodeMachine.class.getDeclaredMethod(op.name, boolean.class);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            if (op.flag != null) mv.visitInsn(op.flag ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, MACHINE, op.name, Type.getMethodDescriptor(method), false);
+            if (method.getReturnType() == boolean.class) { // END and ACCEPT: true when the match is complete
+                Label incomplete = new Label();
+                mv.visitJumpInsn(Opcodes.IFEQ, incomplete);
+                returnFinish(mv);
+                mv.visitLabel(incomplete);
+            }
+            if (i + 1 < starts.length) {
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitFieldInsn(Opcodes.GETFIELD, MACHINE, "ip", "I");
+                push(mv, starts[i + 1]);
+                mv.visitJumpInsn(Opcodes.IF_ICMPEQ, instructions[i + 1]);
+            }
+            mv.visitJumpInsn(Opcodes.GOTO, dispatch);
+        }
+
+        mv.visitLabel(dispatch);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.GETFIELD, MACHINE, "ip", "I");
+        mv.visitTableSwitchInsn(0, codeLength - 1, bail, labels);
+
+        mv.visitLabel(bail);
+        push(mv, BAIL_OUT);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /** Interrupt check, ip = address + 1 and sbegin = s, as the interpreter loop does before each instruction. */
+    private static void step(MethodVisitor mv, int address) {
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        push(mv, address);
+        mv.visitVarInsn(Opcodes.ILOAD, 2);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, MACHINE, "jitStep", "(IZ)V", false);
+    }
+
+    private static void returnFinish(MethodVisitor mv) {
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, MACHINE, "finish", "()I", false);
+        mv.visitInsn(Opcodes.IRETURN);
+    }
+
+    private static void push(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private record Op(String name, Boolean flag) {
+    }
+
+    private static Op call(String name) {
+        return new Op(name, null);
+    }
+
+    private static Op call(String name, boolean flag) {
+        return new Op(name, flag);
+    }
+
+    /**
+     * The op method the interpreter loop runs for {@code opcode}: execute() for
+     * multibyte subjects, executeSb() for single byte ones. Null when the
+     * instruction is left to the interpreter.
+     */
+    private static Op op(int opcode, boolean sb) {
+        return switch (opcode) {
+            case OPCode.EXACT1 -> call("opExact1");
+            case OPCode.EXACT2 -> call("opExact2");
+            case OPCode.EXACT3 -> call("opExact3");
+            case OPCode.EXACT4 -> call("opExact4");
+            case OPCode.EXACT5 -> call("opExact5");
+            case OPCode.EXACTN -> call("opExactN");
+            case OPCode.EXACTMB2N1 -> call("opExactMB2N1");
+            case OPCode.EXACTMB2N2 -> call("opExactMB2N2");
+            case OPCode.EXACTMB2N3 -> call("opExactMB2N3");
+            case OPCode.EXACTMB2N -> call("opExactMB2N");
+            case OPCode.EXACTMB3N -> call("opExactMB3N");
+            case OPCode.EXACTMBN -> call("opExactMBN");
+            case OPCode.EXACT1_IC -> call("opExact1IC");
+            case OPCode.EXACTN_IC -> call("opExactNIC");
+            case OPCode.CCLASS -> call(sb ? "opCClassSb" : "opCClass");
+            case OPCode.CCLASS_MB -> call(sb ? "opCClassMBSb" : "opCClassMB");
+            case OPCode.CCLASS_MIX -> call(sb ? "opCClassMIXSb" : "opCClassMIX");
+            case OPCode.CCLASS_NOT -> call(sb ? "opCClassNotSb" : "opCClassNot");
+            case OPCode.CCLASS_MB_NOT -> call(sb ? "opCClassMBNotSb" : "opCClassMBNot");
+            case OPCode.CCLASS_MIX_NOT -> call(sb ? "opCClassMIXNotSb" : "opCClassMIXNot");
+            case OPCode.WIDE_SCALAR -> call("opWideScalar");
+            case OPCode.WIDE_SCALAR_CLASS -> call("opWideScalarClass");
+            case OPCode.ANYCHAR -> call(sb ? "opAnyCharSb" : "opAnyChar");
+            case OPCode.ANYCHAR_ML -> call(sb ? "opAnyCharMLSb" : "opAnyCharML");
+            case OPCode.ANYCHAR_STAR -> call(sb ? "opAnyCharStarSb" : "opAnyCharStar");
+            case OPCode.ANYCHAR_ML_STAR -> call(sb ? "opAnyCharMLStarSb" : "opAnyCharMLStar");
+            case OPCode.ANYCHAR_STAR_PEEK_NEXT -> call(sb ? "opAnyCharStarPeekNextSb" : "opAnyCharStarPeekNext");
+            case OPCode.ANYCHAR_ML_STAR_PEEK_NEXT -> call(sb ? "opAnyCharMLStarPeekNextSb" : "opAnyCharMLStarPeekNext");
+            case OPCode.WORD -> call(sb ? "opWordSb" : "opWord");
+            case OPCode.NOT_WORD -> call(sb ? "opNotWordSb" : "opNotWord");
+            case OPCode.WORD_BOUND -> call(sb ? "opWordBoundSb" : "opWordBound");
+            case OPCode.NOT_WORD_BOUND -> call(sb ? "opNotWordBoundSb" : "opNotWordBound");
+            case OPCode.GRAPHEME_BOUNDARY -> call("opGraphemeBoundary", false);
+            case OPCode.NOT_GRAPHEME_BOUNDARY -> call("opGraphemeBoundary", true);
+            case OPCode.SENTENCE_BOUNDARY -> call("opSentenceBoundary", false);
+            case OPCode.NOT_SENTENCE_BOUNDARY -> call("opSentenceBoundary", true);
+            case OPCode.WORD_BREAK_BOUNDARY -> call("opWordBreakBoundary", false);
+            case OPCode.NOT_WORD_BREAK_BOUNDARY -> call("opWordBreakBoundary", true);
+            case OPCode.LINE_BOUNDARY -> call("opLineBoundary", false);
+            case OPCode.NOT_LINE_BOUNDARY -> call("opLineBoundary", true);
+            case OPCode.PHYSICAL_NAMED_CAPTURE_START -> call("opPhysicalNamedCaptureStart");
+            case OPCode.PHYSICAL_NAMED_CAPTURE_END -> call("opPhysicalNamedCaptureEnd");
+            case OPCode.WORD_BEGIN -> call(sb ? "opWordBeginSb" : "opWordBegin");
+            case OPCode.WORD_END -> call(sb ? "opWordEndSb" : "opWordEnd");
+            case OPCode.ASCII_WORD -> call("opAsciiWord");
+            case OPCode.ASCII_NOT_WORD -> call("opNotAsciiWord");
+            case OPCode.ASCII_WORD_BOUND -> call("opAsciiWordBound");
+            case OPCode.ASCII_NOT_WORD_BOUND -> call("opNotAsciiWordBound");
+            case OPCode.ASCII_WORD_BEGIN -> call("opAsciiWordBegin");
+            case OPCode.ASCII_WORD_END -> call("opAsciiWordEnd");
+            case OPCode.BEGIN_BUF -> call("opBeginBuf");
+            case OPCode.END_BUF -> call("opEndBuf");
+            case OPCode.BEGIN_LINE -> call(sb ? "opBeginLineSb" : "opBeginLine");
+            case OPCode.END_LINE -> call(sb ? "opEndLineSb" : "opEndLine");
+            case OPCode.SEMI_END_BUF -> call("opSemiEndBuf");
+            case OPCode.BEGIN_POSITION -> call("opBeginPosition");
+            case OPCode.MEMORY_START_PUSH -> call("opMemoryStartPush");
+            case OPCode.MEMORY_START -> call("opMemoryStart");
+            case OPCode.MEMORY_END_PUSH -> call("opMemoryEndPush");
+            case OPCode.MEMORY_END -> call("opMemoryEnd");
+            case OPCode.KEEP -> call("opKeep");
+            case OPCode.MEMORY_END_PUSH_REC -> call("opMemoryEndPushRec");
+            case OPCode.MEMORY_END_REC -> call("opMemoryEndRec");
+            case OPCode.BACKREF1 -> call("opBackRef1");
+            case OPCode.BACKREF2 -> call("opBackRef2");
+            case OPCode.BACKREFN -> call("opBackRefN");
+            case OPCode.BACKREFN_IC -> call("opBackRefNIC");
+            case OPCode.BACKREF_MULTI -> call("opBackRefMulti");
+            case OPCode.BACKREF_MULTI_IC -> call("opBackRefMultiIC");
+            case OPCode.BACKREF_WITH_LEVEL -> call("opBackRefAtLevel");
+            case OPCode.BACKREFN_PREV -> call("opBackRefPrevious");
+            case OPCode.BACKREFN_PREV_IC -> call("opBackRefPreviousIC");
+            case OPCode.SET_OPTION_PUSH -> call("opSetOptionPush");
+            case OPCode.SET_OPTION -> call("opSetOption");
+            case OPCode.NULL_CHECK_START -> call("opNullCheckStart");
+            case OPCode.NULL_CHECK_END -> call("opNullCheckEnd");
+            case OPCode.NULL_CHECK_END_MEMST -> call("opNullCheckEndMemST");
+            case OPCode.NULL_CHECK_END_MEMST_PUSH -> call("opNullCheckEndMemSTPush");
+            case OPCode.JUMP -> call("opJump");
+            case OPCode.PUSH -> call("opPush");
+            case OPCode.PUSH_BRANCH -> call("opPushBranch");
+            case OPCode.POP -> call("opPop");
+            case OPCode.PUSH_OR_JUMP_EXACT1 -> call("opPushOrJumpExact1");
+            case OPCode.PUSH_IF_PEEK_NEXT -> call("opPushIfPeekNext");
+            case OPCode.REPEAT -> call("opRepeat");
+            case OPCode.REPEAT_NG -> call("opRepeatNG");
+            case OPCode.REPEAT_INC -> call("opRepeatInc");
+            case OPCode.REPEAT_INC_SG -> call("opRepeatIncSG");
+            case OPCode.REPEAT_INC_NG -> call("opRepeatIncNG");
+            case OPCode.REPEAT_INC_NG_SG -> call("opRepeatIncNGSG");
+            case OPCode.REPEAT_CAPTURE_CLEAR -> call("opRepeatCaptureClear");
+            case OPCode.REPEAT_CAPTURE_CLEAR_END -> call("opRepeatCaptureClearEnd");
+            case OPCode.SCRIPT_RUN -> call("opScriptRun");
+            case OPCode.PUSH_POS -> call("opPushPos");
+            case OPCode.POP_POS -> call("opPopPos");
+            case OPCode.PUSH_POS_NOT -> call("opPushPosNot");
+            case OPCode.POP_POS_NOT -> call("opPopPosNot");
+            case OPCode.FAIL_POS -> call("opFailPos");
+            case OPCode.PUSH_STOP_BT -> call("opPushStopBT");
+            case OPCode.POP_STOP_BT -> call("opPopStopBT");
+            case OPCode.LOOK_BEHIND -> call(sb ? "opLookBehindSb" : "opLookBehind");
+            case OPCode.PUSH_LOOK_BEHIND_NOT -> call("opPushLookBehindNot");
+            case OPCode.FAIL_LOOK_BEHIND_NOT -> call("opFailLookBehindNot");
+            case OPCode.PUSH_ABSENT_POS -> call("opPushAbsentPos");
+            case OPCode.ABSENT -> call("opAbsent");
+            case OPCode.ABSENT_END -> call("opAbsentEnd");
+            case OPCode.CALL -> call("opCall");
+            case OPCode.RETURN -> call("opReturn");
+            case OPCode.CONDITION -> call("opCondition");
+            case OPCode.RECURSION_CONDITION -> call("opRecursionCondition");
+            case OPCode.CHECK_POS_END -> call("opCheckPosEnd");
+            case OPCode.CHECK_LOOK_BEHIND_END -> call("opCheckLookBehindEnd");
+            case OPCode.FAIL -> call("opFail");
+            case OPCode.CONTROL_FAIL -> call("opControlFail");
+            case OPCode.CALLOUT -> call("opCallout");
+            case OPCode.CALLOUT_CONDITION -> call("opCalloutCondition");
+            case OPCode.DYNAMIC_CALLOUT -> call("opDynamicCallout");
+            case OPCode.PRUNE -> call("opPrune");
+            case OPCode.SKIP -> call("opSkip");
+            case OPCode.THEN -> call("opThen");
+            case OPCode.COMMIT -> call("opCommit");
+            case OPCode.MARK -> call("opMark");
+            case OPCode.EXACT1_IC_SB -> sb ? call("opExact1ICSb") : null;
+            case OPCode.EXACTN_IC_SB -> sb ? call("opExactNICSb") : null;
+            default -> null; // including STATE_CHECK*, which only run with USE_CEC
+        };
+    }
+}
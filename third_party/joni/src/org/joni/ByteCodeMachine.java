@@ -19,6 +19,7 @@
  */
 package org.joni;
 
+import java.lang.invoke.MethodHandles;
 import java.util.ArrayDeque;
 
 import static org.joni.BitStatus.bsAt;
@@ -50,6 +51,10 @@ class ByteCodeMachine extends StackMachine implements MatchView {
     private static final int CONTROL_COMMIT = 4;
     int interruptCheckEvery = 256;     // << 1 after each check up to  ^^^
     volatile boolean interrupted = false;
+    private int jitInterruptCheckCounter;
+
+    // compiled programs are hidden nestmates, so they can call the private op methods
+    private static final MethodHandles.Lookup JIT_LOOKUP = MethodHandles.lookup();
 
     private int bestLen;          // return value
     private int s = 0;            // current char
@@ -305,8 +310,7 @@ class ByteCodeMachine extends StackMachine implements MatchView {
             bestLen = -1;
             s = _sstart;
             pkeep = _sstart;
-            result = enc.isSingleByte() || (msaOptions & Option.CR_7_BIT) != 0
-                    ? executeSb(interrupt) : execute(interrupt);
+            result = executeProgram(interrupt);
             return result;
         } finally {
             try {
@@ -324,6 +328,35 @@ class ByteCodeMachine extends StackMachine implements MatchView {
         }
     }
 
+    /**
+     * Runs the program from the current ip: compiled once the regex is hot,
+     * with the interpreter taking over wherever the compiled code bails out.
+     */
+    private int executeProgram(final boolean checkThreadInterrupt) throws InterruptedException {
+        boolean singleByte = enc.isSingleByte() || (msaOptions & Option.CR_7_BIT) != 0;
+        ByteCodeJit.Program program = ByteCodeJit.program(regex, singleByte, JIT_LOOKUP);
+        if (program != null) {
+            jitInterruptCheckCounter = 0;
+            int result = program.execute(this, checkThreadInterrupt);
+            if (result != ByteCodeJit.BAIL_OUT) return result;
+        }
+        return singleByte ? executeSb(checkThreadInterrupt) : execute(checkThreadInterrupt);
+    }
+
+    /**
+     * Entry of every compiled instruction, mirroring the top of the interpreter
+     * loop including its interrupt and timeout checks.
+     */
+    private void jitStep(int address, final boolean checkThreadInterrupt) throws InterruptedException {
+        if (jitInterruptCheckCounter++ >= interruptCheckEvery) {
+            if (timeout != -1) handleTimeout();
+            handleInterrupted(checkThreadInterrupt);
+            jitInterruptCheckCounter = 0;
+        }
+        ip = address + 1;
+        sbegin = s;
+    }
+
     private final int execute(final boolean checkThreadInterrupt) throws InterruptedException {
         final int[] code = this.code;
         int interruptCheckCounter = 0;
@@ -3746,7 +3779,7 @@ class ByteCodeMachine extends StackMachine implements MatchView {
             machine.sstart = start;
             machine.sprev = machine.enc.prevCharHead(machine.bytes,
                     machine.str, start, machine.end);
-            // Dynamic continuations enter execute() directly instead of going
+            // Dynamic continuations enter executeProgram() directly instead of going
             // through matchAt(), so initialize the option scope that matchAt()
             // normally installs.  In particular, Perl /aa case folding is a
             // match-time option and must remain active in the nested program.
@@ -3770,9 +3803,7 @@ class ByteCodeMachine extends StackMachine implements MatchView {
 
         private int run() {
             try {
-                int matched = machine.enc.isSingleByte()
-                        || (machine.msaOptions & Option.CR_7_BIT) != 0
-                        ? machine.executeSb(false) : machine.execute(false);
+                int matched = machine.executeProgram(false);
                 return matched < 0 ? Matcher.FAILED : machine.s;
             } catch (InterruptedException interrupted) {
                 Thread.currentThread().interrupt();
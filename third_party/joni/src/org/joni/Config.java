@@ -67,6 +67,9 @@ public interface Config extends org.jcodings.Config {
     // use embedded string templates in Regex object as byte arrays instead of compiling them into int bytecode array
     boolean USE_STRING_TEMPLATES              = ConfigSupport.getBoolean("joni.use_string_templates", true);
 
+    // match attempts a regex runs in the bytecode interpreter before its program is compiled to a JVM class, negative disables
+    int JIT_THRESHOLD                         = ConfigSupport.getInt("joni.jit.threshold", 1000);
+
 
     int MAX_CAPTURE_HISTORY_GROUP             = ConfigSupport.getInt("joni.max_capture_history_group", 31);
 
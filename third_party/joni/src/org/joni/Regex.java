@@ -44,6 +44,7 @@ import org.joni.exception.ValueException;
 public final class Regex {
     int[] code;             /* compiled pattern */
     int codeLength;
+    int[] instructionStarts; /* offsets of every opcode in code, ascending */
     boolean requireStack;
     boolean hasDynamicOptions;
 
@@ -66,6 +67,10 @@ public final class Regex {
 
     MatcherFactory factory;
 
+    int jitThreshold = Config.JIT_THRESHOLD;
+    int jitExecutions;          /* racy counter, only decides when to compile */
+    final ByteCodeJit.Program[] jitPrograms = new ByteCodeJit.Program[2]; /* multibyte, single byte */
+
     final Encoding enc;
     final boolean perlSyntax;
     int options;
@@ -639,4 +644,26 @@ public final class Regex {
     public boolean isLinear() {
         return !requireStack;
     }
+
+    /**
+     * Sets how many match attempts run in the bytecode interpreter before the program
+     * is compiled to a JVM class: 0 compiles on the first match, a negative
+     * value keeps this regex interpreted.
+     */
+    public void setJitThreshold(int threshold) {
+        this.jitThreshold = threshold;
+    }
+
+    public int getJitThreshold() {
+        return jitThreshold;
+    }
+
+    /**
+     * Whether a compiled program exists for the single byte or multibyte
+     * variant of this regex.
+     */
+    public boolean isJitCompiled(boolean singleByte) {
+        ByteCodeJit.Program program = jitPrograms[singleByte ? 1 : 0];
+        return program != null && program != ByteCodeJit.UNSUPPORTED;
+    }
 }
@@ -47,4 +47,32 @@ public abstract class AbstractBench {
         }
         System.err.println(":  " + best + "ms");
     }
+
+    protected void benchInterpretedAndCompiled(String _reg, String _str, int warmup, int times) throws Exception {
+        byte[] reg = _reg.getBytes();
+        byte[] str = _str.getBytes();
+
+        Regex interpreted = new Regex(reg,0,reg.length,Option.DEFAULT,ASCIIEncoding.INSTANCE,Syntax.DEFAULT);
+        interpreted.setJitThreshold(-1);
+        Regex compiled = new Regex(reg,0,reg.length,Option.DEFAULT,ASCIIEncoding.INSTANCE,Syntax.DEFAULT);
+        compiled.setJitThreshold(0);
+
+        System.err.println("::: /" + _reg + "/ =~ \"" + _str + "\", " + warmup + " * " + times + " times");
+        System.err.println(":  interpreted " + bestOf(interpreted, str, warmup, times) + "ms");
+        long best = bestOf(compiled, str, warmup, times);
+        System.err.println(":  compiled    " + best + "ms" + (compiled.isJitCompiled(true) ? "" : " (not compiled)"));
+    }
+
+    private long bestOf(Regex p, byte[] str, int warmup, int times) {
+        long best = Long.MAX_VALUE;
+
+        for(int j=0;j<warmup;j++) {
+            long before = System.currentTimeMillis();
+            for(int i = 0; i < times; i++) {
+                p.matcher(str, 0, str.length).search(0, str.length, Option.NONE);
+            }
+            best = Math.min(best, System.currentTimeMillis() - before);
+        }
+        return best;
+    }
 }
@@ -0,0 +1,18 @@
+package org.joni.bench;
+
+public class BenchJit extends AbstractBench {
+    public static void main(String[] args) throws Exception {
+        int BASE = 1000000;
+        BenchJit bench = new BenchJit();
+
+        bench.benchInterpretedAndCompiled(".*_p","_petstore_session_id=1b341ffe23b5298676d535fcabd3d0d7; path=/",10,BASE);
+
+        bench.benchInterpretedAndCompiled("^(.*?)=(.*?);","_petstore_session_id=1b341ffe23b5298676d535fcabd3d0d7; path=/",10,BASE);
+
+        bench.benchInterpretedAndCompiled("a.*?[b-z]{2,4}aaaaaa","afdgdsgderaabxxaaaaaaaaaaaaaaaaaaaaaaaa",10,BASE);
+
+        bench.benchInterpretedAndCompiled("^\\w+\\://[^/]+(/.*|$)$","http://example.com/shop/viewCategory.shtml?category=DOGS",10,BASE);
+
+        bench.benchInterpretedAndCompiled("(?:(a|b)+c|(a|b)+d)","abababababababababababababababababd",10,BASE);
+    }
+}
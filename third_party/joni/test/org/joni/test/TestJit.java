@@ -0,0 +1,150 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.joni.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jcodings.Encoding;
+import org.jcodings.specific.ASCIIEncoding;
+import org.jcodings.specific.UTF8Encoding;
+import org.joni.CalloutHandler;
+import org.joni.CalloutResult;
+import org.joni.MatchView;
+import org.joni.Matcher;
+import org.joni.Option;
+import org.joni.Regex;
+import org.joni.Region;
+import org.joni.Syntax;
+import org.junit.Test;
+
+public class TestJit {
+    private static final String[][] CASES = {
+        {"^(.*?)=(.*?);", "_petstore_session_id=1b341ffe23b5298676d535fcabd3d0d7; path=/"},
+        {"a.*?[b-z]{2,4}aaaaaa", "afdgdsgderaabxxaaaaaaaaaaaaaaaaaaaaaaaa"},
+        {"^\\w+\\://[^/]+(/.*|$)$", "http://example.com/shop/viewCategory.shtml?category=DOGS"},
+        {"(?:(a|b)+c|(a|b)+d)", "abababababababababababababababababd"},
+        {"(\\w+)\\s+\\1", "hello world world again"},
+        {"(?<year>\\d{4})-(?<month>\\d\\d)", "released 2026-10 and 2027-01"},
+        {"\\bfoo(?=bar)", "foofoo foobar"},
+        {"(?<!x)y+", "xyyy yy"},
+        {"(?i)café", "un CAFÉ noir"},
+        {"(a(?1)?b)", "xxaaabbbyy"},
+        {"(?>a+)b|a+c", "aaaac"},
+        {"x{3,}?y", "xxxxxy"},
+        {"no+ (match|hit)", "nooo mat noo hi"},
+    };
+
+    @Test
+    public void compiledProgramsMatchLikeTheInterpreter() throws Exception {
+        for (String[] c : CASES) {
+            for (Encoding enc : new Encoding[] {UTF8Encoding.INSTANCE, ASCIIEncoding.INSTANCE}) {
+                byte[] pattern = c[0].getBytes(StandardCharsets.UTF_8);
+                byte[] input = c[1].getBytes(StandardCharsets.UTF_8);
+                Regex interpreted = regex(pattern, enc, -1);
+                Regex compiled = regex(pattern, enc, 0);
+                for (int start = 0; start <= input.length; start++) {
+                    Matcher expected = interpreted.matcher(input);
+                    Matcher actual = compiled.matcher(input);
+                    String what = "/" + c[0] + "/ at " + start + " in " + enc;
+                    assertEquals(what, expected.search(start, input.length, Option.NONE),
+                            actual.search(start, input.length, Option.NONE));
+                    assertRegions(what, expected.getEagerRegion(), actual.getEagerRegion());
+                }
+                assertFalse(interpreted.isJitCompiled(enc.isSingleByte()));
+                assertTrue(compiled.isJitCompiled(enc.isSingleByte()));
+            }
+        }
+    }
+
+    @Test
+    public void compilesOnceTheThresholdIsReached() throws Exception {
+        byte[] pattern = "(\\d+)-(\\d+)".getBytes(StandardCharsets.UTF_8);
+        byte[] input = "id 12-345".getBytes(StandardCharsets.UTF_8);
+        Regex regex = regex(pattern, UTF8Encoding.INSTANCE, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(6, regex.matcher(input).match(3, input.length, Option.NONE));
+            assertFalse(regex.isJitCompiled(false));
+        }
+        Matcher matcher = regex.matcher(input);
+        assertEquals(6, matcher.match(3, input.length, Option.NONE));
+        assertTrue(regex.isJitCompiled(false));
+        assertEquals(5, matcher.getEagerRegion().getEnd(1));
+        assertEquals(9, matcher.getEagerRegion().getEnd(2));
+    }
+
+    @Test
+    public void calloutsSeeTheSameCapturesWhenCompiled() throws Exception {
+        byte[] pattern = "(a)(?{=CALL:7})b".getBytes(StandardCharsets.US_ASCII);
+        byte[] input = "xab".getBytes(StandardCharsets.US_ASCII);
+        Regex regex = new Regex(pattern, 0, pattern.length, Option.NONE, ASCIIEncoding.INSTANCE, Syntax.RUBY);
+        regex.setJitThreshold(0);
+        List<String> events = new ArrayList<>();
+        Matcher matcher = regex.matcher(input);
+        matcher.setCalloutHandler(new CalloutHandler() {
+            @Override
+            public CalloutResult execute(int id, MatchView match) {
+                events.add(id + ":" + match.currentBytePosition() + ":"
+                        + match.captureBegin(1) + "-" + match.captureEnd(1));
+                return CalloutResult.CONTINUE;
+            }
+
+            @Override
+            public void unwind(Object token) {
+            }
+        });
+
+        assertEquals(1, matcher.search(0, input.length, Option.NONE));
+        assertTrue(regex.isJitCompiled(true));
+        assertEquals(Arrays.asList("7:2:1-2"), events);
+    }
+
+    private static Regex regex(byte[] pattern, Encoding enc, int threshold) {
+        Regex regex = new Regex(pattern, 0, pattern.length, Option.NONE, enc, Syntax.PerlNG);
+        regex.setJitThreshold(threshold);
+        return regex;
+    }
+
+    private static void assertRegions(String what, Region expected, Region actual) {
+        if (expected == null || actual == null) {
+            assertEquals(what, expected, actual);
+            return;
+        }
+        assertEquals(what, expected.getNumRegs(), actual.getNumRegs());
+        int[] beg = new int[expected.getNumRegs()], end = new int[expected.getNumRegs()];
+        int[] actualBeg = new int[beg.length], actualEnd = new int[end.length];
+        for (int i = 0; i < beg.length; i++) {
+            beg[i] = expected.getBeg(i);
+            end[i] = expected.getEnd(i);
+            actualBeg[i] = actual.getBeg(i);
+            actualEnd[i] = actual.getEnd(i);
+        }
+        assertArrayEquals(what, beg, actualBeg);
+        assertArrayEquals(what, end, actualEnd);
+    }
+}